@@ -0,0 +1,50 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link BallStore#collideBalls()} on moving balls spread over an area that grows
+ * with their number, so each ball has about as many neighbours at every size and the time per
+ * ball shows how the broad phase scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BallCollisionBenchmark {
+
+    // Area per ball in square pixels, about one ball in every four cells
+    private static final float AREA_PER_BALL = 4 * App.CELL_SIZE * App.CELL_SIZE;
+
+    @Param({"250", "1000", "4000", "16000"})
+    public int ballCount;
+
+    private BallStore store;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        float side = (float) Math.sqrt(ballCount * AREA_PER_BALL);
+        store = new BallStore(ballCount);
+        store.setBounds(side, side);
+        for (int i = 0; i < ballCount; i++) {
+            Ball ball = new Ball(random.nextFloat() * side, random.nextFloat() * side, 0, null);
+            ball.setVelocity(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            store.add(ball);
+        }
+    }
+
+    /**
+     * One physics step of moving the balls and bouncing them off each other.
+     */
+    @Benchmark
+    public void moveAndCollide() {
+        store.updatePositions(1);
+        store.collideBalls();
+    }
+}
@@ -0,0 +1,83 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how loading and stepping scale with the size of generated square boards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+
+    @Param({"18", "64", "256", "1024"})
+    public int boardSize;
+
+    @Param({"128"})
+    public int ballCount;
+
+    private Path layout;
+    private Path compiled;
+    private Simulation simulation;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(Fixtures.SEED);
+        layout = Fixtures.generateLayout(boardSize, random);
+        compiled = Files.createTempFile("layout" + boardSize + "-", LevelCompiler.EXTENSION);
+        LevelCompiler.compile(new Level(layout.toString(), 0, 0, 1, 1, Collections.emptyList()), compiled);
+
+        simulation = Fixtures.loadLayout(layout.toString());
+        Fixtures.addBalls(simulation, ballCount, random);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(compiled);
+    }
+
+    /**
+     * One physics step for every ball, which should not depend on the size of the board.
+     */
+    @Benchmark
+    public void checkSurrounding() {
+        List<Ball> balls = simulation.ballsOnScreen;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            ball.checkSurrounding(simulation.board, 1, simulation);
+            ball.updatePosition(1);
+        }
+        simulation.ballsToBeRemoved.clear();
+    }
+
+    /**
+     * Parsing the text layout.
+     */
+    @Benchmark
+    public Board loadText() {
+        Simulation loaded = new Simulation();
+        loaded.loadLayout(layout.toString());
+        return loaded.board;
+    }
+
+    /**
+     * Mapping and decoding the compiled layout.
+     */
+    @Benchmark
+    public Board loadCompiled() {
+        Simulation loaded = new Simulation();
+        loaded.loadLayout(compiled.toString());
+        return loaded.board;
+    }
+}
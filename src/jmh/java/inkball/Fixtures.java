@@ -0,0 +1,135 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the balls and lines the benchmarks run on. Everything is generated from a fixed seed so
+ * results from different builds can be compared.
+ */
+final class Fixtures {
+
+    static final long SEED = 1113;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a simulation with a layout loaded and no balls or lines.
+     *
+     * @param layout The layout file.
+     * @return The simulation.
+     */
+    static Simulation loadLayout(String layout) {
+        Simulation simulation = new Simulation("config.json");
+        simulation.loadLayout(layout);
+        simulation.ballsOnScreen.clear();
+        simulation.ballsInQueue.clear();
+        simulation.levelFrames = Integer.MAX_VALUE;
+        simulation.spawnFrames = Integer.MAX_VALUE;
+        simulation.levelLoaded = true;
+        simulation.gameState = GameState.RUNNING;
+        return simulation;
+    }
+
+    /**
+     * Adds balls at the centers of randomly chosen empty cells of the board.
+     *
+     * @param simulation The simulation to add the balls to.
+     * @param ballCount  The number of balls.
+     * @param random     The source of randomness.
+     */
+    static void addBalls(Simulation simulation, int ballCount, Random random) {
+        List<int[]> emptyCells = new ArrayList<>();
+        for (int row = 0; row < simulation.getRows(); row++) {
+            for (int column = 0; column < simulation.getColumns(); column++) {
+                if (simulation.board.get(row, column) == null) {
+                    emptyCells.add(new int[] {row, column});
+                }
+            }
+        }
+
+        for (int i = 0; i < ballCount; i++) {
+            int[] cell = emptyCells.get(random.nextInt(emptyCells.size()));
+            float x = cell[1] * App.CELL_SIZE + App.CELL_SIZE / 2f;
+            float y = cell[0] * App.CELL_SIZE + App.CELL_SIZE / 2f;
+            simulation.ballsOnScreen.add(new Ball(x, y, random.nextInt(5), null));
+        }
+    }
+
+    /**
+     * Writes a square layout of any size to a temporary file: a border of grey walls, one
+     * spawner, and random colored walls and holes scattered over the inside.
+     *
+     * @param size   The number of rows and columns.
+     * @param random The source of randomness.
+     * @return The layout file, deleted when the JVM exits.
+     * @throws IOException If the file cannot be written.
+     */
+    static Path generateLayout(int size, Random random) throws IOException {
+        char[][] cells = new char[size][size];
+        for (char[] row : cells) {
+            Arrays.fill(row, ' ');
+        }
+        for (int i = 0; i < size; i++) {
+            cells[0][i] = 'X';
+            cells[size - 1][i] = 'X';
+            cells[i][0] = 'X';
+            cells[i][size - 1] = 'X';
+        }
+        cells[1][1] = 'S';
+        for (int row = 2; row < size - 3; row += 2) {
+            for (int column = 2; column < size - 3; column += 2) {
+                int roll = random.nextInt(100);
+                if (roll < 10) {
+                    cells[row][column] = (char) ('1' + random.nextInt(4));
+                } else if (roll < 12) {
+                    cells[row][column] = 'H';
+                    cells[row][column + 1] = (char) ('0' + random.nextInt(5));
+                }
+            }
+        }
+
+        StringBuilder layout = new StringBuilder("size " + size + " " + size + "\n");
+        for (char[] row : cells) {
+            layout.append(row).append('\n');
+        }
+        Path file = Files.createTempFile("layout" + size + "-", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, layout.toString().getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    /**
+     * Creates random lines as short random walks across the board.
+     *
+     * @param lineCount    The number of lines.
+     * @param segmentCount The number of segments in each line.
+     * @param random       The source of randomness.
+     * @return The points of each line.
+     */
+    static List<List<PVector>> randomLines(int lineCount, int segmentCount, Random random) {
+        List<List<PVector>> lines = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            List<PVector> points = new ArrayList<>();
+            float x = random.nextFloat() * App.WIDTH;
+            float y = random.nextFloat() * App.WIDTH;
+            points.add(new PVector(x, y));
+            for (int j = 0; j < segmentCount; j++) {
+                x = Math.max(0, Math.min(App.WIDTH, x + random.nextFloat() * 20 - 10));
+                y = Math.max(0, Math.min(App.WIDTH, y + random.nextFloat() * 20 - 10));
+                points.add(new PVector(x, y));
+            }
+            lines.add(points);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,131 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pulling balls towards the holes they are next to, comparing {@link Hole#attract},
+ * which works the pull out from the distance, with reading it from a table of the pull sampled
+ * around a hole. Some of the balls are out of reach. The balls are put back where they started,
+ * at rest, every step, so they stay around their holes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoleAttractionBenchmark {
+
+    @Param({"1024"})
+    public int ballCount;
+
+    // Side in pixels of the squares the table samples the pull in, and their number a side
+    private static final int SAMPLE_SIZE = 2;
+    private static final int SAMPLES = 2 * Hole.ATTRACTION_RADIUS / SAMPLE_SIZE;
+
+    private Simulation simulation;
+    // Pull at the middle of each square, x then y, and the size a ball is drawn at, -1 out of reach
+    private final float[] pull = new float[2 * SAMPLES * SAMPLES];
+    private final int[] sizes = new int[SAMPLES * SAMPLES];
+    private Hole[] holes;
+    private float[] startX;
+    private float[] startY;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        simulation = Fixtures.loadLayout("level2.txt");
+        List<Hole> boardHoles = new ArrayList<>();
+        for (int row = 0; row < simulation.getRows(); row++) {
+            for (int column = 0; column < simulation.getColumns(); column++) {
+                Tile tile = simulation.board.get(row, column);
+                if (tile instanceof Hole && !boardHoles.contains(tile)) {
+                    boardHoles.add((Hole) tile);
+                }
+            }
+        }
+
+        for (int row = 0; row < SAMPLES; row++) {
+            float offsetY = Hole.ATTRACTION_RADIUS - (row + 0.5f) * SAMPLE_SIZE;
+            for (int column = 0; column < SAMPLES; column++) {
+                float offsetX = Hole.ATTRACTION_RADIUS - (column + 0.5f) * SAMPLE_SIZE;
+                float distance = (float) Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+                int sample = row * SAMPLES + column;
+                float strength = (float) (Hole.ATTRACTION_RADIUS / distance * 0.01);
+                pull[2 * sample] = offsetX * strength;
+                pull[2 * sample + 1] = offsetY * strength;
+                sizes[sample] = distance > Hole.ATTRACTION_RADIUS ? -1 : (int) (distance / Hole.ATTRACTION_RADIUS * 2 * Ball.RADIUS);
+            }
+        }
+
+        // Scatter the balls around the holes, outside the capture tolerance
+        Random random = new Random(Fixtures.SEED);
+        holes = new Hole[ballCount];
+        startX = new float[ballCount];
+        startY = new float[ballCount];
+        for (int i = 0; i < ballCount; i++) {
+            holes[i] = boardHoles.get(random.nextInt(boardHoles.size()));
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double distance = Ball.RADIUS * 1.5 + random.nextDouble() * (Hole.ATTRACTION_RADIUS * 2 - Ball.RADIUS * 1.5);
+            startX[i] = holes[i].getCenterXPosition() + (float) (Math.cos(angle) * distance);
+            startY[i] = holes[i].getCenterYPosition() + (float) (Math.sin(angle) * distance);
+            simulation.ballsOnScreen.add(new Ball(startX[i], startY[i], 0, null));
+        }
+    }
+
+    /**
+     * Puts a ball back where it started, at rest.
+     *
+     * @param balls The balls.
+     * @param slot  The slot of the ball.
+     */
+    private void reset(BallStore balls, int slot) {
+        balls.x[slot] = startX[slot];
+        balls.y[slot] = startY[slot];
+        balls.velocityX[slot] = 0;
+        balls.velocityY[slot] = 0;
+    }
+
+    /**
+     * The current attraction.
+     */
+    @Benchmark
+    public int attract() {
+        BallStore balls = simulation.ballsOnScreen;
+        int total = 0;
+        for (int i = 0; i < balls.size(); i++) {
+            reset(balls, i);
+            total += holes[i].attract(balls.get(i), 1, simulation);
+        }
+        return total;
+    }
+
+    /**
+     * The pull read from the table at the square the ball is in.
+     */
+    @Benchmark
+    public int sampled() {
+        BallStore balls = simulation.ballsOnScreen;
+        int total = 0;
+        for (int i = 0; i < balls.size(); i++) {
+            reset(balls, i);
+            Ball ball = balls.get(i);
+            Hole hole = holes[i];
+            float column = (ball.getCenterXPosition() - hole.getCenterXPosition() + Hole.ATTRACTION_RADIUS) / SAMPLE_SIZE;
+            float row = (ball.getCenterYPosition() - hole.getCenterYPosition() + Hole.ATTRACTION_RADIUS) / SAMPLE_SIZE;
+            int sample = column < 0 || column >= SAMPLES || row < 0 || row >= SAMPLES ? -1 : (int) row * SAMPLES + (int) column;
+            if (sample < 0 || sizes[sample] < 0) {
+                total--;
+                continue;
+            }
+            ball.setVelocity(ball.getVelocityX() + pull[2 * sample], ball.getVelocityY() + pull[2 * sample + 1]);
+            hole.checkCapture(ball, simulation);
+            total += sizes[sample];
+        }
+        return total;
+    }
+}
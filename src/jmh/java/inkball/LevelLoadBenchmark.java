@@ -0,0 +1,57 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading a layout from its text file and from its compiled binary copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelLoadBenchmark {
+
+    @Param({"level1.txt", "level2.txt", "level3.txt", "extension.txt"})
+    public String layout;
+
+    private Simulation simulation;
+    private Path compiled;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        simulation = new Simulation();
+        compiled = Files.createTempFile("benchmark", LevelCompiler.EXTENSION);
+        LevelCompiler.compile(new Level(layout, 0, 0, 1, 1, Collections.emptyList()), compiled);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(compiled);
+    }
+
+    /**
+     * Parsing the text layout.
+     */
+    @Benchmark
+    public Board text() {
+        simulation.loadTextLayout(layout);
+        return simulation.board;
+    }
+
+    /**
+     * Mapping and decoding the compiled layout.
+     */
+    @Benchmark
+    public Board compiled() {
+        simulation.loadLayout(compiled.toString());
+        return simulation.board;
+    }
+}
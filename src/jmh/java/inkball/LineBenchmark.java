@@ -0,0 +1,151 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import processing.awt.PGraphicsJava2D;
+import processing.core.PGraphics;
+import processing.core.PVector;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks bouncing balls off drawn lines and drawing the line layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineBenchmark {
+
+    @Param({"level1.txt", "level2.txt", "level3.txt", "extension.txt"})
+    public String layout;
+
+    @Param({"16", "128"})
+    public int ballCount;
+
+    @Param({"8", "64"})
+    public int lineCount;
+
+    @Param({"8", "64"})
+    public int segmentCount;
+
+    private Simulation simulation;
+    private List<List<PVector>> linePoints;
+    private PVector[] segmentPoints;
+    private App app;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        simulation = Fixtures.loadLayout(layout);
+        Fixtures.addBalls(simulation, ballCount, random);
+        linePoints = Fixtures.randomLines(lineCount, segmentCount, random);
+        for (List<PVector> points : linePoints) {
+            simulation.addLine(points);
+        }
+
+        segmentPoints = new PVector[lineCount * (segmentCount + 1)];
+        int i = 0;
+        for (List<PVector> points : linePoints) {
+            for (PVector point : points) {
+                segmentPoints[i++] = point;
+            }
+        }
+
+        app = new App();
+        app.simulation = simulation;
+        // createGraphics needs a running sketch and a screen, so build the offscreen layer by hand
+        PGraphics lineLayer = new PGraphicsJava2D();
+        lineLayer.setParent(app);
+        lineLayer.setPrimary(false);
+        lineLayer.setSize(App.WIDTH, App.HEIGHT - App.TOP_BAR_HEIGHT);
+        lineLayer.image = new BufferedImage(lineLayer.width, lineLayer.height, BufferedImage.TYPE_INT_ARGB);
+        app.lineLayer = lineLayer;
+        app.drawLineLayer();
+    }
+
+    /**
+     * Puts back any lines the balls removed, so every invocation sees the same lines.
+     */
+    @Setup(org.openjdk.jmh.annotations.Level.Invocation)
+    public void restoreLines() {
+        if (simulation.lines.size() != lineCount) {
+            simulation.clearLines();
+            for (List<PVector> points : linePoints) {
+                simulation.addLine(points);
+            }
+            app.drawLineLayer();
+        }
+    }
+
+    /**
+     * The drawn line pass of a simulation step.
+     */
+    @Benchmark
+    public void updateLines() {
+        simulation.updateLines();
+    }
+
+    /**
+     * Distance from every ball to every segment, without the line grid.
+     */
+    @Benchmark
+    public void distPointToSegment(Blackhole blackhole) {
+        List<Ball> balls = simulation.ballsOnScreen;
+        for (int i = 0; i < balls.size(); i++) {
+            PVector position = balls.get(i).getCenterPosition();
+            for (int j = 0; j + 1 < segmentPoints.length; j++) {
+                if ((j + 1) % (segmentCount + 1) != 0) {
+                    blackhole.consume(App.distPointToSegment(position, segmentPoints[j], segmentPoints[j + 1]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bringing the line layer up to date on a frame where no line changed.
+     */
+    @Benchmark
+    public PGraphics drawLineLayer() {
+        app.drawLineLayer();
+        return app.lineLayer;
+    }
+
+    /**
+     * Bringing the line layer up to date after one line was removed.
+     */
+    @Benchmark
+    public PGraphics eraseLine() {
+        simulation.removeLine(simulation.lines.get(0));
+        app.drawLineLayer();
+        return app.lineLayer;
+    }
+
+    /**
+     * Clearing the line layer and drawing every line again, as it was done every frame before
+     * the layer was kept up to date incrementally.
+     */
+    @Benchmark
+    public PGraphics redrawAllLines() {
+        PGraphics lineLayer = app.lineLayer;
+        lineLayer.beginDraw();
+        lineLayer.clear();
+        lineLayer.stroke(0);
+        lineLayer.strokeWeight(App.LINE_WEIGHT);
+        for (Line line : simulation.lines) {
+            for (int i = 1; i < line.size(); i++) {
+                PVector start = line.getPoint(i - 1);
+                PVector end = line.getPoint(i);
+                lineLayer.line(start.x, start.y, end.x, end.y);
+            }
+        }
+        lineLayer.endDraw();
+        return lineLayer;
+    }
+}
@@ -0,0 +1,135 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding and resolving the tiles around each ball, comparing the fixed stencil in
+ * {@link Ball#checkSurrounding} with the distance-sorted TreeSet it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighbourhoodBenchmark {
+
+    @Param({"level1.txt", "level2.txt", "level3.txt", "extension.txt"})
+    public String layout;
+
+    @Param({"16", "128"})
+    public int ballCount;
+
+    private Simulation simulation;
+    // The board as it was stored for the TreeSet search, with a wall object per cell
+    private Tile[][] tiles;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        simulation = Fixtures.loadLayout(layout);
+        Fixtures.addBalls(simulation, ballCount, new Random(Fixtures.SEED));
+
+        tiles = new Tile[simulation.getRows()][simulation.getColumns()];
+        for (int row = 0; row < simulation.getRows(); row++) {
+            for (int column = 0; column < simulation.getColumns(); column++) {
+                Tile tile = simulation.board.get(row, column);
+                float centerX = column * App.CELL_SIZE + Tile.HALF_SIZE;
+                float centerY = row * App.CELL_SIZE + Tile.HALF_SIZE;
+                if (tile instanceof ColorRestrictingWall) {
+                    ColorRestrictingWall wall = (ColorRestrictingWall) tile;
+                    tile = new ColorRestrictingWall(centerX, centerY, wall.getColor(), wall.isVertical());
+                } else if (tile instanceof Wall) {
+                    tile = new Wall(centerX, centerY, ((Wall) tile).getColor());
+                }
+                tiles[row][column] = tile;
+            }
+        }
+    }
+
+    /**
+     * The current fixed-size stencil.
+     */
+    @Benchmark
+    public void stencil() {
+        List<Ball> balls = simulation.ballsOnScreen;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            ball.checkSurrounding(simulation.board, 1, simulation);
+            ball.updatePosition(1);
+        }
+        simulation.ballsToBeRemoved.clear();
+    }
+
+    /**
+     * The previous TreeSet neighbourhood, rebuilt for every ball every step.
+     */
+    @Benchmark
+    public void treeSet() {
+        List<Ball> balls = simulation.ballsOnScreen;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            checkSurroundingWithTreeSet(ball, tiles, simulation);
+            ball.updatePosition(1);
+        }
+        simulation.ballsToBeRemoved.clear();
+    }
+
+    /**
+     * The neighbourhood search as it was before the stencil: tiles go into a set ordered by
+     * distance, which drops tiles at the same distance.
+     *
+     * @param ball    The ball.
+     * @param board   The game board.
+     * @param context The game the ball is in.
+     */
+    private static void checkSurroundingWithTreeSet(Ball ball, Tile[][] board, GameContext context) {
+        Set<Tile> surroundingTiles = new TreeSet<>((tile1, tile2) -> Float.compare(ball.distanceTo(tile1), ball.distanceTo(tile2)));
+        int row = (int) (ball.getCenterYPosition() / App.CELL_SIZE);
+        int column = (int) (ball.getCenterXPosition() / App.CELL_SIZE);
+
+        if (row < 0 || row > 17 || column < 0 || column > 17) {
+            return;
+        }
+
+        if (row > 0 && board[row - 1][column] != null) {
+            surroundingTiles.add(board[row - 1][column]);
+        }
+        if (row < App.BOARD_SIZE - 1 && board[row + 1][column] != null) {
+            surroundingTiles.add(board[row + 1][column]);
+        }
+        if (column > 0 && board[row][column - 1] != null) {
+            surroundingTiles.add(board[row][column - 1]);
+        }
+        if (column < App.BOARD_SIZE - 1 && board[row][column + 1] != null) {
+            surroundingTiles.add(board[row][column + 1]);
+        }
+        if (board[row][column] != null) {
+            surroundingTiles.add(board[row][column]);
+        }
+
+        for (Tile tile : surroundingTiles) {
+            if (tile instanceof Wall) {
+                Wall wall = (Wall) tile;
+                int wallRow = (int) (wall.getCenterYPosition() / App.CELL_SIZE);
+                int wallColumn = (int) (wall.getCenterXPosition() / App.CELL_SIZE);
+                if (wall.collidesWithBall(ball, wallRow, wallColumn)) {
+                    wall.handleCollision(ball, wallRow, wallColumn);
+                }
+            } else if (tile instanceof Hole) {
+                Hole hole = (Hole) tile;
+                float distance = ball.distanceTo(hole);
+                if (distance <= Hole.ATTRACTION_RADIUS) {
+                    hole.handleAttraction(ball, distance, 1, context);
+                }
+            }
+        }
+
+        ball.colliding = false;
+    }
+}
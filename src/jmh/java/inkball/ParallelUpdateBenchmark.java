@@ -0,0 +1,55 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Simulation#updateBalls()} with the balls updated one after another and in
+ * parallel, on a generated board with its holes taken out so no balls are captured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelUpdateBenchmark {
+
+    @Param({"256", "2048", "16384"})
+    public int ballCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Simulation simulation;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(Fixtures.SEED);
+        Path layout = Fixtures.generateLayout(128, random);
+        simulation = Fixtures.loadLayout(layout.toString());
+        for (int row = 0; row < simulation.getRows(); row++) {
+            for (int column = 0; column < simulation.getColumns(); column++) {
+                if (simulation.board.get(row, column) instanceof Hole) {
+                    simulation.board.set(row, column, null);
+                }
+            }
+        }
+        // The cells changed in place, so the distance field is rebuilt for the board without holes
+        simulation.distanceField = null;
+        Fixtures.addBalls(simulation, ballCount, random);
+        simulation.parallelBalls = parallel ? 0 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * One physics step for every ball.
+     */
+    @Benchmark
+    public void updateBalls() {
+        simulation.updateBalls();
+    }
+}
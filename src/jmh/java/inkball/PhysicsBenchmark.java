@@ -0,0 +1,89 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks moving balls around the shipped layouts and bouncing them off walls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+
+    @Param({"level1.txt", "level2.txt", "level3.txt", "extension.txt"})
+    public String layout;
+
+    @Param({"1", "16", "128"})
+    public int ballCount;
+
+    private Simulation simulation;
+    private List<Wall> walls;
+    // Cell of each wall, as the board's walls are shared by their cells
+    private List<int[]> wallCells;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        simulation = Fixtures.loadLayout(layout);
+        Fixtures.addBalls(simulation, ballCount, new Random(Fixtures.SEED));
+
+        walls = new ArrayList<>();
+        wallCells = new ArrayList<>();
+        for (int row = 0; row < simulation.getRows(); row++) {
+            for (int column = 0; column < simulation.getColumns(); column++) {
+                Tile tile = simulation.board.get(row, column);
+                if (tile instanceof Wall) {
+                    walls.add((Wall) tile);
+                    wallCells.add(new int[] { row, column });
+                }
+            }
+        }
+    }
+
+    /**
+     * One physics step for every ball: neighbouring tiles, walls, holes and movement.
+     */
+    @Benchmark
+    public void checkSurrounding() {
+        List<Ball> balls = simulation.ballsOnScreen;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            ball.checkSurrounding(simulation.board, 1, simulation);
+            ball.updatePosition(1);
+        }
+        // Captured balls keep moving here, so do not let the removal list grow
+        simulation.ballsToBeRemoved.clear();
+    }
+
+    /**
+     * Every ball against every wall of the layout, resolving the collisions found.
+     */
+    @Benchmark
+    public void wallCollisions(Blackhole blackhole) {
+        List<Ball> balls = simulation.ballsOnScreen;
+        int collisions = 0;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            ball.colliding = false;
+            for (int j = 0; j < walls.size(); j++) {
+                Wall wall = walls.get(j);
+                int[] cell = wallCells.get(j);
+                if (wall.collidesWithBall(ball, cell[0], cell[1])) {
+                    wall.handleCollision(ball, cell[0], cell[1]);
+                    collisions++;
+                }
+            }
+            ball.updatePosition(1);
+        }
+        blackhole.consume(collisions);
+    }
+
+}
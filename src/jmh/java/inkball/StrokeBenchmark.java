@@ -0,0 +1,113 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the drawn line pass on strokes drawn the way a mouse draws them, a point every few
+ * pixels along gentle curves, with the strokes simplified when they are finished and without.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrokeBenchmark {
+
+    // Pixels the mouse moves between events, and how far the hand wobbles off the curve
+    private static final float STEP = 3;
+    private static final float WOBBLE = 0.4f;
+
+    @Param({"0", "1.5"})
+    public float tolerance;
+
+    @Param({"128"})
+    public int ballCount;
+
+    @Param({"16"})
+    public int strokeCount;
+
+    @Param({"200"})
+    public int strokeLength;
+
+    private Simulation simulation;
+    private List<float[]> strokes;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        simulation = Fixtures.loadLayout("level2.txt");
+        simulation.lineTolerance = tolerance;
+        Fixtures.addBalls(simulation, ballCount, random);
+
+        strokes = new ArrayList<>();
+        for (int i = 0; i < strokeCount; i++) {
+            float[] stroke = new float[2 * strokeLength];
+            float x = random.nextFloat() * App.WIDTH;
+            float y = random.nextFloat() * App.WIDTH;
+            double heading = random.nextDouble() * 2 * Math.PI;
+            double turn = 0;
+            for (int j = 0; j < strokeLength; j++) {
+                stroke[2 * j] = x + (random.nextFloat() * 2 - 1) * WOBBLE;
+                stroke[2 * j + 1] = y + (random.nextFloat() * 2 - 1) * WOBBLE;
+                turn = Math.max(-0.05, Math.min(0.05, turn + random.nextGaussian() * 0.01));
+                heading += turn;
+                x = Math.max(0, Math.min(App.WIDTH, x + (float) (Math.cos(heading) * STEP)));
+                y = Math.max(0, Math.min(App.WIDTH, y + (float) (Math.sin(heading) * STEP)));
+            }
+            strokes.add(stroke);
+        }
+        drawStrokes();
+    }
+
+    /**
+     * Draws every stroke point by point, as the mouse would.
+     */
+    private void drawStrokes() {
+        for (float[] stroke : strokes) {
+            for (int j = 0; j < stroke.length; j += 2) {
+                simulation.addLinePoint(stroke[j], stroke[j + 1]);
+            }
+            simulation.finishLine();
+        }
+    }
+
+    /**
+     * Puts back any lines the balls removed, so every invocation sees the same lines.
+     */
+    @Setup(org.openjdk.jmh.annotations.Level.Invocation)
+    public void restoreLines() {
+        if (simulation.lines.size() != strokeCount) {
+            simulation.clearLines();
+            drawStrokes();
+        }
+    }
+
+    /**
+     * The drawn line pass of a simulation step.
+     */
+    @Benchmark
+    public void updateLines() {
+        simulation.updateLines();
+    }
+
+    /**
+     * Finishing one stroke, simplifying it if the tolerance is above 0.
+     */
+    @Benchmark
+    public Line finishLine() {
+        float[] stroke = strokes.get(0);
+        for (int j = 0; j < stroke.length; j += 2) {
+            simulation.addLinePoint(stroke[j], stroke[j + 1]);
+        }
+        simulation.finishLine();
+        Line line = simulation.lines.get(simulation.lines.size() - 1);
+        simulation.removeLine(line);
+        return line;
+    }
+}
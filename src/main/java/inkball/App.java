@@ -4,15 +4,11 @@ import processing.core.PApplet;
 import processing.core.PGraphics;
 import processing.core.PImage;
 import processing.core.PVector;
-import processing.data.JSONArray;
-import processing.data.JSONObject;
 import processing.event.KeyEvent;
 import processing.event.MouseEvent;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -28,41 +24,27 @@ public class App extends PApplet {
     public static final int FPS = 30;
     public static final int WIDTH = CELL_SIZE * BOARD_SIZE;
     public static final int HEIGHT = WIDTH + TOP_BAR_HEIGHT;
+    public static final int LINE_WEIGHT = 10;
+    // Most changed rectangles tracked per frame before the whole board is redrawn
+    public static final int MAX_DIRTY_REGIONS = 64;
+    // Most chunks of a chunked board kept drawn at once
+    public static final int MAX_CHUNK_TEXTURES = 16;
 
     // Game configuration
     public String configPath;
+    // File to record the player's input to, given with --record, or null
+    public static String recordPath;
 
-    // Game state variables
-    public GameState gameState;
+    // Headless game state that this window renders
+    public Simulation simulation;
+
+    // Input state
     public boolean ctrlPressed;
-    public boolean drawing;
-    public boolean levelLoaded;
-    public boolean draw;
-
-    // Game data
-    public int currentLevel;
-    public int currentScore;
-    public int previousScore;
-    public int levelTime;
-    public int levelFrames;
-    public float spawnTime;
-    public int spawnFrames;
-    public int spawnInterval;
-    public float scoreIncreaseModifier;
-    public float scoreDecreaseModifier;
-
-    // Game objects
-    public String layout;
-    public List<Level> levels;
-    public Queue<String> ballsInQueue;
-    public List<Ball> ballsOnScreen;
-    public List<Spawner> spawners;
-    public List<Ball> ballsToBeRemoved;
-    public List<List<PVector>> lines;
-    public List<PVector> currentLine;
 
     // Images
     public List<PImage> ballImages;
+    // Ball images per color, indexed by drawn size from 0 to 2 * Ball.RADIUS
+    public List<PImage[]> scaledBallImages;
     public List<PImage> wallImages;
     public List<PImage> holeImages;
     public PImage normalTileImage;
@@ -78,27 +60,33 @@ public class App extends PApplet {
     public PGraphics conveyorBeltLayer;
     public PGraphics lineLayer;
 
-    // Board
-    public Tile[][] board;
-
-    // Static maps for score calculations
-    public static Map<String, Integer> scoreIncreaseMap;
-    public static Map<String, Integer> scoreDecreaseMap;
-
-    // Random number generator
-    public static final Random RANDOM = new Random();
-
-    /**
-     * Enum representing the game state.
-     */
-    public enum GameState {
-        RUNNING,
-        PAUSED,
-        LEVEL_COMPLETE,
-        GAME_ENDED,
-        LEVEL_COMPLETION_ANIMATION,
-        LEVEL_TIME_UP
-    }
+    // Top left corner, in board pixels, of the part of the board shown in the window
+    public int viewX;
+    public int viewY;
+
+    // Board and view the board layer was last rendered from
+    private Board renderedBoard;
+    private int renderedViewX;
+    private int renderedViewY;
+    // Drawn chunks of a chunked board by chunk index, least recently used first
+    private final LinkedHashMap<Integer, PGraphics> chunkTextures = new LinkedHashMap<>(MAX_CHUNK_TEXTURES, 0.75f, true);
+
+    // Lines on the line layer, with the number of points of each that have been drawn
+    private final Map<Line, Integer> renderedLines = new IdentityHashMap<>();
+    private final Set<Line> visibleLines = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Line> erasedLines = new ArrayList<>();
+    // Parts of the line layer to erase and redraw, and parts of the window to composite again
+    private final DirtyRegions lineDamage = new DirtyRegions(WIDTH, WIDTH, MAX_DIRTY_REGIONS);
+    private int lineViewX;
+    private int lineViewY;
+    public final DirtyRegions boardDamage = new DirtyRegions(WIDTH, WIDTH, MAX_DIRTY_REGIONS);
+    // Boxes the balls were drawn in on the previous frame, as left, top, size
+    private float[] drawnBallBoxes = new float[0];
+    private int drawnBallCount;
+    private boolean completionDrawn;
+
+    // Time of the previous frame, for the fixed-timestep loop
+    private int lastFrameMillis;
 
     /**
      * Constructor for the App class.
@@ -106,8 +94,7 @@ public class App extends PApplet {
     public App() {
         instance = this;
         this.configPath = "config.json";
-        this.currentLevel = 1;
-        this.gameState = GameState.RUNNING;
+        this.simulation = new Simulation();
     }
 
     public static App getInstance() { return instance; }
@@ -126,11 +113,34 @@ public class App extends PApplet {
      */
     @Override
     public void setup() {
-        frameRate(FPS);
-        loadConfig(configPath);
+        simulation.loadConfig(configPath);
+        if (recordPath != null) {
+            try {
+                simulation.recorder = new InputRecorder(Paths.get(recordPath), configPath, simulation);
+            } catch (IOException e) {
+                System.err.println("Could not record input to " + recordPath + ": " + e.getMessage());
+            }
+        }
+        frameRate(simulation.renderHz);
         loadImages();
         initializeLayers();
-        initializeGameVariables();
+        lastFrameMillis = millis();
+    }
+
+    /**
+     * Ends the input recording, if there is one, when the window closes.
+     */
+    @Override
+    public void dispose() {
+        if (simulation.recorder != null) {
+            try {
+                simulation.recorder.close();
+            } catch (IOException e) {
+                System.err.println("Could not finish input recording: " + e.getMessage());
+            }
+            simulation.recorder = null;
+        }
+        super.dispose();
     }
 
     /**
@@ -143,19 +153,8 @@ public class App extends PApplet {
         topBarLayer = createGraphics(WIDTH, TOP_BAR_HEIGHT);
         conveyorBeltLayer = createGraphics(162, 40);
         lineLayer = createGraphics(WIDTH, WIDTH);
-    }
-
-    /**
-     * Initializes game variables.
-     */
-    public void initializeGameVariables() {
-        ctrlPressed = false;
-        drawing = false;
-        draw = true;
-        ballsOnScreen = new ArrayList<>();
-        ballsToBeRemoved = new ArrayList<>();
-        lines = new ArrayList<>();
-        currentLine = new ArrayList<>();
+        renderedLines.clear();
+        boardDamage.markAll();
     }
 
     /**
@@ -180,72 +179,26 @@ public class App extends PApplet {
 
         normalTileImage = loadImage("src/main/resources/inkball/tile.png");
         spawnerImage = loadImage("src/main/resources/inkball/entrypoint.png");
-    }
-
-    /**
-     * Loads game configuration from a JSON file.
-     *
-     * @param configPath Path to the JSON configuration file.
-     */
-    public void loadConfig(String configPath) {
-        JSONObject config = loadJSONObject(configPath);
-
-        // Load levels
-        levels = new ArrayList<>();
-        JSONArray jsonLevels = config.getJSONArray("levels");
-        for (int i = 0; i < jsonLevels.size(); i++) {
-            JSONObject jsonLevel = jsonLevels.getJSONObject(i);
-            String layout = jsonLevel.getString("layout");
-            int time = jsonLevel.getInt("time");
-            int spawnInterval = jsonLevel.getInt("spawn_interval");
-            float scoreIncreaseModifier = jsonLevel.getFloat("score_increase_from_hole_capture_modifier");
-            float scoreDecreaseModifier = jsonLevel.getFloat("score_decrease_from_wrong_hole_modifier");
-            List<String> ballsList = jsonArrayToList(jsonLevel.getJSONArray("balls"));
-
-            Level level = new Level(layout, time, spawnInterval, scoreIncreaseModifier, scoreDecreaseModifier, ballsList);
-            levels.add(level);
-
-            // System.out.println("ScoreIncreaseModifier: " + scoreIncreaseModifier);
-            // System.out.println("ScoreDecreaseModifier: " + scoreDecreaseModifier);
-        }
 
-        // Load score mappings
-        scoreIncreaseMap = jsonToMap(config.getJSONObject("score_increase_from_hole_capture"));
-        scoreDecreaseMap = jsonToMap(config.getJSONObject("score_decrease_from_wrong_hole"));
-
-        // System.out.println("ScoreIncreaseMap: " + scoreIncreaseMap);
-        // System.out.println("ScoreDecreaseMap: " + scoreDecreaseMap);
-    }
-
-    /**
-     * Converts a JSONArray to a List of Strings.
-     *
-     * @param jsonArray JSONArray to convert.
-     * @return List of Strings.
-     */
-    public List<String> jsonArrayToList(JSONArray jsonArray) {
-        List<String> list = new ArrayList<>();
-        for (int i = 0; i < jsonArray.size(); i++) {
-            list.add(jsonArray.getString(i));
-        }
-        return list;
+        loadScaledBallImages();
     }
 
     /**
-     * Converts a JSONObject to a Map of String to Integer.
-     *
-     * @param jsonObject JSONObject to convert.
-     * @return Map of String to Integer.
+     * Resizes every ball image to every size a ball can shrink to while being pulled into a
+     * hole, so drawing a shrinking ball is a lookup instead of a copy and resize each frame.
      */
-    public static Map<String, Integer> jsonToMap(JSONObject jsonObject) {
-        Map<String, Integer> map = new HashMap<>();
-        @SuppressWarnings("unchecked")
-        Set<String> keys = jsonObject.keys();
-        for (String key : keys) {
-            Integer value = jsonObject.getInt(key);
-            map.put(key, value);
+    public void loadScaledBallImages() {
+        scaledBallImages = new ArrayList<>();
+        for (PImage ballImage : ballImages) {
+            PImage[] sizes = new PImage[2 * Ball.RADIUS + 1];
+            // Size 0 stays null: the ball is not drawn at all
+            for (int size = 1; size < 2 * Ball.RADIUS; size++) {
+                sizes[size] = ballImage.copy();
+                sizes[size].resize(size, size);
+            }
+            sizes[2 * Ball.RADIUS] = ballImage;
+            scaledBallImages.add(sizes);
         }
-        return map;
     }
 
     /**
@@ -255,12 +208,24 @@ public class App extends PApplet {
      */
     @Override
     public void keyPressed(KeyEvent event) {
-        if (gameState != GameState.LEVEL_COMPLETION_ANIMATION) {
+        // Arrow keys scroll boards larger than the window
+        if (key == CODED) {
+            if (keyCode == LEFT) {
+                scrollView(-CELL_SIZE, 0);
+            } else if (keyCode == RIGHT) {
+                scrollView(CELL_SIZE, 0);
+            } else if (keyCode == UP) {
+                scrollView(0, -CELL_SIZE);
+            } else if (keyCode == DOWN) {
+                scrollView(0, CELL_SIZE);
+            }
+        }
+        if (simulation.gameState != GameState.LEVEL_COMPLETION_ANIMATION) {
             if (key == ' ') {
-                togglePause();
+                simulation.togglePause();
             }
             if (key == 'r') {
-                restartLevel();
+                simulation.restartLevel();
             }
             if (keyCode == CONTROL) {
                 ctrlPressed = true;
@@ -269,30 +234,14 @@ public class App extends PApplet {
     }
 
     /**
-     * Toggles the pause state of the game.
-     */
-    public void togglePause() {
-        if (gameState == GameState.RUNNING) {
-            gameState = GameState.PAUSED;
-        } else if (gameState == GameState.PAUSED) {
-            gameState = GameState.RUNNING;
-        }
-    }
-
-    /**
-     * Restarts the current level or the game.
+     * Moves the part of the board shown in the window, keeping it on the board.
+     *
+     * @param dx The distance to move right, in pixels.
+     * @param dy The distance to move down, in pixels.
      */
-    public void restartLevel() {
-        if (gameState == GameState.GAME_ENDED) {
-            currentLevel = 1;
-            currentScore = 0;
-            previousScore = 0;
-        }
-        lines.clear();
-        levelLoaded = false;
-        gameState = GameState.RUNNING;
-        levelTime = levels.get(currentLevel - 1).getTime();
-        currentScore = previousScore;
+    public void scrollView(int dx, int dy) {
+        viewX = Math.max(0, Math.min(simulation.getBoardWidth() - WIDTH, viewX + dx));
+        viewY = Math.max(0, Math.min(simulation.getBoardHeight() - WIDTH, viewY + dy));
     }
 
     /**
@@ -321,36 +270,7 @@ public class App extends PApplet {
      * Removes a line if the mouse position collides with the line.
      */
     public void removeLineAtMouse() {
-        float tolerance = 5; // Tolerance distance for removing the line
-
-        // Check each line to see if the mouse is near any segment
-        Iterator<List<PVector>> iterator = lines.iterator();
-        while (iterator.hasNext()) {
-            List<PVector> line = iterator.next();
-            for (int i = 1; i < line.size(); i++) {
-                PVector start = line.get(i - 1);
-                PVector end = line.get(i);
-
-                if (isMouseNearLine(start, end, tolerance)) {
-                    iterator.remove();
-                    return;
-                }
-            }
-        }
-    }
-
-    /**
-     * Checks if the mouse position is near a line segment.
-     *
-     * @param start     Start point of the line segment.
-     * @param end       End point of the line segment.
-     * @param tolerance Tolerance distance.
-     * @return True if near, false otherwise.
-     */
-    public boolean isMouseNearLine(PVector start, PVector end, float tolerance) {
-        PVector mousePos = new PVector(mouseX, mouseY - TOP_BAR_HEIGHT);
-        float distance = distPointToSegment(mousePos, start, end);
-        return distance < tolerance;
+        simulation.removeLineAt(mouseX + viewX, mouseY - TOP_BAR_HEIGHT + viewY);
     }
 
     /**
@@ -362,61 +282,24 @@ public class App extends PApplet {
      * @return Distance.
      */
     public static float distPointToSegment(PVector p, PVector v, PVector w) {
-        float l2 = v.dist(w) * v.dist(w);
-        if (l2 == 0.0) return p.dist(v);
-        float t = Math.max(0, Math.min(1, PVector.sub(p, v).dot(PVector.sub(w, v)) / l2));
-        PVector projection = PVector.add(v, PVector.sub(w, v).mult(t));
-        return p.dist(projection);
+        return Simulation.distPointToSegment(p, v, w);
     }
 
     public PImage getBallImage(int color) {
         return ballImages.get(color);
     }
 
-    public void addBallToRemove(Ball ball) {
-        ballsToBeRemoved.add(ball);
-    }
-    
-    public void increaseScore(int amount) {
-        currentScore += amount;
-    }
-    
-    public void decreaseScore(int amount) {
-        currentScore = Math.max(0, currentScore - amount);
-    }
-    
-    public void addBallToQueue(String ballColorName) {
-        ballsInQueue.add(ballColorName);
-    }
-    
-    public float getScoreIncreaseModifier() {
-        return scoreIncreaseModifier;
-    }
-    
-    public float getScoreDecreaseModifier() {
-        return scoreDecreaseModifier;
-    }
-    
-    public Map<String, Integer> getScoreIncreaseMap() {
-        return scoreIncreaseMap;
-    }
-    
-    public Map<String, Integer> getScoreDecreaseMap() {
-        return scoreDecreaseMap;
+    /**
+     * Gets the image of a ball of a color drawn at a size.
+     *
+     * @param color The color code.
+     * @param size  The drawn size in pixels, from 0 to 2 * Ball.RADIUS.
+     * @return The image, or null for size 0.
+     */
+    public PImage getBallImage(int color, int size) {
+        return scaledBallImages.get(color)[size];
     }
 
-    // public static void setScoreIncreaseMap(Map<String, Integer> scoreIncreaseMap) {
-    //     App.scoreIncreaseMap = scoreIncreaseMap;
-    // }
-    
-    // public static void setScoreDecreaseMap(Map<String, Integer> scoreDecreaseMap) {
-    //     App.scoreDecreaseMap = scoreDecreaseMap;
-    // }
-
-    // public int getCurrentScore() { return currentScore; }
-
-    public List<Ball> getBallsToBeRemoved() { return ballsToBeRemoved; }
-
     /**
      * Handles mouse dragged events.
      *
@@ -425,10 +308,7 @@ public class App extends PApplet {
     @Override
     public void mouseDragged(MouseEvent event) {
         if (mouseButton == LEFT) {
-            if (gameState == GameState.RUNNING || gameState == GameState.PAUSED) {
-                drawing = true;
-                currentLine.add(new PVector(mouseX, mouseY - TOP_BAR_HEIGHT));
-            }
+            simulation.addLinePoint(mouseX + viewX, mouseY - TOP_BAR_HEIGHT + viewY);
         }
     }
 
@@ -440,206 +320,323 @@ public class App extends PApplet {
     @Override
     public void mouseReleased(MouseEvent event) {
         if (mouseButton == LEFT) {
-            if (!currentLine.isEmpty()) {
-                lines.add(new ArrayList<>(currentLine));
-                currentLine.clear();
-            }
-            drawing = false;
+            simulation.finishLine();
         }
     }
 
     /**
-     * The main game loop logic.
+     * Advances the simulation by one physics step and redraws the layers from its state.
      */
     public void tick() {
-        if (!levelLoaded) {
-            loadLevel(currentLevel);
-        }
+        simulation.step();
+        drawLayers(1);
+    }
 
-        switch (gameState) {
-            case RUNNING:
-                updateGame();
-                break;
-            case LEVEL_COMPLETION_ANIMATION:
-                playLevelCompletionAnimation();
-                break;
-            case LEVEL_COMPLETE:
-                advanceLevel();
-                break;
-            case GAME_ENDED:
-                resetGame();
-                break;
-            default:
-                break;
+    /**
+     * Redraws the layers from the state of the simulation.
+     *
+     * @param alpha How far the frame is between the last two physics steps, from 0 to 1.
+     */
+    public void drawLayers(float alpha) {
+        // A new board may be smaller than the last one
+        scrollView(0, 0);
+        if (simulation.board != null && (simulation.board != renderedBoard || viewX != renderedViewX || viewY != renderedViewY)) {
+            drawBoardLayer();
+            boardDamage.markAll();
         }
-
+        boolean completion = simulation.gameState == GameState.LEVEL_COMPLETION_ANIMATION;
+        if (completion) {
+            drawLevelCompletionLayer();
+        }
+        if (completion || completionDrawn) {
+            // The completion tiles move every frame, and must be covered again once they stop
+            boardDamage.markAll();
+        }
+        completionDrawn = completion;
+        drawBallLayer(alpha);
         drawTopBarLayer();
         drawLineLayer();
+        drawConveyorBeltLayer();
     }
 
     /**
-     * Updates the game state when running.
+     * Draws the board layer from the tiles of the current layout in view. A chunked board is
+     * loaded where it is in view and drawn from its chunk textures.
      */
-    public void updateGame() {
-        if (ballsOnScreen.isEmpty() && ballsInQueue.isEmpty()) {
-            drawBallLayer(); // clear ball layer (otherwise last ball to fall in hole will freeze on screen)
-            image(ballLayer, 0, TOP_BAR_HEIGHT);
-            gameState = GameState.LEVEL_COMPLETION_ANIMATION;
-        } else {
-            updateTime();
-            drawBallLayer();
-            drawConveyorBeltLayer();
+    public void drawBoardLayer() {
+        Board board = simulation.board;
+        if (board != renderedBoard) {
+            chunkTextures.clear();
         }
-    }
+        int firstRow = viewY / CELL_SIZE;
+        int firstColumn = viewX / CELL_SIZE;
+        int lastRow = Math.min(simulation.getRows() - 1, (viewY + boardLayer.height - 1) / CELL_SIZE);
+        int lastColumn = Math.min(simulation.getColumns() - 1, (viewX + boardLayer.width - 1) / CELL_SIZE);
 
-    /**
-     * Plays the level completion animation.
-     */
-    public void playLevelCompletionAnimation() {
+        boardLayer.beginDraw();
+        boardLayer.clear();
 
-        if (levelTime > 0) {
-            if (draw) {
-                drawLevelCompletionLayer();
-            }
-            draw = !draw;
+        ChunkedBoard chunks = simulation.chunks;
+        if (chunks == null) {
+            drawTiles(boardLayer, firstRow, firstColumn, lastRow, lastColumn, viewX, viewY);
         } else {
-            gameState = GameState.LEVEL_COMPLETE;
+            chunks.loadCells(firstRow, firstColumn, lastRow, lastColumn);
+            int chunkPixels = ChunkedBoard.CHUNK_SIZE * CELL_SIZE;
+            for (int chunkRow = firstRow / ChunkedBoard.CHUNK_SIZE; chunkRow <= lastRow / ChunkedBoard.CHUNK_SIZE; chunkRow++) {
+                for (int chunkColumn = firstColumn / ChunkedBoard.CHUNK_SIZE; chunkColumn <= lastColumn / ChunkedBoard.CHUNK_SIZE; chunkColumn++) {
+                    PGraphics texture = getChunkTexture(chunks, chunkRow, chunkColumn);
+                    boardLayer.image(texture, chunkColumn * chunkPixels - viewX, chunkRow * chunkPixels - viewY);
+                }
+            }
         }
+
+        boardLayer.endDraw();
+        renderedBoard = board;
+        renderedViewX = viewX;
+        renderedViewY = viewY;
     }
 
     /**
-     * Advances to the next level or ends the game if last level.
-     */
-    public void advanceLevel() {
-        if (currentLevel < levels.size()) {
-            currentLevel++;
-            levelLoaded = false;
-            gameState = GameState.RUNNING;
-            previousScore = currentScore;
-            lines.clear();
+     * Gets the drawn tiles of a loaded chunk, drawing them if they are not cached. Once
+     * {@link #MAX_CHUNK_TEXTURES} chunks are cached, the least recently used one is redrawn.
+     *
+     * @param chunks      The chunked board.
+     * @param chunkRow    The row of the chunk.
+     * @param chunkColumn The column of the chunk.
+     * @return The texture, with the top left cell of the chunk at its origin.
+     */
+    private PGraphics getChunkTexture(ChunkedBoard chunks, int chunkRow, int chunkColumn) {
+        int key = chunkRow * chunks.getChunkColumns() + chunkColumn;
+        PGraphics texture = chunkTextures.get(key);
+        if (texture != null) {
+            return texture;
+        }
+
+        if (chunkTextures.size() >= MAX_CHUNK_TEXTURES) {
+            Iterator<PGraphics> eldest = chunkTextures.values().iterator();
+            texture = eldest.next();
+            eldest.remove();
         } else {
-            gameState = GameState.GAME_ENDED;
+            int chunkPixels = ChunkedBoard.CHUNK_SIZE * CELL_SIZE;
+            texture = createGraphics(chunkPixels, chunkPixels);
         }
-    }
-
-    /**
-     * Resets the game after it has ended.
-     */
-    public void resetGame() {
-        drawBallLayer(); // clear ball layer (otherwise last ball to fall in hole will freeze on screen)
-        image(ballLayer, 0, TOP_BAR_HEIGHT);
 
-        lines.clear();
+        int firstRow = chunkRow * ChunkedBoard.CHUNK_SIZE;
+        int firstColumn = chunkColumn * ChunkedBoard.CHUNK_SIZE;
+        texture.beginDraw();
+        texture.clear();
+        drawTiles(texture, firstRow, firstColumn,
+            Math.min(simulation.getRows(), firstRow + ChunkedBoard.CHUNK_SIZE) - 1,
+            Math.min(simulation.getColumns(), firstColumn + ChunkedBoard.CHUNK_SIZE) - 1,
+            firstColumn * CELL_SIZE, firstRow * CELL_SIZE);
+        texture.endDraw();
+        chunkTextures.put(key, texture);
+        return texture;
     }
 
     /**
-     * Updates the level time and spawn time.
-     */
-    public void updateTime() {
-        levelFrames--;
-        levelTime = levelFrames / FPS;
-        spawnFrames--;
-        spawnTime = (float) Math.ceil(spawnFrames / 3) / 10.0f;
-
-        if (levelFrames == 0) {
-            gameState = GameState.LEVEL_TIME_UP;
+     * Draws a range of cells of the board. A hole is drawn from its first cell in the range,
+     * and is cut off by the edge of the graphics like any other tile.
+     *
+     * @param graphics    The graphics to draw on.
+     * @param firstRow    The first row.
+     * @param firstColumn The first column.
+     * @param lastRow     The last row.
+     * @param lastColumn  The last column.
+     * @param originX     The x-coordinate on the board drawn at the left of the graphics.
+     * @param originY     The y-coordinate on the board drawn at the top of the graphics.
+     */
+    private void drawTiles(PGraphics graphics, int firstRow, int firstColumn, int lastRow, int lastColumn, int originX, int originY) {
+        Board board = simulation.board;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Tile tile = board.get(row, column);
+                int xPosition = column * CELL_SIZE - originX;
+                int yPosition = row * CELL_SIZE - originY;
+
+                if (tile == null) {
+                    graphics.image(normalTileImage, xPosition, yPosition);
+                } else if (tile instanceof ColorRestrictingWall) {
+                    ColorRestrictingWall wall = (ColorRestrictingWall) tile;
+                    List<PImage> images = wall.isVertical() ? verticalColorWallImages : horizontalColorWallImages;
+                    graphics.image(images.get(wall.getColor() - 1), xPosition, yPosition);
+                } else if (tile instanceof Wall) {
+                    graphics.image(wallImages.get(((Wall) tile).getColor()), xPosition, yPosition);
+                } else if (tile instanceof Spawner) {
+                    graphics.image(spawnerImage, xPosition, yPosition);
+                } else if (tile instanceof Hole) {
+                    Hole hole = (Hole) tile;
+                    // A hole covers four cells; draw it once from its top left cell in range
+                    int holeX = (int) hole.getCenterXPosition() - Hole.HALF_SIZE;
+                    int holeY = (int) hole.getCenterYPosition() - Hole.HALF_SIZE;
+                    if (row == Math.max(firstRow, holeY / CELL_SIZE) && column == Math.max(firstColumn, holeX / CELL_SIZE)) {
+                        graphics.image(holeImages.get(hole.getColor()), holeX - originX, holeY - originY);
+                    }
+                }
+            }
         }
     }
 
-    int tile1Row = 1;
-    int tile1Column = 0;
-    int xDirection = 0;
-    int yDirection = -1;
-
     /**
      * Draws the level completion layer.
-     *
-     * @return True if drawing occurs, false otherwise.
      */
-    public boolean drawLevelCompletionLayer() {
+    public void drawLevelCompletionLayer() {
         levelCompletionLayer.beginDraw();
         levelCompletionLayer.clear();
 
-        tile1Row += yDirection;
-        tile1Column += xDirection;
-        int tile2Row = (BOARD_SIZE-1) - tile1Row;
-        int tile2Column = (BOARD_SIZE-1) - tile1Column;
-        if (tile1Row == 0 && tile1Column == 0) { // tile 1 reaches top left corner
-            yDirection = 0;
-            xDirection = 1;
-        }
-        if (tile1Row == 0 && tile1Column == 17) { // tile 1 reaches top right corner
-            yDirection = 1;
-            xDirection = 0;
-        }
-        if (tile1Row == 17 && tile1Column == 17) { // tile 1 reaches bottom right corner
-            yDirection = 0;
-            xDirection = -1;
-        }
-        if (tile1Row == 17 && tile1Column == 0) { // tile 1 reaches bottom left corner
-            yDirection = -1;
-            xDirection = 0;
-        }
-
-        int tile1X = tile1Column*CELL_SIZE;
-        int tile1Y = tile1Row*CELL_SIZE;
-        int tile2X = tile2Column*CELL_SIZE;
-        int tile2Y = tile2Row*CELL_SIZE;
+        int tile1X = simulation.tile1Column * CELL_SIZE - viewX;
+        int tile1Y = simulation.tile1Row * CELL_SIZE - viewY;
+        int tile2X = simulation.getTile2Column() * CELL_SIZE - viewX;
+        int tile2Y = simulation.getTile2Row() * CELL_SIZE - viewY;
 
         levelCompletionLayer.image(wallImages.get(4), tile1X, tile1Y);
         levelCompletionLayer.image(wallImages.get(4), tile2X, tile2Y);
 
-        levelTime--;
-        currentScore++;
-
         levelCompletionLayer.endDraw();
-
-        return !draw;
     }
 
-
     /**
-     * Draws the line layer.
+     * Brings the line layer up to date. Lines are not redrawn every frame: segments appended
+     * since the last frame are drawn on top, and a removed line is erased by clearing its
+     * bounding box and redrawing the other lines that cross it.
      */
     public void drawLineLayer() {
+        visibleLines.clear();
+        visibleLines.addAll(simulation.lines);
+        // The current line being drawn
+        if (simulation.drawing && simulation.currentLine.size() > 1) {
+            visibleLines.add(simulation.currentLine);
+        }
+
+        // Lines are drawn relative to the view, so moving it redraws them all
+        if (viewX != lineViewX || viewY != lineViewY) {
+            lineDamage.markAll();
+            lineViewX = viewX;
+            lineViewY = viewY;
+        }
+
+        // Find lines that were removed, or lost points since they were drawn
+        erasedLines.clear();
+        for (Map.Entry<Line, Integer> entry : renderedLines.entrySet()) {
+            Line line = entry.getKey();
+            if (!visibleLines.contains(line) || line.size() < entry.getValue()) {
+                erasedLines.add(line);
+                addLineDamage(lineDamage, line.getMinX() - viewX, line.getMinY() - viewY, line.getMaxX() - viewX, line.getMaxY() - viewY);
+            }
+        }
+        for (Line line : erasedLines) {
+            renderedLines.remove(line);
+        }
+
         lineLayer.beginDraw();
-        lineLayer.clear();
         lineLayer.stroke(0);
-        lineLayer.strokeWeight(10);
-
-        List<List<PVector>> linesToBeRemoved = new ArrayList<>();
-
-        // Draw existing lines
-        for (List<PVector> line : lines) {
-            for (int i = 1; i < line.size(); i++) {
-                PVector start = line.get(i - 1);
-                PVector end = line.get(i);
-                lineLayer.line(start.x, start.y, end.x, end.y);
-                if (gameState == GameState.RUNNING) {
-                    for (Ball ball : ballsOnScreen) {
-                        if (ball.handleCollisionWithLine(start, end)) {
-                            linesToBeRemoved.add(line);
-                            break;
-                        }
-                    }
-                }
+        lineLayer.strokeWeight(LINE_WEIGHT);
+
+        if (lineDamage.isAll()) {
+            lineLayer.clear();
+            renderedLines.clear();
+            boardDamage.markAll();
+        } else {
+            for (int i = 0; i < lineDamage.size(); i++) {
+                redrawLineRegion(i);
             }
         }
+        lineDamage.clear();
 
-        for (List<PVector> line : linesToBeRemoved) {
-            lines.remove(line);
+        // Draw the segments added since the last frame
+        for (Line line : visibleLines) {
+            Integer drawn = renderedLines.get(line);
+            int from = drawn == null ? 1 : drawn;
+            if (from < line.size()) {
+                drawSegments(line, from, line.size());
+                markSegmentsDamaged(line, from, line.size());
+                renderedLines.put(line, line.size());
+            }
         }
 
-        // Draw the current line being drawn
-        if (drawing && currentLine.size() > 1) {
-            for (int i = 1; i < currentLine.size(); i++) {
-                PVector start = currentLine.get(i - 1);
-                PVector end = currentLine.get(i);
-                lineLayer.line(start.x, start.y, end.x, end.y);
+        lineLayer.endDraw();
+    }
+
+    /**
+     * Clears one damaged region of the line layer and redraws the lines crossing it.
+     *
+     * @param region The index of the region in the line damage.
+     */
+    private void redrawLineRegion(int region) {
+        int x = lineDamage.getX(region);
+        int y = lineDamage.getY(region);
+        int width = lineDamage.getWidth(region);
+        int height = lineDamage.getHeight(region);
+
+        // Clearing only works on the whole layer, so paint the region transparent instead
+        lineLayer.blendMode(REPLACE);
+        lineLayer.noStroke();
+        lineLayer.fill(0, 0);
+        lineLayer.rect(x, y, width, height);
+        lineLayer.blendMode(BLEND);
+        lineLayer.stroke(0);
+
+        lineLayer.clip(x, y, width, height);
+        float pad = LINE_WEIGHT / 2f;
+        for (Map.Entry<Line, Integer> entry : renderedLines.entrySet()) {
+            Line line = entry.getKey();
+            if (lineDamage.overlaps(region, line.getMinX() - viewX - pad, line.getMinY() - viewY - pad,
+                    line.getMaxX() - viewX + pad, line.getMaxY() - viewY + pad)) {
+                drawSegments(line, 1, entry.getValue());
             }
         }
+        lineLayer.noClip();
 
-        lineLayer.endDraw();
+        boardDamage.add(x, y, x + width, y + height);
+    }
+
+    /**
+     * Draws some of the segments of a line onto the line layer.
+     *
+     * @param line The line.
+     * @param from The index of the end point of the first segment to draw.
+     * @param to   The index after the end point of the last segment to draw.
+     */
+    private void drawSegments(Line line, int from, int to) {
+        for (int i = Math.max(from, 1); i < to; i++) {
+            lineLayer.line(line.getX(i - 1) - viewX, line.getY(i - 1) - viewY, line.getX(i) - viewX, line.getY(i) - viewY);
+        }
+    }
+
+    /**
+     * Marks the area some of the segments of a line cover as changed.
+     *
+     * @param line The line.
+     * @param from The index of the end point of the first segment.
+     * @param to   The index after the end point of the last segment.
+     */
+    private void markSegmentsDamaged(Line line, int from, int to) {
+        float minX = line.getX(from - 1);
+        float minY = line.getY(from - 1);
+        float maxX = minX;
+        float maxY = minY;
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, line.getX(i));
+            minY = Math.min(minY, line.getY(i));
+            maxX = Math.max(maxX, line.getX(i));
+            maxY = Math.max(maxY, line.getY(i));
+        }
+        addLineDamage(boardDamage, minX - viewX, minY - viewY, maxX - viewX, maxY - viewY);
+    }
+
+    /**
+     * Marks the area a stroke covers as changed, given the box around the points it joins.
+     *
+     * @param damage The regions to add to.
+     * @param minX   The left edge of the points.
+     * @param minY   The top edge of the points.
+     * @param maxX   The right edge of the points.
+     * @param maxY   The bottom edge of the points.
+     */
+    private static void addLineDamage(DirtyRegions damage, float minX, float minY, float maxX, float maxY) {
+        // Half the stroke, plus a pixel of anti-aliasing
+        float pad = LINE_WEIGHT / 2f + 1;
+        damage.add(minX - pad, minY - pad, maxX + pad, maxY + pad);
     }
 
     /**
@@ -651,14 +648,14 @@ public class App extends PApplet {
 
         topBarLayer.fill(0);
         topBarLayer.textSize(20);
-        topBarLayer.text("Score: " + currentScore, WIDTH - 120, 25);
-        topBarLayer.text("Time: " + levelTime, WIDTH - 120, 50);
+        topBarLayer.text("Score: " + simulation.currentScore, WIDTH - 120, 25);
+        topBarLayer.text("Time: " + simulation.levelTime, WIDTH - 120, 50);
 
-        if (!ballsInQueue.isEmpty()) {
-            topBarLayer.text(String.format("%.1f", spawnTime), 190, 35);
+        if (!simulation.ballsInQueue.isEmpty()) {
+            topBarLayer.text(String.format("%.1f", simulation.spawnTime), 190, 35);
         }
 
-        switch (gameState) {
+        switch (simulation.gameState) {
             case GAME_ENDED:
                 topBarLayer.text("=== GAME ENDED ===", 200, 35);
                 break;
@@ -675,27 +672,65 @@ public class App extends PApplet {
         topBarLayer.endDraw();
     }
 
-    int horizontalOffset = 0;
+    /**
+     * Draws the ball layer at the positions of the last physics step.
+     */
+    public void drawBallLayer() {
+        drawBallLayer(1);
+    }
 
     /**
      * Draws the ball layer.
+     *
+     * @param alpha How far the frame is between the last two physics steps, from 0 to 1.
      */
-    public void drawBallLayer() {
+    public void drawBallLayer(float alpha) {
         ballLayer.beginDraw();
         ballLayer.clear();
 
-        ballsToBeRemoved.clear();
-        for (Ball ball : ballsOnScreen) {
-            ball.checkSurrounding(board);
-            ball.updatePosition();
-            ballLayer.image(ball.getImage(), ball.getCenterXPosition() - Ball.RADIUS, ball.getCenterYPosition() - Ball.RADIUS);
+        // Where the balls were last frame needs compositing again, as well as where they are now
+        for (int i = 0; i < drawnBallCount; i++) {
+            addBallDamage(drawnBallBoxes[3 * i], drawnBallBoxes[3 * i + 1], drawnBallBoxes[3 * i + 2]);
+        }
+        List<Ball> balls = simulation.ballsOnScreen;
+        if (drawnBallBoxes.length < 3 * balls.size()) {
+            drawnBallBoxes = new float[3 * balls.size() * 2];
         }
+        drawnBallCount = 0;
 
-        ballsOnScreen.removeAll(ballsToBeRemoved);
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            // The ball shrinks while it is being pulled into a hole
+            int size = Math.min(ball.getScaledSize(), 2 * Ball.RADIUS);
+            if (size <= 0) {
+                continue;
+            }
+            PImage image = getBallImage(ball.getColor(), size);
+            float x = ball.getInterpolatedXPosition(alpha) - Ball.RADIUS - viewX;
+            float y = ball.getInterpolatedYPosition(alpha) - Ball.RADIUS - viewY;
+            ballLayer.image(image, x, y);
+
+            drawnBallBoxes[3 * drawnBallCount] = x;
+            drawnBallBoxes[3 * drawnBallCount + 1] = y;
+            drawnBallBoxes[3 * drawnBallCount + 2] = size;
+            drawnBallCount++;
+            addBallDamage(x, y, size);
+        }
 
         ballLayer.endDraw();
     }
 
+    /**
+     * Marks the box a ball image covers as changed.
+     *
+     * @param x    The left edge of the image.
+     * @param y    The top edge of the image.
+     * @param size The drawn size of the image.
+     */
+    private void addBallDamage(float x, float y, float size) {
+        boardDamage.add(x - 1, y - 1, x + size + 1, y + size + 1);
+    }
+
     /**
      * Draws the conveyor belt layer.
      */
@@ -706,21 +741,14 @@ public class App extends PApplet {
         int ballVerticalOffset = (conveyorBeltLayer.height - 2 * Ball.RADIUS) / 2;
         int spaceBetweenBalls = (conveyorBeltLayer.width - (5 * 2 * Ball.RADIUS)) / 6;
 
-        if (spawnFrames == 0) {
-            spawnFrames = FPS * spawnInterval;
-            horizontalOffset = spaceBetweenBalls+2*Ball.RADIUS;
-            if (!ballsInQueue.isEmpty()) {
-                String ballColor = ballsInQueue.poll();
-                Spawner spawner = spawners.get(RANDOM.nextInt(spawners.size()));
-                float centerX = spawner.getCenterXPosition();
-                float centerY = spawner.getCenterYPosition();
-                int color = ColorCode.getValue(ballColor);
-                Ball ball = new Ball(centerX, centerY, color, ballImages.get(color));
-                ballsOnScreen.add(ball);
-            }
+        // Slide the queue left by one pixel per frame after a ball has been spawned
+        int horizontalOffset = 0;
+        if (simulation.ballSpawned) {
+            int framesSinceSpawn = (simulation.physicsHz * simulation.spawnInterval - simulation.spawnFrames) * FPS / simulation.physicsHz;
+            horizontalOffset = Math.max(0, spaceBetweenBalls + 2 * Ball.RADIUS - framesSinceSpawn);
         }
 
-        Iterator<String> iterator = ballsInQueue.iterator();
+        Iterator<String> iterator = simulation.ballsInQueue.iterator();
         int count = 0;
 
         while (iterator.hasNext() && count < 5) {
@@ -730,194 +758,41 @@ public class App extends PApplet {
             count++;
         }
 
-        if (horizontalOffset > 0) {
-            horizontalOffset--;
-        }
-
         conveyorBeltLayer.endDraw();
     }
 
     /**
-     * Loads a level based on the current level number.
-     *
-     * @param levelNumber The current level number.
-     */
-    public void loadLevel(int levelNumber) {
-        Level level = levels.get(levelNumber - 1);
-
-        layout = level.getLayout();
-        loadLayout(layout);
-
-        levelTime = level.getTime();
-        levelFrames = levelTime * FPS;
-        spawnInterval = level.getSpawnInterval();
-        spawnTime = spawnInterval;
-        spawnFrames = (int) spawnTime * FPS;
-
-        scoreIncreaseModifier = level.getScoreIncreaseModifier();
-        scoreDecreaseModifier = level.getScoreDecreaseModifier();
-        ballsInQueue = new ArrayDeque<>(level.getBalls());
-
-        levelLoaded = true;
-        gameState = GameState.RUNNING;
-    }
-
-    /**
-     * Loads the layout from a file.
-     *
-     * @param layoutFile The layout file.
+     * Draws all elements in the game by current frame, first running the physics steps that
+     * fit into the real time since the previous frame.
      */
-    public void loadLayout(String layoutFile) {
-        board = new Tile[BOARD_SIZE][BOARD_SIZE];
-        ballsOnScreen = new ArrayList<>();
-        spawners = new ArrayList<>();
-
-        boardLayer.beginDraw();
-
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new FileReader(layoutFile));
-            String line;
-            int row = 0;
-
-            while ((line = reader.readLine()) != null && row < BOARD_SIZE) {
-                for (int column = 0; column < BOARD_SIZE && column < line.length(); column++) {
-                    char c = line.charAt(column);
-                    int xPosition = column * CELL_SIZE;
-                    int yPosition = row * CELL_SIZE;
-                    int centerXPosition = column * CELL_SIZE + CELL_SIZE / 2;
-                    int centerYPosition = row * CELL_SIZE + CELL_SIZE / 2;
-                    int color;
-
-                    switch(c) {
-                        case 'X':
-                            color = 0;
-                            board[row][column] = new Wall(centerXPosition, centerYPosition, color);
-                            boardLayer.image(wallImages.get(color), xPosition, yPosition);
-                            break;
-                        case '1':
-                            color = 1;
-                            board[row][column] = new Wall(centerXPosition, centerYPosition, color);
-                            boardLayer.image(wallImages.get(color), xPosition, yPosition);
-                            break;
-                        case '2':
-                            color = 2;
-                            board[row][column] = new Wall(centerXPosition, centerYPosition, color);
-                            boardLayer.image(wallImages.get(color), xPosition, yPosition);
-                            break;
-                        case '3':
-                            color = 3;
-                            board[row][column] = new Wall(centerXPosition, centerYPosition, color);
-                            boardLayer.image(wallImages.get(color), xPosition, yPosition);
-                            break;
-                        case '4':
-                            color = 4;
-                            board[row][column] = new Wall(centerXPosition, centerYPosition, color);
-                            boardLayer.image(wallImages.get(color), xPosition, yPosition);
-                            break;
-                        case 'V':
-                            color = line.charAt(column + 1) - '0';
-                            if (color > 4 || color < 0) {
-                                return;
-                            }
-                            centerXPosition = column * CELL_SIZE + Wall.HALF_SIZE;
-                            centerYPosition = row * CELL_SIZE + Wall.HALF_SIZE;
-                            ColorRestrictingWall verticalColorRestrictingWall = new ColorRestrictingWall(centerXPosition, centerYPosition, color, true);
-                            board[row][column] = verticalColorRestrictingWall;
-                            boardLayer.image(verticalColorWallImages.get(color-1), xPosition, yPosition);
-                            column++; // Skip the color character
-                            xPosition = column * CELL_SIZE;
-                            boardLayer.image(normalTileImage, xPosition, yPosition);
-                            break;
-                        case 'Z':
-                            int offset = column;
-                            while (line.charAt(offset + 1) - '0' > 9 || line.charAt(offset + 1) - '0' < 0) { // next char is not color
-                                offset++;
-                            }
-                            color = line.charAt(offset + 1) - '0';
-                            centerXPosition = column * CELL_SIZE + Wall.HALF_SIZE;
-                            centerYPosition = row * CELL_SIZE + Wall.HALF_SIZE;
-                            ColorRestrictingWall horizontalColorRestrictingWall = new ColorRestrictingWall(centerXPosition, centerYPosition, color, false);
-                            board[row][column] = horizontalColorRestrictingWall;
-                            boardLayer.image(horizontalColorWallImages.get(color-1), xPosition, yPosition);
-                            if (offset == column) { // next char is color
-                                column++;
-                                xPosition = column * CELL_SIZE;
-                                boardLayer.image(normalTileImage, xPosition, yPosition);
-                            }
-                            break;
-                        case ' ':
-                            if (board[row][column] == null) {
-                                boardLayer.image(normalTileImage, xPosition, yPosition);
-                            }
-                            break;
-                        case 'S':
-                            Spawner spawner = new Spawner(centerXPosition, centerYPosition);
-                            spawners.add(spawner);
-                            board[row][column] = spawner;
-                            boardLayer.image(spawnerImage, xPosition, yPosition);
-                            break;
-                        case 'H':
-                            color = line.charAt(column + 1) - '0';
-                            centerXPosition = column * CELL_SIZE + Hole.HALF_SIZE;
-                            centerYPosition = row * CELL_SIZE + Hole.HALF_SIZE;
-                            Hole hole = new Hole(centerXPosition, centerYPosition, color);
-                            boardLayer.image(holeImages.get(color), xPosition, yPosition);
-                            board[row][column] = hole;
-                            board[row][column + 1] = hole;
-                            board[row + 1][column] = hole;
-                            board[row + 1][column + 1] = hole;
-                            column++; // Skip the color character
-                            break;
-                        case 'B':
-                            color = line.charAt(column + 1) - '0';
-                            ballsOnScreen.add(new Ball(centerXPosition, centerYPosition, color, ballImages.get(color)));
-                            boardLayer.image(normalTileImage, xPosition, yPosition);
-                            column++; // Skip the color character
-                            xPosition = column * CELL_SIZE;
-                            boardLayer.image(normalTileImage, xPosition, yPosition);
-                            break;
-                    }
-
-                }
-                row++;
+    @Override
+    public void draw() {
+        int now = millis();
+        simulation.advance(now - lastFrameMillis);
+        lastFrameMillis = now;
+        drawLayers(simulation.getInterpolationAlpha());
+
+        // The window keeps what was drawn last frame, so only the changed parts of the board are composited
+        if (boardDamage.isAll()) {
+            image(boardLayer, 0, TOP_BAR_HEIGHT);
+            if (simulation.gameState == GameState.LEVEL_COMPLETION_ANIMATION) {
+                image(levelCompletionLayer, 0, TOP_BAR_HEIGHT);
             }
-        } catch (FileNotFoundException e) {
-            System.err.println("File not found: " + layoutFile);
-            // e.printStackTrace();
-        } catch (IOException e) {
-            System.err.println("Error reading the file: " + layoutFile);
-            // e.printStackTrace();
-        } catch (Exception e) {
-            System.err.println("An unexpected error occurred.");
-            e.printStackTrace();
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
-                }
-            } catch (IOException e) {
-                // Handle potential IOException from reader.close()
-                e.printStackTrace();
+            image(ballLayer, 0, TOP_BAR_HEIGHT);
+            image(lineLayer, 0, TOP_BAR_HEIGHT);
+        } else {
+            for (int i = 0; i < boardDamage.size(); i++) {
+                int x = boardDamage.getX(i);
+                int y = boardDamage.getY(i);
+                int width = boardDamage.getWidth(i);
+                int height = boardDamage.getHeight(i);
+                image(boardLayer, x, y + TOP_BAR_HEIGHT, width, height, x, y, x + width, y + height);
+                image(ballLayer, x, y + TOP_BAR_HEIGHT, width, height, x, y, x + width, y + height);
+                image(lineLayer, x, y + TOP_BAR_HEIGHT, width, height, x, y, x + width, y + height);
             }
         }
+        boardDamage.clear();
 
-        boardLayer.endDraw();
-    }
-
-    /**
-     * Draws all elements in the game by current frame.
-     */
-    @Override
-    public void draw() {
-        tick();
-
-        image(boardLayer, 0, TOP_BAR_HEIGHT);
-        if (gameState == GameState.LEVEL_COMPLETION_ANIMATION) {
-            image(levelCompletionLayer, 0, TOP_BAR_HEIGHT);
-        }
-        image(ballLayer, 0, TOP_BAR_HEIGHT);
-        image(lineLayer, 0, TOP_BAR_HEIGHT);
         image(topBarLayer, 0, 0);
         image(conveyorBeltLayer, 10, 10);
     }
@@ -925,9 +800,14 @@ public class App extends PApplet {
     /**
      * Main method to start the application.
      *
-     * @param args Command line arguments.
+     * @param args Command line arguments: {@code --record <file>} records the player's input.
      */
     public static void main(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--record")) {
+                recordPath = args[i + 1];
+            }
+        }
         PApplet.main("inkball.App");
     }
-}
\ No newline at end of file
+}
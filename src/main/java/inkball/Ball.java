@@ -3,24 +3,36 @@ package inkball;
 import processing.core.PImage;
 import processing.core.PVector;
 
-import java.util.Random;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a ball in the InkBall game.
+ * A ball in a {@link BallStore} is a view of its slot there: its position, velocity and color
+ * live in the store's arrays. A ball on its own keeps them in its fields, and they are copied
+ * into a slot when it is added to a store and back when it is removed.
  */
 public class Ball extends GameObject {
 
     public static final int RADIUS = 12;
-    private static final Random RANDOM = new Random();
+    // Most wall hits resolved in one continuous move before the rest of the move is dropped
+    public static final int MAX_SUBSTEPS = 4;
+    // For balls made outside a game, one generator per thread so threads do not share one
+    private static final ThreadLocal<Random> DEFAULT_RANDOM = ThreadLocal.withInitial(Random::new);
     public boolean colliding = false;
 
-    private PVector velocity;
+    // Store holding the ball's state and its slot there, or null while the ball is on its own
+    BallStore store;
+    int index;
+    // State of a ball on its own; its position is the one kept by GameObject
+    private float previousX;
+    private float previousY;
+    private float velocityX;
+    private float velocityY;
     private int color;
     private PImage image;
-    private Set<Tile> surroundingTiles;
+    private int scaledSize;
 
     /**
      * Constructs a new Ball object.
@@ -31,118 +43,292 @@ public class Ball extends GameObject {
      * @param image   The image representing the ball.
      */
     public Ball(float centerX, float centerY, int color, PImage image) {
+        this(centerX, centerY, color, image, DEFAULT_RANDOM.get());
+    }
+
+    /**
+     * Constructs a new Ball object with a velocity drawn from a game's generator.
+     *
+     * @param centerX The x-coordinate of the ball's center.
+     * @param centerY The y-coordinate of the ball's center.
+     * @param color   The color code of the ball.
+     * @param image   The image representing the ball.
+     * @param random  The generator to draw the velocity from.
+     */
+    public Ball(float centerX, float centerY, int color, PImage image, Random random) {
         super(centerX, centerY);
-        this.velocity = new PVector(getRandomVelocity(), getRandomVelocity());
+        this.previousX = centerX;
+        this.previousY = centerY;
+        this.velocityX = getRandomVelocity(random);
+        this.velocityY = getRandomVelocity(random);
         this.color = color;
         this.image = image;
-        this.surroundingTiles = new TreeSet<>(new TileComparator(this));
-    }
-
-    // Custom Comparator to sort by age
-    class TileComparator implements Comparator<Tile> {
-        private Ball ball;
-
-        public TileComparator(Ball ball) {
-            this.ball = ball;
-        }
-
-        @Override
-        public int compare(Tile tile1, Tile tile2) {
-            return Float.compare(ball.distanceTo(tile1), ball.distanceTo(tile2)); // Sort tiles in ascending order by distance to ball
-        }
+        this.scaledSize = 2 * RADIUS;
     }
 
     /**
      * Returns a random velocity component, either -2 or 2.
      *
+     * @param random The generator to draw from.
      * @return The random velocity component.
      */
-    private float getRandomVelocity() {
-        return RANDOM.nextBoolean() ? 2 : -2;
+    private static float getRandomVelocity(Random random) {
+        return random.nextBoolean() ? 2 : -2;
     }
 
     /**
-     * Updates the position of the ball based on its velocity and handles bouncing
+     * Updates the position of the ball by one whole frame of velocity and handles bouncing
      * off the edges.
      */
     public void updatePosition() {
-        centerXPosition += velocity.x;
-        centerYPosition += velocity.y;
+        updatePosition(1);
+    }
 
-        // Bounce off the edges of the screen
+    /**
+     * Updates the position of the ball based on its velocity and handles bouncing
+     * off the edges.
+     *
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the ball by.
+     */
+    public void updatePosition(float timeStep) {
+        if (store != null) {
+            store.updatePosition(index, timeStep);
+            return;
+        }
+
+        // A ball on its own bounces off the edges of the screen
+        centerXPosition += velocityX * timeStep;
+        centerYPosition += velocityY * timeStep;
         if (centerXPosition - RADIUS < 0) {
             centerXPosition = RADIUS;
-            velocity.x *= -1;
+            velocityX *= -1;
         }
         if (centerXPosition + RADIUS > App.WIDTH) {
             centerXPosition = App.WIDTH - RADIUS;
-            velocity.x *= -1;
+            velocityX *= -1;
         }
         if (centerYPosition - RADIUS < 0) {
             centerYPosition = RADIUS;
-            velocity.y *= -1;
+            velocityY *= -1;
         }
         if (centerYPosition + RADIUS > App.HEIGHT) {
             centerYPosition = App.HEIGHT - RADIUS;
-            velocity.y *= -1;
+            velocityY *= -1;
+        }
+    }
+
+    /**
+     * Moves the ball along its velocity, stopping at each wall it would hit on the way and
+     * bouncing off it before carrying on with the rest of the move. Unlike
+     * {@link #updatePosition(float)} this cannot skip over a thin wall, however fast the ball is.
+     *
+     * @param board    The game board.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the ball by.
+     */
+    public void updatePositionContinuous(Board board, float timeStep) {
+        SweptCollision sweep = BallStore.scratch().sweep;
+        float remaining = timeStep;
+        for (int substep = 0; substep < MAX_SUBSTEPS && remaining > 0; substep++) {
+            float x = getCenterXPosition();
+            float y = getCenterYPosition();
+            float dx = getVelocityX() * remaining;
+            float dy = getVelocityY() * remaining;
+
+            Wall wall = findFirstWallHit(board, x, y, dx, dy, sweep);
+            if (wall == null) {
+                setCenterXPosition(x + dx);
+                setCenterYPosition(y + dy);
+                break;
+            }
+
+            setCenterXPosition(x + dx * sweep.time);
+            setCenterYPosition(y + dy * sweep.time);
+            wall.handleSweptCollision(this, sweep);
+            remaining *= 1 - sweep.time;
         }
+
+        // Bounce off the edges of the screen
+        updatePosition(0);
     }
 
     /**
-     * Checks the surrounding tiles for collisions and handles interactions.
+     * Finds the first blocking wall a move would hit, leaving the time and normal of the hit in
+     * the sweep.
      *
      * @param board The game board.
+     * @param x     The x-coordinate at the start of the move.
+     * @param y     The y-coordinate at the start of the move.
+     * @param dx    The x-component of the move.
+     * @param dy    The y-component of the move.
+     * @param sweep The sweep to test with and leave the hit in.
+     * @return The wall, or null if the move is clear.
      */
-    public void checkSurrounding(Tile[][] board) {
-        int row = (int) (centerYPosition / App.CELL_SIZE);
-        int column = (int) (centerXPosition / App.CELL_SIZE);
+    private Wall findFirstWallHit(Board board, float x, float y, float dx, float dy, SweptCollision sweep) {
+        int firstRow = toCell(Math.min(y, y + dy) - RADIUS, board.getRows());
+        int lastRow = toCell(Math.max(y, y + dy) + RADIUS, board.getRows());
+        int firstColumn = toCell(Math.min(x, x + dx) - RADIUS, board.getColumns());
+        int lastColumn = toCell(Math.max(x, x + dx) + RADIUS, board.getColumns());
+
+        Wall first = null;
+        float time = 0;
+        float normalX = 0;
+        float normalY = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Tile tile = board.get(row, column);
+                if (!(tile instanceof Wall)) {
+                    continue;
+                }
+                Wall wall = (Wall) tile;
+                if (wall.blocks(this)
+                        && sweep.circleAabb(x, y, RADIUS, dx, dy, wall.getLeft(column), wall.getTop(row),
+                            wall.getRight(column), wall.getBottom(row))
+                        && (first == null || sweep.time < time)) {
+                    first = wall;
+                    time = sweep.time;
+                    normalX = sweep.normalX;
+                    normalY = sweep.normalY;
+                }
+            }
+        }
+
+        sweep.time = time;
+        sweep.normalX = normalX;
+        sweep.normalY = normalY;
+        return first;
+    }
+
+    /**
+     * Converts a coordinate to a row or column, clamped to the board.
+     *
+     * @param position The coordinate.
+     * @param count    The number of rows or columns.
+     * @return The row or column.
+     */
+    private static int toCell(float position, int count) {
+        return Math.max(0, Math.min(count - 1, (int) Math.floor(position / App.CELL_SIZE)));
+    }
+
+    /**
+     * Remembers the current position so it can be blended with the next one when drawing.
+     */
+    public void savePreviousPosition() {
+        if (store == null) {
+            previousX = centerXPosition;
+            previousY = centerYPosition;
+        } else {
+            store.previousX[index] = store.x[index];
+            store.previousY[index] = store.y[index];
+        }
+    }
+
+    /**
+     * Gets the x-coordinate the ball was at when its position was last saved.
+     *
+     * @return The previous x-coordinate.
+     */
+    float getPreviousXPosition() {
+        return store == null ? previousX : store.previousX[index];
+    }
+
+    /**
+     * Gets the y-coordinate the ball was at when its position was last saved.
+     *
+     * @return The previous y-coordinate.
+     */
+    float getPreviousYPosition() {
+        return store == null ? previousY : store.previousY[index];
+    }
+
+    /**
+     * Gets the x-coordinate to draw the ball at between the last two physics steps.
+     *
+     * @param alpha How far between the previous and current step, from 0 to 1.
+     * @return The interpolated x-coordinate.
+     */
+    public float getInterpolatedXPosition(float alpha) {
+        float previous = getPreviousXPosition();
+        return previous + (getCenterXPosition() - previous) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate to draw the ball at between the last two physics steps.
+     *
+     * @param alpha How far between the previous and current step, from 0 to 1.
+     * @return The interpolated y-coordinate.
+     */
+    public float getInterpolatedYPosition(float alpha) {
+        float previous = getPreviousYPosition();
+        return previous + (getCenterYPosition() - previous) * alpha;
+    }
+
+    /**
+     * Checks the surrounding tiles for collisions and handles interactions in a given game.
+     *
+     * @param board    The game board.
+     * @param timeStep The fraction of a frame at {@link App#FPS} being simulated.
+     * @param context  The game the ball is in, which captures are scored in.
+     */
+    public void checkSurrounding(Board board, float timeStep, GameContext context) {
+        float x = getCenterXPosition();
+        float y = getCenterYPosition();
+        int row = (int) (y / App.CELL_SIZE);
+        int column = (int) (x / App.CELL_SIZE);
 
         // Clear previous surrounding tiles
-        surroundingTiles.clear();
+        BallStore.Scratch surrounding = BallStore.scratch();
+        surrounding.clear(this);
+        scaledSize = 2 * RADIUS;
 
-        if (row < 0 || row > 17 || column < 0 || column > 17) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
             return;
         }
 
         // Get surrounding tiles
         // Above
-        if (row > 0 && board[row - 1][column] != null) {
-            surroundingTiles.add(board[row - 1][column]);
+        if (row > 0) {
+            surrounding.add(board.get(row - 1, column), row - 1, column, x, y);
         }
         // Below
-        if (row < App.BOARD_SIZE - 1 && board[row + 1][column] != null) {
-            surroundingTiles.add(board[row + 1][column]);
+        if (row < rows - 1) {
+            surrounding.add(board.get(row + 1, column), row + 1, column, x, y);
         }
         // Left
-        if (column > 0 && board[row][column - 1] != null) {
-            surroundingTiles.add(board[row][column - 1]);
+        if (column > 0) {
+            surrounding.add(board.get(row, column - 1), row, column - 1, x, y);
         }
         // Right
-        if (column < App.BOARD_SIZE - 1 && board[row][column + 1] != null) {
-            surroundingTiles.add(board[row][column + 1]);
+        if (column < columns - 1) {
+            surrounding.add(board.get(row, column + 1), row, column + 1, x, y);
         }
+        // Diagonal
+        addDiagonalTile(surrounding, board, row, column, x, y);
         // Current Tile
-        if (board[row][column] != null) {
-            surroundingTiles.add(board[row][column]);
+        surrounding.add(board.get(row, column), row, column, x, y);
+
+        // Resolve the nearest tiles first; only needed when there is more than one
+        if (surrounding.count > 1) {
+            surrounding.sort();
         }
 
         // Collision detection with surrounding tiles
-        for (Tile tile : surroundingTiles) {
+        for (int i = 0; i < surrounding.count; i++) {
+            Tile tile = surrounding.tiles[i];
             if (tile instanceof Wall) {
                 Wall wall = (Wall) tile;
-                if (wall.collidesWithBall(this)) {
-                    wall.handleCollision(this);
+                int wallRow = surrounding.rows[i];
+                int wallColumn = surrounding.columns[i];
+                if (wall.collidesWithBall(this, wallRow, wallColumn)) {
+                    wall.handleCollision(this, wallRow, wallColumn);
                 }
             } else if (tile instanceof Hole) {
-                Hole hole = (Hole) tile;
-                float distance = distanceTo(hole);
-
-                if (distance <= Hole.ATTRACTION_RADIUS) {
-                    hole.handleAttraction(this, distance);
-                    // Resize the ball image based on the distance to the hole
-                    image = App.getInstance().getBallImage(color).copy();
-                    int scaledSize = (int) (distance / Hole.ATTRACTION_RADIUS * 2 * RADIUS);
-                    image.resize(scaledSize, scaledSize);
+                // A hole only reaches into its own cells, so it is always in the stencil when
+                // it can attract the ball
+                int size = ((Hole) tile).attract(this, timeStep, context);
+                if (size >= 0) {
+                    scaledSize = size;
                 }
             }
         }
@@ -151,23 +337,106 @@ public class Ball extends GameObject {
     }
 
     /**
-     * Handles collision with a drawn line.
+     * Adds the diagonal tile sharing the corner of the current cell that the ball is within a
+     * radius of, if it is a wall. Holes are never close enough to reach diagonally. Where the
+     * ball is near no corner the tile looked up is the current one or one beside it, which is
+     * already in the stencil; this avoids branching on the ball's position, which is not
+     * predictable from one ball to the next.
+     *
+     * @param surrounding The stencil to add to.
+     * @param board       The game board.
+     * @param row         The row of the ball's cell.
+     * @param column      The column of the ball's cell.
+     * @param x           The x-coordinate of the ball.
+     * @param y           The y-coordinate of the ball.
+     */
+    private static void addDiagonalTile(BallStore.Scratch surrounding, Board board, int row, int column, float x, float y) {
+        float offsetX = x - column * App.CELL_SIZE;
+        float offsetY = y - row * App.CELL_SIZE;
+        int stepX = offsetX <= RADIUS ? -1 : 0;
+        stepX = offsetX >= App.CELL_SIZE - RADIUS ? 1 : stepX;
+        int stepY = offsetY <= RADIUS ? -1 : 0;
+        stepY = offsetY >= App.CELL_SIZE - RADIUS ? 1 : stepY;
+        int diagonalRow = Math.max(0, Math.min(board.getRows() - 1, row + stepY));
+        int diagonalColumn = Math.max(0, Math.min(board.getColumns() - 1, column + stepX));
+        Tile diagonal = board.get(diagonalRow, diagonalColumn);
+        if (diagonal instanceof Wall) {
+            surrounding.add(diagonal, diagonalRow, diagonalColumn, x, y);
+        }
+    }
+
+    /**
+     * Clears the neighbourhood stencil of a ball known to be in open space, leaving the ball as
+     * checking its surroundings would.
+     */
+    void clearSurrounding() {
+        BallStore.scratch().clear(this);
+        scaledSize = 2 * RADIUS;
+        colliding = false;
+    }
+
+    /**
+     * Handles collision with a drawn line, looking one whole frame ahead.
      *
      * @param lineStart The start point of the line segment.
      * @param lineEnd   The end point of the line segment.
      * @return True if collision occurred, false otherwise.
      */
     public boolean handleCollisionWithLine(PVector lineStart, PVector lineEnd) {
-        PVector futurePosition = PVector.add(new PVector(centerXPosition, centerYPosition), velocity);
-        float distance = App.distPointToSegment(futurePosition, lineStart, lineEnd);
+        return handleCollisionWithLine(lineStart, lineEnd, 1);
+    }
+
+    /**
+     * Handles collision with a drawn line.
+     *
+     * @param lineStart The start point of the line segment.
+     * @param lineEnd   The end point of the line segment.
+     * @param timeStep  The fraction of a frame at {@link App#FPS} to look ahead by.
+     * @return True if collision occurred, false otherwise.
+     */
+    public boolean handleCollisionWithLine(PVector lineStart, PVector lineEnd, float timeStep) {
+        return handleCollisionWithLine(lineStart.x, lineStart.y, lineEnd.x, lineEnd.y, timeStep);
+    }
+
+    /**
+     * Handles collision with a drawn line segment given by its end coordinates.
+     *
+     * @param startX   The x-coordinate of the start point of the line segment.
+     * @param startY   The y-coordinate of the start point of the line segment.
+     * @param endX     The x-coordinate of the end point of the line segment.
+     * @param endY     The y-coordinate of the end point of the line segment.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to look ahead by.
+     * @return True if collision occurred, false otherwise.
+     */
+    public boolean handleCollisionWithLine(float startX, float startY, float endX, float endY, float timeStep) {
+        // Works on plain floats and reflects the velocity in place, since this runs for every
+        // nearby segment of every ball each step
+        float velocityX = getVelocityX();
+        float velocityY = getVelocityY();
+        float futureX = getCenterXPosition() + velocityX * timeStep;
+        float futureY = getCenterYPosition() + velocityY * timeStep;
+        float distance = Simulation.distPointToSegment(futureX, futureY, startX, startY, endX, endY);
 
         if (distance <= RADIUS) {
-            PVector normalVector = calculateNormal(futurePosition, lineStart, lineEnd);
+            // Normal from the segment to the future position, as in calculateNormal
+            float normalX = futureX - startX;
+            float normalY = futureY - startY;
+            float directionX = endX - startX;
+            float directionY = endY - startY;
+            float dirMagSq = directionX * directionX + directionY * directionY;
+
+            if (dirMagSq != 0) {
+                float projectionScale = (normalX * directionX + normalY * directionY) / dirMagSq;
+                normalX -= directionX * projectionScale;
+                normalY -= directionY * projectionScale;
+            }
 
-            if (normalVector.mag() != 0) {
-                normalVector.normalize();
-                float dotProduct = PVector.dot(velocity, normalVector);
-                velocity = PVector.sub(velocity, PVector.mult(normalVector, 2 * dotProduct));
+            float magnitude = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+            if (magnitude != 0) {
+                normalX /= magnitude;
+                normalY /= magnitude;
+                float dotProduct = velocityX * normalX + velocityY * normalY;
+                setVelocity(velocityX - normalX * 2 * dotProduct, velocityY - normalY * 2 * dotProduct);
                 return true;
             }
         }
@@ -175,6 +444,44 @@ public class Ball extends GameObject {
         return false;
     }
 
+    /**
+     * Handles collision with a drawn line by sweeping the ball over its whole move, so a fast
+     * ball cannot jump over the line between two steps.
+     *
+     * @param lineStart The start point of the line segment.
+     * @param lineEnd   The end point of the line segment.
+     * @param timeStep  The fraction of a frame at {@link App#FPS} to look ahead by.
+     * @return True if collision occurred, false otherwise.
+     */
+    public boolean handleSweptCollisionWithLine(PVector lineStart, PVector lineEnd, float timeStep) {
+        return handleSweptCollisionWithLine(lineStart.x, lineStart.y, lineEnd.x, lineEnd.y, timeStep);
+    }
+
+    /**
+     * Handles collision with a drawn line segment given by its end coordinates by sweeping the
+     * ball over its whole move.
+     *
+     * @param startX   The x-coordinate of the start point of the line segment.
+     * @param startY   The y-coordinate of the start point of the line segment.
+     * @param endX     The x-coordinate of the end point of the line segment.
+     * @param endY     The y-coordinate of the end point of the line segment.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to look ahead by.
+     * @return True if collision occurred, false otherwise.
+     */
+    public boolean handleSweptCollisionWithLine(float startX, float startY, float endX, float endY, float timeStep) {
+        SweptCollision sweep = BallStore.scratch().sweep;
+        float velocityX = getVelocityX();
+        float velocityY = getVelocityY();
+        if (!sweep.circleSegment(getCenterXPosition(), getCenterYPosition(), RADIUS, velocityX * timeStep, velocityY * timeStep,
+                startX, startY, endX, endY)) {
+            return false;
+        }
+
+        float dotProduct = velocityX * sweep.normalX + velocityY * sweep.normalY;
+        setVelocity(velocityX - sweep.normalX * 2 * dotProduct, velocityY - sweep.normalY * 2 * dotProduct);
+        return true;
+    }
+
     /**
      * Calculates the normal vector from a point to a line segment.
      *
@@ -207,17 +514,30 @@ public class Ball extends GameObject {
      * @param image The new image.
      */
     public void setColor(int color, PImage image) {
-        this.color = color;
+        setColor(color);
         this.image = image;
     }
 
+    /**
+     * Sets the color of the ball, leaving the image to the renderer.
+     *
+     * @param color The new color code.
+     */
+    public void setColor(int color) {
+        if (store == null) {
+            this.color = color;
+        } else {
+            store.color[index] = color;
+        }
+    }
+
     /**
      * Returns the color code of the ball.
      *
      * @return The color code.
      */
     public int getColor() {
-        return color;
+        return store == null ? color : store.color[index];
     }
 
     /**
@@ -229,33 +549,93 @@ public class Ball extends GameObject {
         return image;
     }
 
+    /**
+     * Returns the size the ball is drawn at, which shrinks while it is pulled into a hole.
+     *
+     * @return The scaled diameter in pixels.
+     */
+    public int getScaledSize() {
+        return scaledSize;
+    }
+
+    /**
+     * Sets the size the ball is drawn at, until it is next checked against its surroundings.
+     *
+     * @param scaledSize The scaled diameter in pixels.
+     */
+    void setScaledSize(int scaledSize) {
+        this.scaledSize = scaledSize;
+    }
+
+    @Override
     public float getCenterXPosition() {
-        return centerXPosition;
+        return store == null ? centerXPosition : store.x[index];
     }
 
+    @Override
     public void setCenterXPosition(float x) {
-        centerXPosition = x;
+        if (store == null) {
+            centerXPosition = x;
+        } else {
+            store.x[index] = x;
+        }
     }
 
+    @Override
     public float getCenterYPosition() {
-        return centerYPosition;
+        return store == null ? centerYPosition : store.y[index];
     }
 
+    @Override
     public void setCenterYPosition(float y) {
-        centerYPosition = y;
+        if (store == null) {
+            centerYPosition = y;
+        } else {
+            store.y[index] = y;
+        }
     }
 
-    public Set<Tile> getSurroundingTiles() {
-        return surroundingTiles;
+    /**
+     * Returns the tiles found around the ball by the last call to checkSurrounding, nearest first.
+     * The stencil is shared by every ball checked on a thread, so this is only known until
+     * another ball is checked on the same thread, and is empty after that.
+     *
+     * @return A copy of the surrounding tiles.
+     */
+    public List<Tile> getSurroundingTiles() {
+        BallStore.Scratch surrounding = BallStore.scratch();
+        if (surrounding.owner != this) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(Arrays.copyOf(surrounding.tiles, surrounding.count));
     }
 
     /**
-     * Returns the velocity of the ball.
+     * Returns a copy of the velocity of the ball. Changing the copy does not change the ball;
+     * use {@link #setVelocity(float, float)} for that.
      *
      * @return The velocity vector.
      */
     public PVector getVelocity() {
-        return velocity;
+        return new PVector(getVelocityX(), getVelocityY());
+    }
+
+    /**
+     * Returns the x-component of the velocity of the ball.
+     *
+     * @return The x-component.
+     */
+    public float getVelocityX() {
+        return store == null ? velocityX : store.velocityX[index];
+    }
+
+    /**
+     * Returns the y-component of the velocity of the ball.
+     *
+     * @return The y-component.
+     */
+    public float getVelocityY() {
+        return store == null ? velocityY : store.velocityY[index];
     }
 
     /**
@@ -264,6 +644,57 @@ public class Ball extends GameObject {
      * @param velocity The new velocity vector.
      */
     public void setVelocity(PVector velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.x, velocity.y);
+    }
+
+    /**
+     * Sets the velocity of the ball.
+     *
+     * @param velocityX The new x-component.
+     * @param velocityY The new y-component.
+     */
+    public void setVelocity(float velocityX, float velocityY) {
+        if (store == null) {
+            this.velocityX = velocityX;
+            this.velocityY = velocityY;
+        } else {
+            store.velocityX[index] = velocityX;
+            store.velocityY[index] = velocityY;
+        }
+    }
+
+    /**
+     * Points the ball at a slot of a store.
+     *
+     * @param store The store.
+     * @param index The slot.
+     */
+    void attach(BallStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Copies the ball's state out of its slot into its fields, ready to be removed from its store.
+     */
+    void detach() {
+        centerXPosition = store.x[index];
+        centerYPosition = store.y[index];
+        previousX = store.previousX[index];
+        previousY = store.previousY[index];
+        velocityX = store.velocityX[index];
+        velocityY = store.velocityY[index];
+        color = store.color[index];
+        store = null;
+        index = 0;
+    }
+
+    /**
+     * Checks if the ball is on its own.
+     *
+     * @return True if the ball is not in a store, false otherwise.
+     */
+    boolean isDetached() {
+        return store == null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,569 @@
+package inkball;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Holds the state of many balls in parallel primitive arrays, so the per-step passes walk
+ * memory in order instead of chasing one heap object per ball.
+ * Each stored ball keeps a {@link Ball} that reads and writes its slot, which is what tests
+ * and rendering use. Removing a ball moves the last ball into its slot, so removal is
+ * constant time but does not keep the order of the remaining balls.
+ */
+public class BallStore extends AbstractList<Ball> {
+
+    /**
+     * Working space for checking one ball at a time: the neighbourhood stencil of up to six
+     * distinct tiles, nearest first, and a sweep for continuous collisions. Each thread has one,
+     * so balls carry none of their own and can still be updated in parallel.
+     */
+    static final class Scratch {
+        final Tile[] tiles = new Tile[6];
+        // Cell each tile was found at
+        final int[] rows = new int[6];
+        final int[] columns = new int[6];
+        final float[] distancesSq = new float[6];
+        int count;
+        // Ball the stencil was last filled for
+        Ball owner;
+        final SweptCollision sweep = new SweptCollision();
+
+        /**
+         * Empties the stencil for a ball.
+         *
+         * @param ball The ball about to be checked.
+         */
+        void clear(Ball ball) {
+            owner = ball;
+            count = 0;
+        }
+
+        /**
+         * Adds the tile of a cell to the stencil, skipping empty cells and tiles already in it,
+         * such as a hole that covers several cells. A wall is shared by every cell of its kind,
+         * so it is only skipped if its cell is already in the stencil.
+         *
+         * @param tile   The tile, or null for an empty cell.
+         * @param row    The row of the cell.
+         * @param column The column of the cell.
+         * @param x      The x-coordinate of the ball.
+         * @param y      The y-coordinate of the ball.
+         */
+        void add(Tile tile, int row, int column, float x, float y) {
+            if (tile == null) {
+                return;
+            }
+            boolean shared = tile instanceof Wall;
+            for (int i = 0; i < count; i++) {
+                if (tiles[i] == tile && (!shared || (rows[i] == row && columns[i] == column))) {
+                    return;
+                }
+            }
+
+            float centerX = shared ? column * App.CELL_SIZE + Tile.HALF_SIZE : tile.getCenterXPosition();
+            float centerY = shared ? row * App.CELL_SIZE + Tile.HALF_SIZE : tile.getCenterYPosition();
+            float deltaX = x - centerX;
+            float deltaY = y - centerY;
+            tiles[count] = tile;
+            rows[count] = row;
+            columns[count] = column;
+            distancesSq[count] = deltaX * deltaX + deltaY * deltaY;
+            count++;
+        }
+
+        /**
+         * Sorts the stencil by squared distance. The sort is stable, so tiles at the same
+         * distance keep the order they were added in.
+         */
+        void sort() {
+            for (int i = 1; i < count; i++) {
+                Tile tile = tiles[i];
+                int row = rows[i];
+                int column = columns[i];
+                float distanceSq = distancesSq[i];
+                int j = i - 1;
+                while (j >= 0 && distancesSq[j] > distanceSq) {
+                    tiles[j + 1] = tiles[j];
+                    rows[j + 1] = rows[j];
+                    columns[j + 1] = columns[j];
+                    distancesSq[j + 1] = distancesSq[j];
+                    j--;
+                }
+                tiles[j + 1] = tile;
+                rows[j + 1] = row;
+                columns[j + 1] = column;
+                distancesSq[j + 1] = distanceSq;
+            }
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    float[] x;
+    float[] y;
+    float[] previousX;
+    float[] previousY;
+    float[] velocityX;
+    float[] velocityY;
+    int[] color;
+    private Ball[] balls;
+    private int size;
+    // Edges the balls bounce off
+    private float width = App.WIDTH;
+    private float height = App.HEIGHT;
+    // Slots in ball to ball sweep order, kept between steps as the balls barely move
+    private int[] sweepOrder = new int[0];
+    private int sweepCount;
+    // Band and x-coordinate of each position in the sweep order, and the band of each slot
+    private int[] sweepBand = new int[0];
+    private float[] sweepX = new float[0];
+    private int[] slotBand = new int[0];
+
+    /**
+     * Constructs an empty store.
+     */
+    public BallStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty store with room for a number of balls before it needs to grow.
+     *
+     * @param capacity The initial capacity.
+     */
+    public BallStore(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        color = new int[capacity];
+        balls = new Ball[capacity];
+    }
+
+    /**
+     * Sets the edges the balls bounce off. The left and top edges are always 0.
+     *
+     * @param width  The right edge.
+     * @param height The bottom edge.
+     */
+    public void setBounds(float width, float height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public Ball get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return balls[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves a ball on its own into this store, copying its state into a new slot at the end.
+     *
+     * @param ball The ball to add.
+     * @return Always true.
+     * @throws IllegalArgumentException If the ball is already in a store.
+     */
+    @Override
+    public boolean add(Ball ball) {
+        if (ball.store == this) {
+            throw new IllegalArgumentException("Ball is already in this store");
+        }
+        if (!ball.isDetached()) {
+            throw new IllegalArgumentException("Ball is already in another store");
+        }
+
+        int index = push(ball, ball.getCenterXPosition(), ball.getCenterYPosition(),
+            ball.getVelocityX(), ball.getVelocityY(), ball.getColor());
+        previousX[index] = ball.getPreviousXPosition();
+        previousY[index] = ball.getPreviousYPosition();
+        ball.attach(this, index);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Ball ball) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Balls can only be added at the end");
+        }
+        add(ball);
+    }
+
+    /**
+     * Removes the ball in a slot by moving the last ball into it. The removed ball keeps its
+     * state and can still be used on its own.
+     *
+     * @param index The slot to remove.
+     * @return The removed ball.
+     */
+    @Override
+    public Ball remove(int index) {
+        Ball removed = get(index);
+        removed.detach();
+
+        int last = size - 1;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            previousX[index] = previousX[last];
+            previousY[index] = previousY[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            color[index] = color[last];
+            balls[index] = balls[last];
+            balls[index].attach(this, index);
+        }
+        balls[last] = null;
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (object instanceof Ball && ((Ball) object).store == this) {
+            remove(((Ball) object).index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> objects) {
+        boolean changed = false;
+        for (Object object : objects) {
+            changed |= remove(object);
+        }
+        return changed;
+    }
+
+    @Override
+    public int indexOf(Object object) {
+        if (object instanceof Ball && ((Ball) object).store == this) {
+            return ((Ball) object).index;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return indexOf(object) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            balls[i].detach();
+            balls[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Grows or shrinks the store to a number of balls. The balls in the slots that remain are
+     * kept, and new balls are added at the end with their state left to the caller to set.
+     *
+     * @param count  The number of balls.
+     * @param random The generator the new balls draw their velocity from.
+     */
+    void setSize(int count, Random random) {
+        while (size > count) {
+            int last = size - 1;
+            balls[last].detach();
+            balls[last] = null;
+            size--;
+            modCount++;
+        }
+        while (size < count) {
+            Ball ball = new Ball(0, 0, 0, null, random);
+            ball.attach(this, push(ball, 0, 0, 0, 0, 0));
+        }
+    }
+
+    /**
+     * Gets the working space of the current thread for checking a ball.
+     *
+     * @return The scratch space.
+     */
+    static Scratch scratch() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Remembers the current position of every ball so it can be blended with the next one.
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    /**
+     * Moves every ball by its velocity and bounces it off the edges of the screen.
+     *
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the balls by.
+     */
+    public void updatePositions(float timeStep) {
+        for (int i = 0; i < size; i++) {
+            updatePosition(i, timeStep);
+        }
+    }
+
+    /**
+     * Moves one ball by its velocity and bounces it off the edges of the screen.
+     *
+     * @param index    The slot of the ball.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the ball by.
+     */
+    void updatePosition(int index, float timeStep) {
+        x[index] += velocityX[index] * timeStep;
+        y[index] += velocityY[index] * timeStep;
+
+        if (x[index] - Ball.RADIUS < 0) {
+            x[index] = Ball.RADIUS;
+            velocityX[index] *= -1;
+        }
+        if (x[index] + Ball.RADIUS > width) {
+            x[index] = width - Ball.RADIUS;
+            velocityX[index] *= -1;
+        }
+        if (y[index] - Ball.RADIUS < 0) {
+            y[index] = Ball.RADIUS;
+            velocityY[index] *= -1;
+        }
+        if (y[index] + Ball.RADIUS > height) {
+            y[index] = height - Ball.RADIUS;
+            velocityY[index] *= -1;
+        }
+    }
+
+    /**
+     * Bounces touching balls off each other. Pairs are found by sort and sweep: the balls are
+     * sorted into bands a diameter high and along x within each band, and each ball is only
+     * tested against the balls less than a diameter along in its own band and the band below.
+     * Sweeping along x alone would test every ball in a column as tall as the board, so the
+     * bands keep the cost close to linear in the number of balls. Each touching pair of equal
+     * balls swaps the parts of their velocities along the line between their centers and is
+     * pushed apart until the balls just touch.
+     */
+    public void collideBalls() {
+        sortSweepOrder();
+
+        float diameter = 2 * Ball.RADIUS;
+        float diameterSq = diameter * diameter;
+        // First position in the band below the current ball that may still be in reach
+        int below = 0;
+        for (int a = 0; a < size; a++) {
+            int i = sweepOrder[a];
+            int band = sweepBand[a];
+            float start = sweepX[a];
+
+            for (int b = a + 1; b < size && sweepBand[b] == band && sweepX[b] - start < diameter; b++) {
+                collideIfTouching(i, sweepOrder[b], diameterSq);
+            }
+
+            below = Math.max(below, a + 1);
+            while (below < size && (sweepBand[below] <= band
+                    || (sweepBand[below] == band + 1 && sweepX[below] <= start - diameter))) {
+                below++;
+            }
+            for (int b = below; b < size && sweepBand[b] == band + 1 && sweepX[b] - start < diameter; b++) {
+                collideIfTouching(i, sweepOrder[b], diameterSq);
+            }
+        }
+    }
+
+    /**
+     * Bounces two balls off each other if they overlap.
+     *
+     * @param i          The slot of the first ball.
+     * @param j          The slot of the second ball.
+     * @param diameterSq The square of a ball's diameter.
+     */
+    private void collideIfTouching(int i, int j, float diameterSq) {
+        float dx = x[j] - x[i];
+        float dy = y[j] - y[i];
+        if (dx * dx + dy * dy < diameterSq) {
+            collide(i, j, dx, dy);
+        }
+    }
+
+    /**
+     * Sorts the slots by band, then by x, then by slot so the order never depends on earlier
+     * steps, and notes the band and x of each position. An insertion sort of the previous order
+     * is close to linear, as the balls barely move in a step; a full sort is only needed when
+     * balls have been added or removed.
+     */
+    private void sortSweepOrder() {
+        if (sweepBand.length < size) {
+            sweepOrder = Arrays.copyOf(sweepOrder, balls.length);
+            sweepBand = new int[balls.length];
+            sweepX = new float[balls.length];
+            slotBand = new int[balls.length];
+        }
+        int bands = 0;
+        for (int i = 0; i < size; i++) {
+            slotBand[i] = Math.max(0, (int) (y[i] / (2 * Ball.RADIUS)));
+            bands = Math.max(bands, slotBand[i] + 1);
+        }
+
+        if (sweepCount != size) {
+            sortAll(bands);
+            sweepCount = size;
+        } else {
+            for (int a = 1; a < size; a++) {
+                int slot = sweepOrder[a];
+                int b = a - 1;
+                while (b >= 0 && comesAfter(sweepOrder[b], slot)) {
+                    sweepOrder[b + 1] = sweepOrder[b];
+                    b--;
+                }
+                sweepOrder[b + 1] = slot;
+            }
+        }
+
+        for (int a = 0; a < size; a++) {
+            sweepBand[a] = slotBand[sweepOrder[a]];
+            sweepX[a] = x[sweepOrder[a]];
+        }
+    }
+
+    /**
+     * Sorts the slots from scratch: by x and slot, then stably by band.
+     *
+     * @param bands The number of bands.
+     */
+    private void sortAll(int bands) {
+        // Sort keys of the x-coordinate in the high half and the slot in the low half
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int bits = Float.floatToIntBits(x[i]);
+            keys[i] = (long) (bits ^ ((bits >> 31) & 0x7FFFFFFF)) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] bandStarts = new int[bands + 1];
+        for (int i = 0; i < size; i++) {
+            bandStarts[slotBand[i] + 1]++;
+        }
+        for (int band = 0; band < bands; band++) {
+            bandStarts[band + 1] += bandStarts[band];
+        }
+        for (int i = 0; i < size; i++) {
+            int slot = (int) keys[i];
+            sweepOrder[bandStarts[slotBand[slot]]++] = slot;
+        }
+    }
+
+    /**
+     * Checks if one slot comes after another in the sweep order.
+     *
+     * @param a The first slot.
+     * @param b The second slot.
+     * @return True if a comes after b.
+     */
+    private boolean comesAfter(int a, int b) {
+        if (slotBand[a] != slotBand[b]) {
+            return slotBand[a] > slotBand[b];
+        }
+        int order = Float.compare(x[a], x[b]);
+        return order > 0 || (order == 0 && a > b);
+    }
+
+    /**
+     * Resolves an elastic collision between two overlapping balls of equal mass.
+     *
+     * @param i  The slot of the first ball.
+     * @param j  The slot of the second ball.
+     * @param dx The x-offset from the first ball to the second.
+     * @param dy The y-offset from the first ball to the second.
+     */
+    private void collide(int i, int j, float dx, float dy) {
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        float normalX = 1;
+        float normalY = 0;
+        if (distance > 0) {
+            normalX = dx / distance;
+            normalY = dy / distance;
+        }
+
+        // Only balls moving towards each other exchange velocity, so a pair cannot stick
+        float approach = (velocityX[i] - velocityX[j]) * normalX + (velocityY[i] - velocityY[j]) * normalY;
+        if (approach > 0) {
+            velocityX[i] -= approach * normalX;
+            velocityY[i] -= approach * normalY;
+            velocityX[j] += approach * normalX;
+            velocityY[j] += approach * normalY;
+        }
+
+        float push = (2 * Ball.RADIUS - distance) / 2;
+        x[i] -= normalX * push;
+        y[i] -= normalY * push;
+        x[j] += normalX * push;
+        y[j] += normalY * push;
+    }
+
+    /**
+     * Gets the speed of a ball.
+     *
+     * @param index The slot of the ball.
+     * @return The length of its velocity.
+     */
+    public float getSpeed(int index) {
+        return (float) Math.sqrt(velocityX[index] * velocityX[index] + velocityY[index] * velocityY[index]);
+    }
+
+    /**
+     * Appends a slot for a ball without touching the ball itself.
+     *
+     * @param ball      The ball the slot belongs to.
+     * @param centerX   The x-coordinate of the ball's center.
+     * @param centerY   The y-coordinate of the ball's center.
+     * @param velocityX The x-component of the ball's velocity.
+     * @param velocityY The y-component of the ball's velocity.
+     * @param color     The color code of the ball.
+     * @return The new slot.
+     */
+    int push(Ball ball, float centerX, float centerY, float velocityX, float velocityY, int color) {
+        if (size == balls.length) {
+            grow();
+        }
+        int index = size++;
+        this.x[index] = centerX;
+        this.y[index] = centerY;
+        this.previousX[index] = centerX;
+        this.previousY[index] = centerY;
+        this.velocityX[index] = velocityX;
+        this.velocityY[index] = velocityY;
+        this.color[index] = color;
+        this.balls[index] = ball;
+        modCount++;
+        return index;
+    }
+
+    /**
+     * Doubles the capacity of every array.
+     */
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, balls.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        color = Arrays.copyOf(color, capacity);
+        balls = Arrays.copyOf(balls, capacity);
+    }
+}
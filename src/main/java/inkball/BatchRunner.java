@@ -0,0 +1,263 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many headless games of every level of a config at once, one independent
+ * {@link Simulation} per run on a pool of worker threads, and writes how each run went to a CSV
+ * file. Used to evaluate level designs.
+ */
+public class BatchRunner {
+
+    // Line drawing policies
+    public static final String NO_LINES = "none";
+    public static final String RANDOM_LINES = "random";
+
+    // Most lines the random policy keeps on the board; the oldest is removed for a new one
+    public static final int MAX_LINES = 4;
+    // Length of a line drawn by the random policy, in pixels
+    public static final int LINE_LENGTH = 96;
+    // Default cap on the steps of one run, ten minutes of play at 30 steps a second
+    public static final int MAX_STEPS = 30 * 60 * 10;
+
+    public static final String CSV_HEADER = "run,level,seed,policy,outcome,steps,score,captures,time_left,millis,steps_per_second";
+
+    /**
+     * How one run went.
+     */
+    public static class RunResult {
+        public int run;
+        public int level;
+        public long seed;
+        public String policy;
+        // "complete", "time_up" or "step_limit"
+        public String outcome;
+        public int steps;
+        public int score;
+        public int captures;
+        public int timeLeft;
+        public long nanos;
+
+        /**
+         * Formats the result as a row of the CSV file.
+         *
+         * @return The row, matching {@link #CSV_HEADER}.
+         */
+        public String toCsv() {
+            double millis = nanos / 1e6;
+            double stepsPerSecond = nanos == 0 ? 0 : steps / (nanos / 1e9);
+            return String.format(Locale.ROOT, "%d,%d,%d,%s,%s,%d,%d,%d,%d,%.3f,%.1f",
+                run, level, seed, policy, outcome, steps, score, captures, timeLeft, millis, stepsPerSecond);
+        }
+    }
+
+    /**
+     * Runs a batch from the command line and prints the overall throughput.
+     *
+     * @param args The config file, the number of runs of each level, the CSV file to write, the
+     *             line drawing policy ({@value #NO_LINES} or {@value #RANDOM_LINES}), the first
+     *             seed, the number of threads and the step cap of a run. All are optional.
+     * @throws IOException          If the CSV file cannot be written.
+     * @throws InterruptedException If interrupted while waiting for the runs.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String configPath = args.length > 0 ? args[0] : "config.json";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Path output = Paths.get(args.length > 2 ? args[2] : "batch.csv");
+        String policy = args.length > 3 ? args[3] : RANDOM_LINES;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        int maxSteps = args.length > 6 ? Integer.parseInt(args[6]) : MAX_STEPS;
+
+        long start = System.nanoTime();
+        List<RunResult> results = run(configPath, runs, policy, seed, threads, maxSteps);
+        long elapsed = System.nanoTime() - start;
+        writeCsv(results, output);
+
+        long steps = 0;
+        for (RunResult result : results) {
+            steps += result.steps;
+        }
+        double seconds = elapsed / 1e9;
+        System.out.printf(Locale.ROOT, "%d runs on %d threads in %.2f s: %.1f runs/s, %.0f steps/s -> %s%n",
+            results.size(), threads, seconds, results.size() / seconds, steps / seconds, output);
+    }
+
+    /**
+     * Plays every level of a config a number of times. Run {@code i} of the batch is seeded with
+     * {@code seed + i}, so it can be played again on its own.
+     *
+     * @param configPath The config file.
+     * @param runs       The number of runs of each level.
+     * @param policy     The line drawing policy.
+     * @param seed       The seed of the first run.
+     * @param threads    The number of worker threads.
+     * @param maxSteps   The most steps a run may take.
+     * @return The results, by level and then by run.
+     * @throws InterruptedException If interrupted while waiting for the runs.
+     */
+    public static List<RunResult> run(String configPath, int runs, String policy, long seed, int threads, int maxSteps)
+            throws InterruptedException {
+        if (!NO_LINES.equals(policy) && !RANDOM_LINES.equals(policy)) {
+            throw new IllegalArgumentException("Unknown line policy: " + policy);
+        }
+        int levelCount = new Simulation(configPath).levels.size();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RunResult>> futures = new ArrayList<>();
+            for (int level = 1; level <= levelCount; level++) {
+                for (int i = 0; i < runs; i++) {
+                    int run = (level - 1) * runs + i;
+                    int levelNumber = level;
+                    futures.add(pool.submit(() -> play(configPath, levelNumber, run, seed + run, policy, maxSteps)));
+                }
+            }
+
+            List<RunResult> results = new ArrayList<>(futures.size());
+            for (Future<RunResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Run failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one level until it is complete, its time is up or it reaches the step cap.
+     *
+     * @param configPath The config file.
+     * @param level      The level number.
+     * @param run        The number of the run in the batch.
+     * @param seed       The seed of the game and its line drawing.
+     * @param policy     The line drawing policy.
+     * @param maxSteps   The most steps to take.
+     * @return How the run went.
+     */
+    public static RunResult play(String configPath, int level, int run, long seed, String policy, int maxSteps) {
+        long start = System.nanoTime();
+        Simulation simulation = new Simulation(configPath);
+        simulation.currentLevel = level;
+        simulation.setSeed(seed);
+        // A stream of its own, so the line drawing does not change what the game draws
+        Random random = new Random(~seed);
+
+        int steps = 0;
+        while (steps < maxSteps && !isFinished(simulation.gameState)) {
+            if (RANDOM_LINES.equals(policy) && simulation.gameState == GameState.RUNNING
+                    && steps % simulation.physicsHz == 0 && random.nextBoolean()) {
+                drawRandomLine(simulation, random);
+            }
+            simulation.step();
+            steps++;
+        }
+
+        RunResult result = new RunResult();
+        result.run = run;
+        result.level = level;
+        result.seed = seed;
+        result.policy = policy;
+        result.outcome = simulation.gameState == GameState.LEVEL_TIME_UP ? "time_up"
+            : isFinished(simulation.gameState) ? "complete" : "step_limit";
+        result.steps = steps;
+        result.score = simulation.currentScore;
+        result.captures = simulation.capturedBalls;
+        result.timeLeft = Math.max(0, simulation.levelTime);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Checks if a level has been played out.
+     *
+     * @param gameState The state of the game.
+     * @return True once the level is complete or its time is up, false otherwise.
+     */
+    private static boolean isFinished(GameState gameState) {
+        return gameState == GameState.LEVEL_COMPLETE || gameState == GameState.GAME_ENDED
+            || gameState == GameState.LEVEL_TIME_UP;
+    }
+
+    /**
+     * Draws a short line across the path of a random ball, a second ahead of it, removing the
+     * oldest line if there are already {@link #MAX_LINES}.
+     *
+     * @param simulation The simulation.
+     * @param random     The source of randomness.
+     */
+    static void drawRandomLine(Simulation simulation, Random random) {
+        if (simulation.ballsOnScreen.isEmpty()) {
+            return;
+        }
+        Ball ball = simulation.ballsOnScreen.get(random.nextInt(simulation.ballsOnScreen.size()));
+        float velocityX = ball.getVelocityX();
+        float velocityY = ball.getVelocityY();
+        float speed = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        if (speed == 0) {
+            return;
+        }
+
+        // Velocities are per frame at App.FPS
+        float aheadX = ball.getCenterXPosition() + velocityX * App.FPS;
+        float aheadY = ball.getCenterYPosition() + velocityY * App.FPS;
+        float halfX = -velocityY / speed * LINE_LENGTH / 2;
+        float halfY = velocityX / speed * LINE_LENGTH / 2;
+        float bend = (random.nextFloat() - 0.5f) * LINE_LENGTH / 2;
+
+        if (simulation.lines.size() >= MAX_LINES) {
+            simulation.removeLine(simulation.lines.get(0));
+        }
+        simulation.addLine(Arrays.asList(
+            clampToBoard(simulation, aheadX - halfX, aheadY - halfY),
+            clampToBoard(simulation, aheadX + velocityX / speed * bend, aheadY + velocityY / speed * bend),
+            clampToBoard(simulation, aheadX + halfX, aheadY + halfY)));
+    }
+
+    /**
+     * Makes a point on the board, moved onto the board if it lies outside.
+     *
+     * @param simulation The simulation.
+     * @param x          The x-coordinate.
+     * @param y          The y-coordinate.
+     * @return The point.
+     */
+    private static PVector clampToBoard(Simulation simulation, float x, float y) {
+        return new PVector(Math.max(0, Math.min(simulation.getBoardWidth(), x)),
+            Math.max(0, Math.min(simulation.getBoardHeight(), y)));
+    }
+
+    /**
+     * Writes results to a CSV file with a header row.
+     *
+     * @param results The results.
+     * @param output  The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeCsv(List<RunResult> results, Path output) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output))) {
+            writer.println(CSV_HEADER);
+            for (RunResult result : results) {
+                writer.println(result.toCsv());
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * The cells of a game board, one byte each, encoded like the cells of a {@link CompiledLevel}:
+ * the tile type in the low nibble and its color in the high nibble. Walls have no object of
+ * their own; every cell of a wall type and color shares one immutable {@link Wall}, whose edges
+ * are worked out from the row and column it is used at. Holes, spawners and any other tiles
+ * keep their objects in a small hash table keyed by cell, so a hole's four cells all give back
+ * the same hole.
+ */
+public class Board {
+
+    // Type of a cell holding a tile that is not a wall, spawner or hole
+    public static final int TILE = 15;
+
+    // The walls shared by every board, by cell byte; null for cells that are not walls
+    private static final Wall[] WALLS = new Wall[256];
+
+    static {
+        for (int color = 0; color < 16; color++) {
+            WALLS[color << 4 | CompiledLevel.WALL] = new Wall(color);
+            WALLS[color << 4 | CompiledLevel.VERTICAL_WALL] = new ColorRestrictingWall(color, true);
+            WALLS[color << 4 | CompiledLevel.HORIZONTAL_WALL] = new ColorRestrictingWall(color, false);
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+    private final byte[] cells;
+    // Open-addressed table of the cells that have held a tile object, -1 in free slots, and the
+    // tile of each; a cell that no longer holds one keeps its slot with a null tile
+    private int[] objectCells = emptyCells(8);
+    private Tile[] objects = new Tile[8];
+    private int objectCount;
+    // Shift taking the top bits of a hashed cell as its first slot
+    private int objectShift = 32 - 3;
+
+    /**
+     * Constructs a board with every cell empty.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    public Board(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new byte[rows * columns];
+    }
+
+    /**
+     * Gets the wall shared by every cell of a color.
+     *
+     * @param color The color code.
+     * @return The wall.
+     */
+    public static Wall wall(int color) {
+        return WALLS[color << 4 | CompiledLevel.WALL];
+    }
+
+    /**
+     * Gets the color-restricting wall shared by every cell of a color and direction.
+     *
+     * @param color      The color code.
+     * @param isVertical True for a vertical wall; false for a horizontal one.
+     * @return The wall.
+     */
+    public static ColorRestrictingWall colorRestrictingWall(int color, boolean isVertical) {
+        int type = isVertical ? CompiledLevel.VERTICAL_WALL : CompiledLevel.HORIZONTAL_WALL;
+        return (ColorRestrictingWall) WALLS[color << 4 | type];
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the tile of a cell. A wall is the one shared by every cell of its type and color.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The tile, or null if the cell is empty.
+     */
+    public Tile get(int row, int column) {
+        int index = row * columns + column;
+        int cell = cells[index] & 0xFF;
+        Wall wall = WALLS[cell];
+        if (wall != null || cell == CompiledLevel.EMPTY) {
+            return wall;
+        }
+        return objects[slot(index)];
+    }
+
+    /**
+     * Sets the tile of a cell. Only the type and color of a wall are kept, so it is read back
+     * as the shared wall of its kind.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @param tile   The tile, or null to empty the cell.
+     */
+    public void set(int row, int column, Tile tile) {
+        int index = row * columns + column;
+        int cell = encode(tile);
+        cells[index] = (byte) cell;
+
+        Tile object = tile == null || tile instanceof Wall ? null : tile;
+        int slot = slot(index);
+        if (objectCells[slot] == index) {
+            objects[slot] = object;
+        } else if (object != null) {
+            // Keep the table at most half full so probes stay short
+            if (2 * (objectCount + 1) > objectCells.length) {
+                grow();
+                slot = slot(index);
+            }
+            objectCells[slot] = index;
+            objects[slot] = object;
+            objectCount++;
+        }
+    }
+
+    /**
+     * Finds the slot of a cell in the object table.
+     *
+     * @param index The index of the cell, by row then column.
+     * @return The slot holding the cell, or the free slot it would go in.
+     */
+    private int slot(int index) {
+        int mask = objectCells.length - 1;
+        int slot = (index * 0x9E3779B9) >>> objectShift;
+        while (objectCells[slot] != index && objectCells[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the object table, putting every cell back in.
+     */
+    private void grow() {
+        int[] oldCells = objectCells;
+        Tile[] oldObjects = objects;
+        objectCells = emptyCells(2 * oldCells.length);
+        objects = new Tile[objectCells.length];
+        objectShift--;
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] != -1) {
+                int slot = slot(oldCells[i]);
+                objectCells[slot] = oldCells[i];
+                objects[slot] = oldObjects[i];
+            }
+        }
+    }
+
+    /**
+     * Creates the cells of an empty object table.
+     *
+     * @param capacity The number of slots, a power of two.
+     * @return The cells, all free.
+     */
+    private static int[] emptyCells(int capacity) {
+        int[] cells = new int[capacity];
+        Arrays.fill(cells, -1);
+        return cells;
+    }
+
+    /**
+     * Gets the type of a cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The tile type, such as {@link CompiledLevel#WALL}, or {@link #TILE}.
+     */
+    public int getType(int row, int column) {
+        return cells[row * columns + column] & 0x0F;
+    }
+
+    /**
+     * Gets the color of a cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The color code, 0 for cells without a color.
+     */
+    public int getColor(int row, int column) {
+        return (cells[row * columns + column] >> 4) & 0x0F;
+    }
+
+    /**
+     * Encodes a tile as its cell byte.
+     *
+     * @param tile The tile, or null for an empty cell.
+     * @return The tile type in the low nibble and its color in the high nibble.
+     */
+    private static int encode(Tile tile) {
+        if (tile instanceof ColorRestrictingWall) {
+            ColorRestrictingWall wall = (ColorRestrictingWall) tile;
+            int type = wall.isVertical() ? CompiledLevel.VERTICAL_WALL : CompiledLevel.HORIZONTAL_WALL;
+            return wall.getColor() << 4 | type;
+        } else if (tile instanceof Wall) {
+            return ((Wall) tile).getColor() << 4 | CompiledLevel.WALL;
+        } else if (tile instanceof Spawner) {
+            return CompiledLevel.SPAWNER;
+        } else if (tile instanceof Hole) {
+            return ((Hole) tile).getColor() << 4 | CompiledLevel.HOLE;
+        }
+        return tile == null ? CompiledLevel.EMPTY : TILE;
+    }
+}
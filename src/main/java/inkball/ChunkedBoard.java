@@ -0,0 +1,212 @@
+package inkball;
+
+/**
+ * Fills in the walls and holes of a large board a square chunk of cells at a time, the first
+ * time something comes near the chunk, from the cells of a memory-mapped {@link CompiledLevel}.
+ * Cells of chunks that have not been loaded yet are empty in the board, so anything that reads
+ * the board must load the area it is about to read first. Spawners are placed by the level
+ * before any chunk is loaded and are left alone.
+ */
+public class ChunkedBoard {
+
+    // Width and height of a chunk in cells
+    public static final int CHUNK_SIZE = 16;
+    // Boards with at most this many cells are loaded all at once
+    public static final int LAZY_CELLS = 128 * 128;
+
+    private final CompiledLevel level;
+    private final Board board;
+    private final int rows;
+    private final int columns;
+    private final int chunkRows;
+    private final int chunkColumns;
+    private final boolean[] loaded;
+    private int loadedCount;
+
+    // Holes each chunk overlaps, as ranges of chunkHoles indexed by chunk
+    private final int[] chunkHoleStart;
+    private final int[] chunkHoles;
+    // A hole can reach into four chunks; it is created when the first of them loads
+    private final Hole[] holes;
+
+    /**
+     * Constructs a board with no chunks loaded.
+     *
+     * @param level The compiled level to read the cells from.
+     * @param board The board to fill in, sized to the level.
+     */
+    public ChunkedBoard(CompiledLevel level, Board board) {
+        this.level = level;
+        this.board = board;
+        this.rows = level.getRows();
+        this.columns = level.getColumns();
+        this.chunkRows = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkColumns = (columns + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.loaded = new boolean[chunkRows * chunkColumns];
+        this.holes = new Hole[level.getHoleCount()];
+
+        // Count the holes in each chunk, then fill in the ranges
+        this.chunkHoleStart = new int[chunkRows * chunkColumns + 1];
+        for (int hole = 0; hole < holes.length; hole++) {
+            forEachChunkOfHole(hole, chunk -> chunkHoleStart[chunk + 1]++);
+        }
+        for (int chunk = 0; chunk < loaded.length; chunk++) {
+            chunkHoleStart[chunk + 1] += chunkHoleStart[chunk];
+        }
+        this.chunkHoles = new int[chunkHoleStart[loaded.length]];
+        int[] next = chunkHoleStart.clone();
+        for (int hole = 0; hole < holes.length; hole++) {
+            final int index = hole;
+            forEachChunkOfHole(hole, chunk -> chunkHoles[next[chunk]++] = index);
+        }
+    }
+
+    /**
+     * Calls an action with the index of every chunk a hole's four cells fall in.
+     *
+     * @param hole   The index of the hole.
+     * @param action The action.
+     */
+    private void forEachChunkOfHole(int hole, java.util.function.IntConsumer action) {
+        int firstChunkRow = level.getHoleRow(hole) / CHUNK_SIZE;
+        int firstChunkColumn = level.getHoleColumn(hole) / CHUNK_SIZE;
+        int lastChunkRow = Math.min(rows - 1, level.getHoleRow(hole) + 1) / CHUNK_SIZE;
+        int lastChunkColumn = Math.min(columns - 1, level.getHoleColumn(hole) + 1) / CHUNK_SIZE;
+        for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++) {
+            for (int chunkColumn = firstChunkColumn; chunkColumn <= lastChunkColumn; chunkColumn++) {
+                action.accept(chunkRow * chunkColumns + chunkColumn);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of rows of chunks.
+     *
+     * @return The number of rows.
+     */
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Gets the number of columns of chunks.
+     *
+     * @return The number of columns.
+     */
+    public int getChunkColumns() {
+        return chunkColumns;
+    }
+
+    /**
+     * Gets the number of chunks loaded so far.
+     *
+     * @return The number of loaded chunks.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Checks if a chunk has been loaded.
+     *
+     * @param chunkRow    The row of the chunk.
+     * @param chunkColumn The column of the chunk.
+     * @return True if its tiles are on the board, false otherwise.
+     */
+    public boolean isLoaded(int chunkRow, int chunkColumn) {
+        return loaded[chunkRow * chunkColumns + chunkColumn];
+    }
+
+    /**
+     * Loads every chunk.
+     */
+    public void loadAll() {
+        loadCells(0, 0, rows - 1, columns - 1);
+    }
+
+    /**
+     * Loads the chunks around a point on the board.
+     *
+     * @param x      The x-coordinate.
+     * @param y      The y-coordinate.
+     * @param margin The distance around the point to load, in pixels.
+     */
+    public void loadAround(float x, float y, float margin) {
+        loadCells((int) Math.floor((y - margin) / App.CELL_SIZE), (int) Math.floor((x - margin) / App.CELL_SIZE),
+            (int) Math.floor((y + margin) / App.CELL_SIZE), (int) Math.floor((x + margin) / App.CELL_SIZE));
+    }
+
+    /**
+     * Loads the chunks a range of cells falls in. The range is clamped to the board.
+     *
+     * @param firstRow    The first row.
+     * @param firstColumn The first column.
+     * @param lastRow     The last row.
+     * @param lastColumn  The last column.
+     */
+    public void loadCells(int firstRow, int firstColumn, int lastRow, int lastColumn) {
+        int firstChunkRow = Math.max(0, firstRow) / CHUNK_SIZE;
+        int firstChunkColumn = Math.max(0, firstColumn) / CHUNK_SIZE;
+        int lastChunkRow = Math.min(rows - 1, lastRow) / CHUNK_SIZE;
+        int lastChunkColumn = Math.min(columns - 1, lastColumn) / CHUNK_SIZE;
+        for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++) {
+            for (int chunkColumn = firstChunkColumn; chunkColumn <= lastChunkColumn; chunkColumn++) {
+                if (!loaded[chunkRow * chunkColumns + chunkColumn]) {
+                    load(chunkRow, chunkColumn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills in the walls and holes of one chunk.
+     *
+     * @param chunkRow    The row of the chunk.
+     * @param chunkColumn The column of the chunk.
+     */
+    private void load(int chunkRow, int chunkColumn) {
+        int chunk = chunkRow * chunkColumns + chunkColumn;
+        loaded[chunk] = true;
+        loadedCount++;
+
+        int firstRow = chunkRow * CHUNK_SIZE;
+        int firstColumn = chunkColumn * CHUNK_SIZE;
+        int lastRow = Math.min(rows, firstRow + CHUNK_SIZE) - 1;
+        int lastColumn = Math.min(columns, firstColumn + CHUNK_SIZE) - 1;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int color = level.getColor(row, column);
+                switch (level.getType(row, column)) {
+                    case CompiledLevel.WALL:
+                        board.set(row, column, Board.wall(color));
+                        break;
+                    case CompiledLevel.VERTICAL_WALL:
+                        board.set(row, column, Board.colorRestrictingWall(color, true));
+                        break;
+                    case CompiledLevel.HORIZONTAL_WALL:
+                        board.set(row, column, Board.colorRestrictingWall(color, false));
+                        break;
+                    default:
+                        // Spawners are already placed, and holes come from their table
+                        break;
+                }
+            }
+        }
+
+        for (int i = chunkHoleStart[chunk]; i < chunkHoleStart[chunk + 1]; i++) {
+            int index = chunkHoles[i];
+            int holeRow = level.getHoleRow(index);
+            int holeColumn = level.getHoleColumn(index);
+            if (holes[index] == null) {
+                holes[index] = new Hole(holeColumn * App.CELL_SIZE + Hole.HALF_SIZE, holeRow * App.CELL_SIZE + Hole.HALF_SIZE, level.getHoleColor(index));
+            }
+            // Only the hole's cells inside this chunk
+            for (int row = Math.max(firstRow, holeRow); row <= Math.min(lastRow, holeRow + 1); row++) {
+                for (int column = Math.max(firstColumn, holeColumn); column <= Math.min(lastColumn, holeColumn + 1); column++) {
+                    board.set(row, column, holes[index]);
+                }
+            }
+        }
+    }
+}
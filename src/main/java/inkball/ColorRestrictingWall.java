@@ -6,7 +6,10 @@ package inkball;
  */
 public class ColorRestrictingWall extends Wall {
 
-    private boolean isVertical;
+    // How far the long sides are moved in from the edges of the cell to make the wall thinner
+    public static final int INSET = 11;
+
+    private final boolean isVertical;
 
     /**
      * Constructs a new ColorRestrictingWall object.
@@ -19,43 +22,113 @@ public class ColorRestrictingWall extends Wall {
     public ColorRestrictingWall(float centerX, float centerY, int color, boolean isVertical) {
         super(centerX, centerY, color);
         this.isVertical = isVertical;
-        adjustWallSize();
     }
 
     /**
-     * Adjusts the wall size to make it thinner based on its orientation.
+     * Constructs a color-restricting wall with no position of its own, to be shared by every
+     * cell of a board with its color and direction.
+     *
+     * @param color      The color code that is allowed to pass through.
+     * @param isVertical True if the wall is vertical; false if horizontal.
+     */
+    public ColorRestrictingWall(int color, boolean isVertical) {
+        super(color);
+        this.isVertical = isVertical;
+    }
+
+    /**
+     * Gets the x-coordinate of the left edge, moved in on a vertical wall.
+     *
+     * @return The left edge.
+     */
+    @Override
+    public float getLeft() {
+        return isVertical ? super.getLeft() + INSET : super.getLeft();
+    }
+
+    /**
+     * Gets the x-coordinate of the right edge, moved in on a vertical wall.
+     *
+     * @return The right edge.
      */
-    private void adjustWallSize() {
-        if (isVertical) {
-            // Vertical wall: adjust horizontal dimensions
-            topLeftCorner.x += 11;
-            topRightCorner.x -= 11;
-            bottomLeftCorner.x += 11;
-            bottomRightCorner.x -= 11;
-        } else {
-            // Horizontal wall: adjust vertical dimensions
-            topLeftCorner.y += 11;
-            topRightCorner.y += 11;
-            bottomLeftCorner.y -= 11;
-            bottomRightCorner.y -= 11;
-        }
+    @Override
+    public float getRight() {
+        return isVertical ? super.getRight() - INSET : super.getRight();
     }
 
     /**
-     * Handles the collision between the ball and the color-restricting wall.
-     * Only blocks balls that do not match the wall's color.
+     * Gets the y-coordinate of the top edge, moved in on a horizontal wall.
      *
-     * @param ball The ball that collided with the wall.
+     * @return The top edge.
      */
     @Override
-    public void handleCollision(Ball ball) {
-        if (ball.getColor() == this.getColor() || ball.getColor() == 0) {
-            // Allow the ball to pass through if the colors match
-            return;
-        }
+    public float getTop() {
+        return isVertical ? super.getTop() : super.getTop() + INSET;
+    }
 
-        // Otherwise, block the ball like a regular wall
-        super.handleCollision(ball);
+    /**
+     * Gets the y-coordinate of the bottom edge, moved in on a horizontal wall.
+     *
+     * @return The bottom edge.
+     */
+    @Override
+    public float getBottom() {
+        return isVertical ? super.getBottom() : super.getBottom() - INSET;
+    }
+
+    /**
+     * Gets the x-coordinate of the left edge in a column, moved in on a vertical wall.
+     *
+     * @param column The column of the cell.
+     * @return The left edge.
+     */
+    @Override
+    public float getLeft(int column) {
+        return isVertical ? super.getLeft(column) + INSET : super.getLeft(column);
+    }
+
+    /**
+     * Gets the x-coordinate of the right edge in a column, moved in on a vertical wall.
+     *
+     * @param column The column of the cell.
+     * @return The right edge.
+     */
+    @Override
+    public float getRight(int column) {
+        return isVertical ? super.getRight(column) - INSET : super.getRight(column);
+    }
+
+    /**
+     * Gets the y-coordinate of the top edge in a row, moved in on a horizontal wall.
+     *
+     * @param row The row of the cell.
+     * @return The top edge.
+     */
+    @Override
+    public float getTop(int row) {
+        return isVertical ? super.getTop(row) : super.getTop(row) + INSET;
+    }
+
+    /**
+     * Gets the y-coordinate of the bottom edge in a row, moved in on a horizontal wall.
+     *
+     * @param row The row of the cell.
+     * @return The bottom edge.
+     */
+    @Override
+    public float getBottom(int row) {
+        return isVertical ? super.getBottom(row) : super.getBottom(row) - INSET;
+    }
+
+    /**
+     * Checks if this wall stops a ball. Balls of the wall's color and grey balls pass through.
+     *
+     * @param ball The ball.
+     * @return True if the wall blocks the ball, false otherwise.
+     */
+    @Override
+    public boolean blocks(Ball ball) {
+        return ball.getColor() != this.getColor() && ball.getColor() != 0;
     }
 
     /**
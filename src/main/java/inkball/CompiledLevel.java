@@ -0,0 +1,246 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A level compiled by {@link LevelCompiler} into a binary file, read through a memory-mapped
+ * buffer so loading it is a pass over bytes instead of parsing text.
+ *
+ * <p>The file holds, in order: the magic number and format version; the level settings from the
+ * config; the board size; one byte per cell, with the tile type in the low nibble and its color
+ * in the high nibble; then tables of holes, spawners and balls in row-major order. All numbers
+ * are big-endian.</p>
+ */
+public class CompiledLevel {
+
+    public static final int MAGIC = 0x494E4B42; // "INKB"
+    public static final int VERSION = 2;
+
+    // Tile types
+    public static final int EMPTY = 0;
+    public static final int WALL = 1;
+    public static final int VERTICAL_WALL = 2;
+    public static final int HORIZONTAL_WALL = 3;
+    public static final int SPAWNER = 4;
+    public static final int HOLE = 5;
+
+    // Bits of the level flags byte
+    public static final int CONTINUOUS_COLLISION = 1;
+    public static final int BALL_COLLISIONS = 2;
+
+    private final ByteBuffer buffer;
+    private final Level level;
+    private final int rows;
+    private final int columns;
+    // Offset of the first cell byte in the buffer
+    private final int cellsOffset;
+    // Offset of the spawner table, which is followed by the ball table
+    private final int spawnersOffset;
+    private final int[] holeRows;
+    private final int[] holeColumns;
+    private final int[] holeColors;
+
+    /**
+     * Reads the header and hole table of a compiled level from a buffer.
+     *
+     * @param buffer The contents of the file.
+     * @param path   The file the buffer was read from, used as the level's layout.
+     * @throws IllegalArgumentException If the buffer is not a compiled level of this version.
+     */
+    public CompiledLevel(ByteBuffer buffer, String path) {
+        this.buffer = buffer;
+        if (buffer.remaining() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled level: " + path);
+        }
+        buffer.position(4);
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compiled level version " + version + ": " + path);
+        }
+
+        int time = buffer.getInt();
+        int spawnInterval = buffer.getInt();
+        float scoreIncreaseModifier = buffer.getFloat();
+        float scoreDecreaseModifier = buffer.getFloat();
+        int flags = buffer.get();
+        int ballCount = buffer.getShort() & 0xFFFF;
+        List<String> balls = new ArrayList<>(ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            balls.add(ColorCode.fromValue(buffer.get()));
+        }
+        this.level = new Level(path, time, spawnInterval, scoreIncreaseModifier, scoreDecreaseModifier, balls,
+            (flags & CONTINUOUS_COLLISION) != 0, (flags & BALL_COLLISIONS) != 0);
+
+        this.rows = buffer.getShort() & 0xFFFF;
+        this.columns = buffer.getShort() & 0xFFFF;
+        this.cellsOffset = buffer.position();
+
+        buffer.position(cellsOffset + rows * columns);
+        int holeCount = buffer.getShort() & 0xFFFF;
+        this.holeRows = new int[holeCount];
+        this.holeColumns = new int[holeCount];
+        this.holeColors = new int[holeCount];
+        for (int i = 0; i < holeCount; i++) {
+            holeRows[i] = buffer.getShort() & 0xFFFF;
+            holeColumns[i] = buffer.getShort() & 0xFFFF;
+            holeColors[i] = buffer.get();
+        }
+        this.spawnersOffset = buffer.position();
+    }
+
+    /**
+     * Memory-maps a compiled level file and reads its header.
+     *
+     * @param path The compiled level file.
+     * @return The compiled level.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a compiled level of this version.
+     */
+    public static CompiledLevel open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CompiledLevel(buffer, path.toString());
+        }
+    }
+
+    /**
+     * Gets the level settings stored with the layout. Its layout is the compiled file.
+     *
+     * @return The level.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of rows of the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns of the board.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the tile type of a cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The tile type, such as {@link #WALL}.
+     */
+    public int getType(int row, int column) {
+        return buffer.get(cellsOffset + row * columns + column) & 0x0F;
+    }
+
+    /**
+     * Gets the color of a cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The color code.
+     */
+    public int getColor(int row, int column) {
+        return (buffer.get(cellsOffset + row * columns + column) >> 4) & 0x0F;
+    }
+
+    /**
+     * Gets the number of holes.
+     *
+     * @return The number of holes.
+     */
+    public int getHoleCount() {
+        return holeRows.length;
+    }
+
+    /**
+     * Gets the row of the top left cell of a hole.
+     *
+     * @param hole The index of the hole.
+     * @return The row.
+     */
+    public int getHoleRow(int hole) {
+        return holeRows[hole];
+    }
+
+    /**
+     * Gets the column of the top left cell of a hole.
+     *
+     * @param hole The index of the hole.
+     * @return The column.
+     */
+    public int getHoleColumn(int hole) {
+        return holeColumns[hole];
+    }
+
+    /**
+     * Gets the color of a hole.
+     *
+     * @param hole The index of the hole.
+     * @return The color code.
+     */
+    public int getHoleColor(int hole) {
+        return holeColors[hole];
+    }
+
+    /**
+     * Replaces the board, spawners and balls of a simulation with the ones of this level.
+     * Spawners and balls are created straight away. Walls and holes are created a chunk at a
+     * time on large boards, see {@link ChunkedBoard}, and all at once otherwise.
+     *
+     * @param simulation The simulation to load into.
+     */
+    public void loadInto(Simulation simulation) {
+        Board board = new Board(rows, columns);
+        BallStore balls = new BallStore();
+        List<Spawner> spawners = new ArrayList<>();
+
+        ByteBuffer tables = buffer.duplicate();
+        tables.position(spawnersOffset);
+
+        int spawnerCount = tables.getShort() & 0xFFFF;
+        for (int i = 0; i < spawnerCount; i++) {
+            int row = tables.getShort() & 0xFFFF;
+            int column = tables.getShort() & 0xFFFF;
+            Spawner spawner = new Spawner(column * App.CELL_SIZE + App.CELL_SIZE / 2, row * App.CELL_SIZE + App.CELL_SIZE / 2);
+            spawners.add(spawner);
+            board.set(row, column, spawner);
+        }
+
+        int ballCount = tables.getShort() & 0xFFFF;
+        for (int i = 0; i < ballCount; i++) {
+            int row = tables.getShort() & 0xFFFF;
+            int column = tables.getShort() & 0xFFFF;
+            int color = tables.get();
+            balls.add(new Ball(column * App.CELL_SIZE + App.CELL_SIZE / 2, row * App.CELL_SIZE + App.CELL_SIZE / 2, color, null, simulation.random));
+        }
+
+        ChunkedBoard chunks = new ChunkedBoard(this, board);
+        if ((long) rows * columns <= ChunkedBoard.LAZY_CELLS) {
+            chunks.loadAll();
+            chunks = null;
+        }
+
+        simulation.board = board;
+        simulation.chunks = chunks;
+        // A board loaded a chunk at a time needs its distance field from the cells of the level
+        simulation.distanceField = chunks == null ? null : DistanceField.of(this, board);
+        simulation.spawners = spawners;
+        simulation.ballsOnScreen = balls;
+    }
+}
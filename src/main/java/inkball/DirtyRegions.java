@@ -0,0 +1,173 @@
+package inkball;
+
+/**
+ * A short list of rectangles of a layer that changed since it was last drawn, so only those
+ * parts need to be redrawn. Rectangles are kept in whole pixels and clipped to the layer. A
+ * rectangle that overlaps one already in the list is merged into it. Once the list is full the
+ * whole layer is marked as changed instead.
+ */
+public class DirtyRegions {
+
+    private final int width;
+    private final int height;
+    private final int[] left;
+    private final int[] top;
+    private final int[] right;
+    private final int[] bottom;
+    private int count;
+    private boolean all;
+
+    /**
+     * Constructs an empty list of regions for a layer.
+     *
+     * @param width    The width of the layer.
+     * @param height   The height of the layer.
+     * @param capacity The number of rectangles to keep before marking the whole layer.
+     */
+    public DirtyRegions(int width, int height, int capacity) {
+        this.width = width;
+        this.height = height;
+        this.left = new int[capacity];
+        this.top = new int[capacity];
+        this.right = new int[capacity];
+        this.bottom = new int[capacity];
+    }
+
+    /**
+     * Marks a rectangle as changed. The edges are rounded outwards to whole pixels.
+     *
+     * @param minX The left edge.
+     * @param minY The top edge.
+     * @param maxX The right edge.
+     * @param maxY The bottom edge.
+     */
+    public void add(float minX, float minY, float maxX, float maxY) {
+        if (all) {
+            return;
+        }
+        int x1 = Math.max(0, (int) Math.floor(minX));
+        int y1 = Math.max(0, (int) Math.floor(minY));
+        int x2 = Math.min(width, (int) Math.ceil(maxX));
+        int y2 = Math.min(height, (int) Math.ceil(maxY));
+        if (x1 >= x2 || y1 >= y2) {
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (x1 <= right[i] && x2 >= left[i] && y1 <= bottom[i] && y2 >= top[i]) {
+                left[i] = Math.min(left[i], x1);
+                top[i] = Math.min(top[i], y1);
+                right[i] = Math.max(right[i], x2);
+                bottom[i] = Math.max(bottom[i], y2);
+                return;
+            }
+        }
+
+        if (count == left.length) {
+            markAll();
+            return;
+        }
+        left[count] = x1;
+        top[count] = y1;
+        right[count] = x2;
+        bottom[count] = y2;
+        count++;
+    }
+
+    /**
+     * Marks the whole layer as changed.
+     */
+    public void markAll() {
+        all = true;
+        count = 0;
+    }
+
+    /**
+     * Checks if the whole layer is marked as changed.
+     *
+     * @return True if the whole layer needs redrawing, false otherwise.
+     */
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Checks if nothing is marked as changed.
+     *
+     * @return True if nothing needs redrawing, false otherwise.
+     */
+    public boolean isEmpty() {
+        return !all && count == 0;
+    }
+
+    /**
+     * Forgets every changed region, once the layer has been redrawn.
+     */
+    public void clear() {
+        all = false;
+        count = 0;
+    }
+
+    /**
+     * Gets the number of rectangles. This is 0 when the whole layer is marked.
+     *
+     * @return The number of rectangles.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the left edge of a rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The left edge in pixels.
+     */
+    public int getX(int index) {
+        return left[index];
+    }
+
+    /**
+     * Gets the top edge of a rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The top edge in pixels.
+     */
+    public int getY(int index) {
+        return top[index];
+    }
+
+    /**
+     * Gets the width of a rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The width in pixels.
+     */
+    public int getWidth(int index) {
+        return right[index] - left[index];
+    }
+
+    /**
+     * Gets the height of a rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The height in pixels.
+     */
+    public int getHeight(int index) {
+        return bottom[index] - top[index];
+    }
+
+    /**
+     * Checks if a rectangle overlaps one of the changed regions.
+     *
+     * @param index The index of the region.
+     * @param minX  The left edge of the rectangle.
+     * @param minY  The top edge of the rectangle.
+     * @param maxX  The right edge of the rectangle.
+     * @param maxY  The bottom edge of the rectangle.
+     * @return True if they overlap, false otherwise.
+     */
+    public boolean overlaps(int index, float minX, float minY, float maxX, float maxY) {
+        return minX < right[index] && maxX > left[index] && minY < bottom[index] && maxY > top[index];
+    }
+}
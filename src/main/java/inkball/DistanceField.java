@@ -0,0 +1,171 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * How far each cell of a board is from the nearest wall or hole, in cells, measured as the
+ * larger of the row and column distance. Built once when a layout is loaded, it lets a ball in
+ * open space skip checking its surroundings: a ball whose neighbouring cells hold nothing it can
+ * hit or fall into has nothing to resolve. Spawners and empty cells are open space.
+ */
+public class DistanceField {
+
+    // Largest distance stored; anything further is stored as this
+    public static final int MAX_DISTANCE = Byte.MAX_VALUE;
+    // Multiplying is cheaper than dividing, and exact as the cell size is a power of two
+    private static final float INVERSE_CELL_SIZE = 1f / App.CELL_SIZE;
+
+    private final Board board;
+    private final int rows;
+    private final int columns;
+    // Distance of each cell to the nearest wall or hole, by row then column
+    private final byte[] distances;
+
+    /**
+     * Constructs a field with every cell marked open.
+     *
+     * @param board   The board the field describes.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    private DistanceField(Board board, int rows, int columns) {
+        this.board = board;
+        this.rows = rows;
+        this.columns = columns;
+        this.distances = new byte[rows * columns];
+        Arrays.fill(distances, (byte) MAX_DISTANCE);
+    }
+
+    /**
+     * Builds the field of a board with every cell loaded.
+     *
+     * @param board The board.
+     * @return The field.
+     */
+    public static DistanceField of(Board board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        DistanceField field = new DistanceField(board, rows, columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int type = board.getType(row, column);
+                if (type != CompiledLevel.EMPTY && type != CompiledLevel.SPAWNER && type != Board.TILE) {
+                    field.distances[row * columns + column] = 0;
+                }
+            }
+        }
+        field.propagate();
+        return field;
+    }
+
+    /**
+     * Builds the field of a board from the cells of its compiled level, so it is complete even
+     * while the board is still being loaded a chunk at a time.
+     *
+     * @param level The compiled level.
+     * @param board The board loaded from the level.
+     * @return The field.
+     */
+    public static DistanceField of(CompiledLevel level, Board board) {
+        int rows = level.getRows();
+        int columns = level.getColumns();
+        DistanceField field = new DistanceField(board, rows, columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int type = level.getType(row, column);
+                if (type != CompiledLevel.EMPTY && type != CompiledLevel.SPAWNER) {
+                    field.distances[row * columns + column] = 0;
+                }
+            }
+        }
+        field.propagate();
+        return field;
+    }
+
+    /**
+     * Spreads the distances from the marked cells to every other cell, with one pass forwards
+     * and one backwards over the board. Each pass takes the smallest distance of the four
+     * neighbours already visited plus one, which is exact for this distance.
+     */
+    private void propagate() {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int distance = distances[row * columns + column];
+                if (row > 0) {
+                    int above = (row - 1) * columns + column;
+                    distance = Math.min(distance, distances[above] + 1);
+                    if (column > 0) {
+                        distance = Math.min(distance, distances[above - 1] + 1);
+                    }
+                    if (column < columns - 1) {
+                        distance = Math.min(distance, distances[above + 1] + 1);
+                    }
+                }
+                if (column > 0) {
+                    distance = Math.min(distance, distances[row * columns + column - 1] + 1);
+                }
+                distances[row * columns + column] = (byte) Math.min(distance, MAX_DISTANCE);
+            }
+        }
+        for (int row = rows - 1; row >= 0; row--) {
+            for (int column = columns - 1; column >= 0; column--) {
+                int distance = distances[row * columns + column];
+                if (row < rows - 1) {
+                    int below = (row + 1) * columns + column;
+                    distance = Math.min(distance, distances[below] + 1);
+                    if (column > 0) {
+                        distance = Math.min(distance, distances[below - 1] + 1);
+                    }
+                    if (column < columns - 1) {
+                        distance = Math.min(distance, distances[below + 1] + 1);
+                    }
+                }
+                if (column < columns - 1) {
+                    distance = Math.min(distance, distances[row * columns + column + 1] + 1);
+                }
+                distances[row * columns + column] = (byte) Math.min(distance, MAX_DISTANCE);
+            }
+        }
+    }
+
+    /**
+     * Checks if this field was built for a board.
+     *
+     * @param board The board.
+     * @return True if it is the board this field describes, false otherwise.
+     */
+    public boolean isFor(Board board) {
+        return this.board == board;
+    }
+
+    /**
+     * Gets the distance of a cell to the nearest wall or hole.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The distance in cells, 0 for a wall or hole, at most {@link #MAX_DISTANCE}.
+     */
+    public int getDistance(int row, int column) {
+        return distances[row * columns + column];
+    }
+
+    /**
+     * Gets how far a point is at least from every wall and hole. Every point of a cell is at
+     * least one cell less than the cell's distance away from them.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The clearance in pixels, 0 off the board or next to a wall or hole.
+     */
+    public float getClearance(float x, float y) {
+        if (x < 0 || y < 0) {
+            return 0;
+        }
+        int row = (int) (y * INVERSE_CELL_SIZE);
+        int column = (int) (x * INVERSE_CELL_SIZE);
+        if (row >= rows || column >= columns) {
+            return 0;
+        }
+        return Math.max(0, getDistance(row, column) - 1) * App.CELL_SIZE;
+    }
+}
@@ -0,0 +1,77 @@
+package inkball;
+
+import java.util.Map;
+
+/**
+ * The game a ball is being simulated in, as seen by the physics and scoring code. It is passed
+ * down from the simulation stepping the ball, so several games can run side by side in one
+ * process. {@link Simulation} is the only implementation.
+ */
+public interface GameContext {
+
+    /**
+     * Marks a ball to be taken off the board at the end of the update.
+     *
+     * @param ball The ball.
+     */
+    void addBallToRemove(Ball ball);
+
+    /**
+     * Adds to the score.
+     *
+     * @param amount The amount to add.
+     */
+    void increaseScore(int amount);
+
+    /**
+     * Takes from the score, stopping at zero.
+     *
+     * @param amount The amount to take.
+     */
+    void decreaseScore(int amount);
+
+    /**
+     * Puts a ball back at the end of the queue.
+     *
+     * @param ballColorName The color name of the ball.
+     */
+    void addBallToQueue(String ballColorName);
+
+    /**
+     * Gets the level's multiplier for score increases.
+     *
+     * @return The multiplier.
+     */
+    float getScoreIncreaseModifier();
+
+    /**
+     * Gets the level's multiplier for score decreases.
+     *
+     * @return The multiplier.
+     */
+    float getScoreDecreaseModifier();
+
+    /**
+     * Gets the score for capturing a ball of each color in the right hole.
+     *
+     * @return The scores by color name.
+     */
+    Map<String, Integer> getScoreIncreaseMap();
+
+    /**
+     * Gets the score lost for capturing a ball of each color in the wrong hole.
+     *
+     * @return The scores by color name.
+     */
+    Map<String, Integer> getScoreDecreaseMap();
+
+    /**
+     * Lets the game hold back a capture to make later, such as while balls are being updated
+     * in parallel.
+     *
+     * @param ball The captured ball.
+     * @param hole The hole that captured it.
+     * @return True if the game will make the capture itself, false if it should be made now.
+     */
+    boolean deferCapture(Ball ball, Hole hole);
+}
@@ -29,8 +29,8 @@ public abstract class GameObject {
      * @return The distance between the two objects.
      */
     public float distanceTo(GameObject other) {
-        float deltaX = this.centerXPosition - other.centerXPosition;
-        float deltaY = this.centerYPosition - other.centerYPosition;
+        float deltaX = getCenterXPosition() - other.getCenterXPosition();
+        float deltaY = getCenterYPosition() - other.getCenterYPosition();
         return (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
     }
 
@@ -40,7 +40,18 @@ public abstract class GameObject {
      * @return The x and y-coordinates.
      */
     public PVector getCenterPosition() {
-        return new PVector(centerXPosition, centerYPosition);
+        return new PVector(getCenterXPosition(), getCenterYPosition());
+    }
+
+    /**
+     * Copies the x and y-coordinates of the object's center position into an existing vector,
+     * so callers that need the position every frame can reuse one vector.
+     *
+     * @param target The vector to write the coordinates to.
+     * @return The target vector.
+     */
+    public PVector getCenterPosition(PVector target) {
+        return target.set(getCenterXPosition(), getCenterYPosition());
     }
 
     /**
@@ -0,0 +1,13 @@
+package inkball;
+
+/**
+ * Enum representing the game state.
+ */
+public enum GameState {
+    RUNNING,
+    PAUSED,
+    LEVEL_COMPLETE,
+    GAME_ENDED,
+    LEVEL_COMPLETION_ANIMATION,
+    LEVEL_TIME_UP
+}
@@ -1,7 +1,5 @@
 package inkball;
 
-import processing.core.PVector;
-
 /**
  * Represents a hole in the InkBall game. Balls can be attracted to holes and potentially captured.
  */
@@ -24,46 +22,97 @@ public class Hole extends Tile {
     }
 
     /**
-     * Handles the attraction of a ball towards the hole.
+     * Attracts a ball towards the hole if it is within reach, shrinking it as it gets closer.
+     * Balls out of reach are ruled out on their squared distance, so only balls being attracted
+     * need a square root.
+     *
+     * @param ball     The ball.
+     * @param timeStep The fraction of a frame at {@link App#FPS} the force acts for.
+     * @param context  The game the ball is in, which a capture is scored in.
+     * @return The size the ball is drawn at, or -1 if it is out of reach and was left alone.
+     */
+    public int attract(Ball ball, float timeStep, GameContext context) {
+        float deltaX = ball.getCenterXPosition() - centerXPosition;
+        float deltaY = ball.getCenterYPosition() - centerYPosition;
+        float distanceSq = deltaX * deltaX + deltaY * deltaY;
+        if (distanceSq > ATTRACTION_RADIUS * ATTRACTION_RADIUS) {
+            return -1;
+        }
+        float distance = (float) Math.sqrt(distanceSq);
+        handleAttraction(ball, distance, timeStep, context);
+        // Shrink the ball based on the distance to the hole
+        return (int) (distance / ATTRACTION_RADIUS * 2 * Ball.RADIUS);
+    }
+
+    /**
+     * Handles the attraction of a ball towards the hole in a given game.
      *
      * @param ball     The ball being attracted.
      * @param distance The distance between the ball and the hole.
+     * @param timeStep The fraction of a frame at {@link App#FPS} the force acts for.
+     * @param context  The game the ball is in, which a capture is scored in.
      */
-    public void handleAttraction(Ball ball, float distance) {
+    public void handleAttraction(Ball ball, float distance, float timeStep, GameContext context) {
         if (distance != 0) {
-            // Calculate the attractive force vector
-            PVector attractiveForce = PVector.sub(getCenterPosition(), ball.getCenterPosition());
-            attractiveForce.mult((float) (ATTRACTION_RADIUS / distance * 0.01));
-            ball.setVelocity(PVector.add(ball.getVelocity(), attractiveForce));
+            // Calculate the attractive force and add it straight onto the ball's velocity
+            float strength = (float) (ATTRACTION_RADIUS / distance * 0.01) * timeStep;
+            ball.setVelocity(ball.getVelocityX() + (centerXPosition - ball.getCenterXPosition()) * strength,
+                ball.getVelocityY() + (centerYPosition - ball.getCenterYPosition()) * strength);
         }
 
-        // Check if the ball is within the capture tolerance
+        checkCapture(ball, context);
+    }
+
+    /**
+     * Captures the ball if it is within the capture tolerance of the hole's center.
+     *
+     * @param ball    The ball.
+     * @param context The game the ball is in.
+     */
+    void checkCapture(Ball ball, GameContext context) {
         int tolerance = Ball.RADIUS;
         if (Math.abs(ball.getCenterXPosition() - centerXPosition) < tolerance && Math.abs(ball.getCenterYPosition() - centerYPosition) < tolerance) {
-            captureBall(ball);
+            captureBall(ball, context);
+        }
+    }
+
+    /**
+     * Captures the ball when it reaches the hole. During a parallel ball update the capture is
+     * held back by the simulation and scored once every ball has moved.
+     *
+     * @param ball    The ball to be captured.
+     * @param context The game the ball is in.
+     */
+    void captureBall(Ball ball, GameContext context) {
+        if (context.deferCapture(ball, this)) {
+            return;
         }
+        captureBall(ball, ball.getColor(), context);
     }
 
     /**
-     * Captures the ball when it reaches the hole.
+     * Captures the ball, scoring it by the color it had when it reached the hole. A ball can be
+     * painted by a wall later in the same step, after a capture was held back.
      *
-     * @param ball The ball to be captured.
+     * @param ball      The ball to be captured.
+     * @param ballColor The color code of the ball when it reached the hole.
+     * @param context   The game the ball is in.
      */
-    private void captureBall(Ball ball) {
-        App.getInstance().addBallToRemove(ball);
+    void captureBall(Ball ball, int ballColor, GameContext context) {
+        context.addBallToRemove(ball);
 
-        String ballColorName = ColorCode.fromValue(ball.getColor());
+        String ballColorName = ColorCode.fromValue(ballColor);
 
-        if (ball.getColor() == 0 || this.color == 0 || ball.getColor() == this.color) {
+        if (ballColor == 0 || this.color == 0 || ballColor == this.color) {
             // Correct hole or grey hole
-            int scoreIncrease = (int) (App.getInstance().getScoreIncreaseMap().get(ballColorName) * App.getInstance().getScoreIncreaseModifier());
-            App.getInstance().increaseScore(scoreIncrease);
+            int scoreIncrease = (int) (context.getScoreIncreaseMap().get(ballColorName) * context.getScoreIncreaseModifier());
+            context.increaseScore(scoreIncrease);
             
         } else {
             // Wrong hole
-            int scoreDecrease = (int) (App.getInstance().getScoreDecreaseMap().get(ballColorName) * App.getInstance().getScoreDecreaseModifier());
-            App.getInstance().decreaseScore(scoreDecrease);
-            App.getInstance().addBallToQueue(ballColorName);
+            int scoreDecrease = (int) (context.getScoreDecreaseMap().get(ballColorName) * context.getScoreDecreaseModifier());
+            context.decreaseScore(scoreDecrease);
+            context.addBallToQueue(ballColorName);
         }
     }
 
@@ -0,0 +1,134 @@
+package inkball;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records the player's input to a game into a compact binary file, with the physics step each
+ * input arrived before, so {@link InputReplay} can play the game again exactly. The game's
+ * {@link Simulation} records its own input while it has a recorder, see
+ * {@link Simulation#recorder}.
+ *
+ * <p>The file holds, in order: the magic number and format version; the config file and the
+ * seed of the game; then one event per input, as the number of steps since the previous event
+ * (an unsigned varint), the event type, and the point for events that have one. An
+ * {@link #END} event at the step the recording stopped ends the file. All numbers are
+ * big-endian.</p>
+ */
+public class InputRecorder implements Closeable {
+
+    public static final int MAGIC = 0x494E4B52; // "INKR"
+    public static final int VERSION = 1;
+
+    // Event types
+    public static final int END = 0;
+    public static final int TOGGLE_PAUSE = 1;
+    public static final int RESTART_LEVEL = 2;
+    public static final int ADD_LINE_POINT = 3;
+    public static final int FINISH_LINE = 4;
+    public static final int REMOVE_LINE_AT = 5;
+
+    private final DataOutputStream out;
+    private final Simulation simulation;
+    private long lastStep;
+    private boolean failed;
+
+    /**
+     * Starts a recording of a game that has not been stepped yet, writing the header.
+     *
+     * @param file       The file to write.
+     * @param configPath The config file the game was loaded from.
+     * @param simulation The game.
+     * @throws IOException If the file cannot be written.
+     */
+    public InputRecorder(Path file, String configPath, Simulation simulation) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())));
+        this.simulation = simulation;
+        this.lastStep = simulation.stepCount;
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(configPath);
+        out.writeLong(simulation.getSeed());
+    }
+
+    /**
+     * Records an input with no point.
+     *
+     * @param type The event type, such as {@link #TOGGLE_PAUSE}.
+     */
+    public void record(int type) {
+        record(type, 0, 0, false);
+    }
+
+    /**
+     * Records an input at a point on the board.
+     *
+     * @param type The event type, such as {@link #ADD_LINE_POINT}.
+     * @param x    The x-coordinate on the board.
+     * @param y    The y-coordinate on the board.
+     */
+    public void record(int type, float x, float y) {
+        record(type, x, y, true);
+    }
+
+    /**
+     * Writes an event at the current step of the game. A write error is reported once and ends
+     * the recording, rather than stopping the game.
+     *
+     * @param type     The event type.
+     * @param x        The x-coordinate.
+     * @param y        The y-coordinate.
+     * @param hasPoint True if the event has a point.
+     */
+    private void record(int type, float x, float y, boolean hasPoint) {
+        if (failed) {
+            return;
+        }
+        try {
+            writeVarLong(simulation.stepCount - lastStep);
+            lastStep = simulation.stepCount;
+            out.writeByte(type);
+            if (hasPoint) {
+                out.writeFloat(x);
+                out.writeFloat(y);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not record input: " + e.getMessage());
+            failed = true;
+        }
+    }
+
+    /**
+     * Writes a non-negative number in seven-bit groups, low group first.
+     *
+     * @param value The number.
+     * @throws IOException If it cannot be written.
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Ends the recording at the current step of the game and closes the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!failed) {
+                record(END);
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package inkball;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Input recorded by {@link InputRecorder}, played back into a headless {@link Simulation} as
+ * fast as it will step. Each event is applied before the same physics step it arrived before in
+ * the recorded game, so the replay ends in exactly the recorded state.
+ */
+public class InputReplay {
+
+    private final String configPath;
+    private final long seed;
+    private final int eventCount;
+    // The events, by index: step applied before, type, and point if it has one
+    private final long[] steps;
+    private final int[] types;
+    private final float[] xs;
+    private final float[] ys;
+
+    /**
+     * Reads a recording.
+     *
+     * @param file The recording.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a recording of this version.
+     */
+    public InputReplay(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file.toFile())))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IllegalArgumentException("Not an input recording: " + file);
+            }
+            int version = in.readByte();
+            if (version != InputRecorder.VERSION) {
+                throw new IllegalArgumentException("Unsupported input recording version " + version + ": " + file);
+            }
+            configPath = in.readUTF();
+            seed = in.readLong();
+
+            long[] steps = new long[64];
+            int[] types = new int[64];
+            float[] xs = new float[64];
+            float[] ys = new float[64];
+            int count = 0;
+            long step = 0;
+            int type;
+            do {
+                if (count == steps.length) {
+                    steps = Arrays.copyOf(steps, count * 2);
+                    types = Arrays.copyOf(types, count * 2);
+                    xs = Arrays.copyOf(xs, count * 2);
+                    ys = Arrays.copyOf(ys, count * 2);
+                }
+                step += readVarLong(in);
+                type = in.readUnsignedByte();
+                steps[count] = step;
+                types[count] = type;
+                if (type == InputRecorder.ADD_LINE_POINT || type == InputRecorder.REMOVE_LINE_AT) {
+                    xs[count] = in.readFloat();
+                    ys[count] = in.readFloat();
+                }
+                count++;
+            } while (type != InputRecorder.END);
+
+            this.eventCount = count;
+            this.steps = steps;
+            this.types = types;
+            this.xs = xs;
+            this.ys = ys;
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Input recording ends early: " + file, e);
+        }
+    }
+
+    /**
+     * Replays a recording from the command line and prints the state it ends in.
+     *
+     * @param args The recording.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        InputReplay replay = new InputReplay(Paths.get(args[0]));
+        long start = System.nanoTime();
+        Simulation simulation = replay.play();
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf(Locale.ROOT, "%d steps (%d events) in %.1f ms: level %d, score %d, %s%n",
+            simulation.stepCount, replay.getEventCount(), millis, simulation.currentLevel, simulation.currentScore, simulation.gameState);
+    }
+
+    /**
+     * Reads a number written in seven-bit groups, low group first.
+     *
+     * @param in The stream.
+     * @return The number.
+     * @throws IOException If it cannot be read.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int group;
+        do {
+            group = in.readUnsignedByte();
+            value |= (long) (group & 0x7F) << shift;
+            shift += 7;
+        } while ((group & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Gets the config file the recorded game was loaded from.
+     *
+     * @return The config file.
+     */
+    public String getConfigPath() {
+        return configPath;
+    }
+
+    /**
+     * Gets the seed of the recorded game.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of events, including the final {@link InputRecorder#END}.
+     *
+     * @return The number of events.
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the number of steps the recorded game was played for.
+     *
+     * @return The number of steps.
+     */
+    public long getStepCount() {
+        return steps[eventCount - 1];
+    }
+
+    /**
+     * Plays the recording in a new game loaded from the recorded config.
+     *
+     * @return The game, in the state the recording ended in.
+     */
+    public Simulation play() {
+        Simulation simulation = new Simulation(configPath);
+        simulation.setSeed(seed);
+        play(simulation);
+        return simulation;
+    }
+
+    /**
+     * Plays the recording in a game that has been loaded from the recorded config and seed, but
+     * not stepped yet.
+     *
+     * @param simulation The game.
+     */
+    public void play(Simulation simulation) {
+        int next = 0;
+        long end = getStepCount();
+        while (true) {
+            while (next < eventCount && steps[next] == simulation.stepCount) {
+                apply(simulation, next++);
+            }
+            if (simulation.stepCount >= end) {
+                break;
+            }
+            simulation.step();
+        }
+    }
+
+    /**
+     * Feeds one event to a game.
+     *
+     * @param simulation The game.
+     * @param index      The index of the event.
+     */
+    private void apply(Simulation simulation, int index) {
+        switch (types[index]) {
+            case InputRecorder.TOGGLE_PAUSE:
+                simulation.togglePause();
+                break;
+            case InputRecorder.RESTART_LEVEL:
+                simulation.restartLevel();
+                break;
+            case InputRecorder.ADD_LINE_POINT:
+                simulation.addLinePoint(xs[index], ys[index]);
+                break;
+            case InputRecorder.FINISH_LINE:
+                simulation.finishLine();
+                break;
+            case InputRecorder.REMOVE_LINE_AT:
+                simulation.removeLineAt(xs[index], ys[index]);
+                break;
+            default:
+                // END
+                break;
+        }
+    }
+}
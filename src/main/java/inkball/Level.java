@@ -14,6 +14,8 @@ public class Level {
     private float scoreIncreaseModifier;
     private float scoreDecreaseModifier;
     private List<String> balls;
+    private boolean continuousCollision;
+    private boolean ballCollisions;
 
     /**
      * Constructs a new Level object with specified parameters.
@@ -34,6 +36,39 @@ public class Level {
         this.balls = balls;
     }
 
+    /**
+     * Constructs a new Level object with specified parameters.
+     *
+     * @param layout                The layout file name for the level.
+     * @param time                  The time limit for the level in seconds.
+     * @param spawnInterval         The interval between ball spawns in seconds.
+     * @param scoreIncreaseModifier The modifier for score increases.
+     * @param scoreDecreaseModifier The modifier for score decreases.
+     * @param balls                 The list of balls to be spawned in the level.
+     * @param continuousCollision   True to sweep balls against walls and lines instead of testing overlaps.
+     */
+    public Level(String layout, int time, int spawnInterval, float scoreIncreaseModifier, float scoreDecreaseModifier, List<String> balls, boolean continuousCollision) {
+        this(layout, time, spawnInterval, scoreIncreaseModifier, scoreDecreaseModifier, balls);
+        this.continuousCollision = continuousCollision;
+    }
+
+    /**
+     * Constructs a new Level object with specified parameters.
+     *
+     * @param layout                The layout file name for the level.
+     * @param time                  The time limit for the level in seconds.
+     * @param spawnInterval         The interval between ball spawns in seconds.
+     * @param scoreIncreaseModifier The modifier for score increases.
+     * @param scoreDecreaseModifier The modifier for score decreases.
+     * @param balls                 The list of balls to be spawned in the level.
+     * @param continuousCollision   True to sweep balls against walls and lines instead of testing overlaps.
+     * @param ballCollisions        True to bounce balls off each other instead of letting them pass through.
+     */
+    public Level(String layout, int time, int spawnInterval, float scoreIncreaseModifier, float scoreDecreaseModifier, List<String> balls, boolean continuousCollision, boolean ballCollisions) {
+        this(layout, time, spawnInterval, scoreIncreaseModifier, scoreDecreaseModifier, balls, continuousCollision);
+        this.ballCollisions = ballCollisions;
+    }
+
     /**
      * Gets the layout file name for the level.
      *
@@ -87,4 +122,22 @@ public class Level {
     public List<String> getBalls() {
         return balls;
     }
+
+    /**
+     * Checks if balls are swept against walls and lines so fast balls cannot pass through them.
+     *
+     * @return True if continuous collision detection is on, false otherwise.
+     */
+    public boolean isContinuousCollision() {
+        return continuousCollision;
+    }
+
+    /**
+     * Checks if balls bounce off each other.
+     *
+     * @return True if ball to ball collisions are on, false otherwise.
+     */
+    public boolean isBallCollisions() {
+        return ballCollisions;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package inkball;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles the text layouts of a config, with their level settings, into the binary format read
+ * by {@link CompiledLevel}. Each layout is written next to itself with the {@link #EXTENSION}
+ * extension, where {@link Simulation#loadLevel} picks it up, settings and all, while it is newer
+ * than the text and the config.
+ */
+public class LevelCompiler {
+
+    public static final String EXTENSION = ".inkb";
+
+    /**
+     * Compiles every level of a config.
+     *
+     * @param args The config file, config.json if not given.
+     * @throws IOException              If a compiled level cannot be written.
+     * @throws IllegalArgumentException If levels with different settings share a layout, as its
+     *                                  compiled copy can only hold one of them.
+     */
+    public static void main(String[] args) throws IOException {
+        String configPath = args.length > 0 ? args[0] : "config.json";
+        Simulation simulation = new Simulation(configPath);
+        for (int i = 0; i < simulation.levels.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                Level level = simulation.levels.get(i);
+                Level other = simulation.levels.get(j);
+                if (level.getLayout().equals(other.getLayout()) && !hasSameSettings(level, other)) {
+                    throw new IllegalArgumentException("Levels " + (j + 1) + " and " + (i + 1)
+                        + " share the layout " + level.getLayout() + " but not their settings");
+                }
+            }
+        }
+        for (Level level : simulation.levels) {
+            Path output = compiledPath(level.getLayout());
+            compile(level, output);
+            System.out.println(level.getLayout() + " -> " + output + " (" + output.toFile().length() + " bytes)");
+        }
+    }
+
+    /**
+     * Gets the path a text layout is compiled to.
+     *
+     * @param layoutFile The text layout.
+     * @return The layout with its extension replaced by {@link #EXTENSION}.
+     */
+    public static Path compiledPath(String layoutFile) {
+        int dot = layoutFile.lastIndexOf('.');
+        if (dot <= layoutFile.lastIndexOf(File.separatorChar) || layoutFile.endsWith(EXTENSION)) {
+            return Paths.get(layoutFile + EXTENSION);
+        }
+        return Paths.get(layoutFile.substring(0, dot) + EXTENSION);
+    }
+
+    /**
+     * Checks if a text layout has a compiled copy that is at least as new as the text and the
+     * config its settings came from.
+     *
+     * @param layoutFile The text layout.
+     * @param configFile The config, or null if there is none.
+     * @return True if the compiled copy can be loaded instead, false otherwise.
+     */
+    public static boolean isUpToDate(String layoutFile, String configFile) {
+        File compiled = compiledPath(layoutFile).toFile();
+        return compiled.isFile() && isNotNewer(new File(layoutFile), compiled)
+            && (configFile == null || isNotNewer(new File(configFile), compiled));
+    }
+
+    /**
+     * Checks if a source file was last changed no later than the file compiled from it.
+     *
+     * @param source   The source file, which may be missing.
+     * @param compiled The compiled file.
+     * @return True if the source is missing or not newer, false otherwise.
+     */
+    private static boolean isNotNewer(File source, File compiled) {
+        return !source.isFile() || source.lastModified() <= compiled.lastModified();
+    }
+
+    /**
+     * Checks if two levels have the same settings, whatever their layouts.
+     *
+     * @param level The first level.
+     * @param other The second level.
+     * @return True if every setting matches, false otherwise.
+     */
+    private static boolean hasSameSettings(Level level, Level other) {
+        return level.getTime() == other.getTime()
+            && level.getSpawnInterval() == other.getSpawnInterval()
+            && level.getScoreIncreaseModifier() == other.getScoreIncreaseModifier()
+            && level.getScoreDecreaseModifier() == other.getScoreDecreaseModifier()
+            && level.getBalls().equals(other.getBalls())
+            && level.isContinuousCollision() == other.isContinuousCollision()
+            && level.isBallCollisions() == other.isBallCollisions();
+    }
+
+    /**
+     * Compiles one level. The text layout is read by a throwaway simulation, so the compiled
+     * board is exactly the one the text loader builds.
+     *
+     * @param level  The level, whose layout is a text layout.
+     * @param output The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void compile(Level level, Path output) throws IOException {
+        Simulation simulation = new Simulation();
+        simulation.loadTextLayout(level.getLayout());
+        Board board = simulation.board;
+        int rows = board.getRows();
+        int columns = board.getColumns();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output.toFile())))) {
+            out.writeInt(CompiledLevel.MAGIC);
+            out.writeByte(CompiledLevel.VERSION);
+
+            // Level settings
+            out.writeInt(level.getTime());
+            out.writeInt(level.getSpawnInterval());
+            out.writeFloat(level.getScoreIncreaseModifier());
+            out.writeFloat(level.getScoreDecreaseModifier());
+            out.writeByte((level.isContinuousCollision() ? CompiledLevel.CONTINUOUS_COLLISION : 0)
+                | (level.isBallCollisions() ? CompiledLevel.BALL_COLLISIONS : 0));
+            out.writeShort(level.getBalls().size());
+            for (String ball : level.getBalls()) {
+                out.writeByte(ColorCode.getValue(ball));
+            }
+
+            // Cells
+            out.writeShort(rows);
+            out.writeShort(columns);
+            List<int[]> holes = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    // The board's cells are already encoded as the compiled ones, but for other tiles
+                    int type = board.getType(row, column);
+                    out.writeByte(type == Board.TILE ? CompiledLevel.EMPTY : board.getColor(row, column) << 4 | type);
+                    Tile tile = type == CompiledLevel.HOLE ? board.get(row, column) : null;
+                    if (tile instanceof Hole && isTopLeftCell((Hole) tile, row, column)) {
+                        holes.add(new int[] { row, column, ((Hole) tile).getColor() });
+                    }
+                }
+            }
+
+            out.writeShort(holes.size());
+            for (int[] hole : holes) {
+                out.writeShort(hole[0]);
+                out.writeShort(hole[1]);
+                out.writeByte(hole[2]);
+            }
+
+            out.writeShort(simulation.spawners.size());
+            for (Spawner spawner : simulation.spawners) {
+                out.writeShort((int) (spawner.getCenterYPosition() / App.CELL_SIZE));
+                out.writeShort((int) (spawner.getCenterXPosition() / App.CELL_SIZE));
+            }
+
+            out.writeShort(simulation.ballsOnScreen.size());
+            for (Ball ball : simulation.ballsOnScreen) {
+                out.writeShort((int) (ball.getCenterYPosition() / App.CELL_SIZE));
+                out.writeShort((int) (ball.getCenterXPosition() / App.CELL_SIZE));
+                out.writeByte(ball.getColor());
+            }
+        }
+    }
+
+    /**
+     * Checks if a cell is the top left of the four cells a hole covers.
+     *
+     * @param hole   The hole.
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return True if it is the hole's top left cell, false otherwise.
+     */
+    private static boolean isTopLeftCell(Hole hole, int row, int column) {
+        return hole.getCenterXPosition() - Hole.HALF_SIZE == column * App.CELL_SIZE
+                && hole.getCenterYPosition() - Hole.HALF_SIZE == row * App.CELL_SIZE;
+    }
+}
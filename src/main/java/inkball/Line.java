@@ -0,0 +1,293 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a line drawn by the player in the InkBall game.
+ * A line is a chain of points; each pair of neighbouring points is a segment that balls bounce off.
+ * The points are packed into one array of coordinates, x then y, so the segments are read
+ * straight from it without a {@link PVector} per point.
+ */
+public class Line {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] coordinates;
+    private int size;
+    private int order;
+    private boolean finished;
+
+    // Bounding box of the points
+    private float minX = Float.POSITIVE_INFINITY;
+    private float minY = Float.POSITIVE_INFINITY;
+    private float maxX = Float.NEGATIVE_INFINITY;
+    private float maxY = Float.NEGATIVE_INFINITY;
+
+    /**
+     * Constructs an empty line that is still being drawn.
+     */
+    public Line() {
+        this.coordinates = new float[2 * DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructs a finished line through the given points.
+     *
+     * @param points The points of the line.
+     */
+    public Line(List<PVector> points) {
+        this.coordinates = new float[2 * Math.max(points.size(), DEFAULT_CAPACITY)];
+        for (PVector point : points) {
+            addPoint(point.x, point.y);
+        }
+        this.finished = true;
+    }
+
+    /**
+     * Appends a point to the end of the line.
+     *
+     * @param point The point to add.
+     */
+    public void addPoint(PVector point) {
+        addPoint(point.x, point.y);
+    }
+
+    /**
+     * Appends a point to the end of the line.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     */
+    public void addPoint(float x, float y) {
+        if (2 * size == coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, 2 * coordinates.length);
+        }
+        coordinates[2 * size] = x;
+        coordinates[2 * size + 1] = y;
+        size++;
+        growBounds(x, y);
+    }
+
+    /**
+     * Grows the bounding box to include a point.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     */
+    private void growBounds(float x, float y) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    /**
+     * Takes out the points the line barely bends at, with the Ramer-Douglas-Peucker algorithm:
+     * the point furthest from the segment joining the ends is kept if it is further than the
+     * tolerance, and both halves are simplified the same way. Every point taken out is within
+     * the tolerance of the simplified line. The bounding box still covers the points taken out,
+     * so the pixels they were drawn at are erased with the line.
+     *
+     * @param tolerance The furthest a point taken out may be from the simplified line.
+     * @return True if any points were taken out, false otherwise.
+     */
+    public boolean simplify(float tolerance) {
+        if (size < 3) {
+            return false;
+        }
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+
+        // Ranges still to simplify, as pairs of first and last point, instead of recursing
+        int[] ranges = new int[2 * size];
+        int rangeCount = 0;
+        ranges[rangeCount++] = 0;
+        ranges[rangeCount++] = size - 1;
+        while (rangeCount > 0) {
+            int last = ranges[--rangeCount];
+            int first = ranges[--rangeCount];
+            int furthest = -1;
+            float furthestDistance = tolerance;
+            for (int i = first + 1; i < last; i++) {
+                float distance = Simulation.distPointToSegment(getX(i), getY(i), getX(first), getY(first), getX(last), getY(last));
+                if (distance > furthestDistance) {
+                    furthest = i;
+                    furthestDistance = distance;
+                }
+            }
+            if (furthest >= 0) {
+                keep[furthest] = true;
+                ranges[rangeCount++] = first;
+                ranges[rangeCount++] = furthest;
+                ranges[rangeCount++] = furthest;
+                ranges[rangeCount++] = last;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                coordinates[2 * kept] = coordinates[2 * i];
+                coordinates[2 * kept + 1] = coordinates[2 * i + 1];
+                kept++;
+            }
+        }
+        boolean simplified = kept < size;
+        size = kept;
+        return simplified;
+    }
+
+    /**
+     * Gets the left edge of the line's bounding box.
+     *
+     * @return The smallest x-coordinate of the points.
+     */
+    public float getMinX() {
+        return minX;
+    }
+
+    /**
+     * Gets the top edge of the line's bounding box.
+     *
+     * @return The smallest y-coordinate of the points.
+     */
+    public float getMinY() {
+        return minY;
+    }
+
+    /**
+     * Gets the right edge of the line's bounding box.
+     *
+     * @return The largest x-coordinate of the points.
+     */
+    public float getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Gets the bottom edge of the line's bounding box.
+     *
+     * @return The largest y-coordinate of the points.
+     */
+    public float getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Checks if the line's bounding box overlaps a rectangle, edges included. A line with no
+     * points overlaps nothing.
+     *
+     * @param left   The left edge of the rectangle.
+     * @param top    The top edge of the rectangle.
+     * @param right  The right edge of the rectangle.
+     * @param bottom The bottom edge of the rectangle.
+     * @return True if they overlap, false otherwise.
+     */
+    public boolean overlaps(float left, float top, float right, float bottom) {
+        return minX <= right && maxX >= left && minY <= bottom && maxY >= top;
+    }
+
+    /**
+     * Gets the x-coordinate of a point of the line.
+     *
+     * @param index The index of the point.
+     * @return The x-coordinate.
+     */
+    public float getX(int index) {
+        return coordinates[2 * index];
+    }
+
+    /**
+     * Gets the y-coordinate of a point of the line.
+     *
+     * @param index The index of the point.
+     * @return The y-coordinate.
+     */
+    public float getY(int index) {
+        return coordinates[2 * index + 1];
+    }
+
+    /**
+     * Gets a point of the line.
+     *
+     * @param index The index of the point.
+     * @return A new vector holding the point.
+     * @throws IndexOutOfBoundsException If there is no point at the index.
+     */
+    public PVector getPoint(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Point " + index + " of a line with " + size + " points");
+        }
+        return new PVector(getX(index), getY(index));
+    }
+
+    /**
+     * Gets the points of the line.
+     *
+     * @return A new list holding the points.
+     */
+    public List<PVector> getPoints() {
+        List<PVector> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(getPoint(i));
+        }
+        return points;
+    }
+
+    /**
+     * Gets the number of points in the line.
+     *
+     * @return The number of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the line has no points.
+     *
+     * @return True if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the position of the line in drawing order, used to break ties between lines.
+     *
+     * @return The order.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Sets the position of the line in drawing order.
+     *
+     * @param order The order.
+     */
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    /**
+     * Checks if the player has finished drawing the line. Only finished lines block balls.
+     *
+     * @return True if finished, false otherwise.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Marks the line as finished.
+     */
+    public void finish() {
+        this.finished = true;
+    }
+}
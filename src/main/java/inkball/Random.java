@@ -0,0 +1,171 @@
+package inkball;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fast, seedable random number generator (xoshiro256**, seeded through SplitMix64). Each
+ * game owns one, so a game is reproducible from its seed and no two games share a generator.
+ * It is not thread-safe.
+ */
+public class Random {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Makes generators created in the same nanosecond differ
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong();
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * Constructs a generator with a seed that differs every time.
+     */
+    public Random() {
+        this(newSeed());
+    }
+
+    /**
+     * Constructs a generator with the given seed.
+     *
+     * @param seed The seed.
+     */
+    public Random(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Makes a seed that differs every time it is called.
+     *
+     * @return The seed.
+     */
+    public static long newSeed() {
+        return mix(System.nanoTime() + SEED_UNIQUIFIER.addAndGet(GOLDEN_GAMMA));
+    }
+
+    /**
+     * Scrambles a value with the SplitMix64 finalizer, so nearby values give unrelated results.
+     *
+     * @param value The value.
+     * @return The scrambled value.
+     */
+    public static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Restarts the generator from a seed.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        // Four SplitMix64 outputs, which are never all zero
+        s0 = mix(seed += GOLDEN_GAMMA);
+        s1 = mix(seed += GOLDEN_GAMMA);
+        s2 = mix(seed += GOLDEN_GAMMA);
+        s3 = mix(seed + GOLDEN_GAMMA);
+    }
+
+    /**
+     * Gets the four words of the generator's state, to carry on the same sequence later.
+     *
+     * @return A copy of the state.
+     */
+    public long[] getState() {
+        return new long[] {s0, s1, s2, s3};
+    }
+
+    /**
+     * Carries on the sequence of a generator from its state.
+     *
+     * @param state The four words returned by {@link #getState()}.
+     * @throws IllegalArgumentException If the state is not four words, or is all zero.
+     */
+    public void setState(long[] state) {
+        if (state.length != 4 || (state[0] | state[1] | state[2] | state[3]) == 0) {
+            throw new IllegalArgumentException("Invalid generator state");
+        }
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    /**
+     * Returns the next 64 random bits.
+     *
+     * @return A random long.
+     */
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /**
+     * Returns the next 32 random bits.
+     *
+     * @return A random int.
+     */
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * Returns a random int from 0 (inclusive) to a bound (exclusive), without bias.
+     *
+     * @param bound The bound, which must be positive.
+     * @return A random int less than the bound.
+     * @throws IllegalArgumentException If the bound is not positive.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        // Lemire's multiply-and-shift, redrawing the few values that would favour low results
+        long product = (nextLong() >>> 32) * bound;
+        if ((product & 0xFFFFFFFFL) < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold) {
+                product = (nextLong() >>> 32) * bound;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * Returns a random boolean.
+     *
+     * @return True or false, each half of the time.
+     */
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Returns a random float from 0 (inclusive) to 1 (exclusive).
+     *
+     * @return A random float.
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Returns a random double from 0 (inclusive) to 1 (exclusive).
+     *
+     * @return A random double.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+}
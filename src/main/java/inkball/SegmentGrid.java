@@ -0,0 +1,299 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid over the board that indexes the segments of drawn lines by the cells they cover,
+ * so that queries only look at segments near the query area instead of every segment of every line.
+ * Cells are the same size as board tiles, and only get a list once a segment reaches them, so large
+ * boards cost little until they are drawn on. Anything outside the board is clamped into the edge cells.
+ */
+public class SegmentGrid {
+
+    /**
+     * A segment of a line, together with its bounding box and the range of cells it was inserted into.
+     */
+    public static class Segment {
+        private final Line line;
+        private final int index;
+        // Bounding box of the two end points
+        private final float minX;
+        private final float minY;
+        private final float maxX;
+        private final float maxY;
+        private final int firstRow;
+        private final int firstColumn;
+        private final int lastRow;
+        private final int lastColumn;
+
+        private Segment(Line line, int index, float minX, float minY, float maxX, float maxY,
+                        int firstRow, int firstColumn, int lastRow, int lastColumn) {
+            this.line = line;
+            this.index = index;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+            this.lastRow = lastRow;
+            this.lastColumn = lastColumn;
+        }
+
+        /**
+         * Checks if the segment's bounding box overlaps a rectangle, edges included. Cheaper than
+         * any distance to the segment, so it rules out segments that share a cell with the
+         * rectangle but are nowhere near it.
+         *
+         * @param left   The left edge of the rectangle.
+         * @param top    The top edge of the rectangle.
+         * @param right  The right edge of the rectangle.
+         * @param bottom The bottom edge of the rectangle.
+         * @return True if they overlap, false otherwise.
+         */
+        public boolean overlaps(float left, float top, float right, float bottom) {
+            return minX <= right && maxX >= left && minY <= bottom && maxY >= top;
+        }
+
+        /**
+         * Gets the line this segment belongs to.
+         *
+         * @return The line.
+         */
+        public Line getLine() {
+            return line;
+        }
+
+        /**
+         * Gets the index of the segment within its line. Segment i runs from point i to point i + 1.
+         *
+         * @return The index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the start point of the segment.
+         *
+         * @return A new vector holding the start point.
+         */
+        public PVector getStart() {
+            return line.getPoint(index);
+        }
+
+        /**
+         * Gets the end point of the segment.
+         *
+         * @return A new vector holding the end point.
+         */
+        public PVector getEnd() {
+            return line.getPoint(index + 1);
+        }
+
+        /**
+         * Gets the x-coordinate of the start point of the segment.
+         *
+         * @return The x-coordinate.
+         */
+        public float getStartX() {
+            return line.getX(index);
+        }
+
+        /**
+         * Gets the y-coordinate of the start point of the segment.
+         *
+         * @return The y-coordinate.
+         */
+        public float getStartY() {
+            return line.getY(index);
+        }
+
+        /**
+         * Gets the x-coordinate of the end point of the segment.
+         *
+         * @return The x-coordinate.
+         */
+        public float getEndX() {
+            return line.getX(index + 1);
+        }
+
+        /**
+         * Gets the y-coordinate of the end point of the segment.
+         *
+         * @return The y-coordinate.
+         */
+        public float getEndY() {
+            return line.getY(index + 1);
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+    private final List<Segment>[] cells;
+    private final Map<Line, List<Segment>> segmentsByLine;
+
+    /**
+     * Constructs an empty grid.
+     *
+     * @param rows    The number of rows of cells.
+     * @param columns The number of columns of cells.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SegmentGrid(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new List[rows * columns];
+        this.segmentsByLine = new HashMap<>();
+    }
+
+    /**
+     * Gets the number of rows of cells.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns of cells.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Inserts a segment of a line into every cell its bounding box covers.
+     *
+     * @param line  The line.
+     * @param index The index of the segment within the line.
+     */
+    public void insert(Line line, int index) {
+        float startX = line.getX(index);
+        float startY = line.getY(index);
+        float endX = line.getX(index + 1);
+        float endY = line.getY(index + 1);
+
+        float minX = Math.min(startX, endX);
+        float minY = Math.min(startY, endY);
+        float maxX = Math.max(startX, endX);
+        float maxY = Math.max(startY, endY);
+
+        Segment segment = new Segment(line, index, minX, minY, maxX, maxY,
+            toRow(minY), toColumn(minX), toRow(maxY), toColumn(maxX));
+
+        for (int row = segment.firstRow; row <= segment.lastRow; row++) {
+            for (int column = segment.firstColumn; column <= segment.lastColumn; column++) {
+                int cell = row * columns + column;
+                if (cells[cell] == null) {
+                    cells[cell] = new ArrayList<>();
+                }
+                cells[cell].add(segment);
+            }
+        }
+        segmentsByLine.computeIfAbsent(line, key -> new ArrayList<>()).add(segment);
+    }
+
+    /**
+     * Inserts every segment of a line.
+     *
+     * @param line The line.
+     */
+    public void insertAll(Line line) {
+        for (int i = 0; i + 1 < line.size(); i++) {
+            insert(line, i);
+        }
+    }
+
+    /**
+     * Removes every segment of a line.
+     *
+     * @param line The line.
+     */
+    public void remove(Line line) {
+        List<Segment> segments = segmentsByLine.remove(line);
+        if (segments == null) {
+            return;
+        }
+        for (Segment segment : segments) {
+            for (int row = segment.firstRow; row <= segment.lastRow; row++) {
+                for (int column = segment.firstColumn; column <= segment.lastColumn; column++) {
+                    cells[row * columns + column].remove(segment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every segment from the grid.
+     */
+    public void clear() {
+        for (List<Segment> cell : cells) {
+            if (cell != null) {
+                cell.clear();
+            }
+        }
+        segmentsByLine.clear();
+    }
+
+    /**
+     * Collects every segment whose cells overlap the cells of a rectangle. Each segment is reported
+     * once, from the first cell the segment and the rectangle share, so no bookkeeping is written
+     * and several threads may query at once.
+     *
+     * @param left   The left edge of the rectangle.
+     * @param top    The top edge of the rectangle.
+     * @param right  The right edge of the rectangle.
+     * @param bottom The bottom edge of the rectangle.
+     * @param result The list to add the segments to.
+     */
+    public void query(float left, float top, float right, float bottom, List<Segment> result) {
+        int firstRow = toRow(top);
+        int firstColumn = toColumn(left);
+        int lastRow = toRow(bottom);
+        int lastColumn = toColumn(right);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                List<Segment> cell = cells[row * columns + column];
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Segment segment = cell.get(i);
+                    if (Math.max(firstRow, segment.firstRow) == row && Math.max(firstColumn, segment.firstColumn) == column) {
+                        result.add(segment);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a y-coordinate to a row, clamped to the grid.
+     *
+     * @param y The y-coordinate.
+     * @return The row.
+     */
+    private int toRow(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / App.CELL_SIZE)));
+    }
+
+    /**
+     * Converts an x-coordinate to a column, clamped to the grid.
+     *
+     * @param x The x-coordinate.
+     * @return The column.
+     */
+    private int toColumn(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / App.CELL_SIZE)));
+    }
+}
@@ -0,0 +1,1207 @@
+package inkball;
+
+import processing.core.PVector;
+import processing.data.JSONArray;
+import processing.data.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * The headless core of the InkBall game.
+ * Owns the board, the balls, the drawn lines, the ball queue and the score, and can be stepped
+ * frame by frame without a Processing window. {@link App} renders its state.
+ */
+public class Simulation implements GameContext {
+    // Longest frame the fixed-timestep loop will catch up on, so a stall cannot snowball
+    public static final float MAX_FRAME_MILLIS = 250;
+    // Fewest balls on screen before their update is split across the common ForkJoin pool
+    public static final int PARALLEL_BALLS = 2048;
+    // Furthest in pixels a point may be from a finished line when the line is simplified; well
+    // under the stroke width, so the line looks the same
+    public static final float LINE_TOLERANCE = 1.5f;
+
+    // Timing
+    public int physicsHz;
+    public int renderHz;
+    public float accumulatorMillis;
+    public float completionFrameClock;
+
+    // Game state variables
+    public GameState gameState;
+    public boolean drawing;
+    public boolean levelLoaded;
+    public boolean moveCompletionTiles;
+    public boolean continuousCollision;
+    public boolean ballCollisions;
+    // Never worth it without a second core to run on
+    public int parallelBalls = ForkJoinPool.getCommonPoolParallelism() > 1 ? PARALLEL_BALLS : Integer.MAX_VALUE;
+
+    // Game data
+    public int currentLevel;
+    public int currentScore;
+    public int previousScore;
+    public int levelTime;
+    public int levelFrames;
+    public float spawnTime;
+    public int spawnFrames;
+    // Whether the spawn timer has run out since the level was loaded; the queue only slides after it has
+    public boolean ballSpawned;
+    public int spawnInterval;
+    // Balls captured since the simulation was created, in any hole
+    public int capturedBalls;
+    // Physics steps taken since the simulation was created
+    public long stepCount;
+    public float scoreIncreaseModifier;
+    public float scoreDecreaseModifier;
+
+    // Game objects
+    public String layout;
+    public List<Level> levels;
+    // The config the levels were loaded from, null if they were not
+    public String configFile;
+    public Queue<String> ballsInQueue;
+    public BallStore ballsOnScreen;
+    public List<Spawner> spawners;
+    public List<Ball> ballsToBeRemoved;
+    public List<Line> lines;
+    public Line currentLine;
+    public SegmentGrid lineGrid;
+    int nextLineOrder;
+    // Tolerance finished lines are simplified with, 0 to keep every point
+    public float lineTolerance = LINE_TOLERANCE;
+    private final List<SegmentGrid.Segment> nearbySegments = new ArrayList<>();
+    private final List<Line> linesToBeRemoved = new ArrayList<>();
+    // Holes that captured each ball during a parallel update, by ball slot
+    private Hole[] pendingCaptures = new Hole[0];
+    // Color of each captured ball when it reached its hole, by ball slot
+    private int[] pendingCaptureColors = new int[0];
+    private boolean deferringCaptures;
+
+    // Board
+    public Board board;
+    // Loads the board a chunk at a time on large compiled layouts, null once it is all loaded
+    public ChunkedBoard chunks;
+    // Distance of each cell to the nearest wall or hole; rebuilt when the board is replaced, and
+    // to be set to null after changing cells of the board in place
+    public DistanceField distanceField;
+    // Optional first line of a text layout giving its size in columns and rows
+    private static final Pattern LAYOUT_SIZE = Pattern.compile("size\\s+(\\d+)\\s+(\\d+)\\s*");
+
+    // Maps for score calculations
+    public Map<String, Integer> scoreIncreaseMap;
+    public Map<String, Integer> scoreDecreaseMap;
+
+    // Level completion animation
+    public int tile1Row = 1;
+    public int tile1Column = 0;
+    public int xDirection = 0;
+    public int yDirection = -1;
+
+    // Random number generator, owned by this game so a game can be played again from its seed
+    public Random random;
+    private long seed;
+
+    // Records the player's input while set, see InputRecorder
+    public InputRecorder recorder;
+
+    /**
+     * Constructs an empty simulation. A configuration must be loaded before it is stepped.
+     */
+    public Simulation() {
+        this.currentLevel = 1;
+        this.gameState = GameState.RUNNING;
+        this.moveCompletionTiles = true;
+        this.physicsHz = App.FPS;
+        this.renderHz = App.FPS;
+        this.levels = new ArrayList<>();
+        this.ballsInQueue = new ArrayDeque<>();
+        this.ballsOnScreen = new BallStore();
+        this.spawners = new ArrayList<>();
+        this.ballsToBeRemoved = new ArrayList<>();
+        this.lines = new ArrayList<>();
+        this.currentLine = new Line();
+        this.lineGrid = new SegmentGrid(App.BOARD_SIZE, App.BOARD_SIZE);
+        setSeed(Random.newSeed());
+    }
+
+    /**
+     * Constructs a simulation and loads the given configuration.
+     *
+     * @param configPath Path to the JSON configuration file.
+     */
+    public Simulation(String configPath) {
+        this();
+        loadConfig(configPath);
+    }
+
+    /**
+     * Restarts the random number generator from a seed. Two games with the same seed, config
+     * and input play out the same.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Gets the seed the random number generator was last started from.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Saves the state of the game, see {@link Snapshot}.
+     *
+     * @return The snapshot.
+     */
+    public byte[] saveSnapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(Snapshot.getSize(this));
+        Snapshot.save(this, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Puts the game back in a state saved by {@link #saveSnapshot()}.
+     *
+     * @param snapshot The snapshot.
+     * @throws IllegalArgumentException If the bytes are not a snapshot.
+     */
+    public void restoreSnapshot(byte[] snapshot) {
+        Snapshot.restore(this, ByteBuffer.wrap(snapshot));
+    }
+
+    /**
+     * Loads game configuration from a JSON file.
+     *
+     * @param configPath Path to the JSON configuration file.
+     */
+    public void loadConfig(String configPath) {
+        JSONObject config;
+        try (FileReader reader = new FileReader(configPath)) {
+            config = new JSONObject(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read config: " + configPath, e);
+        }
+        configFile = configPath;
+
+        // Load levels
+        levels = new ArrayList<>();
+        JSONArray jsonLevels = config.getJSONArray("levels");
+        for (int i = 0; i < jsonLevels.size(); i++) {
+            JSONObject jsonLevel = jsonLevels.getJSONObject(i);
+            String layout = jsonLevel.getString("layout");
+            int time = jsonLevel.getInt("time");
+            int spawnInterval = jsonLevel.getInt("spawn_interval");
+            float scoreIncreaseModifier = jsonLevel.getFloat("score_increase_from_hole_capture_modifier");
+            float scoreDecreaseModifier = jsonLevel.getFloat("score_decrease_from_wrong_hole_modifier");
+            List<String> ballsList = jsonArrayToList(jsonLevel.getJSONArray("balls"));
+            boolean continuousCollision = jsonLevel.getBoolean("continuous_collision", false);
+            boolean ballCollisions = jsonLevel.getBoolean("ball_collisions", false);
+
+            Level level = new Level(layout, time, spawnInterval, scoreIncreaseModifier, scoreDecreaseModifier, ballsList, continuousCollision, ballCollisions);
+            levels.add(level);
+        }
+
+        // Load timing, defaulting both rates to the original frame rate
+        setPhysicsHz(config.getInt("physics_hz", App.FPS));
+        renderHz = config.getInt("render_hz", App.FPS);
+        lineTolerance = config.getFloat("line_tolerance", LINE_TOLERANCE);
+
+        // A fixed seed makes every run of the config play out the same
+        if (config.hasKey("seed")) {
+            setSeed(config.getLong("seed"));
+        }
+
+        // Load score mappings
+        scoreIncreaseMap = jsonToMap(config.getJSONObject("score_increase_from_hole_capture"));
+        scoreDecreaseMap = jsonToMap(config.getJSONObject("score_decrease_from_wrong_hole"));
+    }
+
+    /**
+     * Converts a JSONArray to a List of Strings.
+     *
+     * @param jsonArray JSONArray to convert.
+     * @return List of Strings.
+     */
+    public static List<String> jsonArrayToList(JSONArray jsonArray) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < jsonArray.size(); i++) {
+            list.add(jsonArray.getString(i));
+        }
+        return list;
+    }
+
+    /**
+     * Converts a JSONObject to a Map of String to Integer.
+     *
+     * @param jsonObject JSONObject to convert.
+     * @return Map of String to Integer.
+     */
+    public static Map<String, Integer> jsonToMap(JSONObject jsonObject) {
+        Map<String, Integer> map = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        Set<String> keys = jsonObject.keys();
+        for (String key : keys) {
+            Integer value = jsonObject.getInt(key);
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    /**
+     * Sets how many physics steps are simulated per second.
+     *
+     * @param physicsHz The physics rate in steps per second.
+     */
+    public void setPhysicsHz(int physicsHz) {
+        if (physicsHz <= 0) {
+            throw new IllegalArgumentException("Invalid physics rate: " + physicsHz);
+        }
+        this.physicsHz = physicsHz;
+    }
+
+    /**
+     * Gets the length of one physics step as a fraction of a frame at {@link App#FPS}, which is
+     * the unit ball velocities are expressed in.
+     *
+     * @return The time step.
+     */
+    public float getTimeStep() {
+        return (float) App.FPS / physicsHz;
+    }
+
+    /**
+     * Gets the length of one physics step in milliseconds.
+     *
+     * @return The step length.
+     */
+    public float getStepMillis() {
+        return 1000f / physicsHz;
+    }
+
+    /**
+     * Runs as many fixed physics steps as fit into the elapsed real time, carrying the remainder
+     * over to the next call.
+     *
+     * @param elapsedMillis The real time since the previous call.
+     * @return The number of steps simulated.
+     */
+    public int advance(float elapsedMillis) {
+        accumulatorMillis += Math.min(elapsedMillis, MAX_FRAME_MILLIS);
+
+        float stepMillis = getStepMillis();
+        int steps = 0;
+        while (accumulatorMillis >= stepMillis) {
+            step();
+            accumulatorMillis -= stepMillis;
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Gets how far the real time has moved past the last physics step, for blending ball
+     * positions when drawing.
+     *
+     * @return A value from 0 (at the last step) to 1 (at the next step).
+     */
+    public float getInterpolationAlpha() {
+        return Math.min(1, accumulatorMillis / getStepMillis());
+    }
+
+    /**
+     * Advances the simulation by the given number of frames.
+     *
+     * @param frames The number of frames to simulate.
+     */
+    public void step(int frames) {
+        for (int i = 0; i < frames; i++) {
+            step();
+        }
+    }
+
+    /**
+     * Advances the simulation by a single physics step.
+     */
+    public void step() {
+        stepCount++;
+        if (!levelLoaded) {
+            loadLevel(currentLevel);
+        }
+
+        ballsOnScreen.savePreviousPositions();
+
+        switch (gameState) {
+            case RUNNING:
+                updateGame();
+                break;
+            case LEVEL_COMPLETION_ANIMATION:
+                playLevelCompletionAnimation();
+                break;
+            case LEVEL_COMPLETE:
+                advanceLevel();
+                break;
+            case GAME_ENDED:
+                resetGame();
+                break;
+            default:
+                break;
+        }
+
+        updateLines();
+    }
+
+    /**
+     * Updates the game state when running.
+     */
+    public void updateGame() {
+        if (ballsOnScreen.isEmpty() && ballsInQueue.isEmpty()) {
+            gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        } else {
+            updateTime();
+            updateBalls();
+            if (ballCollisions) {
+                ballsOnScreen.collideBalls();
+            }
+            updateSpawner();
+        }
+    }
+
+    /**
+     * Moves every ball on screen, resolves its collisions with the board and removes captured balls.
+     * With {@link #parallelBalls} or more balls the balls are updated in parallel, and the
+     * captures they make are applied afterwards in ball order, so the result is the same as
+     * updating them one after another.
+     */
+    public void updateBalls() {
+        float timeStep = getTimeStep();
+        int count = ballsOnScreen.size();
+
+        ballsToBeRemoved.clear();
+        if (chunks != null) {
+            // Loading writes to the board, so it is done for every ball before any of them move
+            for (int i = 0; i < count; i++) {
+                Ball ball = ballsOnScreen.get(i);
+                // Everything the ball can touch this step: its neighbouring cells and its travel
+                float travel = (Math.abs(ball.getVelocityX()) + Math.abs(ball.getVelocityY())) * timeStep;
+                chunks.loadAround(ball.getCenterXPosition(), ball.getCenterYPosition(), 2 * App.CELL_SIZE + travel);
+            }
+        }
+
+        fitDistanceField();
+
+        if (count >= parallelBalls) {
+            updateBallsInParallel(count, timeStep);
+        } else {
+            for (int i = 0; i < count; i++) {
+                updateBall(i, timeStep);
+            }
+        }
+
+        if (!ballsToBeRemoved.isEmpty()) {
+            ballsOnScreen.removeAll(ballsToBeRemoved);
+        }
+    }
+
+    /**
+     * Updates the balls on the common ForkJoin pool. A ball only changes its own slot of the
+     * store, so the only shared state is what a capture changes, which is held back until all
+     * the balls have moved.
+     *
+     * @param count    The number of balls.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the balls by.
+     */
+    private void updateBallsInParallel(int count, float timeStep) {
+        if (pendingCaptures.length < count) {
+            pendingCaptures = new Hole[count];
+            pendingCaptureColors = new int[count];
+        }
+
+        deferringCaptures = true;
+        try {
+            IntStream.range(0, count).parallel().forEach(i -> updateBall(i, timeStep));
+        } finally {
+            deferringCaptures = false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            Hole hole = pendingCaptures[i];
+            if (hole != null) {
+                pendingCaptures[i] = null;
+                hole.captureBall(ballsOnScreen.get(i), pendingCaptureColors[i], this);
+            }
+        }
+    }
+
+    /**
+     * Resolves the collisions of one ball with the board and moves it. A ball further from every
+     * wall and hole than it can reach this step has nothing around it to resolve.
+     *
+     * @param slot     The slot of the ball on screen.
+     * @param timeStep The fraction of a frame at {@link App#FPS} to move the ball by.
+     */
+    private void updateBall(int slot, float timeStep) {
+        Ball ball = ballsOnScreen.get(slot);
+        if (distanceField != null && isInOpenSpace(slot, timeStep)) {
+            ball.clearSurrounding();
+        } else {
+            ball.checkSurrounding(board, timeStep, this);
+        }
+        if (continuousCollision) {
+            ball.updatePositionContinuous(board, timeStep);
+        } else {
+            ballsOnScreen.updatePosition(slot, timeStep);
+        }
+    }
+
+    /**
+     * Checks if a ball is further from every wall and hole than its edge can move this step.
+     *
+     * @param slot     The slot of the ball on screen.
+     * @param timeStep The fraction of a frame at {@link App#FPS} the ball moves for.
+     * @return True if the ball cannot reach a wall or hole, false otherwise.
+     */
+    private boolean isInOpenSpace(int slot, float timeStep) {
+        float room = distanceField.getClearance(ballsOnScreen.x[slot], ballsOnScreen.y[slot]) - Ball.RADIUS;
+        if (room <= 0) {
+            return false;
+        }
+        // Compared squared to save a square root per ball
+        float velocityX = ballsOnScreen.velocityX[slot];
+        float velocityY = ballsOnScreen.velocityY[slot];
+        return (velocityX * velocityX + velocityY * velocityY) * timeStep * timeStep < room * room;
+    }
+
+    /**
+     * Holds back a capture made while the balls are updated in parallel.
+     *
+     * @param ball The captured ball.
+     * @param hole The hole that captured it.
+     * @return True if the capture will be applied once the update is done, false if it should
+     *         be applied now.
+     */
+    @Override
+    public boolean deferCapture(Ball ball, Hole hole) {
+        if (!deferringCaptures || !ballsOnScreen.contains(ball)) {
+            return false;
+        }
+        pendingCaptures[ball.index] = hole;
+        // A wall can still paint the ball before the capture is scored
+        pendingCaptureColors[ball.index] = ball.getColor();
+        return true;
+    }
+
+    /**
+     * Spawns the next queued ball from a random spawner once the spawn timer runs out.
+     */
+    public void updateSpawner() {
+        if (spawnFrames == 0) {
+            spawnFrames = physicsHz * spawnInterval;
+            ballSpawned = true;
+            if (!ballsInQueue.isEmpty()) {
+                String ballColor = ballsInQueue.poll();
+                Spawner spawner = spawners.get(random.nextInt(spawners.size()));
+                float centerX = spawner.getCenterXPosition();
+                float centerY = spawner.getCenterYPosition();
+                int color = ColorCode.getValue(ballColor);
+                ballsOnScreen.add(new Ball(centerX, centerY, color, null, random));
+            }
+        }
+    }
+
+    /**
+     * Bounces balls off the drawn lines and removes every line that was hit. Each ball only tests
+     * the segments the line grid holds around the area it can reach this step whose bounding boxes,
+     * and their lines', overlap that area.
+     */
+    public void updateLines() {
+        if (gameState != GameState.RUNNING) {
+            return;
+        }
+
+        float timeStep = getTimeStep();
+        linesToBeRemoved.clear();
+
+        for (int i = 0; i < ballsOnScreen.size(); i++) {
+            Ball ball = ballsOnScreen.get(i);
+            // Bouncing never changes speed, so the look-ahead stays within this reach
+            float reach = Ball.RADIUS + ballsOnScreen.getSpeed(i) * timeStep;
+            float left = ballsOnScreen.x[i] - reach;
+            float top = ballsOnScreen.y[i] - reach;
+            float right = ballsOnScreen.x[i] + reach;
+            float bottom = ballsOnScreen.y[i] + reach;
+
+            nearbySegments.clear();
+            lineGrid.query(left, top, right, bottom, nearbySegments);
+
+            // Sharing a cell with the ball is not being in reach of it: keep only the finished
+            // segments whose line's box and own box overlap the ball's reach, before any segment
+            // math and before sorting
+            int kept = 0;
+            for (int j = 0; j < nearbySegments.size(); j++) {
+                SegmentGrid.Segment segment = nearbySegments.get(j);
+                Line line = segment.getLine();
+                if (line.isFinished() && line.overlaps(left, top, right, bottom)
+                        && segment.overlaps(left, top, right, bottom)) {
+                    nearbySegments.set(kept++, segment);
+                }
+            }
+            while (nearbySegments.size() > kept) {
+                nearbySegments.remove(nearbySegments.size() - 1);
+            }
+            sortByDrawingOrder(nearbySegments);
+
+            for (int j = 0; j < nearbySegments.size(); j++) {
+                SegmentGrid.Segment segment = nearbySegments.get(j);
+                Line line = segment.getLine();
+                if (collidesWithLine(ball, segment, timeStep)) {
+                    if (!linesToBeRemoved.contains(line)) {
+                        linesToBeRemoved.add(line);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < linesToBeRemoved.size(); i++) {
+            removeLine(linesToBeRemoved.get(i));
+        }
+    }
+
+    /**
+     * Bounces a ball off a line segment, sweeping the ball's move when continuous collision
+     * detection is on for the level.
+     *
+     * @param ball     The ball.
+     * @param segment  The segment.
+     * @param timeStep The fraction of a frame at {@link App#FPS} being simulated.
+     * @return True if the ball hit the segment, false otherwise.
+     */
+    private boolean collidesWithLine(Ball ball, SegmentGrid.Segment segment, float timeStep) {
+        float startX = segment.getStartX();
+        float startY = segment.getStartY();
+        float endX = segment.getEndX();
+        float endY = segment.getEndY();
+        if (continuousCollision) {
+            return ball.handleSweptCollisionWithLine(startX, startY, endX, endY, timeStep);
+        }
+        return ball.handleCollisionWithLine(startX, startY, endX, endY, timeStep);
+    }
+
+    /**
+     * Sorts segments by the order their lines were drawn in, then by their position along the
+     * line, so collisions resolve in the same order whichever cells the segments came from.
+     *
+     * @param segments The segments to sort.
+     */
+    private static void sortByDrawingOrder(List<SegmentGrid.Segment> segments) {
+        // Insertion sort: the lists are short and this avoids allocating a comparator
+        for (int i = 1; i < segments.size(); i++) {
+            SegmentGrid.Segment segment = segments.get(i);
+            int j = i - 1;
+            while (j >= 0 && comesAfter(segments.get(j), segment)) {
+                segments.set(j + 1, segments.get(j));
+                j--;
+            }
+            segments.set(j + 1, segment);
+        }
+    }
+
+    /**
+     * Checks if one segment comes after another in drawing order.
+     *
+     * @param a The first segment.
+     * @param b The second segment.
+     * @return True if a comes after b.
+     */
+    private static boolean comesAfter(SegmentGrid.Segment a, SegmentGrid.Segment b) {
+        int orderA = a.getLine().getOrder();
+        int orderB = b.getLine().getOrder();
+        return orderA > orderB || (orderA == orderB && a.getIndex() > b.getIndex());
+    }
+
+    /**
+     * Updates the level time and spawn time. Both count down in physics steps.
+     */
+    public void updateTime() {
+        levelFrames--;
+        levelTime = levelFrames / physicsHz;
+        spawnFrames--;
+        spawnTime = (float) Math.ceil(spawnFrames * 10 / physicsHz) / 10.0f;
+
+        if (levelFrames == 0) {
+            gameState = GameState.LEVEL_TIME_UP;
+        }
+    }
+
+    /**
+     * Plays the level completion animation, which runs at {@link App#FPS} frames per second
+     * whatever the physics rate.
+     */
+    public void playLevelCompletionAnimation() {
+        completionFrameClock += getTimeStep();
+        while (completionFrameClock >= 1 && gameState == GameState.LEVEL_COMPLETION_ANIMATION) {
+            completionFrameClock -= 1;
+            if (levelTime > 0) {
+                if (moveCompletionTiles) {
+                    advanceCompletionTiles();
+                }
+                moveCompletionTiles = !moveCompletionTiles;
+            } else {
+                gameState = GameState.LEVEL_COMPLETE;
+            }
+        }
+    }
+
+    /**
+     * Moves the two completion tiles one cell around the board edge, converting a second of
+     * remaining time into a point of score.
+     */
+    public void advanceCompletionTiles() {
+        int lastRow = getRows() - 1;
+        int lastColumn = getColumns() - 1;
+        tile1Row += yDirection;
+        tile1Column += xDirection;
+        if (tile1Row == 0 && tile1Column == 0) { // tile 1 reaches top left corner
+            yDirection = 0;
+            xDirection = 1;
+        }
+        if (tile1Row == 0 && tile1Column == lastColumn) { // tile 1 reaches top right corner
+            yDirection = 1;
+            xDirection = 0;
+        }
+        if (tile1Row == lastRow && tile1Column == lastColumn) { // tile 1 reaches bottom right corner
+            yDirection = 0;
+            xDirection = -1;
+        }
+        if (tile1Row == lastRow && tile1Column == 0) { // tile 1 reaches bottom left corner
+            yDirection = -1;
+            xDirection = 0;
+        }
+
+        levelTime--;
+        currentScore++;
+    }
+
+    /**
+     * Gets the row of the second completion tile, which mirrors the first.
+     *
+     * @return The row.
+     */
+    public int getTile2Row() {
+        return (getRows() - 1) - tile1Row;
+    }
+
+    /**
+     * Gets the column of the second completion tile, which mirrors the first.
+     *
+     * @return The column.
+     */
+    public int getTile2Column() {
+        return (getColumns() - 1) - tile1Column;
+    }
+
+    /**
+     * Advances to the next level or ends the game if last level.
+     */
+    public void advanceLevel() {
+        if (currentLevel < levels.size()) {
+            currentLevel++;
+            levelLoaded = false;
+            gameState = GameState.RUNNING;
+            previousScore = currentScore;
+            clearLines();
+        } else {
+            gameState = GameState.GAME_ENDED;
+        }
+    }
+
+    /**
+     * Resets the game after it has ended.
+     */
+    public void resetGame() {
+        clearLines();
+    }
+
+    /**
+     * Toggles the pause state of the game.
+     */
+    public void togglePause() {
+        if (recorder != null) {
+            recorder.record(InputRecorder.TOGGLE_PAUSE);
+        }
+        if (gameState == GameState.RUNNING) {
+            gameState = GameState.PAUSED;
+        } else if (gameState == GameState.PAUSED) {
+            gameState = GameState.RUNNING;
+        }
+    }
+
+    /**
+     * Restarts the current level or the game.
+     */
+    public void restartLevel() {
+        if (recorder != null) {
+            recorder.record(InputRecorder.RESTART_LEVEL);
+        }
+        if (gameState == GameState.GAME_ENDED) {
+            currentLevel = 1;
+            currentScore = 0;
+            previousScore = 0;
+        }
+        clearLines();
+        levelLoaded = false;
+        gameState = GameState.RUNNING;
+        levelTime = levels.get(currentLevel - 1).getTime();
+        currentScore = previousScore;
+    }
+
+    /**
+     * Appends a point to the line currently being drawn. The new segment is indexed straight away,
+     * but only blocks balls once the line is finished.
+     *
+     * @param x The x-coordinate on the board.
+     * @param y The y-coordinate on the board.
+     */
+    public void addLinePoint(float x, float y) {
+        if (recorder != null) {
+            recorder.record(InputRecorder.ADD_LINE_POINT, x, y);
+        }
+        if (gameState == GameState.RUNNING || gameState == GameState.PAUSED) {
+            drawing = true;
+            currentLine.addPoint(x, y);
+            if (currentLine.size() > 1) {
+                lineGrid.insert(currentLine, currentLine.size() - 2);
+            }
+        }
+    }
+
+    /**
+     * Finishes the line currently being drawn and adds it to the board. A stroke gets a point
+     * for every mouse event, mostly along nearly straight runs, so the points it barely bends at
+     * are taken out first and fewer segments are tested against the balls.
+     */
+    public void finishLine() {
+        if (recorder != null) {
+            recorder.record(InputRecorder.FINISH_LINE);
+        }
+        if (!currentLine.isEmpty()) {
+            if (lineTolerance > 0 && currentLine.simplify(lineTolerance)) {
+                lineGrid.remove(currentLine);
+                lineGrid.insertAll(currentLine);
+            }
+            currentLine.finish();
+            currentLine.setOrder(nextLineOrder++);
+            lines.add(currentLine);
+            currentLine = new Line();
+        }
+        drawing = false;
+    }
+
+    /**
+     * Adds a finished line through the given points.
+     *
+     * @param points The points of the line.
+     * @return The added line.
+     */
+    public Line addLine(List<PVector> points) {
+        Line line = new Line(points);
+        line.setOrder(nextLineOrder++);
+        lines.add(line);
+        lineGrid.insertAll(line);
+        return line;
+    }
+
+    /**
+     * Removes a line from the board.
+     *
+     * @param line The line to remove.
+     */
+    public void removeLine(Line line) {
+        lines.remove(line);
+        lineGrid.remove(line);
+    }
+
+    /**
+     * Removes every finished line from the board.
+     */
+    public void clearLines() {
+        for (Line line : lines) {
+            lineGrid.remove(line);
+        }
+        lines.clear();
+    }
+
+    /**
+     * Removes the earliest drawn line that passes near the given point.
+     *
+     * @param x The x-coordinate on the board.
+     * @param y The y-coordinate on the board.
+     */
+    public void removeLineAt(float x, float y) {
+        if (recorder != null) {
+            recorder.record(InputRecorder.REMOVE_LINE_AT, x, y);
+        }
+        float tolerance = 5; // Tolerance distance for removing the line
+
+        nearbySegments.clear();
+        lineGrid.query(x - tolerance, y - tolerance, x + tolerance, y + tolerance, nearbySegments);
+
+        Line nearest = null;
+        for (SegmentGrid.Segment segment : nearbySegments) {
+            Line line = segment.getLine();
+            if (line.isFinished() && (nearest == null || line.getOrder() < nearest.getOrder())
+                    && distPointToSegment(x, y, segment.getStartX(), segment.getStartY(), segment.getEndX(), segment.getEndY()) < tolerance) {
+                nearest = line;
+            }
+        }
+
+        if (nearest != null) {
+            removeLine(nearest);
+        }
+    }
+
+    /**
+     * Calculates the distance from a point to a line segment.
+     *
+     * @param p Point.
+     * @param v Line segment start.
+     * @param w Line segment end.
+     * @return Distance.
+     */
+    public static float distPointToSegment(PVector p, PVector v, PVector w) {
+        return distPointToSegment(p.x, p.y, v.x, v.y, w.x, w.y);
+    }
+
+    /**
+     * Calculates the distance from a point to a line segment without creating any vectors.
+     *
+     * @param px Point x-coordinate.
+     * @param py Point y-coordinate.
+     * @param vx Line segment start x-coordinate.
+     * @param vy Line segment start y-coordinate.
+     * @param wx Line segment end x-coordinate.
+     * @param wy Line segment end y-coordinate.
+     * @return Distance.
+     */
+    public static float distPointToSegment(float px, float py, float vx, float vy, float wx, float wy) {
+        float segmentX = wx - vx;
+        float segmentY = wy - vy;
+        float l2 = segmentX * segmentX + segmentY * segmentY;
+        float dx = px - vx;
+        float dy = py - vy;
+        if (l2 == 0.0) return (float) Math.sqrt(dx * dx + dy * dy);
+        float t = Math.max(0, Math.min(1, (dx * segmentX + dy * segmentY) / l2));
+        dx -= segmentX * t;
+        dy -= segmentY * t;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public void addBallToRemove(Ball ball) {
+        ballsToBeRemoved.add(ball);
+        capturedBalls++;
+    }
+
+    @Override
+    public void increaseScore(int amount) {
+        currentScore += amount;
+    }
+
+    @Override
+    public void decreaseScore(int amount) {
+        currentScore = Math.max(0, currentScore - amount);
+    }
+
+    @Override
+    public void addBallToQueue(String ballColorName) {
+        ballsInQueue.add(ballColorName);
+    }
+
+    @Override
+    public float getScoreIncreaseModifier() {
+        return scoreIncreaseModifier;
+    }
+
+    @Override
+    public float getScoreDecreaseModifier() {
+        return scoreDecreaseModifier;
+    }
+
+    @Override
+    public Map<String, Integer> getScoreIncreaseMap() {
+        return scoreIncreaseMap;
+    }
+
+    @Override
+    public Map<String, Integer> getScoreDecreaseMap() {
+        return scoreDecreaseMap;
+    }
+
+    public List<Ball> getBallsToBeRemoved() { return ballsToBeRemoved; }
+
+    /**
+     * Loads a level based on the current level number. A level whose layout is loaded from its
+     * compiled copy takes its settings from there too.
+     *
+     * @param levelNumber The current level number.
+     */
+    public void loadLevel(int levelNumber) {
+        Level level = levels.get(levelNumber - 1);
+
+        layout = level.getLayout();
+        Level compiled = readLayout(layout);
+        fitToBoard();
+        if (compiled != null) {
+            level = compiled;
+        }
+
+        levelTime = level.getTime();
+        levelFrames = levelTime * physicsHz;
+        spawnInterval = level.getSpawnInterval();
+        spawnTime = spawnInterval;
+        spawnFrames = (int) spawnTime * physicsHz;
+        ballSpawned = false;
+        completionFrameClock = 0;
+
+        continuousCollision = level.isContinuousCollision();
+        ballCollisions = level.isBallCollisions();
+        scoreIncreaseModifier = level.getScoreIncreaseModifier();
+        scoreDecreaseModifier = level.getScoreDecreaseModifier();
+        ballsInQueue = new ArrayDeque<>(level.getBalls());
+
+        levelLoaded = true;
+        gameState = GameState.RUNNING;
+    }
+
+    /**
+     * Loads the layout from a file. A compiled copy of a text layout is loaded instead while it
+     * is newer than the text and the config, see {@link LevelCompiler}.
+     *
+     * @param layoutFile The layout file.
+     */
+    public void loadLayout(String layoutFile) {
+        readLayout(layoutFile);
+        fitToBoard();
+    }
+
+    /**
+     * Reads the board, spawners and balls of a layout, from its compiled copy if possible.
+     *
+     * @param layoutFile The layout file.
+     * @return The level settings stored in the compiled copy, or null if the layout was not
+     *         read from one.
+     */
+    private Level readLayout(String layoutFile) {
+        boolean compiledOnly = layoutFile.endsWith(LevelCompiler.EXTENSION);
+        if (!compiledOnly && !LevelCompiler.isUpToDate(layoutFile, configFile)) {
+            loadTextLayout(layoutFile);
+            return null;
+        }
+
+        Path compiled = compiledOnly ? Paths.get(layoutFile) : LevelCompiler.compiledPath(layoutFile);
+        try {
+            CompiledLevel level = CompiledLevel.open(compiled);
+            level.loadInto(this);
+            return level.getLevel();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load compiled layout " + compiled + ": " + e.getMessage());
+            if (compiledOnly) {
+                board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+                chunks = null;
+                ballsOnScreen = new BallStore();
+                spawners = new ArrayList<>();
+            } else {
+                loadTextLayout(layoutFile);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sizes the line grid and the edges the balls bounce off to the loaded board.
+     */
+    private void fitToBoard() {
+        // The balls bounce off the bottom of the window, below the board, as they always have
+        ballsOnScreen.setBounds(getBoardWidth(), getBoardHeight() + App.TOP_BAR_HEIGHT);
+        fitDistanceField();
+
+        if (lineGrid.getRows() != getRows() || lineGrid.getColumns() != getColumns()) {
+            lineGrid = new SegmentGrid(getRows(), getColumns());
+            for (Line line : lines) {
+                lineGrid.insertAll(line);
+            }
+            lineGrid.insertAll(currentLine);
+        }
+    }
+
+    /**
+     * Builds the distance field of the board unless it has one. A chunked board gets its field
+     * from its compiled level when it is loaded, as its cells are not all there yet.
+     */
+    private void fitDistanceField() {
+        if (board != null && (distanceField == null || !distanceField.isFor(board))) {
+            distanceField = chunks == null ? DistanceField.of(board) : null;
+        }
+    }
+
+    /**
+     * Gets the number of rows of the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return board == null ? App.BOARD_SIZE : board.getRows();
+    }
+
+    /**
+     * Gets the number of columns of the board.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return board == null ? App.BOARD_SIZE : board.getColumns();
+    }
+
+    /**
+     * Gets the width of the board in pixels.
+     *
+     * @return The width.
+     */
+    public int getBoardWidth() {
+        return getColumns() * App.CELL_SIZE;
+    }
+
+    /**
+     * Gets the height of the board in pixels.
+     *
+     * @return The height.
+     */
+    public int getBoardHeight() {
+        return getRows() * App.CELL_SIZE;
+    }
+
+    /**
+     * Loads the layout from a text file. The board is {@link App#BOARD_SIZE} cells square unless
+     * the first line of the file gives its size as {@code size <columns> <rows>}.
+     *
+     * @param layoutFile The layout file.
+     */
+    public void loadTextLayout(String layoutFile) {
+        board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        chunks = null;
+        ballsOnScreen = new BallStore();
+        spawners = new ArrayList<>();
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(layoutFile));
+            String line = reader.readLine();
+            int rows = App.BOARD_SIZE;
+            int columns = App.BOARD_SIZE;
+            Matcher size = line == null ? null : LAYOUT_SIZE.matcher(line);
+            if (size != null && size.matches()) {
+                columns = Integer.parseInt(size.group(1));
+                rows = Integer.parseInt(size.group(2));
+                board = new Board(rows, columns);
+                line = reader.readLine();
+            }
+            int row = 0;
+
+            for (; line != null && row < rows; line = reader.readLine()) {
+                for (int column = 0; column < columns && column < line.length(); column++) {
+                    char c = line.charAt(column);
+                    int centerXPosition = column * App.CELL_SIZE + App.CELL_SIZE / 2;
+                    int centerYPosition = row * App.CELL_SIZE + App.CELL_SIZE / 2;
+                    int color;
+
+                    switch(c) {
+                        case 'X':
+                            board.set(row, column, Board.wall(0));
+                            break;
+                        case '1':
+                        case '2':
+                        case '3':
+                        case '4':
+                            color = c - '0';
+                            board.set(row, column, Board.wall(color));
+                            break;
+                        case 'V':
+                            color = line.charAt(column + 1) - '0';
+                            if (color > 4 || color < 0) {
+                                return;
+                            }
+                            board.set(row, column, Board.colorRestrictingWall(color, true));
+                            column++; // Skip the color character
+                            break;
+                        case 'Z':
+                            int offset = column;
+                            while (line.charAt(offset + 1) - '0' > 9 || line.charAt(offset + 1) - '0' < 0) { // next char is not color
+                                offset++;
+                            }
+                            color = line.charAt(offset + 1) - '0';
+                            board.set(row, column, Board.colorRestrictingWall(color, false));
+                            if (offset == column) { // next char is color
+                                column++;
+                            }
+                            break;
+                        case 'S':
+                            Spawner spawner = new Spawner(centerXPosition, centerYPosition);
+                            spawners.add(spawner);
+                            board.set(row, column, spawner);
+                            break;
+                        case 'H':
+                            color = line.charAt(column + 1) - '0';
+                            centerXPosition = column * App.CELL_SIZE + Hole.HALF_SIZE;
+                            centerYPosition = row * App.CELL_SIZE + Hole.HALF_SIZE;
+                            Hole hole = new Hole(centerXPosition, centerYPosition, color);
+                            board.set(row, column, hole);
+                            board.set(row, column + 1, hole);
+                            board.set(row + 1, column, hole);
+                            board.set(row + 1, column + 1, hole);
+                            column++; // Skip the color character
+                            break;
+                        case 'B':
+                            color = line.charAt(column + 1) - '0';
+                            ballsOnScreen.add(new Ball(centerXPosition, centerYPosition, color, null, random));
+                            column++; // Skip the color character
+                            break;
+                    }
+
+                }
+                row++;
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("File not found: " + layoutFile);
+        } catch (IOException e) {
+            System.err.println("Error reading the file: " + layoutFile);
+        } catch (Exception e) {
+            System.err.println("An unexpected error occurred.");
+            e.printStackTrace();
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+                // Handle potential IOException from reader.close()
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package inkball;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Saves the whole state of a game to a compact byte buffer and restores it, for instant
+ * restarts, rewinding and trying several moves from the same point. Saving and restoring take
+ * time in proportion to the number of balls, queued balls and line points; only restoring into
+ * a different layout than the one loaded reads the layout again.
+ *
+ * <p>A snapshot holds what changes while a game is played: the balls, the queue, the lines, the
+ * timers, the score and the state of the random number generator. What comes from the config
+ * (the levels and the score tables) and the board, which does not change during a level, are
+ * not included, so a snapshot must be restored into a game loaded from the same config.
+ * Numbers are big-endian.</p>
+ */
+public class Snapshot {
+
+    public static final int MAGIC = 0x494E4B53; // "INKS"
+    public static final int VERSION = 2;
+
+    // Bytes of everything but the layout, the balls, the queue and the lines
+    private static final int FIXED_BYTES = 4 + 1 + 8 + 32 + 8 + 4 + 1 + 1 + 5 * 4 + 13 * 4;
+    // Position, previous position and velocity, color and drawn size
+    private static final int BALL_BYTES = 6 * 4 + 1 + 1;
+
+    private static final GameState[] GAME_STATES = GameState.values();
+
+    /**
+     * Prevents instantiation; the methods are static.
+     */
+    private Snapshot() {
+    }
+
+    /**
+     * Gets the number of bytes a snapshot of a game takes.
+     *
+     * @param simulation The game.
+     * @return The size of the snapshot.
+     */
+    public static int getSize(Simulation simulation) {
+        int size = FIXED_BYTES + 2 + (simulation.layout == null ? 0 : utf8(simulation.layout).length);
+        size += 4 + simulation.ballsOnScreen.size() * BALL_BYTES;
+        size += 4 + simulation.ballsInQueue.size();
+        size += 4 + getSize(simulation.currentLine);
+        for (int i = 0; i < simulation.lines.size(); i++) {
+            size += getSize(simulation.lines.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes a line takes in a snapshot.
+     *
+     * @param line The line.
+     * @return The size of the line.
+     */
+    private static int getSize(Line line) {
+        return 4 + 1 + 4 + line.size() * 2 * 4;
+    }
+
+    /**
+     * Writes a snapshot of a game.
+     *
+     * @param simulation The game.
+     * @param buffer     The buffer to write to, which needs {@link #getSize(Simulation)} bytes left.
+     */
+    public static void save(Simulation simulation, ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+
+        buffer.putLong(simulation.getSeed());
+        for (long word : simulation.random.getState()) {
+            buffer.putLong(word);
+        }
+        buffer.putLong(simulation.stepCount);
+        buffer.putInt(simulation.physicsHz);
+
+        buffer.put((byte) simulation.gameState.ordinal());
+        buffer.put((byte) ((simulation.drawing ? 1 : 0) | (simulation.levelLoaded ? 2 : 0)
+            | (simulation.moveCompletionTiles ? 4 : 0) | (simulation.continuousCollision ? 8 : 0)
+            | (simulation.ballCollisions ? 16 : 0) | (simulation.ballSpawned ? 32 : 0)));
+
+        buffer.putFloat(simulation.accumulatorMillis);
+        buffer.putFloat(simulation.completionFrameClock);
+        buffer.putFloat(simulation.spawnTime);
+        buffer.putFloat(simulation.scoreIncreaseModifier);
+        buffer.putFloat(simulation.scoreDecreaseModifier);
+
+        buffer.putInt(simulation.currentLevel);
+        buffer.putInt(simulation.currentScore);
+        buffer.putInt(simulation.previousScore);
+        buffer.putInt(simulation.levelTime);
+        buffer.putInt(simulation.levelFrames);
+        buffer.putInt(simulation.spawnFrames);
+        buffer.putInt(simulation.spawnInterval);
+        buffer.putInt(simulation.capturedBalls);
+        buffer.putInt(simulation.tile1Row);
+        buffer.putInt(simulation.tile1Column);
+        buffer.putInt(simulation.xDirection);
+        buffer.putInt(simulation.yDirection);
+        buffer.putInt(simulation.nextLineOrder);
+
+        if (simulation.layout == null) {
+            buffer.putShort((short) -1);
+        } else {
+            byte[] layout = utf8(simulation.layout);
+            buffer.putShort((short) layout.length);
+            buffer.put(layout);
+        }
+
+        BallStore balls = simulation.ballsOnScreen;
+        buffer.putInt(balls.size());
+        for (int i = 0; i < balls.size(); i++) {
+            buffer.putFloat(balls.x[i]);
+            buffer.putFloat(balls.y[i]);
+            buffer.putFloat(balls.previousX[i]);
+            buffer.putFloat(balls.previousY[i]);
+            buffer.putFloat(balls.velocityX[i]);
+            buffer.putFloat(balls.velocityY[i]);
+            buffer.put((byte) balls.color[i]);
+            buffer.put((byte) balls.get(i).getScaledSize());
+        }
+
+        buffer.putInt(simulation.ballsInQueue.size());
+        for (String color : simulation.ballsInQueue) {
+            buffer.put((byte) ColorCode.getValue(color));
+        }
+
+        putLine(buffer, simulation.currentLine);
+        buffer.putInt(simulation.lines.size());
+        for (int i = 0; i < simulation.lines.size(); i++) {
+            putLine(buffer, simulation.lines.get(i));
+        }
+    }
+
+    /**
+     * Writes a line.
+     *
+     * @param buffer The buffer.
+     * @param line   The line.
+     */
+    private static void putLine(ByteBuffer buffer, Line line) {
+        buffer.putInt(line.getOrder());
+        buffer.put((byte) (line.isFinished() ? 1 : 0));
+        buffer.putInt(line.size());
+        for (int i = 0; i < line.size(); i++) {
+            buffer.putFloat(line.getX(i));
+            buffer.putFloat(line.getY(i));
+        }
+    }
+
+    /**
+     * Restores a game to a snapshot. The balls already in the game are reused for the balls in
+     * the snapshot, so their objects stay the same where there are enough of them.
+     *
+     * @param simulation The game, loaded from the config the snapshot was taken with.
+     * @param buffer     The buffer to read the snapshot from.
+     * @throws IllegalArgumentException If the buffer does not hold a snapshot of this version.
+     */
+    public static void restore(Simulation simulation, ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a game snapshot");
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported game snapshot version " + version);
+            }
+            read(simulation, buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game snapshot ends early", e);
+        }
+    }
+
+    /**
+     * Reads the body of a snapshot into a game.
+     *
+     * @param simulation The game.
+     * @param buffer     The buffer, just past the header.
+     */
+    private static void read(Simulation simulation, ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        long[] state = new long[4];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = buffer.getLong();
+        }
+        simulation.stepCount = buffer.getLong();
+        simulation.setPhysicsHz(buffer.getInt());
+
+        simulation.gameState = GAME_STATES[buffer.get()];
+        int flags = buffer.get();
+        simulation.drawing = (flags & 1) != 0;
+        simulation.levelLoaded = (flags & 2) != 0;
+        simulation.moveCompletionTiles = (flags & 4) != 0;
+        simulation.continuousCollision = (flags & 8) != 0;
+        simulation.ballCollisions = (flags & 16) != 0;
+        simulation.ballSpawned = (flags & 32) != 0;
+
+        simulation.accumulatorMillis = buffer.getFloat();
+        simulation.completionFrameClock = buffer.getFloat();
+        simulation.spawnTime = buffer.getFloat();
+        simulation.scoreIncreaseModifier = buffer.getFloat();
+        simulation.scoreDecreaseModifier = buffer.getFloat();
+
+        simulation.currentLevel = buffer.getInt();
+        simulation.currentScore = buffer.getInt();
+        simulation.previousScore = buffer.getInt();
+        simulation.levelTime = buffer.getInt();
+        simulation.levelFrames = buffer.getInt();
+        simulation.spawnFrames = buffer.getInt();
+        simulation.spawnInterval = buffer.getInt();
+        simulation.capturedBalls = buffer.getInt();
+        simulation.tile1Row = buffer.getInt();
+        simulation.tile1Column = buffer.getInt();
+        simulation.xDirection = buffer.getInt();
+        simulation.yDirection = buffer.getInt();
+        simulation.nextLineOrder = buffer.getInt();
+
+        int layoutLength = buffer.getShort();
+        if (layoutLength >= 0) {
+            byte[] bytes = new byte[layoutLength];
+            buffer.get(bytes);
+            String layout = new String(bytes, StandardCharsets.UTF_8);
+            // The board never changes during a level, so it only has to be read for another one
+            if (simulation.board == null || !layout.equals(simulation.layout)) {
+                simulation.loadLayout(layout);
+            }
+            simulation.layout = layout;
+        }
+
+        // Drawing the new balls' velocities uses up numbers, so the generator is restored after
+        BallStore balls = simulation.ballsOnScreen;
+        balls.setSize(buffer.getInt(), simulation.random);
+        for (int i = 0; i < balls.size(); i++) {
+            balls.x[i] = buffer.getFloat();
+            balls.y[i] = buffer.getFloat();
+            balls.previousX[i] = buffer.getFloat();
+            balls.previousY[i] = buffer.getFloat();
+            balls.velocityX[i] = buffer.getFloat();
+            balls.velocityY[i] = buffer.getFloat();
+            balls.color[i] = buffer.get();
+            balls.get(i).setScaledSize(buffer.get());
+        }
+        simulation.ballsToBeRemoved.clear();
+
+        simulation.ballsInQueue.clear();
+        int queued = buffer.getInt();
+        for (int i = 0; i < queued; i++) {
+            simulation.ballsInQueue.add(ColorCode.fromValue(buffer.get()));
+        }
+
+        simulation.clearLines();
+        simulation.lineGrid.remove(simulation.currentLine);
+        simulation.currentLine = getLine(buffer);
+        simulation.lineGrid.insertAll(simulation.currentLine);
+        int lines = buffer.getInt();
+        for (int i = 0; i < lines; i++) {
+            Line line = getLine(buffer);
+            simulation.lines.add(line);
+            simulation.lineGrid.insertAll(line);
+        }
+
+        simulation.setSeed(seed);
+        simulation.random.setState(state);
+    }
+
+    /**
+     * Reads a line.
+     *
+     * @param buffer The buffer.
+     * @return The line.
+     */
+    private static Line getLine(ByteBuffer buffer) {
+        Line line = new Line();
+        line.setOrder(buffer.getInt());
+        boolean finished = buffer.get() != 0;
+        int points = buffer.getInt();
+        for (int i = 0; i < points; i++) {
+            line.addPoint(buffer.getFloat(), buffer.getFloat());
+        }
+        if (finished) {
+            line.finish();
+        }
+        return line;
+    }
+
+    /**
+     * Encodes a string as UTF-8.
+     *
+     * @param text The string.
+     * @return The bytes.
+     */
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
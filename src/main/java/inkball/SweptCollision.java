@@ -0,0 +1,214 @@
+package inkball;
+
+/**
+ * Finds the first time a moving circle touches a box or a line segment during one move, so fast
+ * balls can be stopped at the point of impact instead of tunnelling through thin walls and lines.
+ * A query returns whether there was a hit; the time of impact, as a fraction of the move, and
+ * the surface normal at the contact are then left in the public fields. Only hits where the
+ * circle is moving into the surface count. A circle that already overlaps a box is left to the
+ * ordinary overlap test, while one already touching a segment and moving into it hits at time 0.
+ */
+public class SweptCollision {
+
+    private static final float MISS = Float.POSITIVE_INFINITY;
+
+    public float time;
+    public float normalX;
+    public float normalY;
+
+    // Normal of the last hit found by one of the private tests
+    private float hitNormalX;
+    private float hitNormalY;
+
+    /**
+     * Sweeps a circle against an axis-aligned box. The shape the circle's center must enter is
+     * the box grown by the radius with rounded corners, which is two rectangles and four circles.
+     * Corner normals are snapped to the nearer axis, as walls only bounce balls along one axis.
+     *
+     * @param x      The x-coordinate of the circle's center at the start of the move.
+     * @param y      The y-coordinate of the circle's center at the start of the move.
+     * @param radius The radius of the circle.
+     * @param dx     The x-component of the move.
+     * @param dy     The y-component of the move.
+     * @param left   The left edge of the box.
+     * @param top    The top edge of the box.
+     * @param right  The right edge of the box.
+     * @param bottom The bottom edge of the box.
+     * @return True if the circle hits the box during the move, false otherwise.
+     */
+    public boolean circleAabb(float x, float y, float radius, float dx, float dy,
+                              float left, float top, float right, float bottom) {
+        time = MISS;
+        // Top and bottom faces, then left and right faces
+        keepEarliest(rayBox(x, y, dx, dy, left, top - radius, right, bottom + radius), false);
+        keepEarliest(rayBox(x, y, dx, dy, left - radius, top, right + radius, bottom), false);
+        // Rounded corners
+        keepEarliest(rayCircle(x, y, dx, dy, left, top, radius), true);
+        keepEarliest(rayCircle(x, y, dx, dy, right, top, radius), true);
+        keepEarliest(rayCircle(x, y, dx, dy, left, bottom, radius), true);
+        keepEarliest(rayCircle(x, y, dx, dy, right, bottom, radius), true);
+        return time <= 1;
+    }
+
+    /**
+     * Sweeps a circle against a line segment. The shape the circle's center must enter is a
+     * capsule around the segment: a band either side of it, capped by a circle at each end.
+     *
+     * @param x      The x-coordinate of the circle's center at the start of the move.
+     * @param y      The y-coordinate of the circle's center at the start of the move.
+     * @param radius The radius of the circle.
+     * @param dx     The x-component of the move.
+     * @param dy     The y-component of the move.
+     * @param ax     The x-coordinate of the start of the segment.
+     * @param ay     The y-coordinate of the start of the segment.
+     * @param bx     The x-coordinate of the end of the segment.
+     * @param by     The y-coordinate of the end of the segment.
+     * @return True if the circle hits the segment during the move, false otherwise.
+     */
+    public boolean circleSegment(float x, float y, float radius, float dx, float dy,
+                                 float ax, float ay, float bx, float by) {
+        time = MISS;
+        keepEarliest(rayBand(x, y, dx, dy, ax, ay, bx, by, radius), false);
+        keepEarliest(rayCircle(x, y, dx, dy, ax, ay, radius), false);
+        keepEarliest(rayCircle(x, y, dx, dy, bx, by, radius), false);
+        return time <= 1;
+    }
+
+    /**
+     * Keeps a hit in the public fields if it is earlier than the one already there.
+     *
+     * @param hitTime The time of the hit, or MISS.
+     * @param snap    True to snap the normal to the nearer axis.
+     */
+    private void keepEarliest(float hitTime, boolean snap) {
+        if (hitTime > 1 || hitTime >= time) {
+            return;
+        }
+        time = hitTime;
+        if (snap && Math.abs(hitNormalX) > Math.abs(hitNormalY)) {
+            normalX = Math.signum(hitNormalX);
+            normalY = 0;
+        } else if (snap) {
+            normalX = 0;
+            normalY = Math.signum(hitNormalY);
+        } else {
+            normalX = hitNormalX;
+            normalY = hitNormalY;
+        }
+    }
+
+    /**
+     * Finds when a moving point enters a box from outside.
+     *
+     * @return The time from 0 to 1, or MISS.
+     */
+    private float rayBox(float x, float y, float dx, float dy, float left, float top, float right, float bottom) {
+        float enterX = Float.NEGATIVE_INFINITY;
+        float exitX = Float.POSITIVE_INFINITY;
+        if (dx != 0) {
+            float t1 = (left - x) / dx;
+            float t2 = (right - x) / dx;
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        } else if (x < left || x > right) {
+            return MISS;
+        }
+
+        float enterY = Float.NEGATIVE_INFINITY;
+        float exitY = Float.POSITIVE_INFINITY;
+        if (dy != 0) {
+            float t1 = (top - y) / dy;
+            float t2 = (bottom - y) / dy;
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        } else if (y < top || y > bottom) {
+            return MISS;
+        }
+
+        float enter = Math.max(enterX, enterY);
+        float exit = Math.min(exitX, exitY);
+        if (enter < 0 || enter > exit || enter > 1) {
+            return MISS;
+        }
+
+        if (enterX >= enterY) {
+            hitNormalX = dx > 0 ? -1 : 1;
+            hitNormalY = 0;
+        } else {
+            hitNormalX = 0;
+            hitNormalY = dy > 0 ? -1 : 1;
+        }
+        return enter;
+    }
+
+    /**
+     * Finds when a moving point comes within a distance of the inside of a segment, measured
+     * straight out from the segment.
+     *
+     * @return The time from 0 to 1, or MISS.
+     */
+    private float rayBand(float x, float y, float dx, float dy, float ax, float ay, float bx, float by, float radius) {
+        float segmentX = bx - ax;
+        float segmentY = by - ay;
+        float length = (float) Math.sqrt(segmentX * segmentX + segmentY * segmentY);
+        if (length == 0) {
+            return MISS;
+        }
+        float unitX = segmentX / length;
+        float unitY = segmentY / length;
+
+        // Signed distance from the segment's line, and how much the move changes it
+        float side = (x - ax) * -unitY + (y - ay) * unitX;
+        float approach = dx * -unitY + dy * unitX;
+        float sign = side >= 0 ? 1 : -1;
+        if (approach * sign >= 0) {
+            return MISS;
+        }
+
+        float hitTime = Math.max(0, (sign * radius - side) / approach);
+        float along = (x + dx * hitTime - ax) * unitX + (y + dy * hitTime - ay) * unitY;
+        if (along < 0 || along > length) {
+            return MISS;
+        }
+
+        hitNormalX = -unitY * sign;
+        hitNormalY = unitX * sign;
+        return hitTime;
+    }
+
+    /**
+     * Finds when a moving point enters a circle while heading towards its center.
+     *
+     * @return The time from 0 to 1, or MISS.
+     */
+    private float rayCircle(float x, float y, float dx, float dy, float centerX, float centerY, float radius) {
+        float offsetX = x - centerX;
+        float offsetY = y - centerY;
+        float a = dx * dx + dy * dy;
+        float b = offsetX * dx + offsetY * dy;
+        float c = offsetX * offsetX + offsetY * offsetY - radius * radius;
+        if (a == 0 || b >= 0) {
+            // Not moving, or moving away from the center
+            return MISS;
+        }
+
+        float hitTime = 0;
+        if (c > 0) {
+            float discriminant = b * b - a * c;
+            if (discriminant < 0) {
+                return MISS;
+            }
+            hitTime = (-b - (float) Math.sqrt(discriminant)) / a;
+        }
+
+        float contactX = offsetX + dx * hitTime;
+        float contactY = offsetY + dy * hitTime;
+        float distance = (float) Math.sqrt(contactX * contactX + contactY * contactY);
+        if (hitTime > 1 || distance == 0) {
+            return MISS;
+        }
+        hitNormalX = contactX / distance;
+        hitNormalY = contactY / distance;
+        return hitTime;
+    }
+}
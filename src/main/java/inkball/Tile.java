@@ -10,35 +10,51 @@ public class Tile extends GameObject {
 
     public static final int HALF_SIZE = 16;
 
-    protected PVector topLeftCorner;
-    protected PVector topRightCorner;
-    protected PVector bottomLeftCorner;
-    protected PVector bottomRightCorner;
-
     /**
-     * Constructs a new Tile object at the specified position.
+     * Constructs a new Tile object at the specified position. Its corners are worked out from
+     * its center when asked for, so a tile holds no geometry of its own.
      *
      * @param centerX The x-coordinate of the tile's center position.
      * @param centerY The y-coordinate of the tile's center position.
      */
     public Tile(float centerX, float centerY) {
         super(centerX, centerY);
-        initializeCorners();
     }
 
     /**
-     * Initializes the corner positions of the tile based on its center position.
+     * Gets the x-coordinate of the left edge of the tile.
+     *
+     * @return The left edge.
+     */
+    public float getLeft() {
+        return centerXPosition - HALF_SIZE;
+    }
+
+    /**
+     * Gets the x-coordinate of the right edge of the tile.
+     *
+     * @return The right edge.
+     */
+    public float getRight() {
+        return centerXPosition + HALF_SIZE;
+    }
+
+    /**
+     * Gets the y-coordinate of the top edge of the tile.
+     *
+     * @return The top edge.
      */
-    private void initializeCorners() {
-        float left = centerXPosition - HALF_SIZE;
-        float right = centerXPosition + HALF_SIZE;
-        float top = centerYPosition - HALF_SIZE;
-        float bottom = centerYPosition + HALF_SIZE;
+    public float getTop() {
+        return centerYPosition - HALF_SIZE;
+    }
 
-        topLeftCorner = new PVector(left, top);
-        topRightCorner = new PVector(right, top);
-        bottomLeftCorner = new PVector(left, bottom);
-        bottomRightCorner = new PVector(right, bottom);
+    /**
+     * Gets the y-coordinate of the bottom edge of the tile.
+     *
+     * @return The bottom edge.
+     */
+    public float getBottom() {
+        return centerYPosition + HALF_SIZE;
     }
 
     /**
@@ -47,7 +63,7 @@ public class Tile extends GameObject {
      * @return The top-left corner position.
      */
     public PVector getTopLeftCorner() {
-        return topLeftCorner;
+        return new PVector(getLeft(), getTop());
     }
 
     /**
@@ -56,7 +72,7 @@ public class Tile extends GameObject {
      * @return The top-right corner position.
      */
     public PVector getTopRightCorner() {
-        return topRightCorner;
+        return new PVector(getRight(), getTop());
     }
 
     /**
@@ -65,7 +81,7 @@ public class Tile extends GameObject {
      * @return The bottom-left corner position.
      */
     public PVector getBottomLeftCorner() {
-        return bottomLeftCorner;
+        return new PVector(getLeft(), getBottom());
     }
 
     /**
@@ -74,6 +90,6 @@ public class Tile extends GameObject {
      * @return The bottom-right corner position.
      */
     public PVector getBottomRightCorner() {
-        return bottomRightCorner;
+        return new PVector(getRight(), getBottom());
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,15 @@
 package inkball;
 
-import processing.core.PVector;
-
 /**
  * Represents a wall tile in the InkBall game. Walls can collide with balls and change their direction or color.
+ * The walls of a {@link Board} are shared by every cell of their kind, so they are given the row
+ * and column of the cell they are checked at; only a wall built at a position has edges of its own.
  */
 public class Wall extends Tile {
 
     private final int color;
+    // Whether the wall is shared by the cells of a board, and so has no position of its own
+    private final boolean shared;
 
     /**
      * Constructs a new Wall object.
@@ -19,36 +21,158 @@ public class Wall extends Tile {
     public Wall(float centerX, float centerY, int color) {
         super(centerX, centerY);
         this.color = color;
+        this.shared = false;
+    }
+
+    /**
+     * Constructs a wall with no position of its own, to be shared by every cell of a board with
+     * its color.
+     *
+     * @param color The color code of the wall.
+     */
+    public Wall(int color) {
+        super(0, 0);
+        this.color = color;
+        this.shared = true;
+    }
+
+    /**
+     * Gets the x-coordinate of the left edge of a wall built at a position.
+     *
+     * @return The left edge.
+     * @throws IllegalStateException If the wall is shared by the cells of a board.
+     */
+    @Override
+    public float getLeft() {
+        checkPositioned();
+        return super.getLeft();
+    }
+
+    /**
+     * Gets the x-coordinate of the right edge of a wall built at a position.
+     *
+     * @return The right edge.
+     * @throws IllegalStateException If the wall is shared by the cells of a board.
+     */
+    @Override
+    public float getRight() {
+        checkPositioned();
+        return super.getRight();
+    }
+
+    /**
+     * Gets the y-coordinate of the top edge of a wall built at a position.
+     *
+     * @return The top edge.
+     * @throws IllegalStateException If the wall is shared by the cells of a board.
+     */
+    @Override
+    public float getTop() {
+        checkPositioned();
+        return super.getTop();
+    }
+
+    /**
+     * Gets the y-coordinate of the bottom edge of a wall built at a position.
+     *
+     * @return The bottom edge.
+     * @throws IllegalStateException If the wall is shared by the cells of a board.
+     */
+    @Override
+    public float getBottom() {
+        checkPositioned();
+        return super.getBottom();
+    }
+
+    /**
+     * Makes sure the wall has a position of its own, rather than giving the edges of a cell at
+     * the origin.
+     *
+     * @throws IllegalStateException If the wall is shared by the cells of a board.
+     */
+    private void checkPositioned() {
+        if (shared) {
+            throw new IllegalStateException("A shared wall has no edges of its own; use the edges of its cell");
+        }
+    }
+
+    /**
+     * Gets the x-coordinate of the left edge of the wall in a column.
+     *
+     * @param column The column of the cell.
+     * @return The left edge.
+     */
+    public float getLeft(int column) {
+        return column * App.CELL_SIZE;
+    }
+
+    /**
+     * Gets the x-coordinate of the right edge of the wall in a column.
+     *
+     * @param column The column of the cell.
+     * @return The right edge.
+     */
+    public float getRight(int column) {
+        return (column + 1) * App.CELL_SIZE;
+    }
+
+    /**
+     * Gets the y-coordinate of the top edge of the wall in a row.
+     *
+     * @param row The row of the cell.
+     * @return The top edge.
+     */
+    public float getTop(int row) {
+        return row * App.CELL_SIZE;
     }
 
     /**
-     * Checks if the ball collides with this wall.
+     * Gets the y-coordinate of the bottom edge of the wall in a row.
      *
-     * @param ball The ball to check collision with.
+     * @param row The row of the cell.
+     * @return The bottom edge.
+     */
+    public float getBottom(int row) {
+        return (row + 1) * App.CELL_SIZE;
+    }
+
+    /**
+     * Checks if the ball collides with this wall in a cell.
+     *
+     * @param ball   The ball to check collision with.
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
      * @return True if collision occurs, false otherwise.
      */
-    public boolean collidesWithBall(Ball ball) {
+    public boolean collidesWithBall(Ball ball, int row, int column) {
         // Axis-Aligned Bounding Box (AABB) collision detection
         float ballLeft = ball.getCenterXPosition() - Ball.RADIUS;
         float ballRight = ball.getCenterXPosition() + Ball.RADIUS;
         float ballTop = ball.getCenterYPosition() - Ball.RADIUS;
         float ballBottom = ball.getCenterYPosition() + Ball.RADIUS;
 
-        float wallLeft = topLeftCorner.x;
-        float wallRight = topRightCorner.x;
-        float wallTop = topLeftCorner.y;
-        float wallBottom = bottomLeftCorner.y;
+        float wallLeft = getLeft(column);
+        float wallRight = getRight(column);
+        float wallTop = getTop(row);
+        float wallBottom = getBottom(row);
 
         // Check for collision
         return (ballRight >= wallLeft && ballLeft <= wallRight && ballBottom >= wallTop && ballTop <= wallBottom);
     }
 
     /**
-     * Handles the collision between the ball and this wall.
+     * Handles the collision between the ball and this wall in a cell: pushes the ball out along
+     * the side it overlaps least and bounces it off that side. Balls the wall does not block
+     * pass through.
      *
-     * @param ball The ball that collided with the wall.
+     * @param ball   The ball that collided with the wall.
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
      */
-    public void handleCollision(Ball ball) {
+    public void handleCollision(Ball ball, int row, int column) {
+        if (!blocks(ball)) {
+            return;
+        }
         // Ensure ball only collides with one wall at a time
         if (ball.colliding) {
             return;
@@ -57,10 +181,12 @@ public class Wall extends Tile {
         }
         // System.out.println(this);
         // Determine the side of collision
-        float overlapLeft = (ball.centerXPosition + Ball.RADIUS) - topLeftCorner.x;
-        float overlapRight = topRightCorner.x - (ball.centerXPosition - Ball.RADIUS);
-        float overlapTop = (ball.centerYPosition + Ball.RADIUS) - topLeftCorner.y;
-        float overlapBottom = bottomLeftCorner.y - (ball.centerYPosition - Ball.RADIUS);
+        float ballX = ball.getCenterXPosition();
+        float ballY = ball.getCenterYPosition();
+        float overlapLeft = (ballX + Ball.RADIUS) - getLeft(column);
+        float overlapRight = getRight(column) - (ballX - Ball.RADIUS);
+        float overlapTop = (ballY + Ball.RADIUS) - getTop(row);
+        float overlapBottom = getBottom(row) - (ballY - Ball.RADIUS);
 
         // Find the minimal overlap
         float minOverlapX = Math.min(overlapLeft, overlapRight);
@@ -71,36 +197,66 @@ public class Wall extends Tile {
             // Horizontal collision
             if (overlapLeft < overlapRight) {
                 // Collision on the left side
-                ball.centerXPosition -= overlapLeft;
+                ball.setCenterXPosition(ballX - overlapLeft);
             } else {
                 // Collision on the right side
-                ball.centerXPosition += overlapRight;
+                ball.setCenterXPosition(ballX + overlapRight);
             }
-            PVector velocity = ball.getVelocity();
-            velocity.x *= -1; // Reverse X velocity
-            ball.setVelocity(velocity);
+            ball.setVelocity(-ball.getVelocityX(), ball.getVelocityY()); // Reverse X velocity
         } else {
             // Vertical collision
             if (overlapTop < overlapBottom) {
                 // Collision on the top side
-                ball.centerYPosition -= overlapTop;
+                ball.setCenterYPosition(ballY - overlapTop);
             } else {
                 // Collision on the bottom side
-                ball.centerYPosition += overlapBottom;
+                ball.setCenterYPosition(ballY + overlapBottom);
             }
-            PVector velocity = ball.getVelocity();
-            velocity.y *= -1; // Reverse Y velocity
-            ball.setVelocity(velocity);
+            ball.setVelocity(ball.getVelocityX(), -ball.getVelocityY()); // Reverse Y velocity
         }
 
         // System.out.println("Colliding");
 
+        paintBall(ball);
+    }
+
+    /**
+     * Checks if this wall stops a ball rather than letting it pass.
+     *
+     * @param ball The ball.
+     * @return True if the wall blocks the ball, false otherwise.
+     */
+    public boolean blocks(Ball ball) {
+        return true;
+    }
+
+    /**
+     * Handles a collision found by sweeping the ball's move against this wall. The ball has
+     * already been moved to the point of impact, so only its velocity and color change.
+     *
+     * @param ball The ball that hit the wall.
+     * @param hit  The sweep result, holding the normal of the face that was hit.
+     */
+    public void handleSweptCollision(Ball ball, SweptCollision hit) {
+        if (hit.normalX != 0) {
+            ball.setVelocity(-ball.getVelocityX(), ball.getVelocityY()); // Reverse X velocity
+        } else {
+            ball.setVelocity(ball.getVelocityX(), -ball.getVelocityY()); // Reverse Y velocity
+        }
+        paintBall(ball);
+    }
+
+    /**
+     * Changes the ball to this wall's color, unless the wall is grey or color-restricting.
+     *
+     * @param ball The ball that hit the wall.
+     */
+    private void paintBall(Ball ball) {
         if (this.getClass() != ColorRestrictingWall.class) {
             if (this.color != 0) {
-                ball.setColor(this.color, App.getInstance().ballImages.get(this.color));
+                ball.setColor(this.color);
             }
         }
-        
     }
 
     /**
@@ -6,7 +6,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
-import inkball.App.GameState;
+import inkball.GameState;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -53,21 +53,21 @@ public class AppTest {
         // App.scoreDecreaseMap.put("green", 35);
         // App.scoreDecreaseMap.put("red", 40);
 
-        // app.scoreIncreaseModifier = 1.0f;
-        // app.scoreDecreaseModifier = 1.0f;
+        // app.simulation.scoreIncreaseModifier = 1.0f;
+        // app.simulation.scoreDecreaseModifier = 1.0f;
 
-        app.currentLevel = 1;
-        app.currentScore = 0;
-        app.previousScore = 0;
+        app.simulation.currentLevel = 1;
+        app.simulation.currentScore = 0;
+        app.simulation.previousScore = 0;
 
-        app.lines = new ArrayList<>();
-        app.currentLine = new ArrayList<>();
-        app.ballsOnScreen = new ArrayList<>();
-        app.ballsToBeRemoved = new ArrayList<>();
-        app.ballsInQueue = new ArrayDeque<>();
-        app.spawners = new ArrayList<>();
-        app.levelLoaded = true;
-        app.gameState = App.GameState.RUNNING;
+        app.simulation.clearLines();
+        app.simulation.currentLine = new Line();
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.ballsToBeRemoved = new ArrayList<>();
+        app.simulation.ballsInQueue = new ArrayDeque<>();
+        app.simulation.spawners = new ArrayList<>();
+        app.simulation.levelLoaded = true;
+        app.simulation.gameState = GameState.RUNNING;
     }
 
     /**
@@ -75,14 +75,53 @@ public class AppTest {
      */
     @Test
     public void testLoadLevel() {
-        app.currentLevel = 1;
-        app.levelLoaded = false;
-        app.loadLevel(app.currentLevel);
+        app.simulation.currentLevel = 1;
+        app.simulation.levelLoaded = false;
+        app.simulation.loadLevel(app.simulation.currentLevel);
 
-        assertNotNull(app.layout);
-        assertEquals(120, app.levelTime);
-        assertEquals(10, app.spawnInterval);
-        assertEquals(6, app.ballsInQueue.size()); // Based on config.json
+        assertNotNull(app.simulation.layout);
+        assertEquals(120, app.simulation.levelTime);
+        assertEquals(10, app.simulation.spawnInterval);
+        assertEquals(6, app.simulation.ballsInQueue.size()); // Based on config.json
+    }
+
+    /**
+     * Tests that the view scrolls over a board larger than the window but not past its edges.
+     */
+    @Test
+    public void testScrollView_ClampsToBoard() {
+        Board previousBoard = app.simulation.board;
+        app.simulation.board = new Board(30, 40);
+        app.viewX = 0;
+        app.viewY = 0;
+
+        app.scrollView(App.CELL_SIZE, -App.CELL_SIZE);
+        assertEquals(App.CELL_SIZE, app.viewX);
+        assertEquals(0, app.viewY);
+
+        app.scrollView(10000, 10000);
+        assertEquals(40 * App.CELL_SIZE - App.WIDTH, app.viewX);
+        assertEquals(30 * App.CELL_SIZE - App.WIDTH, app.viewY);
+
+        app.simulation.board = previousBoard;
+        app.scrollView(0, 0);
+        assertEquals(0, app.viewX);
+        assertEquals(0, app.viewY);
+    }
+
+    /**
+     * Tests that ball images are prepared at every size a ball can shrink to.
+     */
+    @Test
+    public void testScaledBallImages() {
+        for (int color = 0; color < 5; color++) {
+            assertNull(app.getBallImage(color, 0));
+            assertSame(app.getBallImage(color), app.getBallImage(color, 2 * Ball.RADIUS));
+            for (int size = 1; size < 2 * Ball.RADIUS; size++) {
+                assertEquals(size, app.getBallImage(color, size).width);
+                assertEquals(size, app.getBallImage(color, size).height);
+            }
+        }
     }
 
     /**
@@ -90,24 +129,24 @@ public class AppTest {
      */
     @Test
     public void testLevelRestart() {
-        app.gameState = App.GameState.GAME_ENDED;
-        app.currentScore = 50;
-        app.previousScore = 30;
-        app.restartLevel();
+        app.simulation.gameState = GameState.GAME_ENDED;
+        app.simulation.currentScore = 50;
+        app.simulation.previousScore = 30;
+        app.simulation.restartLevel();
 
-        assertEquals(App.GameState.RUNNING, app.gameState);
-        assertEquals(app.currentScore, app.previousScore);
-        assertFalse(app.levelLoaded);
-        assertEquals(app.currentLevel, 1);
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
+        assertEquals(app.simulation.currentScore, app.simulation.previousScore);
+        assertFalse(app.simulation.levelLoaded);
+        assertEquals(app.simulation.currentLevel, 1);
 
-        app.gameState = App.GameState.RUNNING;
-        app.currentScore = 50;
-        app.previousScore = 30;
-        app.restartLevel();
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.currentScore = 50;
+        app.simulation.previousScore = 30;
+        app.simulation.restartLevel();
 
-        assertEquals(App.GameState.RUNNING, app.gameState);
-        assertEquals(app.currentScore, app.previousScore);
-        assertFalse(app.levelLoaded);
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
+        assertEquals(app.simulation.currentScore, app.simulation.previousScore);
+        assertFalse(app.simulation.levelLoaded);
     }
 
     /**
@@ -116,13 +155,13 @@ public class AppTest {
     @Test
     public void testRemoveLineAtMouse_LineExists() {
         // Set up a line
-        app.lines.add(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
+        app.simulation.addLine(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
         app.mouseX = 75;
         app.mouseY = 75 + App.TOP_BAR_HEIGHT; // Adjust for top bar
 
         app.removeLineAtMouse();
 
-        assertEquals(0, app.lines.size()); // Line should be removed
+        assertEquals(0, app.simulation.lines.size()); // Line should be removed
     }
 
     /**
@@ -131,13 +170,13 @@ public class AppTest {
     @Test
     public void testRemoveLineAtMouse_LineDoesNotExist() {
         // Set up a line
-        app.lines.add(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
+        app.simulation.addLine(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
         app.mouseX = 200;
         app.mouseY = 200 + App.TOP_BAR_HEIGHT; // Adjust for top bar
 
         app.removeLineAtMouse();
 
-        assertEquals(1, app.lines.size()); // Line should remain
+        assertEquals(1, app.simulation.lines.size()); // Line should remain
     }
 
     /**
@@ -145,9 +184,9 @@ public class AppTest {
      */
     @Test
     public void testRemoveLineAtMouse_NoLines() {
-        app.lines = new ArrayList<>();
+        app.simulation.clearLines();
         app.removeLineAtMouse();
-        assertEquals(0, app.lines.size());
+        assertEquals(0, app.simulation.lines.size());
     }
 
     /**
@@ -156,28 +195,28 @@ public class AppTest {
     @Test
     public void testMouseDraggedAndReleased() {
         app.mouseButton = PConstants.LEFT;
-        app.gameState = App.GameState.RUNNING;
-        app.drawing = false;
-        app.currentLine = new ArrayList<>();
-        app.lines = new ArrayList<>();
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.drawing = false;
+        app.simulation.currentLine = new Line();
+        app.simulation.clearLines();
 
         // Simulate mouse drag
         app.mouseX = 50;
         app.mouseY = 50 + App.TOP_BAR_HEIGHT;
         app.mouseDragged(null);
-        assertTrue(app.drawing);
-        assertEquals(1, app.currentLine.size());
+        assertTrue(app.simulation.drawing);
+        assertEquals(1, app.simulation.currentLine.size());
 
         // Simulate mouse drag to new position
         app.mouseX = 100;
         app.mouseY = 100 + App.TOP_BAR_HEIGHT;
         app.mouseDragged(null);
-        assertEquals(2, app.currentLine.size());
+        assertEquals(2, app.simulation.currentLine.size());
 
         // Simulate mouse release
         app.mouseReleased(null);
-        assertFalse(app.drawing);
-        assertEquals(1, app.lines.size()); // The line should be added to lines
+        assertFalse(app.simulation.drawing);
+        assertEquals(1, app.simulation.lines.size()); // The line should be added to lines
     }
 
     // /**
@@ -186,16 +225,16 @@ public class AppTest {
     // @Test
     // public void testMouseDragged_GameNotRunning() {
     //     app.mouseButton = PConstants.LEFT;
-    //     app.gameState = App.GameState.PAUSED;
-    //     app.drawing = false;
-    //     app.currentLine = new ArrayList<>();
+    //     app.simulation.gameState = GameState.PAUSED;
+    //     app.simulation.drawing = false;
+    //     app.simulation.currentLine = new Line();
 
     //     app.mouseX = 50;
     //     app.mouseY = 50 + App.TOP_BAR_HEIGHT;
     //     app.mouseDragged(null);
 
-    //     assertFalse(app.drawing);
-    //     assertEquals(0, app.currentLine.size());
+    //     assertFalse(app.simulation.drawing);
+    //     assertEquals(0, app.simulation.currentLine.size());
     // }
 
     @Test
@@ -225,52 +264,52 @@ public class AppTest {
 
         Files.write(tempLayoutFile, layoutContent.getBytes());
 
-        app.loadLayout(tempLayoutFile.toString());
+        app.simulation.loadLayout(tempLayoutFile.toString());
 
         // Now, check that the board has the correct tiles at the correct positions
 
         // For 'X' at [0][0]
-        assertTrue(app.board[0][0] instanceof Wall);
-        assertEquals(0, ((Wall)app.board[0][0]).getColor());
+        assertTrue(app.simulation.board.get(0, 0) instanceof Wall);
+        assertEquals(0, ((Wall)app.simulation.board.get(0, 0)).getColor());
 
         // For '1' at [0][1]
-        assertTrue(app.board[0][1] instanceof Wall);
-        assertEquals(1, ((Wall)app.board[0][1]).getColor());
+        assertTrue(app.simulation.board.get(0, 1) instanceof Wall);
+        assertEquals(1, ((Wall)app.simulation.board.get(0, 1)).getColor());
 
         // For '2' at [0][3]
-        assertTrue(app.board[0][3] instanceof Wall);
-        assertEquals(2, ((Wall)app.board[0][3]).getColor());
+        assertTrue(app.simulation.board.get(0, 3) instanceof Wall);
+        assertEquals(2, ((Wall)app.simulation.board.get(0, 3)).getColor());
 
         // For '3' at [0][5]
-        assertTrue(app.board[0][5] instanceof Wall);
-        assertEquals(3, ((Wall)app.board[0][5]).getColor());
+        assertTrue(app.simulation.board.get(0, 5) instanceof Wall);
+        assertEquals(3, ((Wall)app.simulation.board.get(0, 5)).getColor());
 
         // For '4' at [0][7]
-        assertTrue(app.board[0][7] instanceof Wall);
-        assertEquals(4, ((Wall)app.board[0][7]).getColor());
+        assertTrue(app.simulation.board.get(0, 7) instanceof Wall);
+        assertEquals(4, ((Wall)app.simulation.board.get(0, 7)).getColor());
 
         // For 'V1' at [0][8]
-        assertTrue(app.board[0][8] instanceof ColorRestrictingWall);
-        assertEquals(1, ((ColorRestrictingWall)app.board[0][8]).getColor());
-        assertTrue(((ColorRestrictingWall)app.board[0][8]).isVertical());
+        assertTrue(app.simulation.board.get(0, 8) instanceof ColorRestrictingWall);
+        assertEquals(1, ((ColorRestrictingWall)app.simulation.board.get(0, 8)).getColor());
+        assertTrue(((ColorRestrictingWall)app.simulation.board.get(0, 8)).isVertical());
 
         // For 'Z1' at [0][10]
-        assertTrue(app.board[0][10] instanceof ColorRestrictingWall);
-        assertEquals(1, ((ColorRestrictingWall)app.board[0][10]).getColor());
-        assertFalse(((ColorRestrictingWall)app.board[0][10]).isVertical());
+        assertTrue(app.simulation.board.get(0, 10) instanceof ColorRestrictingWall);
+        assertEquals(1, ((ColorRestrictingWall)app.simulation.board.get(0, 10)).getColor());
+        assertFalse(((ColorRestrictingWall)app.simulation.board.get(0, 10)).isVertical());
 
         // For 'H1' at [0][12]
-        assertTrue(app.board[0][12] instanceof Hole);
-        assertEquals(1, ((Hole)app.board[0][12]).getColor());
+        assertTrue(app.simulation.board.get(0, 12) instanceof Hole);
+        assertEquals(1, ((Hole)app.simulation.board.get(0, 12)).getColor());
 
         // For 'B1' at [0][14], balls_on_screen should contain a ball
-        assertEquals(1, app.ballsOnScreen.size());
-        Ball ball = app.ballsOnScreen.get(0);
+        assertEquals(1, app.simulation.ballsOnScreen.size());
+        Ball ball = app.simulation.ballsOnScreen.get(0);
         assertEquals(1, ball.getColor());
 
         // For 'S' at [0][16], spawners should contain a spawner
-        assertEquals(1, app.spawners.size());
-        Spawner spawner = app.spawners.get(0);
+        assertEquals(1, app.simulation.spawners.size());
+        Spawner spawner = app.simulation.spawners.get(0);
         assertNotNull(spawner);
 
         // Clean up temporary file
@@ -306,9 +345,9 @@ public class AppTest {
 
         // Expecting an exception or handling of invalid character
         try {
-            app.loadLayout(tempLayoutFile.toString());
+            app.simulation.loadLayout(tempLayoutFile.toString());
             // Since 'X' - '0' will result in a negative number, check for invalid color
-            int color = ((ColorRestrictingWall)app.board[0][0]).getColor();
+            int color = ((ColorRestrictingWall)app.simulation.board.get(0, 0)).getColor();
             assertTrue(color < 0);
         } catch (Exception e) {
             // Test passes if exception is thrown
@@ -321,47 +360,48 @@ public class AppTest {
     @Test
     public void testDrawLevelCompletionLayer() {
         // Set initial conditions
-        app.tile1Row = 1;
-        app.tile1Column = 0;
-        app.xDirection = 0;
-        app.yDirection = -1;
-        app.levelTime = 100;
-        app.currentScore = 0;
-        app.draw = true;
-
-        // Simulate calling drawLevelCompletionLayer multiple times to cover different branches
+        app.simulation.tile1Row = 1;
+        app.simulation.tile1Column = 0;
+        app.simulation.xDirection = 0;
+        app.simulation.yDirection = -1;
+        app.simulation.levelTime = 100;
+        app.simulation.currentScore = 0;
+        app.simulation.moveCompletionTiles = true;
+
+        // Simulate moving the completion tiles multiple times to cover different branches
         for (int i = 0; i < 100; i++) {
-            boolean result = app.drawLevelCompletionLayer();
+            app.simulation.advanceCompletionTiles();
+            app.drawLevelCompletionLayer();
 
             // Check that levelTime decreases
-            assertEquals(100 - (i + 1), app.levelTime);
+            assertEquals(100 - (i + 1), app.simulation.levelTime);
 
             // Check that currentScore increases
-            assertEquals(i + 1, app.currentScore);
+            assertEquals(i + 1, app.simulation.currentScore);
 
             // Check tile1Row and tile1Column change appropriately
             // Add assertions when the conditions are met
 
-            if (app.tile1Row == 0 && app.tile1Column == 0) {
-                assertEquals(0, app.yDirection);
-                assertEquals(1, app.xDirection);
+            if (app.simulation.tile1Row == 0 && app.simulation.tile1Column == 0) {
+                assertEquals(0, app.simulation.yDirection);
+                assertEquals(1, app.simulation.xDirection);
             }
-            if (app.tile1Row == 0 && app.tile1Column == 17) {
-                assertEquals(1, app.yDirection);
-                assertEquals(0, app.xDirection);
+            if (app.simulation.tile1Row == 0 && app.simulation.tile1Column == 17) {
+                assertEquals(1, app.simulation.yDirection);
+                assertEquals(0, app.simulation.xDirection);
             }
-            if (app.tile1Row == 17 && app.tile1Column == 17) {
-                assertEquals(0, app.yDirection);
-                assertEquals(-1, app.xDirection);
+            if (app.simulation.tile1Row == 17 && app.simulation.tile1Column == 17) {
+                assertEquals(0, app.simulation.yDirection);
+                assertEquals(-1, app.simulation.xDirection);
             }
-            if (app.tile1Row == 17 && app.tile1Column == 0) {
-                assertEquals(-1, app.yDirection);
-                assertEquals(0, app.xDirection);
+            if (app.simulation.tile1Row == 17 && app.simulation.tile1Column == 0) {
+                assertEquals(-1, app.simulation.yDirection);
+                assertEquals(0, app.simulation.xDirection);
             }
         }
 
         // At the end, levelTime should be 0
-        assertEquals(0, app.levelTime);
+        assertEquals(0, app.simulation.levelTime);
     }
 
     /**
@@ -369,12 +409,12 @@ public class AppTest {
      */
     @Test
     public void testTogglePause() {
-        app.gameState = App.GameState.RUNNING;
-        app.togglePause();
-        assertEquals(App.GameState.PAUSED, app.gameState);
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.togglePause();
+        assertEquals(GameState.PAUSED, app.simulation.gameState);
 
-        app.togglePause();
-        assertEquals(App.GameState.RUNNING, app.gameState);
+        app.simulation.togglePause();
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
     }
 
     /**
@@ -382,13 +422,13 @@ public class AppTest {
      */
     @Test
     public void testUpdateTime() {
-        app.levelFrames = App.FPS * 10; // 10 seconds
-        app.spawnFrames = App.FPS * 5;  // 5 seconds
+        app.simulation.levelFrames = App.FPS * 10; // 10 seconds
+        app.simulation.spawnFrames = App.FPS * 5;  // 5 seconds
 
-        app.updateTime();
+        app.simulation.updateTime();
 
-        assertEquals(App.FPS * 10 - 1, app.levelFrames);
-        assertEquals(App.FPS * 5 - 1, app.spawnFrames);
+        assertEquals(App.FPS * 10 - 1, app.simulation.levelFrames);
+        assertEquals(App.FPS * 5 - 1, app.simulation.spawnFrames);
     }
 
     /**
@@ -396,15 +436,15 @@ public class AppTest {
      */
     @Test
     public void testAdvanceLevel_NotLastLevel() {
-        app.currentLevel = 1;
-        app.currentScore = 50;
-        app.advanceLevel();
+        app.simulation.currentLevel = 1;
+        app.simulation.currentScore = 50;
+        app.simulation.advanceLevel();
 
-        assertEquals(2, app.currentLevel);
-        assertEquals(App.GameState.RUNNING, app.gameState);
-        assertEquals(50, app.previousScore);
-        assertFalse(app.levelLoaded);
-        assertTrue(app.lines.isEmpty());
+        assertEquals(2, app.simulation.currentLevel);
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
+        assertEquals(50, app.simulation.previousScore);
+        assertFalse(app.simulation.levelLoaded);
+        assertTrue(app.simulation.lines.isEmpty());
     }
 
     /**
@@ -412,10 +452,10 @@ public class AppTest {
      */
     @Test
     public void testAdvanceLevel_LastLevel() {
-        app.currentLevel = app.levels.size();
-        app.advanceLevel();
+        app.simulation.currentLevel = app.simulation.levels.size();
+        app.simulation.advanceLevel();
 
-        assertEquals(App.GameState.GAME_ENDED, app.gameState);
+        assertEquals(GameState.GAME_ENDED, app.simulation.gameState);
     }
 
     /**
@@ -435,10 +475,10 @@ public class AppTest {
 
         Files.write(tempLayoutFile, layoutContent.toString().getBytes());
 
-        app.loadLayout(tempLayoutFile.toString());
+        app.simulation.loadLayout(tempLayoutFile.toString());
 
         // Ensure no exceptions occur and board is populated correctly
-        assertNotNull(app.board[0][0]);
+        assertNotNull(app.simulation.board.get(0, 0));
 
         // Clean up temporary file
         Files.delete(tempLayoutFile);
@@ -458,10 +498,10 @@ public class AppTest {
 
         Files.write(tempLayoutFile, layoutContent.getBytes());
 
-        app.loadLayout(tempLayoutFile.toString());
+        app.simulation.loadLayout(tempLayoutFile.toString());
 
         // Since '?' is not handled, nothing should be added to the board
-        assertNull(app.board[0][0]);
+        assertNull(app.simulation.board.get(0, 0));
 
         // Clean up temporary file
         Files.delete(tempLayoutFile);
@@ -473,7 +513,7 @@ public class AppTest {
     @Test
     public void testLoadLayout_FileNotFound() {
         try {
-            app.loadLayout("nonexistent_file.txt");
+            app.simulation.loadLayout("nonexistent_file.txt");
         } catch (Exception e) {
             fail("Exception should be caught inside loadLayout");
         }
@@ -498,7 +538,7 @@ public class AppTest {
     @Test
     public void testDrawMethod() {
         try {
-            app.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+            app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
             app.draw();
         } catch (Exception e) {
             fail("Draw method should run without exceptions");
@@ -507,7 +547,7 @@ public class AppTest {
         
     @Test
     public void testDrawTopBarLayer_GameEnded() {
-        app.gameState = GameState.GAME_ENDED;
+        app.simulation.gameState = GameState.GAME_ENDED;
 
         app.drawTopBarLayer();
 
@@ -516,7 +556,7 @@ public class AppTest {
 
     @Test
     public void testDrawTopBarLayer_LevelTimesUp() {
-        app.gameState = GameState.LEVEL_TIME_UP;
+        app.simulation.gameState = GameState.LEVEL_TIME_UP;
 
         app.drawTopBarLayer();
 
@@ -525,7 +565,7 @@ public class AppTest {
 
     @Test
     public void testDrawTopBarLayer_PAUSED() {
-        app.gameState = GameState.PAUSED;
+        app.simulation.gameState = GameState.PAUSED;
 
         app.drawTopBarLayer();
 
@@ -537,16 +577,16 @@ public class AppTest {
      */
     @Test
     public void testTick_GameRunningWithBalls() {
-        app.gameState = App.GameState.RUNNING;
-        app.levelFrames = App.FPS * 10;
-        app.ballsOnScreen.add(new Ball(100, 100, 1, app.ballImages.get(1)));
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.levelFrames = App.FPS * 10;
+        app.simulation.ballsOnScreen.add(new Ball(100, 100, 1, app.ballImages.get(1)));
 
         app.tick();
         
 
         // Ensure game state remains RUNNING
-        assertEquals(App.GameState.RUNNING, app.gameState);
-        assertEquals(App.FPS * 10 - 1, app.levelFrames);
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
+        assertEquals(App.FPS * 10 - 1, app.simulation.levelFrames);
     }
 
     /**
@@ -554,14 +594,14 @@ public class AppTest {
      */
     @Test
     public void testTick_GameRunningNoBalls() {
-        app.gameState = App.GameState.RUNNING;
-        app.ballsOnScreen.clear();
-        app.ballsInQueue.clear();
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.ballsOnScreen.clear();
+        app.simulation.ballsInQueue.clear();
         
         app.tick();
 
         // Game should transition to LEVEL_COMPLETION_ANIMATION
-        assertEquals(App.GameState.LEVEL_COMPLETION_ANIMATION, app.gameState);
+        assertEquals(GameState.LEVEL_COMPLETION_ANIMATION, app.simulation.gameState);
     }
 
     /**
@@ -569,13 +609,13 @@ public class AppTest {
      */
     @Test
     public void testTick_LevelCompletionAnimation() {
-        app.gameState = App.GameState.LEVEL_COMPLETION_ANIMATION;
-        app.levelTime = 5;
+        app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        app.simulation.levelTime = 5;
 
         app.tick();
 
         // Level time should decrease
-        assertEquals(4, app.levelTime);
+        assertEquals(4, app.simulation.levelTime);
     }
 
     /**
@@ -583,13 +623,13 @@ public class AppTest {
      */
     @Test
     public void testTick_LevelCompletionAnimationEnds() {
-        app.gameState = App.GameState.LEVEL_COMPLETION_ANIMATION;
-        app.levelTime = 0;
+        app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        app.simulation.levelTime = 0;
 
         app.tick();
 
         // Game should transition to LEVEL_COMPLETE
-        assertEquals(App.GameState.LEVEL_COMPLETE, app.gameState);
+        assertEquals(GameState.LEVEL_COMPLETE, app.simulation.gameState);
     }
 
     /**
@@ -597,16 +637,16 @@ public class AppTest {
      */
     @Test
     public void testTick_LevelComplete() {
-        app.gameState = App.GameState.LEVEL_COMPLETE;
-        app.currentLevel = 1;
-        app.currentScore = 100;
+        app.simulation.gameState = GameState.LEVEL_COMPLETE;
+        app.simulation.currentLevel = 1;
+        app.simulation.currentScore = 100;
 
         app.tick();
 
         // Should advance to next level
-        assertEquals(2, app.currentLevel);
-        assertEquals(App.GameState.RUNNING, app.gameState);
-        assertEquals(100, app.previousScore);
+        assertEquals(2, app.simulation.currentLevel);
+        assertEquals(GameState.RUNNING, app.simulation.gameState);
+        assertEquals(100, app.simulation.previousScore);
     }
 
     /**
@@ -614,59 +654,59 @@ public class AppTest {
      */
     @Test
     public void testTick_GameEnded() {
-        app.gameState = App.GameState.GAME_ENDED;
-        app.currentScore = 100;
-        app.previousScore = 100;
+        app.simulation.gameState = GameState.GAME_ENDED;
+        app.simulation.currentScore = 100;
+        app.simulation.previousScore = 100;
 
-        app.levelLoaded = true;
+        app.simulation.levelLoaded = true;
         app.tick();
 
         // Should reset the game
-        assertTrue(app.lines.isEmpty());
+        assertTrue(app.simulation.lines.isEmpty());
     }
 
     @Test
     public void testKeyPressed() {
         // Simulate pressing the space key to pause the game
         app.key = ' ';
-        app.gameState = GameState.RUNNING;
+        app.simulation.gameState = GameState.RUNNING;
 
         app.keyPressed(null);
 
-        assertTrue(app.gameState == GameState.PAUSED);
+        assertTrue(app.simulation.gameState == GameState.PAUSED);
 
         // Simulate pressing the space key to pause the game while level completion animation is playing
         app.key = ' ';
-        app.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
 
         app.keyPressed(null);
 
         // level completion animation shouldn't be paused
-        assertTrue(app.gameState == GameState.LEVEL_COMPLETION_ANIMATION);
+        assertTrue(app.simulation.gameState == GameState.LEVEL_COMPLETION_ANIMATION);
 
         // Simulate pressing 'r' to restart level
         app.key = 'r';
-        app.gameState = GameState.GAME_ENDED;
-        app.currentScore = 50;
-        app.previousScore = 30;
+        app.simulation.gameState = GameState.GAME_ENDED;
+        app.simulation.currentScore = 50;
+        app.simulation.previousScore = 30;
 
         app.keyPressed(null);
 
-        assertTrue(app.gameState == GameState.RUNNING);
-        assertEquals(app.currentScore, app.previousScore);
+        assertTrue(app.simulation.gameState == GameState.RUNNING);
+        assertEquals(app.simulation.currentScore, app.simulation.previousScore);
 
         // Simulate pressing 'r' to restart level when level completion animation is running
         app.key = 'r';
-        app.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
 
         app.keyPressed(null);
 
         // gamestate should remain as LEVEL_COMPLETION_ANIMATION
-        assertTrue(app.gameState == GameState.LEVEL_COMPLETION_ANIMATION);
+        assertTrue(app.simulation.gameState == GameState.LEVEL_COMPLETION_ANIMATION);
 
         // Simulate pressing the CTRL key
         app.keyCode = PConstants.CONTROL;
-        app.gameState = GameState.RUNNING;
+        app.simulation.gameState = GameState.RUNNING;
         app.ctrlPressed = false;
 
         app.keyPressed(null);
@@ -679,26 +719,26 @@ public class AppTest {
         // Simulate right mouse button click
         app.mouseButton = PConstants.RIGHT;
         app.ctrlPressed = false;
-        app.lines = new ArrayList<>();
-        app.lines.add(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
+        app.simulation.clearLines();
+        app.simulation.addLine(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
         app.mouseX = 75;
         app.mouseY = 75 + App.TOP_BAR_HEIGHT; // Adjust for top bar
 
         app.mousePressed(null);
 
-        assertEquals(0, app.lines.size()); // Line should be removed
+        assertEquals(0, app.simulation.lines.size()); // Line should be removed
 
         // Simulate left mouse button click with ctrl pressed
         app.mouseButton = PConstants.LEFT;
         app.ctrlPressed = true;
-        app.lines = new ArrayList<>();
-        app.lines.add(Arrays.asList(new PVector(150, 150), new PVector(200, 200)));
+        app.simulation.clearLines();
+        app.simulation.addLine(Arrays.asList(new PVector(150, 150), new PVector(200, 200)));
         app.mouseX = 175;
         app.mouseY = 175 + App.TOP_BAR_HEIGHT; // Adjust for top bar
 
         app.mousePressed(null);
 
-        assertEquals(0, app.lines.size()); // Line should be removed
+        assertEquals(0, app.simulation.lines.size()); // Line should be removed
     }
 
     @Test
@@ -722,51 +762,52 @@ public class AppTest {
 
     @Test
     public void testDrawLineLayer_NoLines() {
-        app.lines = new ArrayList<>();
-        app.drawing = false;
-        app.currentLine = new ArrayList<>();
+        app.simulation.clearLines();
+        app.simulation.drawing = false;
+        app.simulation.currentLine = new Line();
 
         app.drawLineLayer();
 
         // Since there are no lines, just ensure no exceptions occur
-        assertTrue(app.lines.isEmpty());
+        assertTrue(app.simulation.lines.isEmpty());
     }
 
     @Test
     public void testDrawLineLayer_WithLines_NoCollision() {
-        app.gameState = GameState.RUNNING;
-        app.lines = new ArrayList<>();
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.clearLines();
         List<PVector> line1 = Arrays.asList(new PVector(50, 50), new PVector(100, 100));
-        app.lines.add(line1);
+        app.simulation.addLine(line1);
 
         // No balls on screen
-        app.ballsOnScreen = new ArrayList<>();
+        app.simulation.ballsOnScreen = new BallStore();
 
         // Set gamePaused to true to skip collision detection
-        app.gameState = GameState.PAUSED;
+        app.simulation.gameState = GameState.PAUSED;
 
+        app.simulation.updateLines();
         app.drawLineLayer();
 
         // Lines should remain since there's no collision
-        assertEquals(1, app.lines.size());
+        assertEquals(1, app.simulation.lines.size());
     }
 
     @Test
     public void testDrawLineLayer_WithLines_WithCollision() {
         // Set up lines
-        app.lines = new ArrayList<>();
+        app.simulation.clearLines();
         List<PVector> line1 = Arrays.asList(new PVector(50, 50), new PVector(100, 100));
         List<PVector> line2 = Arrays.asList(new PVector(50, 50), new PVector(50, 50)); // add 0 length line to test robustness
-        app.lines.add(line1);
-        app.lines.add(line2);
+        app.simulation.addLine(line1);
+        app.simulation.addLine(line2);
 
         // Set up a ball that will collide with the line
         Ball ball = new Ball(75, 75, 1, app.ballImages.get(1));
-        app.ballsOnScreen = new ArrayList<>();
-        app.ballsOnScreen.add(ball);
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.ballsOnScreen.add(ball);
 
         // Set gameState to RUNNING to enable collision detection
-        app.gameState = GameState.RUNNING;
+        app.simulation.gameState = GameState.RUNNING;
 
         // // Mock the ball's handleCollisionWithLine method to return true
         // Ball testBall = new Ball(75, 75, 1, null) {
@@ -775,20 +816,21 @@ public class AppTest {
         //         return true; // Simulate collision
         //     }
         // };
-        // app.ballsOnScreen.add(0, testBall);
+        // app.simulation.ballsOnScreen.add(0, testBall);
 
+        app.simulation.updateLines();
         app.drawLineLayer();
 
         // The line should be removed after collision. 0 length line shouldn't be removed
-        assertEquals(1, app.lines.size());
+        assertEquals(1, app.simulation.lines.size());
     }
 
     @Test
     public void testDrawLineLayer_DrawingInProgress() {
-        app.drawing = true;
-        app.currentLine = new ArrayList<>();
-        app.currentLine.add(new PVector(50, 50));
-        app.currentLine.add(new PVector(100, 100));
+        app.simulation.drawing = true;
+        app.simulation.currentLine = new Line();
+        app.simulation.currentLine.addPoint(new PVector(50, 50));
+        app.simulation.currentLine.addPoint(new PVector(100, 100));
 
         app.drawLineLayer();
 
@@ -797,94 +839,116 @@ public class AppTest {
 
     @Test
     public void testDrawLineLayer_NotDrawing() {
-        app.drawing = false;
-        app.currentLine = new ArrayList<>();
-        app.currentLine.add(new PVector(50, 50));
-        app.currentLine.add(new PVector(100, 100));
+        app.simulation.drawing = false;
+        app.simulation.currentLine = new Line();
+        app.simulation.currentLine.addPoint(new PVector(50, 50));
+        app.simulation.currentLine.addPoint(new PVector(100, 100));
 
         app.drawLineLayer();
 
         // No assertions needed; ensure no exceptions occur
     }
 
+    /**
+     * Tests that a removed line is erased from the line layer without erasing a line crossing it.
+     */
     @Test
-    public void testDrawConveyorBeltLayer_BallsInQueue_PeekNotNull() {
-        app.ballsInQueue = new ArrayDeque<>();
-        app.ballsInQueue.add("blue");
-        app.spawnFrames = 0;
-        app.spawnInterval = 5;
-        app.ballsOnScreen = new ArrayList<>();
-        app.spawners = new ArrayList<>();
-        app.spawners.add(new Spawner(100, 100));
+    public void testDrawLineLayer_ErasesRemovedLine() {
+        app.simulation.drawing = false;
+        app.simulation.clearLines();
+        Line horizontal = app.simulation.addLine(Arrays.asList(new PVector(50, 100), new PVector(300, 100)));
+        app.simulation.addLine(Arrays.asList(new PVector(100, 50), new PVector(100, 300)));
+        app.drawLineLayer();
 
+        app.simulation.removeLine(horizontal);
+        app.drawLineLayer();
+
+        app.lineLayer.loadPixels();
+        assertEquals(0, app.lineLayer.pixels[100 * App.WIDTH + 200] >>> 24); // Erased
+        assertEquals(255, app.lineLayer.pixels[200 * App.WIDTH + 100] >>> 24); // Still drawn
+        assertEquals(255, app.lineLayer.pixels[100 * App.WIDTH + 100] >>> 24); // Crossing redrawn
+    }
+
+    @Test
+    public void testDrawConveyorBeltLayer_BallsInQueue_PeekNotNull() {
+        app.simulation.ballsInQueue = new ArrayDeque<>();
+        app.simulation.ballsInQueue.add("blue");
+        app.simulation.spawnFrames = 0;
+        app.simulation.spawnInterval = 5;
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.spawners = new ArrayList<>();
+        app.simulation.spawners.add(new Spawner(100, 100));
+
+        app.simulation.updateSpawner();
         app.drawConveyorBeltLayer();
 
-        assertEquals(App.FPS * app.spawnInterval, app.spawnFrames);
-        assertEquals(1, app.ballsOnScreen.size());
-        assertEquals(0, app.ballsInQueue.size());
+        assertEquals(App.FPS * app.simulation.spawnInterval, app.simulation.spawnFrames);
+        assertEquals(1, app.simulation.ballsOnScreen.size());
+        assertEquals(0, app.simulation.ballsInQueue.size());
     }
 
     @Test
     public void testDrawConveyorBeltLayer_BallsInQueue_PeekNull() {
-        app.ballsInQueue = new ArrayDeque<>();
-        app.spawnFrames = 0;
-        app.spawnInterval = 5;
-        app.ballsOnScreen = new ArrayList<>();
-        app.spawners = new ArrayList<>();
-        app.spawners.add(new Spawner(100, 100));
-
+        app.simulation.ballsInQueue = new ArrayDeque<>();
+        app.simulation.spawnFrames = 0;
+        app.simulation.spawnInterval = 5;
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.spawners = new ArrayList<>();
+        app.simulation.spawners.add(new Spawner(100, 100));
+
+        app.simulation.updateSpawner();
         app.drawConveyorBeltLayer();
 
         // No ball should be spawned
-        assertEquals(App.FPS * app.spawnInterval, app.spawnFrames);
-        assertEquals(0, app.ballsOnScreen.size());
+        assertEquals(App.FPS * app.simulation.spawnInterval, app.simulation.spawnFrames);
+        assertEquals(0, app.simulation.ballsOnScreen.size());
     }
 
     @Test
     public void testTick_PlayLevelCompleteAnimationTriggered() {
-        app.gameState = GameState.RUNNING;
-        app.ballsOnScreen = new ArrayList<>();
-        app.ballsInQueue = new ArrayDeque<>();
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.ballsInQueue = new ArrayDeque<>();
 
         app.tick();
 
-        assertEquals(app.gameState, GameState.LEVEL_COMPLETION_ANIMATION);
+        assertEquals(app.simulation.gameState, GameState.LEVEL_COMPLETION_ANIMATION);
     }
 
     @Test
     public void testTick_PlayLevelCompleteAnimationNotTriggered() {
-        app.gameState = GameState.RUNNING;
-        app.ballsOnScreen = new ArrayList<>();
-        app.ballsInQueue = new ArrayDeque<>();
-        app.ballsInQueue.add("blue"); // Balls still in queue
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.ballsOnScreen = new BallStore();
+        app.simulation.ballsInQueue = new ArrayDeque<>();
+        app.simulation.ballsInQueue.add("blue"); // Balls still in queue
 
         app.tick();
 
-        assertNotEquals(app.gameState, GameState.LEVEL_COMPLETION_ANIMATION);
+        assertNotEquals(app.simulation.gameState, GameState.LEVEL_COMPLETION_ANIMATION);
     }
 
     @Test
     public void testTick_PlayLevelCompleteAnimationActive() {
-        app.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
-        app.levelTime = 10;
+        app.simulation.gameState = GameState.LEVEL_COMPLETION_ANIMATION;
+        app.simulation.levelTime = 10;
 
         app.tick();
 
-        assertEquals(9, app.levelTime);
+        assertEquals(9, app.simulation.levelTime);
     }
 
     @Test
     public void testTick_PlayLevelCompleteAnimationInactive() {
-        app.gameState = GameState.RUNNING;
-        app.ballsOnScreen.add(new Ball(75, 75, 1, app.ballImages.get(1)));
-        app.levelFrames = 90;
-        app.spawnFrames = 30;
+        app.simulation.gameState = GameState.RUNNING;
+        app.simulation.ballsOnScreen.add(new Ball(75, 75, 1, app.ballImages.get(1)));
+        app.simulation.levelFrames = 90;
+        app.simulation.spawnFrames = 30;
 
         app.tick();
 
         // Level frames and spawn frames should decrease
-        assertEquals(89, app.levelFrames);
-        assertEquals(29, app.spawnFrames);
+        assertEquals(89, app.simulation.levelFrames);
+        assertEquals(29, app.simulation.spawnFrames);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Test class for the BallStore class, covering adding, swap-removal and the batch updates.
+ */
+public class BallStoreTest {
+
+    private BallStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new BallStore(2);
+    }
+
+    /**
+     * Tests that an added ball keeps its state and reads it from the store afterwards.
+     */
+    @Test
+    public void testAdd_CopiesState() {
+        Ball ball = new Ball(100, 200, 3, null);
+        ball.setVelocity(1, -2);
+
+        store.add(ball);
+        store.x[0] = 150;
+
+        assertSame(ball, store.get(0));
+        assertEquals(150, ball.getCenterXPosition(), 0.001);
+        assertEquals(200, ball.getCenterYPosition(), 0.001);
+        assertEquals(-2, ball.getVelocityY(), 0.001);
+        assertEquals(3, ball.getColor());
+    }
+
+    /**
+     * Tests that adding more balls than the initial capacity grows the store.
+     */
+    @Test
+    public void testAdd_Grows() {
+        for (int i = 0; i < 40; i++) {
+            store.add(new Ball(i, i, 0, null));
+        }
+
+        assertEquals(40, store.size());
+        assertEquals(39, store.get(39).getCenterXPosition(), 0.001);
+    }
+
+    /**
+     * Tests that a ball cannot be in two shared stores at once.
+     */
+    @Test
+    public void testAdd_AlreadyInAnotherStore() {
+        Ball ball = new Ball(100, 100, 0, null);
+        store.add(ball);
+
+        assertThrows(IllegalArgumentException.class, () -> new BallStore().add(ball));
+        assertThrows(IllegalArgumentException.class, () -> store.add(ball));
+    }
+
+    /**
+     * Tests that removing a ball moves the last ball into its slot and leaves the removed ball usable.
+     */
+    @Test
+    public void testRemove_SwapsLastIntoSlot() {
+        Ball first = new Ball(10, 10, 1, null);
+        Ball second = new Ball(20, 20, 2, null);
+        Ball third = new Ball(30, 30, 3, null);
+        store.add(first);
+        store.add(second);
+        store.add(third);
+
+        assertTrue(store.remove(first));
+
+        assertEquals(2, store.size());
+        assertSame(third, store.get(0));
+        assertEquals(30, third.getCenterXPosition(), 0.001);
+        assertEquals(3, third.getColor());
+        assertFalse(store.contains(first));
+        assertEquals(10, first.getCenterXPosition(), 0.001);
+        assertEquals(1, first.getColor());
+        first.setCenterXPosition(50);
+        assertEquals(30, third.getCenterXPosition(), 0.001);
+    }
+
+    /**
+     * Tests that a removed ball takes its whole state with it into another store.
+     */
+    @Test
+    public void testRemove_ThenAddToAnotherStore() {
+        Ball ball = new Ball(100, 100, 2, null);
+        ball.setVelocity(3, -1);
+        store.add(ball);
+        store.savePreviousPositions();
+        store.updatePositions(1);
+
+        store.remove(ball);
+        ball.updatePosition(1);
+        BallStore other = new BallStore();
+        other.add(ball);
+
+        assertSame(ball, other.get(0));
+        assertEquals(106, other.x[0], 0.001);
+        assertEquals(98, other.y[0], 0.001);
+        assertEquals(100, other.previousX[0], 0.001);
+        assertEquals(3, other.velocityX[0], 0.001);
+        assertEquals(2, other.color[0]);
+    }
+
+    /**
+     * Tests that the batch update moves every ball and bounces them off the screen edges.
+     */
+    @Test
+    public void testUpdatePositions() {
+        Ball moving = new Ball(100, 100, 0, null);
+        moving.setVelocity(2, 2);
+        Ball atEdge = new Ball(Ball.RADIUS + 1, 100, 0, null);
+        atEdge.setVelocity(-2, 0);
+        store.add(moving);
+        store.add(atEdge);
+
+        store.savePreviousPositions();
+        store.updatePositions(1);
+
+        assertEquals(102, moving.getCenterXPosition(), 0.001);
+        assertEquals(102, moving.getCenterYPosition(), 0.001);
+        assertEquals(Ball.RADIUS, atEdge.getCenterXPosition(), 0.001);
+        assertEquals(2, atEdge.getVelocityX(), 0.001);
+        assertEquals(101, moving.getInterpolatedXPosition(0.5f), 0.001);
+    }
+
+    /**
+     * Tests that the balls bounce off the edges the store was given.
+     */
+    @Test
+    public void testUpdatePositions_Bounds() {
+        Ball ball = new Ball(600, 100, 0, null);
+        ball.setVelocity(5, 0);
+        store.add(ball);
+        store.setBounds(1000, 1000);
+
+        store.updatePositions(1);
+        assertEquals(605, ball.getCenterXPosition(), 0.001, "Past the default edge, but inside the bounds");
+
+        ball.setCenterXPosition(1000);
+        store.updatePositions(1);
+        assertEquals(1000 - Ball.RADIUS, ball.getCenterXPosition(), 0.001);
+        assertEquals(-5, ball.getVelocityX(), 0.001);
+    }
+
+    /**
+     * Adds a ball to the store.
+     *
+     * @param x         The x-coordinate.
+     * @param y         The y-coordinate.
+     * @param velocityX The x-component of the velocity.
+     * @param velocityY The y-component of the velocity.
+     * @return The ball.
+     */
+    private Ball addBall(float x, float y, float velocityX, float velocityY) {
+        Ball ball = new Ball(x, y, 0, null);
+        ball.setVelocity(velocityX, velocityY);
+        store.add(ball);
+        return ball;
+    }
+
+    /**
+     * Tests that two balls meeting head on swap velocities and are pushed apart.
+     */
+    @Test
+    public void testCollideBalls_HeadOn() {
+        Ball left = addBall(100, 100, 2, 0);
+        Ball right = addBall(120, 100, -1, 0);
+
+        store.collideBalls();
+
+        assertEquals(-1, left.getVelocityX(), 0.001);
+        assertEquals(2, right.getVelocityX(), 0.001);
+        assertEquals(0, left.getVelocityY(), 0.001);
+        assertEquals(2 * Ball.RADIUS, right.getCenterXPosition() - left.getCenterXPosition(), 0.001);
+        assertEquals(100, left.getCenterYPosition(), 0.001);
+    }
+
+    /**
+     * Tests that balls moving apart are separated but keep their velocities, and that balls
+     * that do not touch are left alone.
+     */
+    @Test
+    public void testCollideBalls_SeparatingAndApart() {
+        Ball left = addBall(100, 100, -2, 0);
+        Ball right = addBall(110, 100, 2, 0);
+        Ball far = addBall(100, 200, 2, 2);
+        Ball near = addBall(100, 225, -2, -2);
+
+        store.collideBalls();
+
+        assertEquals(-2, left.getVelocityX(), 0.001);
+        assertEquals(2, right.getVelocityX(), 0.001);
+        assertEquals(2 * Ball.RADIUS, right.getCenterXPosition() - left.getCenterXPosition(), 0.001);
+        assertEquals(2, far.getVelocityY(), 0.001);
+        assertEquals(225, near.getCenterYPosition(), 0.001);
+    }
+
+    /**
+     * Tests that a glancing collision keeps the total momentum and energy.
+     */
+    @Test
+    public void testCollideBalls_Glancing() {
+        Ball a = addBall(100, 100, 2, 1);
+        Ball b = addBall(115, 110, -1, 0);
+
+        store.collideBalls();
+
+        assertEquals(1, a.getVelocityX() + b.getVelocityX(), 0.001);
+        assertEquals(1, a.getVelocityY() + b.getVelocityY(), 0.001);
+        float energy = a.getVelocityX() * a.getVelocityX() + a.getVelocityY() * a.getVelocityY()
+            + b.getVelocityX() * b.getVelocityX() + b.getVelocityY() * b.getVelocityY();
+        assertEquals(6, energy, 0.001);
+    }
+
+    /**
+     * Tests that the sweep finds every touching pair a check of all pairs finds, as balls are
+     * added and removed between steps, and leaves every other ball alone.
+     */
+    @Test
+    public void testCollideBalls_MatchesAllPairs() {
+        Random random = new Random(4);
+        for (int step = 0; step < 10; step++) {
+            for (int i = 0; i < 50; i++) {
+                addBall(random.nextFloat() * 2000, random.nextFloat() * 2000, random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            }
+            store.remove(random.nextInt(store.size()));
+
+            // Number of balls within two diameters of each ball, which a pushed ball cannot reach past
+            int[] near = new int[store.size()];
+            for (int i = 0; i < store.size(); i++) {
+                for (int j = i + 1; j < store.size(); j++) {
+                    if (distance(i, j) < 4 * Ball.RADIUS) {
+                        near[i]++;
+                        near[j]++;
+                    }
+                }
+            }
+            float[] x = store.x.clone();
+            float[] velocityX = store.velocityX.clone();
+
+            store.collideBalls();
+
+            for (int i = 0; i < store.size(); i++) {
+                if (near[i] == 0) {
+                    assertEquals(x[i], store.x[i]);
+                    assertEquals(velocityX[i], store.velocityX[i]);
+                }
+                for (int j = i + 1; j < store.size(); j++) {
+                    // Pushing a ball out of a group can push it into another, so only pairs are checked
+                    if (near[i] == 1 && near[j] == 1) {
+                        assertTrue(distance(i, j) > 2 * Ball.RADIUS - 0.01f, "balls " + i + " and " + j + " overlap");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the distance between the centers of two balls.
+     *
+     * @param i The slot of the first ball.
+     * @param j The slot of the second ball.
+     * @return The distance.
+     */
+    private float distance(int i, int j) {
+        float dx = store.x[j] - store.x[i];
+        float dy = store.y[j] - store.y[i];
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -1,6 +1,7 @@
 package inkball;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -58,7 +59,7 @@ public class BallTest {
     @Test
     public void testUpdatePosition_BounceOffLeftEdge() {
         ball.setCenterXPosition(Ball.RADIUS - 1);
-        ball.getVelocity().x = -2;
+        ball.setVelocity(-2, ball.getVelocityY());
 
         ball.updatePosition();
 
@@ -72,7 +73,7 @@ public class BallTest {
     @Test
     public void testUpdatePosition_BounceOffRightEdge() {
         ball.setCenterXPosition(App.WIDTH - Ball.RADIUS + 1);
-        ball.getVelocity().x = 2;
+        ball.setVelocity(2, ball.getVelocityY());
 
         ball.updatePosition();
 
@@ -86,7 +87,7 @@ public class BallTest {
     @Test
     public void testUpdatePosition_BounceOffTopEdge() {
         ball.setCenterYPosition(Ball.RADIUS - 1);
-        ball.getVelocity().y = -2;
+        ball.setVelocity(ball.getVelocityX(), -2);
 
         ball.updatePosition();
 
@@ -100,7 +101,7 @@ public class BallTest {
     @Test
     public void testUpdatePosition_BounceOffBottomEdge() {
         ball.setCenterYPosition(App.HEIGHT - Ball.RADIUS + 1);
-        ball.getVelocity().y = 2;
+        ball.setVelocity(ball.getVelocityX(), 2);
 
         ball.updatePosition();
 
@@ -134,8 +135,8 @@ public class BallTest {
         PVector lineStart = new PVector(50, 50);
         PVector lineEnd = new PVector(150, 50);
 
-        ball.centerXPosition = 100;
-        ball.centerYPosition = 200; // Far from the line
+        ball.setCenterXPosition(100);
+        ball.setCenterYPosition(200); // Far from the line
         ball.setVelocity(new PVector(0, -2)); // Moving upwards
 
         boolean collided = ball.handleCollisionWithLine(lineStart, lineEnd);
@@ -153,8 +154,8 @@ public class BallTest {
         PVector lineEnd = new PVector(150, 50);
 
         // Ball right in the midpoint of the line
-        ball.centerXPosition = 100;
-        ball.centerYPosition = 52;
+        ball.setCenterXPosition(100);
+        ball.setCenterYPosition(52);
         ball.setVelocity(new PVector(0, -2)); // Moving upwards
 
         boolean collided = ball.handleCollisionWithLine(lineStart, lineEnd);
@@ -172,41 +173,41 @@ public class BallTest {
     @Test
     public void testCheckSurrounding_NoSurroundingTiles1() {
         // Set ball position to be outside the bounds of the board
-        ball.centerXPosition = App.CELL_SIZE * App.BOARD_SIZE + Ball.RADIUS;
-        ball.centerYPosition = App.CELL_SIZE * 4;
+        ball.setCenterXPosition(App.CELL_SIZE * App.BOARD_SIZE + Ball.RADIUS);
+        ball.setCenterYPosition(App.CELL_SIZE * 4);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Assert that surroundingTiles set remains empty since the ball is out of bounds
         assertTrue(ball.getSurroundingTiles().isEmpty(), "No surrounding tiles should be added when the ball is out of bounds.");
 
         // Set ball position to be outside the bounds of the board
-        ball.centerXPosition = App.CELL_SIZE * -1;
-        ball.centerYPosition = App.CELL_SIZE * 4;
+        ball.setCenterXPosition(App.CELL_SIZE * -1);
+        ball.setCenterYPosition(App.CELL_SIZE * 4);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Assert that surroundingTiles set remains empty since the ball is out of bounds
         assertTrue(ball.getSurroundingTiles().isEmpty(), "No surrounding tiles should be added when the ball is out of bounds.");
 
         // Set ball position to be outside the bounds of the board
-        ball.centerXPosition = App.CELL_SIZE * 4;
-        ball.centerYPosition = App.CELL_SIZE * App.BOARD_SIZE + Ball.RADIUS;
+        ball.setCenterXPosition(App.CELL_SIZE * 4);
+        ball.setCenterYPosition(App.CELL_SIZE * App.BOARD_SIZE + Ball.RADIUS);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Assert that surroundingTiles set remains empty since the ball is out of bounds
         assertTrue(ball.getSurroundingTiles().isEmpty(), "No surrounding tiles should be added when the ball is out of bounds.");
 
         // Set ball position to be outside the bounds of the board
-        ball.centerXPosition = App.CELL_SIZE * 4;
-        ball.centerYPosition = App.CELL_SIZE * -1;
+        ball.setCenterXPosition(App.CELL_SIZE * 4);
+        ball.setCenterYPosition(App.CELL_SIZE * -1);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Assert that surroundingTiles set remains empty since the ball is out of bounds
         assertTrue(ball.getSurroundingTiles().isEmpty(), "No surrounding tiles should be added when the ball is out of bounds.");
@@ -219,11 +220,11 @@ public class BallTest {
     @Test
     public void testCheckSurrounding_NoSurroundingTiles2() {
         // Set ball position to be inside the bounds of the board
-        ball.centerXPosition = App.CELL_SIZE * 4;
-        ball.centerYPosition = App.CELL_SIZE * 4;
+        ball.setCenterXPosition(App.CELL_SIZE * 4);
+        ball.setCenterYPosition(App.CELL_SIZE * 4);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Assert that surroundingTiles set remains empty since no tiles are around ball
         assertTrue(ball.getSurroundingTiles().isEmpty(), "No surrounding tiles should be added when the ball is out of bounds.");
@@ -241,24 +242,24 @@ public class BallTest {
         Wall wallBelow = new Wall(App.CELL_SIZE * 4 + Wall.HALF_SIZE, App.CELL_SIZE * 5 + Wall.HALF_SIZE, 0);
 
         // Place the Wall tiles
-        app.board[4][3] = wallLeft;
-        app.board[4][5] = wallRight;
-        app.board[3][4] = wallAbove;
-        app.board[5][4] = wallBelow;
+        app.simulation.board.set(4, 3, wallLeft);
+        app.simulation.board.set(4, 5, wallRight);
+        app.simulation.board.set(3, 4, wallAbove);
+        app.simulation.board.set(5, 4, wallBelow);
 
         // Set ball colliding with wall to the left
-        ball.centerXPosition = App.CELL_SIZE * 4 + Ball.RADIUS - 2;
-        ball.centerYPosition = App.CELL_SIZE * 4 + Wall.HALF_SIZE;
+        ball.setCenterXPosition(App.CELL_SIZE * 4 + Ball.RADIUS - 2);
+        ball.setCenterYPosition(App.CELL_SIZE * 4 + Wall.HALF_SIZE);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         assertEquals(4, ball.getSurroundingTiles().size());
     }
 
     /**
      * Test that when a Hole tile is positioned near the ball, the Hole's
-     * handleAttraction method is invoked. It also verifies that the ball's image
+     * handleAttraction method is invoked. It also verifies that the ball
      * is resized correctly after attraction. This ensures the correct behavior
      * when the ball interacts with a Hole tile.
      */
@@ -269,21 +270,21 @@ public class BallTest {
         Hole spyHole = Mockito.spy(hole);
 
         // Place the Hole tile at position (5, 5)
-        app.board[5][5] = spyHole;
+        app.simulation.board.set(5, 5, spyHole);
 
         // Set ball close to the Hole tile
-        ball.centerXPosition = App.CELL_SIZE * 5+10;
-        ball.centerYPosition = App.CELL_SIZE * 5+10;
+        ball.setCenterXPosition(App.CELL_SIZE * 5+10);
+        ball.setCenterYPosition(App.CELL_SIZE * 5+10);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Verify that Hole's handleAttraction method was called
-        Mockito.verify(spyHole).handleAttraction(eq(ball), anyFloat());
+        Mockito.verify(spyHole).handleAttraction(eq(ball), anyFloat(), anyFloat(), any());
 
-        // Additional checks if the image is resized based on attraction
-        assertNotNull(ball.getImage(), "Ball image should not be null after attraction.");
-        assertTrue(ball.getImage().width > 0, "Ball image should be resized correctly after attraction.");
+        // Additional checks if the ball is shrunk based on attraction
+        assertTrue(ball.getScaledSize() > 0, "Ball should be resized correctly after attraction.");
+        assertTrue(ball.getScaledSize() < 2 * Ball.RADIUS, "Ball should shrink while attracted.");
     }
 
     /**
@@ -297,17 +298,37 @@ public class BallTest {
         Hole spyHole = Mockito.spy(hole);
 
         // Place the Hole tile at position (5, 5)
-        app.board[5][5] = spyHole;
+        app.simulation.board.set(5, 5, spyHole);
 
         // Set ball close to the Hole tile but not close enough to be attracted
-        ball.centerXPosition = App.CELL_SIZE * 5;
-        ball.centerYPosition = App.CELL_SIZE * 5;
+        ball.setCenterXPosition(App.CELL_SIZE * 5);
+        ball.setCenterYPosition(App.CELL_SIZE * 5);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
 
         // Verify that Hole's handleAttraction method was not called
-        verify(spyHole, times(0)).handleAttraction(eq(ball), anyFloat());
+        verify(spyHole, times(0)).handleAttraction(eq(ball), anyFloat(), anyFloat(), any());
+    }
+
+    /**
+     * Test that a hole covering several of the ball's neighbouring cells only attracts it once.
+     */
+    @Test
+    public void testCheckSurrounding_HoleCoveringSeveralCells() {
+        Hole spyHole = Mockito.spy(new Hole(App.CELL_SIZE * 10 + Hole.HALF_SIZE, App.CELL_SIZE * 10 + Hole.HALF_SIZE, 0));
+        app.simulation.board.set(10, 10, spyHole);
+        app.simulation.board.set(10, 11, spyHole);
+        app.simulation.board.set(11, 10, spyHole);
+        app.simulation.board.set(11, 11, spyHole);
+
+        ball.setCenterXPosition(App.CELL_SIZE * 10 + 20);
+        ball.setCenterYPosition(App.CELL_SIZE * 10 + 20);
+
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
+
+        verify(spyHole, times(1)).handleAttraction(eq(ball), anyFloat(), anyFloat(), any());
+        assertEquals(1, ball.getSurroundingTiles().size());
     }
 
     /**
@@ -319,14 +340,14 @@ public class BallTest {
         Tile tile = new Tile(App.CELL_SIZE * 2 + Tile.HALF_SIZE, App.CELL_SIZE * 2 + Tile.HALF_SIZE);
 
         // Place the tile at position (2, 2)
-        app.board[2][2] = tile;
+        app.simulation.board.set(2, 2, tile);
 
         // Set ball next to tile
-        ball.centerXPosition = App.CELL_SIZE * 3 + Tile.HALF_SIZE;
-        ball.centerYPosition = App.CELL_SIZE * 2 + Tile.HALF_SIZE;
+        ball.setCenterXPosition(App.CELL_SIZE * 3 + Tile.HALF_SIZE);
+        ball.setCenterYPosition(App.CELL_SIZE * 2 + Tile.HALF_SIZE);
 
         // Call the checkSurrounding method
-        ball.checkSurrounding(app.board);
+        ball.checkSurrounding(app.simulation.board, 1, app.simulation);
     }
 
     /**
@@ -378,32 +399,53 @@ public class BallTest {
         ball.setCenterXPosition(App.CELL_SIZE * 4);
         ball.setCenterYPosition(App.CELL_SIZE * 4);
 
-        Tile[][] board = new Tile[App.BOARD_SIZE][App.BOARD_SIZE];
-        ball.checkSurrounding(board);
+        Board board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        ball.checkSurrounding(board, 1, app.simulation);
 
         assertTrue(ball.getSurroundingTiles().isEmpty());
     }
 
+    /**
+     * Tests that a ball moving into the corner of a diagonal wall hits it.
+     */
+    @Test
+    public void testCheckSurrounding_DiagonalWall() {
+        Board board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        Wall wall = new Wall(App.CELL_SIZE * 5 + Tile.HALF_SIZE, App.CELL_SIZE * 5 + Tile.HALF_SIZE, 0);
+        board.set(5, 5, wall);
+
+        ball.setCenterXPosition(App.CELL_SIZE * 4 + 30);
+        ball.setCenterYPosition(App.CELL_SIZE * 4 + 30);
+        ball.setVelocity(2, 2);
+
+        ball.checkSurrounding(board, 1, app.simulation);
+
+        assertEquals(1, ball.getSurroundingTiles().size());
+        assertSame(board.get(5, 5), ball.getSurroundingTiles().get(0));
+        assertEquals(-2, ball.getVelocityY(), 0.001);
+        assertEquals(App.CELL_SIZE * 4 + 20, ball.getCenterYPosition(), 0.001);
+    }
+
     /**
      * Tests checking surrounding tiles when walls are present.
      */
     @Test
     public void testCheckSurrounding_WithWalls() {
-        Tile[][] board = new Tile[App.BOARD_SIZE][App.BOARD_SIZE];
+        Board board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
         Wall wallLeft = new Wall(App.CELL_SIZE * 3 + Tile.HALF_SIZE, App.CELL_SIZE * 4 + Tile.HALF_SIZE, 0);
         Wall wallRight = new Wall(App.CELL_SIZE * 5 + Tile.HALF_SIZE, App.CELL_SIZE * 4 + Tile.HALF_SIZE, 0);
         Wall wallAbove = new Wall(App.CELL_SIZE * 4 + Tile.HALF_SIZE, App.CELL_SIZE * 3 + Tile.HALF_SIZE, 0);
         Wall wallBelow = new Wall(App.CELL_SIZE * 4 + Tile.HALF_SIZE, App.CELL_SIZE * 5 + Tile.HALF_SIZE, 0);
 
-        board[4][3] = wallLeft;
-        board[4][5] = wallRight;
-        board[3][4] = wallAbove;
-        board[5][4] = wallBelow;
+        board.set(4, 3, wallLeft);
+        board.set(4, 5, wallRight);
+        board.set(3, 4, wallAbove);
+        board.set(5, 4, wallBelow);
 
         ball.setCenterXPosition(App.CELL_SIZE * 4);
         ball.setCenterYPosition(App.CELL_SIZE * 4);
 
-        ball.checkSurrounding(board);
+        ball.checkSurrounding(board, 1, app.simulation);
 
         assertEquals(4, ball.getSurroundingTiles().size());
     }
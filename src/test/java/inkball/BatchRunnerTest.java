@@ -0,0 +1,94 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Test class for the BatchRunner class.
+ */
+public class BatchRunnerTest {
+
+    /**
+     * Tests that every level is run the given number of times, each in its own simulation.
+     */
+    @Test
+    public void testRun_EveryLevel() throws InterruptedException {
+        List<BatchRunner.RunResult> results = BatchRunner.run("config.json", 2, BatchRunner.RANDOM_LINES, 10, 2, 200);
+
+        int levels = new Simulation("config.json").levels.size();
+        assertEquals(2 * levels, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchRunner.RunResult result = results.get(i);
+            assertEquals(i, result.run);
+            assertEquals(i / 2 + 1, result.level);
+            assertEquals(10 + i, result.seed);
+            assertEquals(200, result.steps);
+            assertEquals("step_limit", result.outcome);
+        }
+    }
+
+    /**
+     * Tests that a level played to the end reports why it ended.
+     */
+    @Test
+    public void testPlay_TimeUp() {
+        BatchRunner.RunResult result = BatchRunner.play("config.json", 1, 0, 1, BatchRunner.NO_LINES, Integer.MAX_VALUE);
+
+        assertTrue(result.outcome.equals("time_up") || result.outcome.equals("complete"), result.outcome);
+        assertTrue(result.steps > 0);
+        assertTrue(result.nanos > 0);
+    }
+
+    /**
+     * Tests that the random policy keeps at most a few lines, each across the board.
+     */
+    @Test
+    public void testDrawRandomLine_KeepsFewLines() {
+        Simulation simulation = new Simulation("config.json");
+        simulation.step();
+        Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            BatchRunner.drawRandomLine(simulation, random);
+        }
+
+        assertEquals(BatchRunner.MAX_LINES, simulation.lines.size());
+        for (Line line : simulation.lines) {
+            assertTrue(line.getMinX() >= 0 && line.getMaxX() <= simulation.getBoardWidth());
+            assertTrue(line.getMinY() >= 0 && line.getMaxY() <= simulation.getBoardHeight());
+        }
+    }
+
+    /**
+     * Tests that the CSV file has a header and one row per run.
+     */
+    @Test
+    public void testWriteCsv() throws IOException {
+        BatchRunner.RunResult result = new BatchRunner.RunResult();
+        result.run = 3;
+        result.level = 2;
+        result.seed = 4;
+        result.policy = BatchRunner.NO_LINES;
+        result.outcome = "complete";
+        result.steps = 300;
+        result.score = 120;
+        result.captures = 5;
+        result.timeLeft = 30;
+        result.nanos = 2_000_000;
+        Path output = Files.createTempFile("batch", ".csv");
+        try {
+            BatchRunner.writeCsv(List.of(result), output);
+
+            List<String> rows = Files.readAllLines(output);
+            assertEquals(BatchRunner.CSV_HEADER, rows.get(0));
+            assertEquals("3,2,4,none,complete,300,120,5,30,2.000,150000.0", rows.get(1));
+            assertEquals(2, rows.size());
+        } finally {
+            Files.delete(output);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Test class for the Board class.
+ */
+public class BoardTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board(10, 12);
+    }
+
+    /**
+     * Tests that a new board is empty and has the size it was given.
+     */
+    @Test
+    public void testNewBoard_Empty() {
+        assertEquals(10, board.getRows());
+        assertEquals(12, board.getColumns());
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int column = 0; column < board.getColumns(); column++) {
+                assertNull(board.get(row, column));
+                assertEquals(CompiledLevel.EMPTY, board.getType(row, column));
+            }
+        }
+    }
+
+    /**
+     * Tests that every cell of a wall type and color gives back the same shared wall.
+     */
+    @Test
+    public void testSet_WallsAreShared() {
+        board.set(0, 0, new Wall(Tile.HALF_SIZE, Tile.HALF_SIZE, 2));
+        board.set(9, 11, Board.wall(2));
+        board.set(1, 0, Board.wall(3));
+        board.set(2, 0, new ColorRestrictingWall(Tile.HALF_SIZE, 2 * App.CELL_SIZE + Tile.HALF_SIZE, 4, true));
+        board.set(3, 0, Board.colorRestrictingWall(4, false));
+
+        assertSame(Board.wall(2), board.get(0, 0));
+        assertSame(Board.wall(2), board.get(9, 11));
+        assertSame(Board.wall(3), board.get(1, 0));
+        assertSame(Board.colorRestrictingWall(4, true), board.get(2, 0));
+        assertSame(Board.colorRestrictingWall(4, false), board.get(3, 0));
+        assertNotSame(board.get(2, 0), board.get(3, 0));
+
+        assertEquals(CompiledLevel.VERTICAL_WALL, board.getType(2, 0));
+        assertEquals(4, board.getColor(2, 0));
+        assertTrue(((ColorRestrictingWall) board.get(2, 0)).isVertical());
+        assertFalse(((ColorRestrictingWall) board.get(3, 0)).isVertical());
+    }
+
+    /**
+     * Tests that a shared wall refuses to give edges of its own, which would be those of a cell
+     * at the origin, and gives those of the cell it is asked about instead.
+     */
+    @Test
+    public void testSharedWalls_HaveNoEdgesOfTheirOwn() {
+        Wall wall = Board.wall(2);
+        ColorRestrictingWall restricting = Board.colorRestrictingWall(4, true);
+
+        assertThrows(IllegalStateException.class, wall::getLeft);
+        assertThrows(IllegalStateException.class, wall::getBottom);
+        assertThrows(IllegalStateException.class, restricting::getRight);
+        assertThrows(IllegalStateException.class, restricting::getTopLeftCorner);
+
+        assertEquals(3 * App.CELL_SIZE, wall.getLeft(3), 0.001);
+        assertEquals(5 * App.CELL_SIZE, wall.getBottom(4), 0.001);
+        assertEquals(new Wall(Tile.HALF_SIZE, Tile.HALF_SIZE, 2).getRight(), wall.getRight(0), 0.001);
+    }
+
+    /**
+     * Tests that the four cells of a hole give back the hole itself.
+     */
+    @Test
+    public void testSet_HoleKeepsItsObject() {
+        Hole hole = new Hole(5 * App.CELL_SIZE, 5 * App.CELL_SIZE, 3);
+        Hole other = new Hole(2 * App.CELL_SIZE, 8 * App.CELL_SIZE, 1);
+        // Set out of cell order, as a chunked board does
+        board.set(5, 5, hole);
+        board.set(7, 1, other);
+        board.set(4, 4, hole);
+        board.set(5, 4, hole);
+        board.set(4, 5, hole);
+
+        assertSame(hole, board.get(4, 4));
+        assertSame(hole, board.get(4, 5));
+        assertSame(hole, board.get(5, 4));
+        assertSame(hole, board.get(5, 5));
+        assertSame(other, board.get(7, 1));
+        assertEquals(CompiledLevel.HOLE, board.getType(4, 4));
+        assertEquals(3, board.getColor(4, 4));
+    }
+
+    /**
+     * Tests that replacing or clearing a cell drops the tile it held.
+     */
+    @Test
+    public void testSet_ReplacesTile() {
+        Spawner spawner = new Spawner(Tile.HALF_SIZE, Tile.HALF_SIZE);
+        Tile tile = new Tile(App.CELL_SIZE + Tile.HALF_SIZE, Tile.HALF_SIZE);
+        board.set(0, 0, spawner);
+        board.set(0, 1, tile);
+        assertSame(spawner, board.get(0, 0));
+        assertSame(tile, board.get(0, 1));
+        assertEquals(CompiledLevel.SPAWNER, board.getType(0, 0));
+        assertEquals(Board.TILE, board.getType(0, 1));
+
+        board.set(0, 0, Board.wall(1));
+        board.set(0, 1, null);
+        assertSame(Board.wall(1), board.get(0, 0));
+        assertNull(board.get(0, 1));
+
+        board.set(0, 0, spawner);
+        assertSame(spawner, board.get(0, 0));
+    }
+}
@@ -0,0 +1,157 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Test class for the ChunkedBoard class.
+ */
+public class ChunkedBoardTest {
+
+    private Path layout;
+    private Path compiled;
+
+    /**
+     * Removes the layout files written by a test.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (layout != null) {
+            Files.deleteIfExists(layout);
+        }
+        if (compiled != null) {
+            Files.deleteIfExists(compiled);
+        }
+    }
+
+    /**
+     * Tests that loading a chunk fills in only its own cells.
+     */
+    @Test
+    public void testLoadCells_OnlyThatChunk() throws IOException {
+        CompiledLevel level = compile(40, 40);
+        Board board = new Board(40, 40);
+        ChunkedBoard chunks = new ChunkedBoard(level, board);
+
+        assertEquals(3, chunks.getChunkRows());
+        assertEquals(3, chunks.getChunkColumns());
+        assertEquals(0, chunks.getLoadedCount());
+
+        chunks.loadCells(0, 0, 0, 0);
+
+        assertTrue(chunks.isLoaded(0, 0));
+        assertFalse(chunks.isLoaded(0, 1));
+        assertEquals(1, chunks.getLoadedCount());
+        assertTrue(board.get(0, 15) instanceof Wall);
+        assertNull(board.get(0, 16));
+        assertNull(board.get(39, 0));
+    }
+
+    /**
+     * Tests that a hole across the edge of two chunks is one hole once both are loaded.
+     */
+    @Test
+    public void testLoadCells_HoleAcrossChunks() throws IOException {
+        CompiledLevel level = compile(40, 40);
+        Board board = new Board(40, 40);
+        ChunkedBoard chunks = new ChunkedBoard(level, board);
+
+        chunks.loadCells(10, 15, 10, 15);
+        assertTrue(board.get(10, 15) instanceof Hole);
+        assertNull(board.get(10, 16));
+
+        chunks.loadCells(10, 16, 10, 16);
+        assertSame(board.get(10, 15), board.get(10, 16));
+        assertSame(board.get(10, 15), board.get(11, 16));
+        assertEquals(15 * App.CELL_SIZE + Hole.HALF_SIZE, board.get(10, 16).getCenterXPosition(), 0.001);
+    }
+
+    /**
+     * Tests that loading every chunk builds the same board as the text layout.
+     */
+    @Test
+    public void testLoadAll_MatchesTextLayout() throws IOException {
+        CompiledLevel level = compile(40, 40);
+        Board board = new Board(40, 40);
+        new ChunkedBoard(level, board).loadAll();
+
+        Simulation text = new Simulation();
+        text.loadTextLayout(layout.toString());
+        for (int row = 0; row < 40; row++) {
+            for (int column = 0; column < 40; column++) {
+                Tile expected = text.board.get(row, column);
+                if (expected == null || expected instanceof Spawner) {
+                    assertNull(board.get(row, column), "cell " + row + "," + column);
+                } else {
+                    assertNotNull(board.get(row, column), "cell " + row + "," + column);
+                    assertEquals(expected.getClass(), board.get(row, column).getClass());
+                    assertEquals(expected.getCenterXPosition(), board.get(row, column).getCenterXPosition(), 0.001);
+                    assertEquals(expected.getCenterYPosition(), board.get(row, column).getCenterYPosition(), 0.001);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that a large compiled layout is loaded only around its balls as they move.
+     */
+    @Test
+    public void testUpdateBalls_LoadsAroundBalls() throws IOException {
+        compile(160, 160);
+        Simulation simulation = new Simulation();
+        simulation.loadLayout(compiled.toString());
+
+        ChunkedBoard chunks = simulation.chunks;
+        assertNotNull(chunks);
+        assertEquals(0, chunks.getLoadedCount());
+        assertNotNull(simulation.board.get(1, 1));
+
+        simulation.updateBalls();
+
+        // The one ball sits in the first chunk
+        assertTrue(chunks.isLoaded(0, 0));
+        assertFalse(chunks.isLoaded(9, 9));
+        assertTrue(chunks.getLoadedCount() < 10);
+    }
+
+    /**
+     * Writes and compiles a bordered layout with a spawner and ball at the top left, and a hole
+     * at row 10, column 15, across the edge of the first two chunks.
+     *
+     * @param columns The number of columns.
+     * @param rows    The number of rows.
+     * @return The compiled level.
+     */
+    private CompiledLevel compile(int columns, int rows) throws IOException {
+        StringBuilder text = new StringBuilder("size " + columns + " " + rows + "\n");
+        for (int row = 0; row < rows; row++) {
+            char[] cells = new char[columns];
+            Arrays.fill(cells, ' ');
+            if (row == 0 || row == rows - 1) {
+                Arrays.fill(cells, 'X');
+            }
+            cells[0] = 'X';
+            cells[columns - 1] = 'X';
+            if (row == 1) {
+                cells[1] = 'S';
+                cells[3] = 'B';
+                cells[4] = '1';
+            }
+            if (row == 10) {
+                cells[15] = 'H';
+                cells[16] = '2';
+            }
+            text.append(cells).append('\n');
+        }
+        layout = Files.createTempFile("layout", ".txt");
+        compiled = Files.createTempFile("compiled", LevelCompiler.EXTENSION);
+        Files.write(layout, text.toString().getBytes());
+        LevelCompiler.compile(new Level(layout.toString(), 60, 5, 1, 1, Arrays.asList("grey")), compiled);
+        return CompiledLevel.open(compiled);
+    }
+}
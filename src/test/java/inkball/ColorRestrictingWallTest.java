@@ -16,8 +16,8 @@ public class ColorRestrictingWallTest {
     @BeforeEach
     public void setUp() {
         // Initialize vertical and horizontal color-restricting walls
-        verticalWall = new ColorRestrictingWall(100, 100, 1, true); // Color 1 (e.g., orange)
-        horizontalWall = new ColorRestrictingWall(200, 200, 2, false); // Color 2 (e.g., blue)
+        verticalWall = new ColorRestrictingWall(112, 112, 1, true); // Color 1 (e.g., orange), at row 3, column 3
+        horizontalWall = new ColorRestrictingWall(208, 208, 2, false); // Color 2 (e.g., blue), at row 6, column 6
     }
 
     /**
@@ -25,10 +25,10 @@ public class ColorRestrictingWallTest {
      */
     @Test
     public void testHandleCollision_BlocksDifferentColorBall() {
-        ball = new Ball(97, 100, 3, null); // Ball color different from wall color
+        ball = new Ball(109, 112, 3, null); // Ball color different from wall color
         ball.setVelocity(new PVector(2, 0));
 
-        verticalWall.handleCollision(ball);
+        verticalWall.handleCollision(ball, 3, 3);
 
         // Velocity should be reflected
         assertEquals(-2, ball.getVelocity().x, 0.001);
@@ -39,11 +39,11 @@ public class ColorRestrictingWallTest {
      */
     @Test
     public void testHandleCollision_AllowsSameColorBall() {
-        ball = new Ball(97, 100, 1, null); // Ball color matches wall color
+        ball = new Ball(109, 112, 1, null); // Ball color matches wall color
         ball.setVelocity(new PVector(2, 0));
         PVector initialVelocity = ball.getVelocity().copy();
 
-        verticalWall.handleCollision(ball);
+        verticalWall.handleCollision(ball, 3, 3);
 
         // Velocity should remain the same
         assertEquals(initialVelocity.x, ball.getVelocity().x, 0.001);
@@ -57,4 +57,58 @@ public class ColorRestrictingWallTest {
         assertTrue(verticalWall.isVertical());
         assertFalse(horizontalWall.isVertical());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the long sides of a wall are moved in from the edges of its cell.
+     */
+    @Test
+    public void testEdges_Inset() {
+        assertEquals(96 + ColorRestrictingWall.INSET, verticalWall.getLeft(), 0.001);
+        assertEquals(128 - ColorRestrictingWall.INSET, verticalWall.getRight(), 0.001);
+        assertEquals(96, verticalWall.getTop(), 0.001);
+        assertEquals(128, verticalWall.getBottom(), 0.001);
+
+        assertEquals(192, horizontalWall.getLeft(), 0.001);
+        assertEquals(224, horizontalWall.getRight(), 0.001);
+        assertEquals(192 + ColorRestrictingWall.INSET, horizontalWall.getTopLeftCorner().y, 0.001);
+        assertEquals(224 - ColorRestrictingWall.INSET, horizontalWall.getBottomRightCorner().y, 0.001);
+
+        // A wall built at a position has the same edges as the shared wall in its cell
+        assertEquals(Board.colorRestrictingWall(1, true).getLeft(3), verticalWall.getLeft(), 0.001);
+        assertEquals(Board.colorRestrictingWall(2, false).getBottom(6), horizontalWall.getBottom(), 0.001);
+    }
+
+    /**
+     * Tests that a shared wall works its edges out from the cell it is used at.
+     */
+    @Test
+    public void testEdges_Cell() {
+        ColorRestrictingWall shared = Board.colorRestrictingWall(1, true);
+        assertEquals(3 * App.CELL_SIZE + ColorRestrictingWall.INSET, shared.getLeft(3), 0.001);
+        assertEquals(4 * App.CELL_SIZE - ColorRestrictingWall.INSET, shared.getRight(3), 0.001);
+        assertEquals(2 * App.CELL_SIZE, shared.getTop(2), 0.001);
+        assertEquals(3 * App.CELL_SIZE, shared.getBottom(2), 0.001);
+
+        shared = Board.colorRestrictingWall(1, false);
+        assertEquals(3 * App.CELL_SIZE, shared.getLeft(3), 0.001);
+        assertEquals(2 * App.CELL_SIZE + ColorRestrictingWall.INSET, shared.getTop(2), 0.001);
+        assertEquals(3 * App.CELL_SIZE - ColorRestrictingWall.INSET, shared.getBottom(2), 0.001);
+    }
+
+    /**
+     * Tests that a shared wall blocks a ball in the cell it is checked at, and only there.
+     */
+    @Test
+    public void testHandleCollision_Cell() {
+        ColorRestrictingWall shared = Board.colorRestrictingWall(1, true);
+        ball = new Ball(3 * App.CELL_SIZE + 2, 2 * App.CELL_SIZE + Tile.HALF_SIZE, 3, null);
+        ball.setVelocity(2, 0);
+
+        assertFalse(shared.collidesWithBall(ball, 2, 6));
+        assertTrue(shared.collidesWithBall(ball, 2, 3));
+        shared.handleCollision(ball, 2, 3);
+
+        assertEquals(-2, ball.getVelocityX(), 0.001);
+        assertEquals(3 * App.CELL_SIZE + ColorRestrictingWall.INSET - Ball.RADIUS, ball.getCenterXPosition(), 0.001);
+    }
+}
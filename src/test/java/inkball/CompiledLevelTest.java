@@ -0,0 +1,269 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Test class for the CompiledLevel and LevelCompiler classes, covering the round trip from a
+ * text layout through the binary format.
+ */
+public class CompiledLevelTest {
+
+    /**
+     * Tests that every shipped layout loads from its compiled copy to the same board as from text.
+     */
+    @Test
+    public void testRoundTrip_MatchesTextLayout() throws IOException {
+        for (String layout : new String[] { "level1.txt", "level2.txt", "level3.txt", "extension.txt" }) {
+            Level level = new Level(layout, 120, 5, 1.2f, 0.8f, Arrays.asList("grey", "blue", "yellow"), true);
+            Path compiled = Files.createTempFile("compiled", LevelCompiler.EXTENSION);
+            try {
+                LevelCompiler.compile(level, compiled);
+
+                Simulation text = new Simulation();
+                text.loadTextLayout(layout);
+                Simulation binary = new Simulation();
+                binary.loadLayout(compiled.toString());
+
+                assertSameBoard(text, binary);
+            } finally {
+                Files.delete(compiled);
+            }
+        }
+    }
+
+    /**
+     * Tests that a layout that gives its own size keeps it through the binary format.
+     */
+    @Test
+    public void testRoundTrip_BoardSize() throws IOException {
+        StringBuilder text = new StringBuilder("size 25 20\n");
+        for (int row = 0; row < 20; row++) {
+            char[] cells = new char[25];
+            Arrays.fill(cells, row == 0 || row == 19 ? 'X' : ' ');
+            text.append(cells).append('\n');
+        }
+        // Row 17: a spawner, a hole reaching row 18, and a ball
+        text.replace(text.length() - 26 * 3, text.length() - 26 * 3 + 5, "SH3B2");
+        Path layout = Files.createTempFile("layout", ".txt");
+        Path compiled = Files.createTempFile("compiled", LevelCompiler.EXTENSION);
+        try {
+            Files.write(layout, text.toString().getBytes());
+            LevelCompiler.compile(new Level(layout.toString(), 60, 5, 1, 1, Arrays.asList("grey")), compiled);
+
+            Simulation fromText = new Simulation();
+            fromText.loadTextLayout(layout.toString());
+            Simulation fromBinary = new Simulation();
+            fromBinary.loadLayout(compiled.toString());
+
+            assertEquals(20, fromBinary.getRows());
+            assertEquals(25, fromBinary.getColumns());
+            assertTrue(fromBinary.board.get(17, 1) instanceof Hole);
+            assertSameBoard(fromText, fromBinary);
+        } finally {
+            Files.delete(layout);
+            Files.delete(compiled);
+        }
+    }
+
+    /**
+     * Tests that the level settings are stored with the layout.
+     */
+    @Test
+    public void testGetLevel() throws IOException {
+        Level level = new Level("level2.txt", 180, 6, 1.2f, 1.1f, Arrays.asList("green", "grey", "orange"), true);
+        Path compiled = Files.createTempFile("compiled", LevelCompiler.EXTENSION);
+        try {
+            LevelCompiler.compile(level, compiled);
+            CompiledLevel compiledLevel = CompiledLevel.open(compiled);
+            Level loaded = compiledLevel.getLevel();
+
+            assertEquals(compiled.toString(), loaded.getLayout());
+            assertEquals(180, loaded.getTime());
+            assertEquals(6, loaded.getSpawnInterval());
+            assertEquals(1.2f, loaded.getScoreIncreaseModifier(), 0.0001);
+            assertEquals(1.1f, loaded.getScoreDecreaseModifier(), 0.0001);
+            assertEquals(Arrays.asList("green", "grey", "orange"), loaded.getBalls());
+            assertTrue(loaded.isContinuousCollision());
+            assertEquals(App.BOARD_SIZE, compiledLevel.getRows());
+            assertEquals(App.BOARD_SIZE, compiledLevel.getColumns());
+        } finally {
+            Files.delete(compiled);
+        }
+    }
+
+    /**
+     * Tests that each level flag is stored on its own.
+     */
+    @Test
+    public void testGetLevel_BallCollisions() throws IOException {
+        Level level = new Level("level2.txt", 180, 6, 1.2f, 1.1f, Arrays.asList("green"), false, true);
+        Path compiled = Files.createTempFile("compiled", LevelCompiler.EXTENSION);
+        try {
+            LevelCompiler.compile(level, compiled);
+            Level loaded = CompiledLevel.open(compiled).getLevel();
+
+            assertFalse(loaded.isContinuousCollision());
+            assertTrue(loaded.isBallCollisions());
+        } finally {
+            Files.delete(compiled);
+        }
+    }
+
+    /**
+     * Tests that a level loaded from its compiled copy takes the settings stored there, and that
+     * the copy is passed over once the config is newer than it.
+     */
+    @Test
+    public void testLoadLevel_SettingsFromCompiledCopy() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        Path layout = directory.resolve("level.txt");
+        Path config = directory.resolve("config.json");
+        Path compiled = LevelCompiler.compiledPath(layout.toString());
+        try {
+            Files.copy(Paths.get("level2.txt"), layout);
+            Files.write(config, ("{\"levels\": [{\"layout\": \"" + layout.toString().replace("\\", "\\\\")
+                + "\", \"time\": 60, \"spawn_interval\": 5,"
+                + " \"score_increase_from_hole_capture_modifier\": 1,"
+                + " \"score_decrease_from_wrong_hole_modifier\": 1, \"balls\": [\"grey\"]}],"
+                + " \"score_increase_from_hole_capture\": {\"grey\": 70},"
+                + " \"score_decrease_from_wrong_hole\": {\"grey\": 0}}").getBytes());
+            LevelCompiler.compile(new Level(layout.toString(), 90, 7, 1.5f, 0.5f, Arrays.asList("blue", "green"), true, true), compiled);
+            long compiledTime = compiled.toFile().lastModified();
+            assertTrue(layout.toFile().setLastModified(compiledTime - 2000));
+            assertTrue(config.toFile().setLastModified(compiledTime - 2000));
+
+            Simulation simulation = new Simulation(config.toString());
+            simulation.loadLevel(1);
+
+            assertEquals(90, simulation.levelTime);
+            assertEquals(7, simulation.spawnInterval);
+            assertEquals(1.5f, simulation.scoreIncreaseModifier, 0.0001);
+            assertEquals(0.5f, simulation.scoreDecreaseModifier, 0.0001);
+            assertEquals(Arrays.asList("blue", "green"), new ArrayList<>(simulation.ballsInQueue));
+            assertTrue(simulation.continuousCollision);
+            assertTrue(simulation.ballCollisions);
+            assertEquals(layout.toString(), simulation.layout);
+
+            assertTrue(config.toFile().setLastModified(compiledTime + 2000));
+            simulation.loadLevel(1);
+
+            assertEquals(60, simulation.levelTime);
+            assertEquals(5, simulation.spawnInterval);
+            assertEquals(Arrays.asList("grey"), new ArrayList<>(simulation.ballsInQueue));
+            assertFalse(simulation.continuousCollision);
+            assertFalse(simulation.ballCollisions);
+        } finally {
+            Files.deleteIfExists(compiled);
+            Files.deleteIfExists(config);
+            Files.deleteIfExists(layout);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Tests that a compiled copy is only up to date while it is at least as new as both the
+     * text layout and the config.
+     */
+    @Test
+    public void testIsUpToDate() throws IOException {
+        Path layout = Files.createTempFile("layout", ".txt");
+        Path config = Files.createTempFile("config", ".json");
+        Path compiled = LevelCompiler.compiledPath(layout.toString());
+        try {
+            assertFalse(LevelCompiler.isUpToDate(layout.toString(), config.toString()));
+
+            Files.copy(Paths.get("level1.txt"), layout, StandardCopyOption.REPLACE_EXISTING);
+            LevelCompiler.compile(new Level(layout.toString(), 60, 5, 1, 1, Arrays.asList("grey")), compiled);
+            long compiledTime = compiled.toFile().lastModified();
+            assertTrue(layout.toFile().setLastModified(compiledTime - 2000));
+            assertTrue(config.toFile().setLastModified(compiledTime - 2000));
+            assertTrue(LevelCompiler.isUpToDate(layout.toString(), config.toString()));
+            assertTrue(LevelCompiler.isUpToDate(layout.toString(), null));
+
+            assertTrue(config.toFile().setLastModified(compiledTime + 2000));
+            assertFalse(LevelCompiler.isUpToDate(layout.toString(), config.toString()));
+            assertTrue(LevelCompiler.isUpToDate(layout.toString(), null));
+
+            assertTrue(layout.toFile().setLastModified(compiledTime + 2000));
+            assertFalse(LevelCompiler.isUpToDate(layout.toString(), null));
+        } finally {
+            Files.deleteIfExists(compiled);
+            Files.delete(config);
+            Files.delete(layout);
+        }
+    }
+
+    /**
+     * Tests that a file that is not a compiled level is rejected.
+     */
+    @Test
+    public void testOpen_NotCompiled() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledLevel.open(Paths.get("level1.txt")));
+    }
+
+    /**
+     * Tests that a text layout is compiled next to itself.
+     */
+    @Test
+    public void testCompiledPath() {
+        assertEquals(Paths.get("level1" + LevelCompiler.EXTENSION), LevelCompiler.compiledPath("level1.txt"));
+        assertEquals(Paths.get("layout" + LevelCompiler.EXTENSION), LevelCompiler.compiledPath("layout"));
+    }
+
+    /**
+     * Checks that two simulations loaded the same tiles, spawners and balls.
+     */
+    private static void assertSameBoard(Simulation expected, Simulation actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        for (int row = 0; row < expected.getRows(); row++) {
+            for (int column = 0; column < expected.getColumns(); column++) {
+                Tile expectedTile = expected.board.get(row, column);
+                Tile actualTile = actual.board.get(row, column);
+                String cell = "cell " + row + "," + column;
+                if (expectedTile == null) {
+                    assertNull(actualTile, cell);
+                    continue;
+                }
+                assertNotNull(actualTile, cell);
+                assertEquals(expectedTile.getClass(), actualTile.getClass(), cell);
+                assertEquals(expectedTile.getCenterXPosition(), actualTile.getCenterXPosition(), 0.001, cell);
+                assertEquals(expectedTile.getCenterYPosition(), actualTile.getCenterYPosition(), 0.001, cell);
+                if (expectedTile instanceof Wall) {
+                    assertEquals(((Wall) expectedTile).getColor(), ((Wall) actualTile).getColor(), cell);
+                }
+                if (expectedTile instanceof ColorRestrictingWall) {
+                    assertEquals(((ColorRestrictingWall) expectedTile).isVertical(), ((ColorRestrictingWall) actualTile).isVertical(), cell);
+                }
+                if (expectedTile instanceof Hole) {
+                    assertEquals(((Hole) expectedTile).getColor(), ((Hole) actualTile).getColor(), cell);
+                }
+            }
+        }
+
+        assertEquals(expected.spawners.size(), actual.spawners.size());
+        for (int i = 0; i < expected.spawners.size(); i++) {
+            assertSame(actual.spawners.get(i), actual.board.get((int) (actual.spawners.get(i).getCenterYPosition() / App.CELL_SIZE), (int) (actual.spawners.get(i).getCenterXPosition() / App.CELL_SIZE)));
+            assertEquals(expected.spawners.get(i).getCenterXPosition(), actual.spawners.get(i).getCenterXPosition(), 0.001);
+            assertEquals(expected.spawners.get(i).getCenterYPosition(), actual.spawners.get(i).getCenterYPosition(), 0.001);
+        }
+
+        assertEquals(expected.ballsOnScreen.size(), actual.ballsOnScreen.size());
+        for (int i = 0; i < expected.ballsOnScreen.size(); i++) {
+            Ball expectedBall = expected.ballsOnScreen.get(i);
+            Ball actualBall = actual.ballsOnScreen.get(i);
+            assertEquals(expectedBall.getCenterXPosition(), actualBall.getCenterXPosition(), 0.001);
+            assertEquals(expectedBall.getCenterYPosition(), actualBall.getCenterYPosition(), 0.001);
+            assertEquals(expectedBall.getColor(), actualBall.getColor());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Test class for the DirtyRegions class, covering rounding, clipping, merging and overflow.
+ */
+public class DirtyRegionsTest {
+
+    private DirtyRegions regions;
+
+    @BeforeEach
+    public void setUp() {
+        regions = new DirtyRegions(100, 100, 2);
+    }
+
+    /**
+     * Tests that a rectangle is rounded outwards to whole pixels.
+     */
+    @Test
+    public void testAdd_RoundsOutwards() {
+        regions.add(10.5f, 20.2f, 30.1f, 40.9f);
+
+        assertEquals(1, regions.size());
+        assertEquals(10, regions.getX(0));
+        assertEquals(20, regions.getY(0));
+        assertEquals(21, regions.getWidth(0));
+        assertEquals(21, regions.getHeight(0));
+    }
+
+    /**
+     * Tests that a rectangle is clipped to the layer and dropped if nothing is left.
+     */
+    @Test
+    public void testAdd_ClipsToLayer() {
+        regions.add(-10, 90, 20, 120);
+        regions.add(150, 150, 160, 160);
+
+        assertEquals(1, regions.size());
+        assertEquals(0, regions.getX(0));
+        assertEquals(90, regions.getY(0));
+        assertEquals(20, regions.getWidth(0));
+        assertEquals(10, regions.getHeight(0));
+    }
+
+    /**
+     * Tests that overlapping rectangles are merged into one.
+     */
+    @Test
+    public void testAdd_MergesOverlapping() {
+        regions.add(10, 10, 30, 30);
+        regions.add(20, 20, 40, 40);
+
+        assertEquals(1, regions.size());
+        assertEquals(10, regions.getX(0));
+        assertEquals(30, regions.getWidth(0));
+        assertTrue(regions.overlaps(0, 35, 35, 50, 50));
+        assertFalse(regions.overlaps(0, 40, 40, 50, 50));
+    }
+
+    /**
+     * Tests that the whole layer is marked once there are too many rectangles, until cleared.
+     */
+    @Test
+    public void testAdd_OverflowMarksAll() {
+        regions.add(0, 0, 10, 10);
+        regions.add(20, 20, 30, 30);
+        assertFalse(regions.isAll());
+
+        regions.add(40, 40, 50, 50);
+
+        assertTrue(regions.isAll());
+        assertEquals(0, regions.size());
+        assertFalse(regions.isEmpty());
+
+        regions.clear();
+        assertTrue(regions.isEmpty());
+        assertFalse(regions.isAll());
+    }
+}
@@ -0,0 +1,113 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Test class for the DistanceField class, and for balls skipping their surroundings in open space.
+ */
+public class DistanceFieldTest {
+
+    /**
+     * Tests that distances grow by one a cell in every direction, diagonals included.
+     */
+    @Test
+    public void testOf_Distances() {
+        Board board = new Board(10, 12);
+        board.set(4, 5, new Wall(5 * App.CELL_SIZE + Tile.HALF_SIZE, 4 * App.CELL_SIZE + Tile.HALF_SIZE, 0));
+        board.set(0, 0, new Spawner(Tile.HALF_SIZE, Tile.HALF_SIZE));
+
+        DistanceField field = DistanceField.of(board);
+
+        assertEquals(0, field.getDistance(4, 5));
+        assertEquals(1, field.getDistance(5, 6));
+        assertEquals(1, field.getDistance(3, 5));
+        assertEquals(2, field.getDistance(2, 3));
+        assertEquals(6, field.getDistance(9, 11));
+        assertEquals(5, field.getDistance(0, 0));
+        assertTrue(field.isFor(board));
+        assertFalse(field.isFor(new Board(10, 12)));
+    }
+
+    /**
+     * Tests that an empty board is open everywhere.
+     */
+    @Test
+    public void testOf_EmptyBoard() {
+        DistanceField field = DistanceField.of(new Board(4, 4));
+
+        assertEquals(DistanceField.MAX_DISTANCE, field.getDistance(2, 2));
+    }
+
+    /**
+     * Tests that the clearance of a point is a cell less than the distance of its cell, and
+     * nothing off the board.
+     */
+    @Test
+    public void testGetClearance() {
+        Board board = new Board(10, 10);
+        board.set(0, 0, new Wall(Tile.HALF_SIZE, Tile.HALF_SIZE, 0));
+        DistanceField field = DistanceField.of(board);
+
+        assertEquals(0, field.getClearance(40, 40));
+        assertEquals(2 * App.CELL_SIZE, field.getClearance(3 * App.CELL_SIZE + 1, 10));
+        assertEquals(0, field.getClearance(-1, 100));
+        assertEquals(0, field.getClearance(100, 10 * App.CELL_SIZE));
+    }
+
+    /**
+     * Tests that the field of a compiled level matches the field of the same board fully loaded.
+     */
+    @Test
+    public void testOf_CompiledLevel() throws IOException {
+        Path compiled = Files.createTempFile("inkball", LevelCompiler.EXTENSION);
+        try {
+            LevelCompiler.compile(new Level("level2.txt", 60, 5, 1, 1, Arrays.asList("grey")), compiled);
+            CompiledLevel level = CompiledLevel.open(compiled);
+            Simulation simulation = new Simulation("config.json");
+            simulation.loadLayout("level2.txt");
+
+            DistanceField fromLevel = DistanceField.of(level, simulation.board);
+            DistanceField fromBoard = DistanceField.of(simulation.board);
+
+            for (int row = 0; row < level.getRows(); row++) {
+                for (int column = 0; column < level.getColumns(); column++) {
+                    assertEquals(fromBoard.getDistance(row, column), fromLevel.getDistance(row, column));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(compiled);
+        }
+    }
+
+    /**
+     * Tests that a ball in open space skips its surroundings and still moves, and that a ball
+     * near a wall still hits it.
+     */
+    @Test
+    public void testUpdateBalls_OpenSpace() {
+        Simulation simulation = new Simulation("config.json");
+        simulation.step();
+        simulation.board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        simulation.board.set(9, 2, new Wall(2 * App.CELL_SIZE + Tile.HALF_SIZE, 9 * App.CELL_SIZE + Tile.HALF_SIZE, 0));
+        simulation.ballsOnScreen.clear();
+        Ball open = new Ball(300, 300, 0, null);
+        open.setVelocity(2, 2);
+        Ball near = new Ball(3 * App.CELL_SIZE + Ball.RADIUS - 1, 9 * App.CELL_SIZE + Tile.HALF_SIZE, 0, null);
+        near.setVelocity(-2, 0);
+        simulation.ballsOnScreen.add(open);
+        simulation.ballsOnScreen.add(near);
+
+        simulation.updateBalls();
+
+        assertTrue(simulation.distanceField.isFor(simulation.board));
+        assertTrue(open.getSurroundingTiles().isEmpty());
+        assertEquals(302, open.getCenterXPosition(), 0.001);
+        assertEquals(2, near.getVelocityX(), 0.001);
+    }
+}
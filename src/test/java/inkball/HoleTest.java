@@ -34,9 +34,9 @@ public class HoleTest {
         hole = new Hole(100, 100, 2);
 
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
-        assertFalse(app.getBallsToBeRemoved().contains(ball));
+        assertFalse(app.simulation.getBallsToBeRemoved().contains(ball));
     }
 
     /**
@@ -48,14 +48,14 @@ public class HoleTest {
         ball = new Ball(100, 100, 0, null); // Color 0 (e.g. grey)
         hole = new Hole(100, 100, 2); // Color 2 (e.g. blue)
 
-        app.currentScore = 0; // Set initial score
+        app.simulation.currentScore = 0; // Set initial score
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
         // Score should increase because ball color is 0 (grey)
-        assertEquals(70, app.currentScore); // From score_increase_from_hole_capture
+        assertEquals(70, app.simulation.currentScore); // From score_increase_from_hole_capture
     }
 
     /** 
@@ -67,14 +67,14 @@ public class HoleTest {
         ball = new Ball(100, 100, 2, null); // Color 2 (e.g. blue)
         hole = new Hole(100, 100, 0); // Color 0 (e.g. gray)
 
-        app.currentScore = 0; // Set initial score
+        app.simulation.currentScore = 0; // Set initial score
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
         // Score should increase because hole color is 0 (grey)
-        assertEquals(50, app.currentScore); // From score_increase_from_hole_capture
+        assertEquals(50, app.simulation.currentScore); // From score_increase_from_hole_capture
     }
 
     /**
@@ -86,14 +86,14 @@ public class HoleTest {
         ball = new Ball(100, 100, 0, null); // Color 0 (e.g. gray)
         hole = new Hole(100, 100, 0); // Color 0 (e.g. gray)
 
-        app.currentScore = 0; // Set initial score
+        app.simulation.currentScore = 0; // Set initial score
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
         // Score should increase
-        assertEquals(70, app.currentScore); // From score_increase_from_hole_capture
+        assertEquals(70, app.simulation.currentScore); // From score_increase_from_hole_capture
     }
 
     /**
@@ -107,14 +107,14 @@ public class HoleTest {
 
         hole.setColor(4);
 
-        app.currentScore = 100; // Set initial score
+        app.simulation.currentScore = 100; // Set initial score
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
         // Score should decrease
-        assertEquals(75, app.currentScore); // 100 - 25 (from score_decrease_from_wrong_hole)
+        assertEquals(75, app.simulation.currentScore); // 100 - 25 (from score_decrease_from_wrong_hole)
     }
 
     /**
@@ -125,15 +125,15 @@ public class HoleTest {
         // Initialize a hole and a ball
         ball = new Ball(110, 110, 1, null); // Color 1 (e.g. orange)
         hole = new Hole(100, 100, 2); // Color 2 (e.g. blue)
-        app.currentScore = 10; // Set initial score low
+        app.simulation.currentScore = 10; // Set initial score low
 
         float distance = ball.distanceTo(hole);
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
         // Score should be set to zero (cannot be negative)
-        assertEquals(0, app.currentScore);
+        assertEquals(0, app.simulation.currentScore);
     }
 
     /**
@@ -145,24 +145,24 @@ public class HoleTest {
         // Initialize a hole and a ball
         ball = new Ball(110, 110, 1, null);
         hole = new Hole(100, 100, 2);
-        ball.centerXPosition = hole.centerXPosition + tolerance;
-        ball.centerYPosition = hole.centerYPosition + tolerance;
+        ball.setCenterXPosition(hole.centerXPosition + tolerance);
+        ball.setCenterYPosition(hole.centerYPosition + tolerance);
         float distance = ball.distanceTo(hole);
 
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should not be marked for removal (since it's exactly at tolerance)
-        assertFalse(app.getBallsToBeRemoved().contains(ball));
+        assertFalse(app.simulation.getBallsToBeRemoved().contains(ball));
 
         // Now move ball just inside the tolerance
-        ball.centerXPosition = hole.centerXPosition + tolerance - 0.01f;
-        ball.centerYPosition = hole.centerYPosition + tolerance - 0.01f;
+        ball.setCenterXPosition(hole.centerXPosition + tolerance - 0.01f);
+        ball.setCenterYPosition(hole.centerYPosition + tolerance - 0.01f);
         distance = ball.distanceTo(hole);
 
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
     }
 
     /**
@@ -177,10 +177,10 @@ public class HoleTest {
         ball.setCenterYPosition(hole.getCenterYPosition());
         float distance = ball.distanceTo(hole);
 
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball should be marked for removal
-        assertTrue(app.getBallsToBeRemoved().contains(ball));
+        assertTrue(app.simulation.getBallsToBeRemoved().contains(ball));
     }
 
     /**
@@ -196,7 +196,7 @@ public class HoleTest {
         float initialVelocityY = ball.getVelocity().y;
         float distance = ball.distanceTo(hole);
 
-        hole.handleAttraction(ball, distance);
+        hole.handleAttraction(ball, distance, 1, app.simulation);
 
         // Ball's velocity should have changed
         assertNotEquals(initialVelocityX, ball.getVelocity().x);
@@ -212,18 +212,43 @@ public class HoleTest {
         ball = new Ball(110, 110, 1, null);
         hole = new Hole(100, 100, 2);
 
-        ball.setVelocity(null);
-        float distance = ball.distanceTo(hole);
-
-        // Expecting an exception or handling of null velocity
+        // Velocities are stored as numbers, so a null velocity is rejected straight away
         try {
-            hole.handleAttraction(ball, distance);
+            ball.setVelocity(null);
             fail("Expected an exception due to null velocity");
         } catch (NullPointerException e) {
             // Test passes if NullPointerException is thrown
         }
     }
 
+    /**
+     * Tests that a ball out of reach of the hole is left alone.
+     */
+    @Test
+    public void testAttract_OutOfReach() {
+        ball = new Ball(100 + Hole.ATTRACTION_RADIUS + 1, 100, 1, null);
+        ball.setVelocity(1, 1);
+        hole = new Hole(100, 100, 2);
+
+        assertEquals(-1, hole.attract(ball, 1, app.simulation));
+        assertEquals(1, ball.getVelocityX(), 0.0001);
+        assertEquals(1, ball.getVelocityY(), 0.0001);
+    }
+
+    /**
+     * Tests that a ball within reach of the hole is pulled towards it and shrunk.
+     */
+    @Test
+    public void testAttract_InReach() {
+        ball = new Ball(120, 100, 1, null);
+        ball.setVelocity(0, 0);
+        hole = new Hole(100, 100, 2);
+
+        assertEquals((int) (20f / Hole.ATTRACTION_RADIUS * 2 * Ball.RADIUS), hole.attract(ball, 1, app.simulation));
+        assertTrue(ball.getVelocityX() < 0);
+        assertEquals(0, ball.getVelocityY(), 0.0001);
+    }
+
     /**
      * Test getColor works properly
      */
@@ -0,0 +1,124 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test class for the InputRecorder and InputReplay classes.
+ */
+public class InputReplayTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Plays a scripted game while recording it.
+     *
+     * @param file The recording to write.
+     * @return The game, in the state it ended in.
+     */
+    private Simulation playRecorded(Path file) throws IOException {
+        Simulation simulation = new Simulation("config.json");
+        simulation.setSeed(5);
+        simulation.recorder = new InputRecorder(file, "config.json", simulation);
+
+        simulation.step(40);
+        simulation.addLinePoint(100, 300);
+        simulation.step();
+        simulation.addLinePoint(200, 320);
+        simulation.addLinePoint(300, 300);
+        simulation.finishLine();
+        simulation.step(30);
+        simulation.togglePause();
+        simulation.step(10);
+        simulation.togglePause();
+        simulation.addLinePoint(50, 50);
+        simulation.addLinePoint(50, 150);
+        simulation.finishLine();
+        simulation.step(200);
+        simulation.removeLineAt(200, 320);
+        simulation.step(100);
+        simulation.restartLevel();
+        simulation.step(60);
+        simulation.addLinePoint(400, 100);
+        simulation.addLinePoint(450, 150);
+        simulation.finishLine();
+        simulation.step(30);
+
+        simulation.recorder.close();
+        simulation.recorder = null;
+        return simulation;
+    }
+
+    /**
+     * Tests that a replay ends in exactly the state the recorded game ended in.
+     */
+    @Test
+    public void testPlay_MatchesRecordedGame() throws IOException {
+        Path file = directory.resolve("game.inkr");
+        Simulation recorded = playRecorded(file);
+
+        InputReplay replay = new InputReplay(file);
+        Simulation replayed = replay.play();
+
+        assertEquals("config.json", replay.getConfigPath());
+        assertEquals(5, replay.getSeed());
+        assertEquals(recorded.stepCount, replay.getStepCount());
+        assertEquals(recorded.stepCount, replayed.stepCount);
+        assertEquals(recorded.gameState, replayed.gameState);
+        assertEquals(recorded.currentScore, replayed.currentScore);
+        assertEquals(recorded.capturedBalls, replayed.capturedBalls);
+        assertEquals(recorded.levelTime, replayed.levelTime);
+        assertEquals(recorded.lines.size(), replayed.lines.size());
+        assertEquals(recorded.ballsOnScreen.size(), replayed.ballsOnScreen.size());
+        for (int i = 0; i < recorded.ballsOnScreen.size(); i++) {
+            Ball expected = recorded.ballsOnScreen.get(i);
+            Ball actual = replayed.ballsOnScreen.get(i);
+            assertEquals(expected.getCenterXPosition(), actual.getCenterXPosition());
+            assertEquals(expected.getCenterYPosition(), actual.getCenterYPosition());
+            assertEquals(expected.getVelocityX(), actual.getVelocityX());
+            assertEquals(expected.getVelocityY(), actual.getVelocityY());
+        }
+    }
+
+    /**
+     * Tests that events cost a few bytes each, not a frame of state.
+     */
+    @Test
+    public void testRecord_Compact() throws IOException {
+        Path file = directory.resolve("game.inkr");
+        playRecorded(file);
+
+        InputReplay replay = new InputReplay(file);
+
+        // Header of 4 + 1 + 2 + 11 + 8 bytes, then at most 2 + 1 + 8 bytes an event
+        assertEquals(15, replay.getEventCount());
+        assertTrue(Files.size(file) <= 26 + 15 * 11, "size " + Files.size(file));
+    }
+
+    /**
+     * Tests that a file that is not a recording is rejected.
+     */
+    @Test
+    public void testLoad_RejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.inkr");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x12345678);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(file));
+
+        Path truncated = directory.resolve("truncated.inkr");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(truncated))) {
+            out.writeInt(InputRecorder.MAGIC);
+            out.writeByte(InputRecorder.VERSION);
+            out.writeUTF("config.json");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(truncated));
+    }
+}
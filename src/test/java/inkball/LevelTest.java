@@ -31,4 +31,26 @@ public class LevelTest {
         assertEquals(scoreDecreaseModifier, level.getScoreDecreaseModifier(), 0.001);
         assertEquals(balls, level.getBalls());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that continuous collision detection is off unless a level asks for it.
+     */
+    @Test
+    public void testContinuousCollision() {
+        List<String> balls = Arrays.asList("orange");
+
+        assertFalse(new Level("level1.txt", 120, 10, 1.0f, 1.0f, balls).isContinuousCollision());
+        assertTrue(new Level("level1.txt", 120, 10, 1.0f, 1.0f, balls, true).isContinuousCollision());
+    }
+
+    /**
+     * Tests that balls pass through each other unless a level asks for them to collide.
+     */
+    @Test
+    public void testBallCollisions() {
+        List<String> balls = Arrays.asList("orange");
+
+        assertFalse(new Level("level1.txt", 120, 10, 1.0f, 1.0f, balls, true).isBallCollisions());
+        assertTrue(new Level("level1.txt", 120, 10, 1.0f, 1.0f, balls, false, true).isBallCollisions());
+    }
+}
@@ -0,0 +1,131 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import processing.core.PVector;
+
+import java.util.Arrays;
+
+/**
+ * Test class for the Line class, covering its bounding box, point storage and simplification.
+ */
+public class LineTest {
+
+    /**
+     * Tests that the bounding box covers the points the line was constructed with.
+     */
+    @Test
+    public void testBounds_FromConstructor() {
+        Line line = new Line(Arrays.asList(new PVector(50, 80), new PVector(10, 120), new PVector(30, 20)));
+
+        assertEquals(10, line.getMinX(), 0.001);
+        assertEquals(20, line.getMinY(), 0.001);
+        assertEquals(50, line.getMaxX(), 0.001);
+        assertEquals(120, line.getMaxY(), 0.001);
+    }
+
+    /**
+     * Tests that the bounding box grows as points are appended.
+     */
+    @Test
+    public void testBounds_GrowWithPoints() {
+        Line line = new Line();
+        line.addPoint(new PVector(100, 100));
+
+        assertEquals(100, line.getMinX(), 0.001);
+        assertEquals(100, line.getMaxY(), 0.001);
+
+        line.addPoint(new PVector(150, 60));
+
+        assertEquals(100, line.getMinX(), 0.001);
+        assertEquals(60, line.getMinY(), 0.001);
+        assertEquals(150, line.getMaxX(), 0.001);
+        assertEquals(100, line.getMaxY(), 0.001);
+    }
+
+    /**
+     * Tests that points beyond the initial capacity are kept in order.
+     */
+    @Test
+    public void testAddPoint_Grows() {
+        Line line = new Line();
+        for (int i = 0; i < 100; i++) {
+            line.addPoint(i, 2 * i);
+        }
+
+        assertEquals(100, line.size());
+        assertEquals(99, line.getX(99), 0.001);
+        assertEquals(198, line.getY(99), 0.001);
+        assertEquals(new PVector(40, 80), line.getPoint(40));
+    }
+
+    /**
+     * Tests that asking for a point past the end fails.
+     */
+    @Test
+    public void testGetPoint_OutOfRange() {
+        Line line = new Line(Arrays.asList(new PVector(1, 2), new PVector(3, 4)));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> line.getPoint(2));
+    }
+
+    /**
+     * Tests that points within the tolerance of a straight run are taken out, keeping the ends.
+     */
+    @Test
+    public void testSimplify_StraightRun() {
+        Line line = new Line();
+        for (int i = 0; i <= 10; i++) {
+            line.addPoint(i * 10, i % 2 == 0 ? 0 : 1);
+        }
+
+        assertTrue(line.simplify(2));
+
+        assertEquals(2, line.size());
+        assertEquals(new PVector(0, 0), line.getPoint(0));
+        assertEquals(new PVector(100, 0), line.getPoint(1));
+    }
+
+    /**
+     * Tests that corners further than the tolerance are kept, and that the bounding box still
+     * covers the points taken out.
+     */
+    @Test
+    public void testSimplify_KeepsCorners() {
+        Line line = new Line(Arrays.asList(new PVector(0, 0), new PVector(50, 1), new PVector(100, 0),
+            new PVector(100, 50), new PVector(101, 75), new PVector(100, 100)));
+
+        assertTrue(line.simplify(2));
+
+        assertEquals(Arrays.asList(new PVector(0, 0), new PVector(100, 0), new PVector(100, 100)), line.getPoints());
+        assertEquals(101, line.getMaxX(), 0.001);
+        assertEquals(0, line.getMinY(), 0.001);
+    }
+
+    /**
+     * Tests that a line with nothing to take out is left as it is.
+     */
+    @Test
+    public void testSimplify_NothingToTakeOut() {
+        Line line = new Line(Arrays.asList(new PVector(0, 0), new PVector(50, 50), new PVector(100, 0)));
+
+        assertFalse(line.simplify(2));
+        assertEquals(3, line.size());
+        assertFalse(new Line().simplify(2));
+    }
+
+    /**
+     * Tests that the bounding box overlaps rectangles it touches, and that an empty line overlaps nothing.
+     */
+    @Test
+    public void testOverlaps() {
+        Line line = new Line(Arrays.asList(new PVector(10, 20), new PVector(30, 40)));
+
+        assertTrue(line.overlaps(25, 35, 50, 50));
+        assertTrue(line.overlaps(30, 40, 50, 50));
+        assertFalse(line.overlaps(31, 0, 50, 50));
+        assertFalse(line.overlaps(0, 0, 50, 19));
+        assertFalse(new Line().overlaps(0, 0, App.WIDTH, App.WIDTH));
+    }
+}
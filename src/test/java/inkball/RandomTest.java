@@ -0,0 +1,117 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Test class for the Random class, and for games being reproducible from their seed.
+ */
+public class RandomTest {
+
+    /**
+     * Tests the first outputs against the reference xoshiro256** seeded through SplitMix64.
+     */
+    @Test
+    public void testNextLong_ReferenceValues() {
+        Random random = new Random(42);
+
+        assertEquals(1546998764402558742L, random.nextLong());
+        assertEquals(6990951692964543102L, random.nextLong());
+        assertEquals(-5902157311460992607L, random.nextLong());
+    }
+
+    /**
+     * Tests that the SplitMix64 finalizer matches its reference output.
+     */
+    @Test
+    public void testMix_ReferenceValue() {
+        assertEquals(0xE220A8397B1DCDAFL, Random.mix(0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Tests that setting the seed starts the same sequence again.
+     */
+    @Test
+    public void testSetSeed_Repeats() {
+        Random random = new Random(7);
+        long first = random.nextLong();
+        random.nextLong();
+
+        random.setSeed(7);
+
+        assertEquals(first, random.nextLong());
+    }
+
+    /**
+     * Tests that a generator given another's state carries on its sequence.
+     */
+    @Test
+    public void testSetState_CarriesOn() {
+        Random random = new Random(5);
+        random.nextLong();
+        Random copy = new Random(6);
+
+        copy.setState(random.getState());
+
+        assertEquals(random.nextLong(), copy.nextLong());
+        assertThrows(IllegalArgumentException.class, () -> copy.setState(new long[4]));
+    }
+
+    /**
+     * Tests that bounded ints stay in range and reach every value about equally often.
+     */
+    @Test
+    public void testNextInt_Bounded() {
+        Random random = new Random(1);
+        int[] counts = new int[6];
+        for (int i = 0; i < 60000; i++) {
+            counts[random.nextInt(6)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9500 && count < 10500, "count " + count);
+        }
+        assertEquals(0, random.nextInt(1));
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+    }
+
+    /**
+     * Tests that floats and doubles are in [0, 1).
+     */
+    @Test
+    public void testNextFloat_Range() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            float f = random.nextFloat();
+            double d = random.nextDouble();
+            assertTrue(f >= 0 && f < 1);
+            assertTrue(d >= 0 && d < 1);
+        }
+    }
+
+    /**
+     * Tests that two games with the same seed spawn the same balls with the same velocities.
+     */
+    @Test
+    public void testSimulation_SameSeedSameGame() {
+        Simulation first = new Simulation("config.json");
+        first.setSeed(99);
+        Simulation second = new Simulation("config.json");
+        second.setSeed(99);
+
+        for (int i = 0; i < 600; i++) {
+            first.step();
+            second.step();
+        }
+
+        assertEquals(99, first.getSeed());
+        assertEquals(first.currentScore, second.currentScore);
+        assertEquals(first.ballsOnScreen.size(), second.ballsOnScreen.size());
+        assertTrue(first.ballsOnScreen.size() + first.capturedBalls > 1);
+        assertEquals(first.capturedBalls, second.capturedBalls);
+        for (int i = 0; i < first.ballsOnScreen.size(); i++) {
+            assertEquals(first.ballsOnScreen.get(i).getCenterXPosition(), second.ballsOnScreen.get(i).getCenterXPosition());
+            assertEquals(first.ballsOnScreen.get(i).getCenterYPosition(), second.ballsOnScreen.get(i).getCenterYPosition());
+            assertEquals(first.ballsOnScreen.get(i).getVelocityX(), second.ballsOnScreen.get(i).getVelocityX());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import processing.core.PVector;
+
+/**
+ * Test class for the SegmentGrid class, covering insertion, removal and area queries.
+ */
+public class SegmentGridTest {
+
+    private SegmentGrid grid;
+    private List<SegmentGrid.Segment> result;
+
+    @BeforeEach
+    public void setUp() {
+        grid = new SegmentGrid(App.BOARD_SIZE, App.BOARD_SIZE);
+        result = new ArrayList<>();
+    }
+
+    /**
+     * Tests that a segment is found near itself but not far away.
+     */
+    @Test
+    public void testQuery_NearAndFar() {
+        Line line = new Line(Arrays.asList(new PVector(40, 40), new PVector(50, 50)));
+        grid.insertAll(line);
+
+        grid.query(35, 35, 45, 45, result);
+        assertEquals(1, result.size());
+        assertSame(line, result.get(0).getLine());
+
+        result.clear();
+        grid.query(300, 300, 310, 310, result);
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Tests that a segment covering many cells is only reported once.
+     */
+    @Test
+    public void testQuery_LongSegmentReportedOnce() {
+        Line line = new Line(Arrays.asList(new PVector(10, 10), new PVector(300, 300)));
+        grid.insertAll(line);
+
+        grid.query(0, 0, App.WIDTH, App.WIDTH, result);
+
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getIndex());
+    }
+
+    /**
+     * Tests that removing a line removes all of its segments.
+     */
+    @Test
+    public void testRemove() {
+        Line line = new Line(Arrays.asList(new PVector(10, 10), new PVector(100, 10), new PVector(100, 100)));
+        grid.insertAll(line);
+
+        grid.remove(line);
+        grid.query(0, 0, App.WIDTH, App.WIDTH, result);
+
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Tests that segments off the edge of the board are kept in the edge cells.
+     */
+    @Test
+    public void testQuery_OutsideBoardIsClamped() {
+        Line line = new Line(Arrays.asList(new PVector(-20, -20), new PVector(-10, -10)));
+        grid.insertAll(line);
+
+        grid.query(-15, -15, -5, -5, result);
+
+        assertEquals(1, result.size());
+    }
+
+    /**
+     * Tests that a segment's bounding box tells apart rectangles in the same cell.
+     */
+    @Test
+    public void testSegment_Overlaps() {
+        Line line = new Line(Arrays.asList(new PVector(40, 40), new PVector(50, 50)));
+        grid.insertAll(line);
+        grid.query(40, 40, 50, 50, result);
+        SegmentGrid.Segment segment = result.get(0);
+
+        assertTrue(segment.overlaps(45, 45, 60, 60));
+        assertTrue(segment.overlaps(50, 50, 60, 60));
+        assertFalse(segment.overlaps(51, 33, 60, 39));
+        assertFalse(segment.overlaps(33, 51, 39, 60));
+    }
+}
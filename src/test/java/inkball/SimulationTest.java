@@ -0,0 +1,675 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import processing.core.PVector;
+
+/**
+ * Test class for the Simulation class, stepping the game without a Processing window.
+ */
+public class SimulationTest {
+
+    private Simulation simulation;
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new Simulation("config.json");
+    }
+
+    /**
+     * Tests that the first step loads the first level from the config.
+     */
+    @Test
+    public void testStep_LoadsFirstLevel() {
+        simulation.step();
+
+        assertTrue(simulation.levelLoaded);
+        assertEquals("extension.txt", simulation.layout);
+        assertNotNull(simulation.board);
+        assertEquals(1, simulation.ballsOnScreen.size()); // B2 in extension.txt
+        assertEquals(6, simulation.ballsInQueue.size());
+        assertEquals(App.FPS * 120 - 1, simulation.levelFrames);
+    }
+
+    /**
+     * Tests that stepping several frames at once counts down the level timer.
+     */
+    @Test
+    public void testStep_MultipleFrames() {
+        simulation.step(App.FPS * 2);
+
+        assertEquals(GameState.RUNNING, simulation.gameState);
+        assertEquals(App.FPS * 118, simulation.levelFrames);
+        assertEquals(118, simulation.levelTime);
+    }
+
+    /**
+     * Tests that a ball is spawned once the spawn interval has passed.
+     */
+    @Test
+    public void testStep_SpawnsBallFromQueue() {
+        simulation.step(App.FPS * 10);
+
+        assertEquals(5, simulation.ballsInQueue.size());
+        assertEquals(2, simulation.ballsOnScreen.size());
+    }
+
+    /**
+     * Tests that a spawn is only marked once the spawn timer has run out after the level loaded.
+     */
+    @Test
+    public void testStep_MarksBallSpawned() {
+        simulation.step();
+        assertFalse(simulation.ballSpawned);
+
+        simulation.step(App.FPS * 10);
+        assertTrue(simulation.ballSpawned);
+
+        simulation.loadLevel(1);
+        assertFalse(simulation.ballSpawned);
+    }
+
+    /**
+     * Tests that nothing moves while the game is paused.
+     */
+    @Test
+    public void testStep_Paused() {
+        simulation.step();
+        simulation.togglePause();
+        int levelFrames = simulation.levelFrames;
+        float ballX = simulation.ballsOnScreen.get(0).getCenterXPosition();
+
+        simulation.step(10);
+
+        assertEquals(levelFrames, simulation.levelFrames);
+        assertEquals(ballX, simulation.ballsOnScreen.get(0).getCenterXPosition(), 0.001);
+    }
+
+    /**
+     * Tests that a finished level moves on to the completion animation.
+     */
+    @Test
+    public void testStep_LevelCompletion() {
+        simulation.step();
+        simulation.ballsOnScreen.clear();
+        simulation.ballsInQueue.clear();
+
+        simulation.step();
+        assertEquals(GameState.LEVEL_COMPLETION_ANIMATION, simulation.gameState);
+
+        int score = simulation.currentScore;
+        simulation.step(2);
+        assertEquals(score + 1, simulation.currentScore);
+    }
+
+    /**
+     * Tests drawing a line point by point and then removing it.
+     */
+    @Test
+    public void testDrawAndRemoveLine() {
+        simulation.step();
+        simulation.addLinePoint(50, 50);
+        simulation.addLinePoint(100, 100);
+        assertTrue(simulation.drawing);
+
+        simulation.finishLine();
+        assertFalse(simulation.drawing);
+        assertEquals(1, simulation.lines.size());
+
+        simulation.removeLineAt(75, 75);
+        assertTrue(simulation.lines.isEmpty());
+    }
+
+    /**
+     * Tests that a finished stroke keeps only the points it bends at, and that its simplified
+     * segments are the ones indexed for collisions.
+     */
+    @Test
+    public void testFinishLine_Simplifies() {
+        simulation.step();
+        for (int i = 0; i <= 40; i++) {
+            simulation.addLinePoint(100 + i * 5, 100 + (i % 2) * 0.5f);
+        }
+        for (int i = 1; i <= 20; i++) {
+            simulation.addLinePoint(300, 100 + i * 5);
+        }
+
+        simulation.finishLine();
+
+        Line line = simulation.lines.get(0);
+        assertEquals(3, line.size());
+        assertEquals(new PVector(300, 100), line.getPoint(1));
+        ArrayList<SegmentGrid.Segment> segments = new ArrayList<>();
+        simulation.lineGrid.query(0, 0, App.WIDTH, App.WIDTH, segments);
+        assertEquals(2, segments.size());
+
+        simulation.removeLineAt(300, 150);
+        assertTrue(simulation.lines.isEmpty());
+    }
+
+    /**
+     * Tests that a tolerance of 0 keeps every point of a stroke.
+     */
+    @Test
+    public void testFinishLine_NoTolerance() {
+        simulation.step();
+        simulation.lineTolerance = 0;
+        for (int i = 0; i <= 40; i++) {
+            simulation.addLinePoint(100 + i * 5, 100);
+        }
+
+        simulation.finishLine();
+
+        assertEquals(41, simulation.lines.get(0).size());
+    }
+
+    /**
+     * Tests that a line hit by a ball is removed.
+     */
+    @Test
+    public void testUpdateLines_RemovesHitLine() {
+        simulation.step();
+        Ball ball = simulation.ballsOnScreen.get(0);
+        float x = ball.getCenterXPosition();
+        float y = ball.getCenterYPosition();
+        simulation.addLine(Arrays.asList(new PVector(x - 20, y), new PVector(x + 20, y)));
+
+        simulation.updateLines();
+
+        assertTrue(simulation.lines.isEmpty());
+    }
+
+    /**
+     * Tests that a ball captured by the right hole increases the score.
+     */
+    @Test
+    public void testCapture_IncreasesScore() {
+        simulation.step();
+        Hole hole = new Hole(100, 100, 0);
+        Ball ball = new Ball(100, 100, 1, null);
+
+        hole.handleAttraction(ball, 0, 1, simulation);
+
+        assertEquals(50, simulation.currentScore);
+        assertTrue(simulation.getBallsToBeRemoved().contains(ball));
+    }
+
+    /**
+     * Tests that a capture is scored in the simulation stepping the ball, not in whichever
+     * simulation was created last.
+     */
+    @Test
+    public void testCapture_ScoredInOwnSimulation() {
+        simulation.step();
+        simulation.ballsInQueue.clear();
+        simulation.ballsOnScreen.clear();
+        simulation.board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        Hole hole = new Hole(100, 100, 0);
+        simulation.board.set(2, 2, hole);
+        simulation.board.set(2, 3, hole);
+        simulation.board.set(3, 2, hole);
+        simulation.board.set(3, 3, hole);
+        Ball ball = new Ball(100, 100, 1, null);
+        ball.setVelocity(0, 0);
+        simulation.ballsOnScreen.add(ball);
+
+        Simulation other = new Simulation("config.json");
+
+        simulation.updateBalls();
+
+        assertEquals(50, simulation.currentScore);
+        assertTrue(simulation.ballsOnScreen.isEmpty());
+        assertEquals(0, other.currentScore);
+        assertTrue(other.getBallsToBeRemoved().isEmpty());
+    }
+
+    /**
+     * Tests that the accumulator runs one step per whole step length and carries the remainder.
+     */
+    @Test
+    public void testAdvance_FixedTimestep() {
+        simulation.setPhysicsHz(120);
+
+        assertEquals(0, simulation.advance(5));
+        assertEquals(1, simulation.advance(5));
+        assertEquals(0.2f, simulation.getInterpolationAlpha(), 0.001);
+        assertEquals(12, simulation.advance(100));
+    }
+
+    /**
+     * Tests that a stalled frame only catches up on a bounded amount of time.
+     */
+    @Test
+    public void testAdvance_ClampsLongFrames() {
+        assertEquals((int) (Simulation.MAX_FRAME_MILLIS / simulation.getStepMillis()), simulation.advance(10000));
+    }
+
+    /**
+     * Tests that a higher physics rate moves balls the same distance per second in open space.
+     */
+    @Test
+    public void testStep_PhysicsRateIndependent() {
+        Simulation fast = new Simulation("config.json");
+        fast.setPhysicsHz(120);
+        simulation.step();
+        fast.step();
+        Ball ball = simulation.ballsOnScreen.get(0);
+        Ball fastBall = fast.ballsOnScreen.get(0);
+        fastBall.setVelocity(ball.getVelocity().copy());
+        fastBall.setCenterXPosition(ball.getCenterXPosition());
+        fastBall.setCenterYPosition(ball.getCenterYPosition());
+
+        simulation.step(2);
+        fast.step(8);
+
+        assertEquals(ball.getCenterXPosition(), fastBall.getCenterXPosition(), 0.001);
+        assertEquals(ball.getCenterYPosition(), fastBall.getCenterYPosition(), 0.001);
+        assertEquals(App.FPS * 120 - 3, simulation.levelFrames);
+        assertEquals(120 * 120 - 9, fast.levelFrames);
+    }
+
+    /**
+     * Tests that drawn positions blend between the last two physics steps.
+     */
+    @Test
+    public void testInterpolatedPosition() {
+        Ball ball = new Ball(100, 100, 0, null);
+        ball.setVelocity(new PVector(2, 0));
+        ball.savePreviousPosition();
+        ball.updatePosition();
+
+        assertEquals(101, ball.getInterpolatedXPosition(0.5f), 0.001);
+        assertEquals(100, ball.getInterpolatedYPosition(0.5f), 0.001);
+    }
+
+    /**
+     * Tests that removing at a point shared by two lines removes the one drawn first.
+     */
+    @Test
+    public void testRemoveLineAt_EarliestLine() {
+        simulation.step();
+        Line first = simulation.addLine(Arrays.asList(new PVector(50, 50), new PVector(100, 100)));
+        Line second = simulation.addLine(Arrays.asList(new PVector(50, 100), new PVector(100, 50)));
+
+        simulation.removeLineAt(75, 75);
+
+        assertEquals(1, simulation.lines.size());
+        assertSame(second, simulation.lines.get(0));
+        assertFalse(simulation.lines.contains(first));
+    }
+
+    /**
+     * Tests that a line next to a ball, but out of its reach this step, is neither hit nor removed.
+     */
+    @Test
+    public void testUpdateLines_IgnoresLineOutOfReach() {
+        simulation.step();
+        Ball ball = simulation.ballsOnScreen.get(0);
+        float x = ball.getCenterXPosition();
+        float y = ball.getCenterYPosition();
+        PVector velocity = ball.getVelocity().copy();
+        float reach = Ball.RADIUS + velocity.mag() * simulation.getTimeStep();
+        simulation.addLine(Arrays.asList(new PVector(x + reach + 1, y - 5), new PVector(x + reach + 1, y + 5)));
+
+        simulation.updateLines();
+
+        assertEquals(velocity, ball.getVelocity());
+        assertEquals(1, simulation.lines.size());
+    }
+
+    /**
+     * Tests that a line still being drawn does not block balls.
+     */
+    @Test
+    public void testUpdateLines_IgnoresUnfinishedLine() {
+        simulation.step();
+        Ball ball = simulation.ballsOnScreen.get(0);
+        float x = ball.getCenterXPosition();
+        float y = ball.getCenterYPosition();
+        PVector velocity = ball.getVelocity().copy();
+        simulation.addLinePoint(x - 20, y);
+        simulation.addLinePoint(x + 20, y);
+
+        simulation.updateLines();
+
+        assertEquals(velocity, ball.getVelocity());
+        simulation.finishLine();
+        simulation.updateLines();
+        assertTrue(simulation.lines.isEmpty());
+    }
+
+    /**
+     * Tests that steady-state steps with balls bouncing between walls and moving past drawn lines
+     * allocate nothing on the heap.
+     */
+    @Test
+    public void testStep_SteadyStateDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        simulation.step();
+        simulation.board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        for (int row = 0; row < App.BOARD_SIZE; row++) {
+            float y = row * App.CELL_SIZE + Tile.HALF_SIZE;
+            simulation.board.set(row, 0, new Wall(Tile.HALF_SIZE, y, 0));
+            simulation.board.set(row, App.BOARD_SIZE - 1, new Wall(App.WIDTH - Tile.HALF_SIZE, y, 0));
+        }
+        simulation.ballsInQueue.clear();
+        simulation.ballsOnScreen.clear();
+        simulation.levelFrames = Integer.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            Ball ball = new Ball(40 + i * 60, 300, i % 5, null);
+            ball.setVelocity(new PVector(i % 2 == 0 ? 2 : -2, 0));
+            simulation.ballsOnScreen.add(ball);
+        }
+        // Close enough to be looked at every step, too far away to be hit
+        simulation.addLine(Arrays.asList(new PVector(20, 318), new PVector(280, 318), new PVector(556, 318)));
+
+        simulation.step(1000);
+        long overhead = -threads.getThreadAllocatedBytes(threadId) + threads.getThreadAllocatedBytes(threadId);
+        // A per-step allocation shows up in every window; the JVM itself may allocate in one now and then
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < 3 && allocated != 0; window++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            simulation.step(1000);
+            allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+        }
+
+        assertEquals(1, simulation.lines.size());
+        assertEquals(0, allocated);
+    }
+
+    /**
+     * Tests that a fast ball passes through a thin color-restricting wall between two steps,
+     * unless continuous collision detection is on.
+     */
+    @Test
+    public void testContinuousCollision_StopsTunnelling() {
+        simulation.step();
+        simulation.ballsInQueue.clear();
+        simulation.board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        // Vertical wall 10px thick, from x = 299 to x = 309
+        simulation.board.set(9, 9, new ColorRestrictingWall(9 * App.CELL_SIZE + Tile.HALF_SIZE, 9 * App.CELL_SIZE + Tile.HALF_SIZE, 1, true));
+
+        Ball ball = new Ball(268, 9 * App.CELL_SIZE + Tile.HALF_SIZE, 2, null);
+        ball.setVelocity(60, 0);
+        simulation.ballsOnScreen.clear();
+        simulation.ballsOnScreen.add(ball);
+
+        simulation.updateBalls();
+        assertEquals(328, ball.getCenterXPosition(), 0.01, "Without sweeping the ball jumps over the wall");
+
+        ball.setCenterXPosition(268);
+        ball.setVelocity(60, 0);
+        simulation.continuousCollision = true;
+
+        simulation.updateBalls();
+
+        // Stopped at x = 287 with 41px of the move left, which is taken back the other way
+        assertEquals(246, ball.getCenterXPosition(), 0.01);
+        assertEquals(-60, ball.getVelocityX(), 0.001);
+    }
+
+    /**
+     * Tests that balls only bounce off each other on levels that turn ball collisions on.
+     */
+    @Test
+    public void testBallCollisions_PerLevel() {
+        Level first = simulation.levels.get(0);
+        simulation.levels.set(0, new Level(first.getLayout(), first.getTime(), first.getSpawnInterval(),
+            first.getScoreIncreaseModifier(), first.getScoreDecreaseModifier(), first.getBalls(), false, true));
+        simulation.step();
+        assertTrue(simulation.ballCollisions);
+
+        simulation.ballsOnScreen.clear();
+        Ball left = new Ball(200, 464, 1, null);
+        left.setVelocity(2, 0);
+        Ball right = new Ball(220, 464, 1, null);
+        right.setVelocity(-2, 0);
+        simulation.ballsOnScreen.add(left);
+        simulation.ballsOnScreen.add(right);
+
+        simulation.step();
+
+        assertEquals(-2, left.getVelocityX(), 0.001);
+        assertEquals(2, right.getVelocityX(), 0.001);
+
+        simulation.ballCollisions = false;
+        left.setVelocity(2, 0);
+        right.setVelocity(-2, 0);
+        right.setCenterXPosition(left.getCenterXPosition() + 20);
+        simulation.step();
+
+        assertEquals(2, left.getVelocityX(), 0.001);
+    }
+
+    /**
+     * Tests that updating many balls in parallel gives exactly the same balls, score and queue
+     * as updating them one after another.
+     */
+    @Test
+    public void testUpdateBalls_ParallelMatchesSerial() {
+        assertSameBalls(runManyBalls(Integer.MAX_VALUE, false), runManyBalls(0, false));
+    }
+
+    /**
+     * Tests that updating many balls in parallel with continuous collision detection gives
+     * exactly the same balls, score and queue as updating them one after another, even though
+     * a wall can paint a ball after it reached a hole in the same step.
+     */
+    @Test
+    public void testUpdateBalls_ParallelMatchesSerial_ContinuousCollision() {
+        assertSameBalls(runManyBalls(Integer.MAX_VALUE, true), runManyBalls(0, true));
+    }
+
+    /**
+     * Tests that a ball captured during a parallel update is scored by the color it reached the
+     * hole with, as it is one ball at a time, when a wall paints it later in the same step.
+     */
+    @Test
+    public void testUpdateBalls_ParallelScoresCaptureBeforePaint() {
+        Simulation serial = runCaptureThenPaint(Integer.MAX_VALUE);
+        Simulation parallel = runCaptureThenPaint(0);
+
+        assertEquals(0, serial.ballsOnScreen.size());
+        assertTrue(serial.currentScore > 0, "The blue ball went into the blue hole");
+        assertTrue(serial.ballsInQueue.isEmpty());
+        assertEquals(serial.currentScore, parallel.currentScore);
+        assertEquals(new ArrayList<>(serial.ballsInQueue), new ArrayList<>(parallel.ballsInQueue));
+        assertEquals(0, parallel.ballsOnScreen.size());
+    }
+
+    /**
+     * Runs one ball step of a blue ball at the center of a blue hole, moving fast enough to hit
+     * a green wall beside the hole.
+     *
+     * @param parallelBalls The fewest balls to update in parallel.
+     * @return The simulation.
+     */
+    private static Simulation runCaptureThenPaint(int parallelBalls) {
+        Simulation simulation = new Simulation("config.json");
+        simulation.step();
+        simulation.ballsInQueue.clear();
+        simulation.ballsOnScreen.clear();
+        simulation.currentScore = 0;
+        simulation.parallelBalls = parallelBalls;
+        simulation.continuousCollision = true;
+        simulation.board = new Board(App.BOARD_SIZE, App.BOARD_SIZE);
+        Hole hole = new Hole(5 * App.CELL_SIZE + Hole.HALF_SIZE, 5 * App.CELL_SIZE + Hole.HALF_SIZE, 2);
+        for (int row = 5; row <= 6; row++) {
+            simulation.board.set(row, 5, hole);
+            simulation.board.set(row, 6, hole);
+            simulation.board.set(row, 7, Board.wall(3));
+        }
+
+        Ball ball = new Ball(hole.getCenterXPosition(), hole.getCenterYPosition(), 2, null);
+        ball.setVelocity(40, 0);
+        simulation.ballsOnScreen.add(ball);
+        simulation.updateBalls();
+
+        assertEquals(3, ball.getColor(), "The wall should have painted the ball after the capture");
+        return simulation;
+    }
+
+    /**
+     * Asserts that two runs of many balls ended with the same balls, score and queue.
+     *
+     * @param serial   The run updating the balls one after another.
+     * @param parallel The run updating the balls in parallel.
+     */
+    private static void assertSameBalls(Simulation serial, Simulation parallel) {
+        assertTrue(serial.ballsOnScreen.size() < 600, "Some balls should have been captured");
+        assertEquals(serial.currentScore, parallel.currentScore);
+        assertEquals(new ArrayList<>(serial.ballsInQueue), new ArrayList<>(parallel.ballsInQueue));
+        assertEquals(serial.ballsOnScreen.size(), parallel.ballsOnScreen.size());
+        for (int i = 0; i < serial.ballsOnScreen.size(); i++) {
+            Ball expected = serial.ballsOnScreen.get(i);
+            Ball actual = parallel.ballsOnScreen.get(i);
+            assertEquals(expected.getCenterXPosition(), actual.getCenterXPosition());
+            assertEquals(expected.getCenterYPosition(), actual.getCenterYPosition());
+            assertEquals(expected.getVelocityX(), actual.getVelocityX());
+            assertEquals(expected.getVelocityY(), actual.getVelocityY());
+            assertEquals(expected.getColor(), actual.getColor());
+        }
+    }
+
+    /**
+     * Runs the first level with 600 balls in fixed places for 300 ball updates.
+     *
+     * @param parallelBalls       The fewest balls to update in parallel.
+     * @param continuousCollision Whether to sweep the balls along their path.
+     * @return The simulation.
+     */
+    private static Simulation runManyBalls(int parallelBalls, boolean continuousCollision) {
+        Simulation simulation = new Simulation("config.json");
+        simulation.step();
+        simulation.ballsInQueue.clear();
+        simulation.ballsOnScreen.clear();
+        simulation.parallelBalls = parallelBalls;
+        simulation.continuousCollision = continuousCollision;
+        Random random = new Random(7);
+        for (int i = 0; i < 600; i++) {
+            Ball ball = new Ball(40 + random.nextFloat() * 500, 40 + random.nextFloat() * 500, random.nextInt(5), null);
+            ball.setVelocity(random.nextFloat() * 6 - 3, random.nextFloat() * 6 - 3);
+            simulation.ballsOnScreen.add(ball);
+        }
+        for (int i = 0; i < 300; i++) {
+            simulation.updateBalls();
+        }
+        return simulation;
+    }
+
+    /**
+     * Tests that with continuous collision detection a fast ball bounces off a line it would
+     * otherwise jump over.
+     */
+    @Test
+    public void testContinuousCollision_Lines() {
+        simulation.step();
+        Ball ball = simulation.ballsOnScreen.get(0);
+        float x = ball.getCenterXPosition();
+        float y = ball.getCenterYPosition();
+        ball.setVelocity(0, 60);
+        simulation.addLine(Arrays.asList(new PVector(x - 20, y + 40), new PVector(x + 20, y + 40)));
+
+        simulation.updateLines();
+        assertEquals(1, simulation.lines.size());
+
+        simulation.continuousCollision = true;
+        simulation.updateLines();
+
+        assertTrue(simulation.lines.isEmpty());
+        assertEquals(-60, ball.getVelocityY(), 0.001);
+    }
+
+    /**
+     * Tests that a layout can give its own size, and that walls, balls and lines work out to its edges.
+     */
+    @Test
+    public void testLoadLayout_SizeHeader() throws IOException {
+        Path layout = writeBorderedLayout(40, 30);
+        try {
+            simulation.loadLayout(layout.toString());
+        } finally {
+            Files.delete(layout);
+        }
+
+        assertEquals(30, simulation.getRows());
+        assertEquals(40, simulation.getColumns());
+        assertEquals(40 * App.CELL_SIZE, simulation.getBoardWidth());
+        assertTrue(simulation.board.get(29, 39) instanceof Wall);
+        assertTrue(simulation.board.get(1, 1) instanceof Spawner);
+        assertEquals(30, simulation.lineGrid.getRows());
+        assertEquals(40, simulation.lineGrid.getColumns());
+
+        // A ball next to the far right wall bounces off it
+        Ball ball = new Ball(38 * App.CELL_SIZE + 20, 20 * App.CELL_SIZE + 16, 0, null);
+        ball.setVelocity(2, 0);
+        simulation.ballsOnScreen.add(ball);
+        simulation.updateBalls();
+        assertEquals(-2, ball.getVelocityX(), 0.001);
+
+        // Lines far from the first 18x18 cells can be found again
+        simulation.addLine(Arrays.asList(new PVector(1000, 900), new PVector(1100, 900)));
+        simulation.removeLineAt(1050, 900);
+        assertTrue(simulation.lines.isEmpty());
+    }
+
+    /**
+     * Tests that the completion tiles turn at the corners of a board that is not 18x18.
+     */
+    @Test
+    public void testAdvanceCompletionTiles_BoardSize() {
+        simulation.board = new Board(30, 40);
+        simulation.tile1Row = 1;
+        simulation.tile1Column = 0;
+        simulation.xDirection = 0;
+        simulation.yDirection = -1;
+        simulation.levelTime = 1000;
+
+        simulation.advanceCompletionTiles(); // Top left corner
+        for (int i = 0; i < 39; i++) {
+            simulation.advanceCompletionTiles();
+        }
+        assertEquals(0, simulation.tile1Row);
+        assertEquals(39, simulation.tile1Column);
+        assertEquals(29, simulation.getTile2Row());
+        assertEquals(0, simulation.getTile2Column());
+
+        simulation.advanceCompletionTiles();
+        assertEquals(1, simulation.tile1Row);
+        assertEquals(39, simulation.tile1Column);
+    }
+
+    /**
+     * Writes a layout with a size line, a border of grey walls and a spawner in the top left.
+     *
+     * @param columns The number of columns.
+     * @param rows    The number of rows.
+     * @return The layout file.
+     */
+    private static Path writeBorderedLayout(int columns, int rows) throws IOException {
+        StringBuilder layout = new StringBuilder("size " + columns + " " + rows + "\n");
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                boolean border = row == 0 || row == rows - 1 || column == 0 || column == columns - 1;
+                layout.append(border ? 'X' : row == 1 && column == 1 ? 'S' : ' ');
+            }
+            layout.append('\n');
+        }
+        Path file = Files.createTempFile("layout", ".txt");
+        Files.write(file, layout.toString().getBytes());
+        return file;
+    }
+}
@@ -0,0 +1,153 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import processing.core.PVector;
+
+import java.util.Arrays;
+
+/**
+ * Test class for the Snapshot class.
+ */
+public class SnapshotTest {
+
+    /**
+     * Plays the first part of a level with a couple of lines drawn and one being drawn.
+     *
+     * @return The game.
+     */
+    private Simulation playSome() {
+        Simulation simulation = new Simulation("config.json");
+        simulation.setSeed(11);
+        simulation.step(90);
+        simulation.addLine(Arrays.asList(new PVector(100, 300), new PVector(200, 330), new PVector(300, 300)));
+        simulation.step(30);
+        simulation.addLine(Arrays.asList(new PVector(60, 60), new PVector(60, 200)));
+        simulation.addLinePoint(400, 400);
+        simulation.addLinePoint(420, 450);
+        simulation.step(30);
+        return simulation;
+    }
+
+    /**
+     * Checks that two games are in the same state.
+     *
+     * @param expected The first game.
+     * @param actual   The second game.
+     */
+    private static void assertSameGame(Simulation expected, Simulation actual) {
+        assertEquals(expected.stepCount, actual.stepCount);
+        assertEquals(expected.gameState, actual.gameState);
+        assertEquals(expected.currentLevel, actual.currentLevel);
+        assertEquals(expected.currentScore, actual.currentScore);
+        assertEquals(expected.capturedBalls, actual.capturedBalls);
+        assertEquals(expected.levelFrames, actual.levelFrames);
+        assertEquals(expected.spawnFrames, actual.spawnFrames);
+        assertEquals(expected.layout, actual.layout);
+        assertEquals(expected.random.nextLong(), actual.random.nextLong());
+        assertEquals(expected.ballsInQueue.size(), actual.ballsInQueue.size());
+        assertEquals(expected.lines.size(), actual.lines.size());
+        for (int i = 0; i < expected.lines.size(); i++) {
+            assertEquals(expected.lines.get(i).getPoints(), actual.lines.get(i).getPoints());
+        }
+        assertEquals(expected.currentLine.getPoints(), actual.currentLine.getPoints());
+        assertEquals(expected.ballsOnScreen.size(), actual.ballsOnScreen.size());
+        for (int i = 0; i < expected.ballsOnScreen.size(); i++) {
+            Ball a = expected.ballsOnScreen.get(i);
+            Ball b = actual.ballsOnScreen.get(i);
+            assertEquals(a.getCenterXPosition(), b.getCenterXPosition());
+            assertEquals(a.getCenterYPosition(), b.getCenterYPosition());
+            assertEquals(a.getVelocityX(), b.getVelocityX());
+            assertEquals(a.getVelocityY(), b.getVelocityY());
+            assertEquals(a.getColor(), b.getColor());
+        }
+    }
+
+    /**
+     * Tests that a game rewound to a snapshot plays out the same as it did the first time.
+     */
+    @Test
+    public void testRestore_Rewinds() {
+        Simulation simulation = playSome();
+        byte[] snapshot = simulation.saveSnapshot();
+        simulation.step(300);
+        byte[] after = simulation.saveSnapshot();
+        int score = simulation.currentScore;
+        int balls = simulation.ballsOnScreen.size();
+
+        simulation.restoreSnapshot(snapshot);
+        assertEquals(150, simulation.stepCount);
+        simulation.step(300);
+
+        assertEquals(score, simulation.currentScore);
+        assertEquals(balls, simulation.ballsOnScreen.size());
+        assertArrayEquals(after, simulation.saveSnapshot());
+    }
+
+    /**
+     * Tests that a snapshot restored into another game branches off the same state.
+     */
+    @Test
+    public void testRestore_IntoOtherGame() {
+        Simulation original = playSome();
+        Simulation branch = new Simulation("config.json");
+
+        branch.restoreSnapshot(original.saveSnapshot());
+
+        assertEquals(2, branch.lines.size());
+        assertTrue(branch.drawing);
+        assertSameGame(original, branch);
+        original.step(200);
+        branch.step(200);
+        assertSameGame(original, branch);
+    }
+
+    /**
+     * Tests that restoring a snapshot of another level loads that level's layout.
+     */
+    @Test
+    public void testRestore_OtherLevel() {
+        Simulation simulation = playSome();
+        byte[] snapshot = simulation.saveSnapshot();
+        Simulation expected = new Simulation("config.json");
+        expected.restoreSnapshot(snapshot);
+
+        simulation.currentLevel = 2;
+        simulation.levelLoaded = false;
+        simulation.step();
+        assertNotEquals(expected.layout, simulation.layout);
+
+        simulation.restoreSnapshot(snapshot);
+        simulation.step(100);
+        expected.step(100);
+        assertSameGame(expected, simulation);
+    }
+
+    /**
+     * Tests that a snapshot takes the size it reports, a few dozen bytes a ball.
+     */
+    @Test
+    public void testSave_Compact() {
+        Simulation simulation = playSome();
+
+        byte[] snapshot = simulation.saveSnapshot();
+
+        assertEquals(Snapshot.getSize(simulation), snapshot.length);
+        int points = 3 + 2 + simulation.currentLine.size();
+        assertTrue(snapshot.length < 256 + 26 * simulation.ballsOnScreen.size() + simulation.ballsInQueue.size() + 8 * points,
+            "size " + snapshot.length);
+    }
+
+    /**
+     * Tests that bytes that are not a snapshot are rejected.
+     */
+    @Test
+    public void testRestore_RejectsOtherBytes() {
+        Simulation simulation = playSome();
+        byte[] snapshot = simulation.saveSnapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> simulation.restoreSnapshot(new byte[] {1, 2, 3, 4, 5}));
+        assertThrows(IllegalArgumentException.class, () -> simulation.restoreSnapshot(Arrays.copyOf(snapshot, 20)));
+    }
+}
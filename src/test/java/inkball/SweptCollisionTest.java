@@ -0,0 +1,107 @@
+package inkball;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Test class for the SweptCollision class, covering swept circles against boxes and segments.
+ */
+public class SweptCollisionTest {
+
+    private SweptCollision sweep;
+
+    @BeforeEach
+    public void setUp() {
+        sweep = new SweptCollision();
+    }
+
+    /**
+     * Tests a circle moving straight into the side of a box.
+     */
+    @Test
+    public void testCircleAabb_HeadOn() {
+        assertTrue(sweep.circleAabb(0, 50, 10, 100, 0, 50, 40, 60, 60));
+
+        assertEquals(0.4f, sweep.time, 0.001);
+        assertEquals(-1, sweep.normalX, 0.001);
+        assertEquals(0, sweep.normalY, 0.001);
+    }
+
+    /**
+     * Tests a circle moving down onto the top of a box.
+     */
+    @Test
+    public void testCircleAabb_Top() {
+        assertTrue(sweep.circleAabb(55, 0, 10, 0, 100, 50, 40, 60, 60));
+
+        assertEquals(0.3f, sweep.time, 0.001);
+        assertEquals(0, sweep.normalX, 0.001);
+        assertEquals(-1, sweep.normalY, 0.001);
+    }
+
+    /**
+     * Tests that a move that stops short of the box, passes by it or leaves it is not a hit.
+     */
+    @Test
+    public void testCircleAabb_Misses() {
+        assertFalse(sweep.circleAabb(0, 50, 10, 30, 0, 50, 40, 60, 60));
+        assertFalse(sweep.circleAabb(0, 0, 10, 100, 0, 50, 40, 60, 60));
+        assertFalse(sweep.circleAabb(0, 50, 10, -100, 0, 50, 40, 60, 60));
+    }
+
+    /**
+     * Tests that a circle that only passes the corner of the grown box, not the rounded corner, misses.
+     */
+    @Test
+    public void testCircleAabb_RoundedCorner() {
+        // Both cross the square corner region at the top left; only the second comes within 10px of (50, 40)
+        assertFalse(sweep.circleAabb(0, 72, 10, 100, -100, 50, 40, 60, 60));
+        assertTrue(sweep.circleAabb(0, 80, 10, 100, -100, 50, 40, 60, 60));
+    }
+
+    /**
+     * Tests a circle moving into the middle of a segment from either side.
+     */
+    @Test
+    public void testCircleSegment_Middle() {
+        assertTrue(sweep.circleSegment(50, 0, 10, 0, 100, 0, 50, 100, 50));
+        assertEquals(0.4f, sweep.time, 0.001);
+        assertEquals(0, sweep.normalX, 0.001);
+        assertEquals(-1, sweep.normalY, 0.001);
+
+        assertTrue(sweep.circleSegment(50, 100, 10, 0, -100, 0, 50, 100, 50));
+        assertEquals(0.4f, sweep.time, 0.001);
+        assertEquals(1, sweep.normalY, 0.001);
+    }
+
+    /**
+     * Tests a circle catching the end of a segment.
+     */
+    @Test
+    public void testCircleSegment_End() {
+        assertTrue(sweep.circleSegment(105, 0, 10, 0, 100, 0, 50, 100, 50));
+
+        assertTrue(sweep.time > 0.4f && sweep.time < 0.5f);
+        assertTrue(sweep.normalX > 0);
+    }
+
+    /**
+     * Tests that moving past, short of or away from a segment is not a hit.
+     */
+    @Test
+    public void testCircleSegment_Misses() {
+        assertFalse(sweep.circleSegment(150, 0, 10, 0, 100, 0, 50, 100, 50));
+        assertFalse(sweep.circleSegment(50, 0, 10, 0, 30, 0, 50, 100, 50));
+        assertFalse(sweep.circleSegment(50, 45, 10, 0, -100, 0, 50, 100, 50));
+    }
+
+    /**
+     * Tests that a circle already touching a segment and moving into it hits straight away.
+     */
+    @Test
+    public void testCircleSegment_AlreadyTouching() {
+        assertTrue(sweep.circleSegment(50, 45, 10, 0, 10, 0, 50, 100, 50));
+
+        assertEquals(0, sweep.time, 0.001);
+    }
+}
@@ -26,8 +26,8 @@ public class WallTest {
 
     @BeforeEach
     public void setUp() {
-        // Initialize a wall at position (100, 100) with color 1
-        wall = new Wall(100, 100, 1);
+        // Initialize a wall with color 1 in the cell at row 2, column 2, from (64, 64) to (96, 96)
+        wall = new Wall(80, 80, 1);
         // Initialize a ball at position (90, 90) with color 2
         ball = new Ball(90, 90, 2, null);
     }
@@ -37,7 +37,7 @@ public class WallTest {
      */
     @Test
     public void testCollidesWithBall_Collision() {
-        boolean collides = wall.collidesWithBall(ball);
+        boolean collides = wall.collidesWithBall(ball, 2, 2);
         assertTrue(collides);
     }
 
@@ -48,7 +48,7 @@ public class WallTest {
     public void testCollidesWithBall_NoCollision() {
         ball.setCenterXPosition(200);
         ball.setCenterYPosition(200);
-        boolean collides = wall.collidesWithBall(ball);
+        boolean collides = wall.collidesWithBall(ball, 2, 2);
         assertFalse(collides);
     }
 
@@ -57,7 +57,7 @@ public class WallTest {
      */
     @Test
     public void testHandleCollision_ColorChange() {
-        wall.handleCollision(ball);
+        wall.handleCollision(ball, 2, 2);
         assertEquals(wall.getColor(), ball.getColor());
     }
 
@@ -67,7 +67,7 @@ public class WallTest {
     @Test
     public void testHandleCollision_VelocityReflection() {
         ball.setVelocity(new PVector(2, 2));
-        wall.handleCollision(ball);
+        wall.handleCollision(ball, 2, 2);
 
         // Depending on overlap, one of the velocities should be reversed
         assertTrue(ball.getVelocity().x == -2 || ball.getVelocity().y == -2);